@@ -0,0 +1,136 @@
+package uk.co.thomaspickup.spacewars.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import uk.co.thomaspickup.spacewars.gage.util.BoundingBox;
+import uk.co.thomaspickup.spacewars.gage.util.BoundingVolumeHierarchy;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector;
+import uk.co.thomaspickup.spacewars.gage.world.GameObject;
+
+/**
+ * Tests that the bounding volume hierarchy finds exactly the objects
+ * overlapping a bound, however the objects are laid out.
+ *
+ * Created by Thomas Pickup.
+ */
+public class BoundingVolumeHierarchyTest {
+    private static final long SEED = 1234L;
+
+    /**
+     * Tests queries of objects spread evenly.
+     */
+    @Test
+    public void testQuerySpreadObjects() {
+        Random random = new Random(SEED);
+        List<GameObject> objects = new ArrayList<>();
+        for (int idx = 0; idx < 500; idx++) {
+            objects.add(createObject(random.nextFloat() * 1000.0f,
+                    random.nextFloat() * 1000.0f, random.nextFloat() * 80.0f + 5.0f));
+        }
+        checkQueries(random, objects);
+    }
+
+    /**
+     * Tests queries of objects gathered into a tight cluster.
+     */
+    @Test
+    public void testQueryClusteredObjects() {
+        Random random = new Random(SEED);
+        List<GameObject> objects = new ArrayList<>();
+        for (int idx = 0; idx < 300; idx++) {
+            objects.add(createObject(500.0f + (float) random.nextGaussian() * 30.0f,
+                    500.0f + (float) random.nextGaussian() * 30.0f, random.nextFloat() * 40.0f + 5.0f));
+        }
+        checkQueries(random, objects);
+    }
+
+    /**
+     * Tests queries of objects that share a position or lie along a line,
+     * so that the tree cannot split them by position.
+     */
+    @Test
+    public void testQueryDegenerateObjects() {
+        Random random = new Random(SEED);
+        List<GameObject> objects = new ArrayList<>();
+        for (int idx = 0; idx < 100; idx++) {
+            objects.add(createObject(random.nextFloat() * 1000.0f, 100.0f, 20.0f));
+            objects.add(createObject(300.0f, 300.0f, 20.0f));
+        }
+        checkQueries(random, objects);
+    }
+
+    /**
+     * Tests that an empty tree finds nothing, and that building the tree
+     * again, or clearing it, replaces the objects it held.
+     */
+    @Test
+    public void testRebuildAndClear() {
+        BoundingVolumeHierarchy<GameObject> tree = new BoundingVolumeHierarchy<>();
+        List<GameObject> results = new ArrayList<>();
+        BoundingBox everywhere = new BoundingBox(0.0f, 0.0f, 10000.0f, 10000.0f);
+
+        // Expected: Nothing found in an empty tree
+        tree.build(new ArrayList<GameObject>());
+        tree.query(everywhere, results);
+        Assert.assertEquals(0, tree.size());
+        Assert.assertTrue(results.isEmpty());
+
+        List<GameObject> first = new ArrayList<>();
+        first.add(createObject(0.0f, 0.0f, 10.0f));
+        first.add(createObject(100.0f, 0.0f, 10.0f));
+        tree.build(first);
+
+        List<GameObject> second = new ArrayList<>();
+        second.add(createObject(50.0f, 50.0f, 10.0f));
+        tree.build(second);
+
+        // Expected: Only the objects of the latest build
+        tree.query(everywhere, results);
+        Assert.assertEquals(1, tree.size());
+        Assert.assertEquals(second, results);
+
+        // Expected: Nothing once cleared
+        tree.clear();
+        tree.query(everywhere, results);
+        Assert.assertEquals(0, tree.size());
+        Assert.assertTrue(results.isEmpty());
+    }
+
+    /**
+     * Checks random queries against testing every object
+     */
+    private void checkQueries(Random random, List<GameObject> objects) {
+        BoundingVolumeHierarchy<GameObject> tree = new BoundingVolumeHierarchy<>();
+        tree.build(objects);
+        Assert.assertEquals(objects.size(), tree.size());
+
+        List<GameObject> results = new ArrayList<>();
+        for (int query = 0; query < 200; query++) {
+            BoundingBox bound = new BoundingBox(random.nextFloat() * 1000.0f,
+                    random.nextFloat() * 1000.0f, random.nextFloat() * 150.0f + 1.0f,
+                    random.nextFloat() * 150.0f + 1.0f);
+            tree.query(bound, results);
+
+            Set<GameObject> expected = new HashSet<>();
+            for (GameObject object : objects) {
+                if (CollisionDetector.isCollision(object.getCollisionBound(), bound))
+                    expected.add(object);
+            }
+
+            // Expected: Exactly the overlapping objects, each found once
+            Assert.assertEquals(expected.size(), results.size());
+            Assert.assertEquals(expected, new HashSet<>(results));
+        }
+    }
+
+    private GameObject createObject(float x, float y, float size) {
+        return new GameObject(x, y, size, size, null, null);
+    }
+}
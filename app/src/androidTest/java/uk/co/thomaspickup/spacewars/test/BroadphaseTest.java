@@ -0,0 +1,201 @@
+package uk.co.thomaspickup.spacewars.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import uk.co.thomaspickup.spacewars.gage.util.BoundingBox;
+import uk.co.thomaspickup.spacewars.gage.util.GridBroadphase;
+import uk.co.thomaspickup.spacewars.gage.util.IBroadphase;
+import uk.co.thomaspickup.spacewars.gage.util.SweepAndPruneBroadphase;
+import uk.co.thomaspickup.spacewars.gage.world.GameObject;
+
+/**
+ * Tests that the grid and sweep and prune broadphases find exactly the pairs
+ * and objects whose bounds overlap, as testing every pair would.
+ *
+ * Created by Thomas Pickup.
+ */
+public class BroadphaseTest {
+    private static final long SEED = 1234L;
+    private static final float CELL_SIZE = 50.0f;
+
+    /**
+     * Tests the pairs found by the grid broadphase.
+     */
+    @Test
+    public void testGridFindPairs() {
+        checkFindPairs(new GridBroadphase<GameObject>(CELL_SIZE));
+    }
+
+    /**
+     * Tests the pairs found by the sweep and prune broadphase.
+     */
+    @Test
+    public void testSweepAndPruneFindPairs() {
+        checkFindPairs(new SweepAndPruneBroadphase<GameObject>());
+    }
+
+    /**
+     * Tests the objects found by a grid broadphase query.
+     */
+    @Test
+    public void testGridQuery() {
+        checkQuery(new GridBroadphase<GameObject>(CELL_SIZE));
+    }
+
+    /**
+     * Tests the objects found by a sweep and prune broadphase query.
+     */
+    @Test
+    public void testSweepAndPruneQuery() {
+        checkQuery(new SweepAndPruneBroadphase<GameObject>());
+    }
+
+    /**
+     * Tests that objects no longer in the list are no longer found, and that
+     * clearing a broadphase empties it.
+     */
+    @Test
+    public void testShrinkAndClear() {
+        List<IBroadphase<GameObject>> broadphases = new ArrayList<>();
+        broadphases.add(new GridBroadphase<GameObject>(CELL_SIZE));
+        broadphases.add(new SweepAndPruneBroadphase<GameObject>());
+
+        for (IBroadphase<GameObject> broadphase : broadphases) {
+            List<GameObject> objects = new ArrayList<>();
+            objects.add(new GameObject(0.0f, 0.0f, 20.0f, 20.0f, null, null));
+            objects.add(new GameObject(10.0f, 0.0f, 20.0f, 20.0f, null, null));
+            objects.add(new GameObject(500.0f, 0.0f, 20.0f, 20.0f, null, null));
+            List<GameObject> pairs = new ArrayList<>();
+
+            // Expected: The two overlapping objects
+            broadphase.update(objects);
+            broadphase.findPairs(pairs);
+            Assert.assertEquals(3, broadphase.size());
+            Assert.assertEquals(toPairSet(objects, pairs), toPairSet(objects, bruteForcePairs(objects)));
+            Assert.assertEquals(2, pairs.size());
+
+            // Expected: No pairs once one of them has gone
+            objects.remove(1);
+            broadphase.update(objects);
+            broadphase.findPairs(pairs);
+            Assert.assertEquals(2, broadphase.size());
+            Assert.assertTrue(pairs.isEmpty());
+
+            // Expected: Nothing held once cleared
+            broadphase.clear();
+            broadphase.findPairs(pairs);
+            Assert.assertEquals(0, broadphase.size());
+            Assert.assertTrue(pairs.isEmpty());
+        }
+    }
+
+    /**
+     * Checks the pairs found over several ticks of moving objects, some of
+     * them covering many cells and some at negative coordinates.
+     */
+    private void checkFindPairs(IBroadphase<GameObject> broadphase) {
+        Random random = new Random(SEED);
+        List<GameObject> objects = createObjects(random, 300);
+        List<GameObject> pairs = new ArrayList<>();
+
+        for (int tick = 0; tick < 20; tick++) {
+            broadphase.update(objects);
+            broadphase.findPairs(pairs);
+
+            // Expected: Exactly the overlapping pairs, each reported once
+            Set<String> found = toPairSet(objects, pairs);
+            Assert.assertEquals(pairs.size() / 2, found.size());
+            Assert.assertEquals(toPairSet(objects, bruteForcePairs(objects)), found);
+
+            moveObjects(random, objects);
+        }
+    }
+
+    /**
+     * Checks the objects found by querying bounds of many sizes.
+     */
+    private void checkQuery(IBroadphase<GameObject> broadphase) {
+        Random random = new Random(SEED);
+        List<GameObject> objects = createObjects(random, 300);
+        List<GameObject> results = new ArrayList<>();
+        broadphase.update(objects);
+
+        for (int idx = 0; idx < 100; idx++) {
+            BoundingBox bound = new BoundingBox(random.nextFloat() * 1200.0f - 600.0f,
+                    random.nextFloat() * 1200.0f - 600.0f,
+                    random.nextFloat() * 150.0f + 1.0f, random.nextFloat() * 150.0f + 1.0f);
+            broadphase.query(bound, results);
+
+            // Expected: Exactly the overlapping objects, each reported once
+            Set<GameObject> expected = new HashSet<>();
+            for (GameObject object : objects) {
+                if (overlaps(object.getCollisionBound(), bound))
+                    expected.add(object);
+            }
+            Assert.assertEquals(expected.size(), results.size());
+            Assert.assertEquals(expected, new HashSet<>(results));
+        }
+    }
+
+    /**
+     * Creates objects spread around the origin, a few of them large
+     */
+    private List<GameObject> createObjects(Random random, int count) {
+        List<GameObject> objects = new ArrayList<>();
+        for (int idx = 0; idx < count; idx++) {
+            float size = idx % 20 == 0 ? 200.0f : random.nextFloat() * 40.0f + 5.0f;
+            objects.add(new GameObject(random.nextFloat() * 1000.0f - 500.0f,
+                    random.nextFloat() * 1000.0f - 500.0f, size, size, null, null));
+        }
+        return objects;
+    }
+
+    /**
+     * Moves each object a short way, as happens between ticks
+     */
+    private void moveObjects(Random random, List<GameObject> objects) {
+        for (GameObject object : objects) {
+            object.position.x += random.nextFloat() * 20.0f - 10.0f;
+            object.position.y += random.nextFloat() * 20.0f - 10.0f;
+        }
+    }
+
+    private List<GameObject> bruteForcePairs(List<GameObject> objects) {
+        List<GameObject> pairs = new ArrayList<>();
+        for (int one = 0; one < objects.size(); one++) {
+            for (int two = one + 1; two < objects.size(); two++) {
+                if (overlaps(objects.get(one).getCollisionBound(), objects.get(two).getCollisionBound())) {
+                    pairs.add(objects.get(one));
+                    pairs.add(objects.get(two));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private boolean overlaps(BoundingBox one, BoundingBox two) {
+        return one.getLeft() < two.getRight() && one.getRight() > two.getLeft()
+                && one.getBottom() < two.getTop() && one.getTop() > two.getBottom();
+    }
+
+    /**
+     * Turns a list of pairs into a set of the indices of the objects of each
+     * pair, lowest first, so pairs found in any order compare equal
+     */
+    private Set<String> toPairSet(List<GameObject> objects, List<GameObject> pairs) {
+        Set<String> pairSet = new HashSet<>();
+        for (int idx = 0; idx < pairs.size(); idx += 2) {
+            int one = objects.indexOf(pairs.get(idx));
+            int two = objects.indexOf(pairs.get(idx + 1));
+            pairSet.add(Math.min(one, two) + "-" + Math.max(one, two));
+        }
+        return pairSet;
+    }
+}
@@ -0,0 +1,258 @@
+package uk.co.thomaspickup.spacewars.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+import uk.co.thomaspickup.spacewars.gage.util.BoundingBox;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector.CollisionShape;
+import uk.co.thomaspickup.spacewars.gage.util.Contact;
+import uk.co.thomaspickup.spacewars.gage.util.OrientedBoundingBox;
+import uk.co.thomaspickup.spacewars.gage.world.Sprite;
+
+/**
+ * Tests the collision detector, including the contacts found between shapes
+ * and collisions found along the path of a moving box.
+ *
+ * Created by Thomas Pickup.
+ */
+public class CollisionDetectorTest {
+    private static final long SEED = 1234L;
+
+    /**
+     * Number of positions along a movement tested when checking a time of
+     * impact by stepping the box along its path
+     */
+    private static final int STEPS = 2000;
+
+    /**
+     * Tests the contact between a turned box and a circle beside one of its
+     * corners, and between circles with the same centre.
+     */
+    @Test
+    public void testContactCornerAndConcentric() {
+        // A 45 degree box reaches sqrt(2) * 10 along the x-axis
+        Sprite box = createSprite(0.0f, 0.0f, 20.0f, CollisionShape.OrientedBox, 45.0f);
+        Sprite circle = createSprite(16.0f, 0.0f, 4.0f, CollisionShape.Circle, 0.0f);
+        Contact contact = new Contact();
+
+        // Expected: Pushed straight out along the x-axis, from box to circle
+        Assert.assertTrue(CollisionDetector.getContact(box, circle, contact));
+        Assert.assertEquals(1.0f, contact.normalX, 0.001f);
+        Assert.assertEquals(0.0f, contact.normalY, 0.001f);
+        Assert.assertEquals(2.0f + 10.0f * (float) Math.sqrt(2.0) - 16.0f, contact.depth, 0.01f);
+
+        // Expected: The same contact turned around from circle to box
+        Assert.assertTrue(CollisionDetector.getContact(circle, box, contact));
+        Assert.assertEquals(-1.0f, contact.normalX, 0.001f);
+        Assert.assertEquals(0.0f, contact.normalY, 0.001f);
+
+        // Expected: Circles with the same centre are pushed apart along x
+        Sprite other = createSprite(16.0f, 0.0f, 6.0f, CollisionShape.Circle, 0.0f);
+        Assert.assertTrue(CollisionDetector.getContact(circle, other, contact));
+        Assert.assertEquals(1.0f, contact.normalX, 0.0f);
+        Assert.assertEquals(5.0f, contact.depth, 0.0001f);
+    }
+
+    /**
+     * Tests that the contact found between every pair of shapes is the
+     * shortest push apart: pushing the second shape along the normal by the
+     * depth separates them, whilst pushing it any less does not.
+     */
+    @Test
+    public void testContactIsShortestPush() {
+        Random random = new Random(SEED);
+        CollisionShape[] shapes = CollisionShape.values();
+        Contact contact = new Contact();
+        int contacts = 0;
+
+        for (int trial = 0; trial < 5000; trial++) {
+            Sprite one = createSprite(random.nextFloat() * 60.0f - 30.0f, random.nextFloat() * 60.0f - 30.0f,
+                    random.nextFloat() * 40.0f + 4.0f, shapes[trial % shapes.length],
+                    random.nextFloat() * 360.0f);
+            Sprite two = createSprite(random.nextFloat() * 60.0f - 30.0f, random.nextFloat() * 60.0f - 30.0f,
+                    random.nextFloat() * 40.0f + 4.0f, shapes[(trial / shapes.length) % shapes.length],
+                    random.nextFloat() * 360.0f);
+
+            // Expected: A contact exactly when the shapes are in collision
+            boolean colliding = CollisionDetector.isCollision(one, two);
+            Assert.assertEquals(colliding, CollisionDetector.getContact(one, two, contact));
+            if (!colliding)
+                continue;
+            contacts++;
+
+            // Expected: A unit normal and a positive depth
+            Assert.assertEquals(1.0f, contact.normalX * contact.normalX
+                    + contact.normalY * contact.normalY, 0.001f);
+            Assert.assertTrue(contact.depth > 0.0f);
+
+            float startX = two.position.x;
+            float startY = two.position.y;
+            float push = contact.depth * 1.001f + 0.01f;
+            two.position.set(startX + contact.normalX * push, startY + contact.normalY * push);
+            Assert.assertFalse(CollisionDetector.isCollision(one, two));
+
+            if (contact.depth > 0.1f) {
+                push = contact.depth * 0.9f;
+                two.position.set(startX + contact.normalX * push, startY + contact.normalY * push);
+                Assert.assertTrue(CollisionDetector.isCollision(one, two));
+            }
+        }
+
+        // Expected: Enough of the pairs collide to have been tested
+        Assert.assertTrue(contacts > 1000);
+    }
+
+    /**
+     * Tests that a laser moving far enough in one step to skip past a ship is
+     * still found to hit it.
+     */
+    @Test
+    public void testTunnellingLaserHitsShip() {
+        BoundingBox laser = new BoundingBox(0.0f, 0.0f, 4.5f, 1.5f);
+        BoundingBox ship = new BoundingBox(50.0f, 0.0f, 20.0f, 20.0f);
+        BoundingBox laserAfterStep = new BoundingBox(100.0f, 0.0f, 4.5f, 1.5f);
+
+        // Expected: The laser overlaps the ship neither before nor after the step
+        Assert.assertFalse(CollisionDetector.isCollision(laser, ship));
+        Assert.assertFalse(CollisionDetector.isCollision(laserAfterStep, ship));
+
+        // Expected: Hits once the front of the laser reaches the ship
+        float timeOfImpact = CollisionDetector.sweptTimeOfImpact(laser, 100.0f, 0.0f, ship);
+        Assert.assertEquals((50.0f - 20.0f - 4.5f) / 100.0f, timeOfImpact, 0.0001f);
+
+        // Expected: The same as oriented boxes, with the ship turned
+        OrientedBoundingBox orientedLaser = new OrientedBoundingBox(0.0f, 0.0f, 4.5f, 1.5f, 0.0f);
+        OrientedBoundingBox orientedShip = new OrientedBoundingBox(50.0f, 0.0f, 20.0f, 20.0f, 45.0f);
+        float orientedTimeOfImpact = CollisionDetector.sweptTimeOfImpact(orientedLaser,
+                100.0f, 0.0f, orientedShip);
+        float reach = 4.5f + 20.0f * (float) Math.sqrt(2.0);
+        Assert.assertEquals((50.0f - reach) / 100.0f, orientedTimeOfImpact, 0.001f);
+    }
+
+    /**
+     * Tests that movements passing by, away from or short of the target
+     * never hit it, and that boxes overlapping from the start hit at once.
+     */
+    @Test
+    public void testSweptMisses() {
+        BoundingBox moving = new BoundingBox(0.0f, 0.0f, 5.0f, 5.0f);
+        BoundingBox target = new BoundingBox(50.0f, 0.0f, 10.0f, 10.0f);
+
+        // Expected: Passes above, moves away and stops short
+        Assert.assertEquals(-1.0f, CollisionDetector.sweptTimeOfImpact(
+                new BoundingBox(0.0f, 30.0f, 5.0f, 5.0f), 100.0f, 0.0f, target), 0.0f);
+        Assert.assertEquals(-1.0f, CollisionDetector.sweptTimeOfImpact(moving, -100.0f, 0.0f, target), 0.0f);
+        Assert.assertEquals(-1.0f, CollisionDetector.sweptTimeOfImpact(moving, 20.0f, 0.0f, target), 0.0f);
+        Assert.assertEquals(-1.0f, CollisionDetector.sweptTimeOfImpact(moving, 0.0f, 0.0f, target), 0.0f);
+
+        // Expected: Overlapping from the start, even when not moving
+        BoundingBox overlapping = new BoundingBox(45.0f, 0.0f, 5.0f, 5.0f);
+        Assert.assertEquals(0.0f, CollisionDetector.sweptTimeOfImpact(overlapping, 100.0f, 0.0f, target), 0.0f);
+        Assert.assertEquals(0.0f, CollisionDetector.sweptTimeOfImpact(overlapping, 0.0f, 0.0f, target), 0.0f);
+    }
+
+    /**
+     * Tests the time of impact of bounding boxes against stepping the moving
+     * box along its path.
+     */
+    @Test
+    public void testSweptBoxesMatchStepping() {
+        Random random = new Random(SEED);
+        for (int trial = 0; trial < 2000; trial++) {
+            BoundingBox moving = new BoundingBox(random.nextFloat() * 200.0f - 100.0f,
+                    random.nextFloat() * 200.0f - 100.0f, random.nextFloat() * 10.0f + 1.0f,
+                    random.nextFloat() * 10.0f + 1.0f);
+            BoundingBox target = new BoundingBox(random.nextFloat() * 100.0f - 50.0f,
+                    random.nextFloat() * 100.0f - 50.0f, random.nextFloat() * 30.0f + 1.0f,
+                    random.nextFloat() * 30.0f + 1.0f);
+            float dx = random.nextFloat() * 300.0f - 150.0f;
+            float dy = random.nextFloat() * 300.0f - 150.0f;
+
+            float timeOfImpact = CollisionDetector.sweptTimeOfImpact(moving, dx, dy, target);
+            BoundingBox end = new BoundingBox(moving.x + dx, moving.y + dy,
+                    moving.halfWidth, moving.halfHeight);
+            float reverseTimeOfImpact = CollisionDetector.sweptTimeOfImpact(end, -dx, -dy, target);
+            BoundingBox stepped = new BoundingBox(0.0f, 0.0f, moving.halfWidth, moving.halfHeight);
+            float firstHit = -1.0f;
+            for (int step = 0; step <= STEPS && firstHit < 0.0f; step++) {
+                float fraction = step / (float) STEPS;
+                stepped.x = moving.x + dx * fraction;
+                stepped.y = moving.y + dy * fraction;
+                if (CollisionDetector.isCollision(stepped, target))
+                    firstHit = fraction;
+            }
+            checkTimeOfImpact(firstHit, timeOfImpact, reverseTimeOfImpact);
+        }
+    }
+
+    /**
+     * Tests the time of impact of oriented boxes against stepping the moving
+     * box along its path.
+     */
+    @Test
+    public void testSweptOrientedBoxesMatchStepping() {
+        Random random = new Random(SEED);
+        for (int trial = 0; trial < 2000; trial++) {
+            OrientedBoundingBox moving = new OrientedBoundingBox(random.nextFloat() * 200.0f - 100.0f,
+                    random.nextFloat() * 200.0f - 100.0f, random.nextFloat() * 10.0f + 1.0f,
+                    random.nextFloat() * 10.0f + 1.0f, random.nextFloat() * 360.0f);
+            OrientedBoundingBox target = new OrientedBoundingBox(random.nextFloat() * 100.0f - 50.0f,
+                    random.nextFloat() * 100.0f - 50.0f, random.nextFloat() * 30.0f + 1.0f,
+                    random.nextFloat() * 30.0f + 1.0f, random.nextFloat() * 360.0f);
+            float dx = random.nextFloat() * 300.0f - 150.0f;
+            float dy = random.nextFloat() * 300.0f - 150.0f;
+
+            float timeOfImpact = CollisionDetector.sweptTimeOfImpact(moving, dx, dy, target);
+            OrientedBoundingBox end = new OrientedBoundingBox(moving.x + dx, moving.y + dy,
+                    moving.halfWidth, moving.halfHeight, 0.0f);
+            end.axisX = moving.axisX;
+            end.axisY = moving.axisY;
+            float reverseTimeOfImpact = CollisionDetector.sweptTimeOfImpact(end, -dx, -dy, target);
+            OrientedBoundingBox stepped = new OrientedBoundingBox(0.0f, 0.0f,
+                    moving.halfWidth, moving.halfHeight, 0.0f);
+            stepped.axisX = moving.axisX;
+            stepped.axisY = moving.axisY;
+            float firstHit = -1.0f;
+            for (int step = 0; step <= STEPS && firstHit < 0.0f; step++) {
+                float fraction = step / (float) STEPS;
+                stepped.x = moving.x + dx * fraction;
+                stepped.y = moving.y + dy * fraction;
+                if (CollisionDetector.isCollision(stepped, target))
+                    firstHit = fraction;
+            }
+            checkTimeOfImpact(firstHit, timeOfImpact, reverseTimeOfImpact);
+        }
+    }
+
+    /**
+     * Checks a time of impact against the first step found to collide. The
+     * time of impact of the reverse movement gives when the boxes stop
+     * overlapping, so a hit no step caught must be too brief for the steps.
+     */
+    private void checkTimeOfImpact(float firstHit, float timeOfImpact, float reverseTimeOfImpact) {
+        float stepSize = 1.0f / STEPS;
+        if (firstHit < 0.0f) {
+            // Expected: A miss, or a graze shorter than a step
+            if (timeOfImpact >= 0.0f) {
+                Assert.assertTrue(reverseTimeOfImpact >= 0.0f);
+                Assert.assertTrue((1.0f - reverseTimeOfImpact) - timeOfImpact <= stepSize + 0.0001f);
+            }
+        } else {
+            // Expected: A hit no later than the first step found to collide
+            Assert.assertTrue(timeOfImpact >= 0.0f);
+            Assert.assertTrue(timeOfImpact <= firstHit + 0.0001f);
+            Assert.assertTrue(firstHit - timeOfImpact <= stepSize + 0.0001f);
+        }
+    }
+
+    private Sprite createSprite(float x, float y, float size, CollisionShape shape,
+                                float orientation) {
+        Sprite sprite = new Sprite(x, y, size, size, null, null);
+        sprite.setCollisionShape(shape);
+        sprite.orientation = orientation;
+        return sprite;
+    }
+}
@@ -0,0 +1,143 @@
+package uk.co.thomaspickup.spacewars.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector.CollisionShape;
+import uk.co.thomaspickup.spacewars.gage.util.Contact;
+import uk.co.thomaspickup.spacewars.gage.util.ContactSolver;
+import uk.co.thomaspickup.spacewars.gage.world.GameObject;
+import uk.co.thomaspickup.spacewars.gage.world.Sprite;
+
+/**
+ * Tests that the contact solver pushes objects in collision apart, sharing
+ * the push by inverse mass and settling within its iterations.
+ *
+ * Created by Thomas Pickup.
+ */
+public class ContactSolverTest {
+    private ContactSolver solver = new ContactSolver();
+    private Contact contact = new Contact();
+
+    /**
+     * Tests that a ship wedged between two asteroids, too close together for
+     * it to fit between, is pushed out of the gap and settles against both
+     * within the solver's passes.
+     */
+    @Test
+    public void testShipWedgedBetweenAsteroidsSettles() {
+        Sprite ship = createShip(0.0f, 5.0f, 30.0f);
+        Sprite leftAsteroid = createAsteroid(-45.0f, 0.0f, 60.0f);
+        Sprite rightAsteroid = createAsteroid(45.0f, 0.0f, 60.0f);
+        solver.add(ship, leftAsteroid);
+        solver.add(ship, rightAsteroid);
+
+        solver.solve();
+
+        // Expected: Settled, with a pass to spare that found every contact resting
+        Assert.assertTrue(solver.getIterationsRun() < ContactSolver.DEFAULT_ITERATIONS);
+        assertResting(ship, leftAsteroid);
+        assertResting(ship, rightAsteroid);
+
+        // Expected: The asteroids never move, and the ship leaves the gap upwards
+        Assert.assertEquals(-45.0f, leftAsteroid.position.x, 0.0f);
+        Assert.assertEquals(45.0f, rightAsteroid.position.x, 0.0f);
+        Assert.assertTrue(ship.position.y > 5.0f);
+    }
+
+    /**
+     * Tests that a ship pressed between an asteroid and another ship is
+     * pushed out of both, with the other ship sharing the push. Each pass
+     * pushes the ship back into the asteroid by half of what is left of the
+     * overlap between the ships, so the contacts are left close to resting
+     * rather than resting.
+     */
+    @Test
+    public void testShipPressedBetweenAsteroidAndShipSettles() {
+        Sprite asteroid = createAsteroid(0.0f, 0.0f, 60.0f);
+        Sprite ship = createShip(45.0f, 0.0f, 0.0f);
+        Sprite otherShip = createShip(75.0f, 0.0f, 0.0f);
+        solver.add(ship, asteroid);
+        solver.add(ship, otherShip);
+
+        solver.solve();
+
+        // Expected: Both contacts left within a unit of resting, with only
+        // the ships moved
+        Assert.assertEquals(ContactSolver.DEFAULT_ITERATIONS, solver.getIterationsRun());
+        assertNearlyResting(ship, asteroid);
+        assertNearlyResting(ship, otherShip);
+        Assert.assertEquals(0.0f, asteroid.position.x, 0.0f);
+        Assert.assertTrue(otherShip.position.x > 75.0f);
+    }
+
+    /**
+     * Tests that the push is shared by inverse mass, and that contacts
+     * within the slop, or between objects that never move, are left alone.
+     */
+    @Test
+    public void testPushSharedByInverseMass() {
+        // Boxes 40 wide overlapping by 30 along the x-axis
+        Sprite one = createShip(0.0f, 0.0f, 0.0f);
+        Sprite two = createShip(10.0f, 0.0f, 0.0f);
+        two.setCollisionShape(CollisionShape.Box);
+        one.setCollisionShape(CollisionShape.Box);
+        two.setInverseMass(3.0f);
+        solver.add(one, two);
+
+        solver.solve();
+
+        // Expected: The push of 30 less the slop, split 1:3
+        float push = 30.0f - ContactSolver.DEFAULT_SLOP;
+        Assert.assertEquals(-push * 0.25f, one.position.x, 0.001f);
+        Assert.assertEquals(10.0f + push * 0.75f, two.position.x, 0.001f);
+
+        // Expected: A resting contact, and a contact between objects that
+        // never move, are not pushed
+        solver.clear();
+        Assert.assertEquals(0, solver.size());
+        Sprite resting = createShip(one.position.x + 40.0f - ContactSolver.DEFAULT_SLOP * 0.5f, 0.0f, 0.0f);
+        resting.setCollisionShape(CollisionShape.Box);
+        Sprite asteroid = createAsteroid(0.0f, 100.0f, 60.0f);
+        Sprite otherAsteroid = createAsteroid(10.0f, 100.0f, 60.0f);
+        float restingX = resting.position.x;
+        solver.add(one, resting);
+        solver.add(asteroid, otherAsteroid);
+        solver.solve();
+        Assert.assertEquals(1, solver.getIterationsRun());
+        Assert.assertEquals(restingX, resting.position.x, 0.0f);
+        Assert.assertEquals(10.0f, otherAsteroid.position.x, 0.0f);
+    }
+
+    /**
+     * Asserts that two objects are apart, or overlap by no more than the slop
+     */
+    private void assertResting(GameObject one, GameObject two) {
+        if (CollisionDetector.getContact(one, two, contact))
+            Assert.assertTrue(solver.isResting(contact));
+    }
+
+    /**
+     * Asserts that two objects are apart, or overlap by less than a unit
+     * more than the slop
+     */
+    private void assertNearlyResting(GameObject one, GameObject two) {
+        if (CollisionDetector.getContact(one, two, contact))
+            Assert.assertTrue(contact.depth < ContactSolver.DEFAULT_SLOP + 1.0f);
+    }
+
+    private Sprite createShip(float x, float y, float orientation) {
+        Sprite ship = new Sprite(x, y, 40.0f, 40.0f, null, null);
+        ship.setCollisionShape(CollisionShape.OrientedBox);
+        ship.orientation = orientation;
+        return ship;
+    }
+
+    private Sprite createAsteroid(float x, float y, float size) {
+        Sprite asteroid = new Sprite(x, y, size, size, null, null);
+        asteroid.setCollisionShape(CollisionShape.Circle);
+        asteroid.setInverseMass(0.0f);
+        return asteroid;
+    }
+}
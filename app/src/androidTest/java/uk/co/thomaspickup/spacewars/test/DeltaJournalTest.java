@@ -0,0 +1,190 @@
+package uk.co.thomaspickup.spacewars.test;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import uk.co.thomaspickup.spacewars.gage.engine.io.DeltaJournal;
+import uk.co.thomaspickup.spacewars.gage.engine.io.FileIO;
+
+import static android.support.test.InstrumentationRegistry.getTargetContext;
+
+/**
+ * Tests that the delta journal recovers the last complete checkpoint when the
+ * journal has been torn, corrupted or left over from an older base.
+ *
+ * Created by Thomas Pickup.
+ */
+public class DeltaJournalTest {
+    private static final String BASE_FILE = "delta_journal_test_base";
+    private static final String JOURNAL_FILE = "delta_journal_test_journal";
+
+    // Small blocks and compaction after two deltas, so the journal is
+    // compacted within a few checkpoints
+    private static final int BLOCK_SIZE = 4;
+    private static final int COMPACT_AFTER = 2;
+    private static final int STATE_LENGTH = 64;
+
+    private FileIO fileIO;
+    private DeltaJournal journal;
+    private DeltaJournal.CheckpointBuffer buffer;
+
+    /**
+     * Sets up a journal writing to files that do not yet exist
+     */
+    @Before
+    public void preTest() {
+        fileIO = new FileIO(getTargetContext());
+        deleteFiles();
+        journal = new DeltaJournal(fileIO, BASE_FILE, JOURNAL_FILE, BLOCK_SIZE, COMPACT_AFTER);
+        buffer = new DeltaJournal.CheckpointBuffer(STATE_LENGTH);
+    }
+
+    /**
+     * Stops the journal and removes its files
+     */
+    @After
+    public void postTest() {
+        journal.close();
+        deleteFiles();
+    }
+
+    /**
+     * Tests that the last checkpoint is recovered from the base and its deltas.
+     */
+    @Test
+    public void testRecoverLastCheckpoint() throws IOException {
+        checkpoint(0);
+        checkpoint(1);
+        checkpoint(2);
+
+        // Expected: The buffer is emptied and the deltas sit in the journal
+        Assert.assertEquals(0, buffer.size());
+        Assert.assertTrue(fileIO.privateFileExists(JOURNAL_FILE));
+
+        Assert.assertArrayEquals(createState(2), recover());
+    }
+
+    /**
+     * Tests that a record torn part way through being written ends the journal.
+     */
+    @Test
+    public void testTornLastRecord() throws IOException {
+        checkpoint(0);
+        checkpoint(1);
+        checkpoint(2);
+
+        byte[] journalFile = readFile(JOURNAL_FILE);
+        writeFile(JOURNAL_FILE, journalFile, journalFile.length - 3);
+
+        // Expected: The checkpoint before the torn record
+        Assert.assertArrayEquals(createState(1), recover());
+    }
+
+    /**
+     * Tests that a record whose checksum does not match ends the journal.
+     */
+    @Test
+    public void testChecksumMismatch() throws IOException {
+        checkpoint(0);
+        checkpoint(1);
+        checkpoint(2);
+
+        byte[] journalFile = readFile(JOURNAL_FILE);
+        journalFile[journalFile.length - 1] ^= 0x55;
+        writeFile(JOURNAL_FILE, journalFile, journalFile.length);
+
+        // Expected: The checkpoint before the corrupt record
+        Assert.assertArrayEquals(createState(1), recover());
+    }
+
+    /**
+     * Tests that records left over from the base before a compaction are
+     * skipped, while records belonging to the new base are applied.
+     */
+    @Test
+    public void testGenerationMismatchAfterCompaction() throws IOException {
+        checkpoint(0);
+        checkpoint(1);
+        checkpoint(2);
+        byte[] staleJournal = readFile(JOURNAL_FILE);
+
+        // Compact, then put back the old journal as if it had not been deleted
+        checkpoint(3);
+        Assert.assertFalse(fileIO.privateFileExists(JOURNAL_FILE));
+        writeFile(JOURNAL_FILE, staleJournal, staleJournal.length);
+
+        // Expected: The new base, not the old deltas applied on top of it
+        Assert.assertArrayEquals(createState(3), recover());
+
+        // Expected: A delta of the new base written after the stale records
+        checkpoint(4);
+        Assert.assertArrayEquals(createState(4), recover());
+    }
+
+    /**
+     * Creates a state in which a few bytes differ from the previous version,
+     * always including the version held in the first byte.
+     */
+    private byte[] createState(int version) {
+        byte[] state = new byte[STATE_LENGTH];
+        for (int idx = 0; idx < STATE_LENGTH; idx++) {
+            state[idx] = (byte) idx;
+        }
+        state[0] = (byte) version;
+        for (int step = 1; step <= version; step++) {
+            state[(step * 13) % STATE_LENGTH] += step;
+        }
+        return state;
+    }
+
+    /**
+     * Checkpoints the specified version of the state and waits for it to be written.
+     */
+    private void checkpoint(int version) {
+        byte[] state = createState(version);
+        buffer.reset();
+        buffer.write(state, 0, state.length);
+        journal.checkpoint(buffer);
+        journal.flush();
+    }
+
+    private byte[] recover() throws IOException {
+        return DeltaJournal.recover(fileIO, BASE_FILE, JOURNAL_FILE, BLOCK_SIZE);
+    }
+
+    private byte[] readFile(String fileName) throws IOException {
+        ByteArrayOutputStream contents = new ByteArrayOutputStream();
+        InputStream in = fileIO.readPrivateFile(fileName);
+        try {
+            byte[] chunk = new byte[256];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                contents.write(chunk, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+        return contents.toByteArray();
+    }
+
+    private void writeFile(String fileName, byte[] contents, int length) throws IOException {
+        OutputStream out = fileIO.writePrivateFile(fileName);
+        try {
+            out.write(contents, 0, length);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void deleteFiles() {
+        fileIO.deletePrivateFile(BASE_FILE);
+        fileIO.deletePrivateFile(JOURNAL_FILE);
+    }
+}
@@ -0,0 +1,155 @@
+package uk.co.thomaspickup.spacewars.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.co.thomaspickup.spacewars.gage.world.EntityRegistry;
+
+/**
+ * Tests that entity handles resolve to their entity until it is destroyed,
+ * and never to a later entity reusing its slot.
+ *
+ * Created by Thomas Pickup.
+ */
+public class EntityRegistryTest {
+    private EntityRegistry<String> registry;
+
+    /**
+     * Sets up a registry small enough to have to grow
+     */
+    @Before
+    public void preTest() {
+        registry = new EntityRegistry<>(2);
+    }
+
+    /**
+     * Tests that added entities resolve from their handles.
+     */
+    @Test
+    public void testAddAndGet() {
+        long first = registry.add("first");
+        long second = registry.add("second");
+        long third = registry.add("third");
+
+        // Expected: Each handle resolves to its own entity
+        Assert.assertEquals(3, registry.size());
+        Assert.assertEquals("first", registry.get(first));
+        Assert.assertEquals("second", registry.get(second));
+        Assert.assertEquals("third", registry.get(third));
+        Assert.assertNotEquals(EntityRegistry.NO_HANDLE, first);
+
+        // Expected: The handle at each index is that of the entity at the index
+        for (int idx = 0; idx < registry.size(); idx++) {
+            Assert.assertEquals(registry.getEntities().get(idx),
+                    registry.get(registry.getHandle(idx)));
+        }
+
+        // Expected: NO_HANDLE never resolves
+        Assert.assertNull(registry.get(EntityRegistry.NO_HANDLE));
+        Assert.assertFalse(registry.isAlive(EntityRegistry.NO_HANDLE));
+    }
+
+    /**
+     * Tests that a destroyed entity stays in the list but stops resolving
+     * until it is flushed, and can only be queued once.
+     */
+    @Test
+    public void testDestroyIsQueued() {
+        long first = registry.add("first");
+        registry.add("second");
+
+        // Expected: Queued once, then no longer resolves
+        Assert.assertTrue(registry.destroy(first));
+        Assert.assertFalse(registry.destroy(first));
+        Assert.assertFalse(registry.isAlive(first));
+        Assert.assertNull(registry.get(first));
+
+        // Expected: Still held until flushed
+        Assert.assertEquals(2, registry.size());
+        registry.flushDestroyed();
+        Assert.assertEquals(1, registry.size());
+        Assert.assertEquals("second", registry.getEntities().get(0));
+    }
+
+    /**
+     * Tests that handles of destroyed entities stay stale after
+     * flushDestroyed, including once their slot is reused by a later entity.
+     */
+    @Test
+    public void testStaleHandlesAfterFlushDestroyed() {
+        long first = registry.add("first");
+        long second = registry.add("second");
+        long third = registry.add("third");
+
+        registry.destroy(first);
+        registry.destroy(third);
+        registry.flushDestroyed();
+
+        // Expected: The destroyed handles are stale and the survivor was moved
+        Assert.assertNull(registry.get(first));
+        Assert.assertNull(registry.get(third));
+        Assert.assertFalse(registry.destroy(first));
+        Assert.assertEquals("second", registry.get(second));
+        Assert.assertEquals(second, registry.getHandle(0));
+
+        // Expected: Later entities reuse the freed slots, but not the handles
+        long fourth = registry.add("fourth");
+        long fifth = registry.add("fifth");
+        Assert.assertNotEquals(first, fourth);
+        Assert.assertNotEquals(third, fourth);
+        Assert.assertNotEquals(first, fifth);
+        Assert.assertNotEquals(third, fifth);
+        Assert.assertNull(registry.get(first));
+        Assert.assertNull(registry.get(third));
+        Assert.assertEquals("fourth", registry.get(fourth));
+        Assert.assertEquals("fifth", registry.get(fifth));
+        Assert.assertEquals(3, registry.size());
+    }
+
+    /**
+     * Tests that clearing the registry makes every handle stale.
+     */
+    @Test
+    public void testClear() {
+        long first = registry.add("first");
+        long second = registry.add("second");
+        registry.destroy(second);
+
+        registry.clear();
+
+        // Expected: Empty, and the old handles never resolve again
+        Assert.assertEquals(0, registry.size());
+        Assert.assertFalse(registry.isAlive(first));
+        Assert.assertFalse(registry.isAlive(second));
+        long third = registry.add("third");
+        Assert.assertNull(registry.get(first));
+        Assert.assertNull(registry.get(second));
+        Assert.assertEquals("third", registry.get(third));
+    }
+
+    /**
+     * Tests that many entities can be added, destroyed and re-added as the
+     * registry grows, with every live handle still resolving.
+     */
+    @Test
+    public void testGrowAndChurn() {
+        long[] handles = new long[100];
+        for (int idx = 0; idx < handles.length; idx++) {
+            handles[idx] = registry.add("entity" + idx);
+        }
+        for (int idx = 0; idx < handles.length; idx += 3) {
+            registry.destroy(handles[idx]);
+        }
+        registry.flushDestroyed();
+        for (int idx = 0; idx < handles.length; idx += 3) {
+            handles[idx] = registry.add("entity" + idx);
+        }
+
+        // Expected: Every handle resolves to its own entity
+        Assert.assertEquals(handles.length, registry.size());
+        for (int idx = 0; idx < handles.length; idx++) {
+            Assert.assertEquals("entity" + idx, registry.get(handles[idx]));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package uk.co.thomaspickup.spacewars.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import uk.co.thomaspickup.spacewars.gage.util.FastMath;
+
+/**
+ * Tests the accuracy of the table driven trigonometry against java.lang.Math.
+ *
+ * Created by Thomas Pickup.
+ */
+public class FastMathTest {
+
+    /**
+     * Tests that sine and cosine stay within their error bound over several turns.
+     */
+    @Test
+    public void testSinCosAccuracy() {
+        for (float degrees = -720.0f; degrees <= 720.0f; degrees += 0.037f) {
+            double radians = Math.toRadians(degrees);
+            Assert.assertEquals(Math.sin(radians), FastMath.sinDeg(degrees), FastMath.SIN_COS_MAX_ERROR);
+            Assert.assertEquals(Math.cos(radians), FastMath.cosDeg(degrees), FastMath.SIN_COS_MAX_ERROR);
+
+            float floatRadians = (float) radians;
+            Assert.assertEquals(Math.sin(floatRadians), FastMath.sin(floatRadians), FastMath.SIN_COS_MAX_ERROR);
+            Assert.assertEquals(Math.cos(floatRadians), FastMath.cos(floatRadians), FastMath.SIN_COS_MAX_ERROR);
+        }
+
+        // Expected: The quarter turns are exact
+        Assert.assertEquals(0.0f, FastMath.sinDeg(0.0f), 0.0f);
+        Assert.assertEquals(1.0f, FastMath.sinDeg(90.0f), 0.0f);
+        Assert.assertEquals(-1.0f, FastMath.sinDeg(-90.0f), 0.0f);
+        Assert.assertEquals(1.0f, FastMath.cosDeg(0.0f), 0.0f);
+    }
+
+    /**
+     * Tests that atan2 stays within its error bound all the way round a circle,
+     * along the axes and for vectors of very different lengths.
+     */
+    @Test
+    public void testAtan2Accuracy() {
+        float[] lengths = { 0.001f, 1.0f, 250.0f, 100000.0f };
+        for (float length : lengths) {
+            for (float degrees = -180.0f; degrees <= 180.0f; degrees += 0.013f) {
+                float x = (float) (length * Math.cos(Math.toRadians(degrees)));
+                float y = (float) (length * Math.sin(Math.toRadians(degrees)));
+                double expected = Math.toDegrees(Math.atan2(y, x));
+                Assert.assertEquals(expected, FastMath.atan2Deg(y, x), FastMath.ATAN2_MAX_ERROR);
+                Assert.assertEquals(Math.toRadians(expected), FastMath.atan2(y, x),
+                        Math.toRadians(FastMath.ATAN2_MAX_ERROR));
+            }
+        }
+
+        // Expected: The axes give exact angles, and the zero vector gives 0
+        Assert.assertEquals(0.0f, FastMath.atan2Deg(0.0f, 5.0f), 0.0f);
+        Assert.assertEquals(90.0f, FastMath.atan2Deg(5.0f, 0.0f), 0.0f);
+        Assert.assertEquals(180.0f, FastMath.atan2Deg(0.0f, -5.0f), 0.0f);
+        Assert.assertEquals(-90.0f, FastMath.atan2Deg(-5.0f, 0.0f), 0.0f);
+        Assert.assertEquals(45.0f, FastMath.atan2Deg(3.0f, 3.0f), 0.0f);
+        Assert.assertEquals(0.0f, FastMath.atan2Deg(0.0f, 0.0f), 0.0f);
+    }
+
+    /**
+     * Tests that wrapped angles fall within -180 to 180 and are equivalent to
+     * the angle wrapped.
+     */
+    @Test
+    public void testWrapDegrees() {
+        for (float degrees = -1080.0f; degrees <= 1080.0f; degrees += 0.25f) {
+            float wrapped = FastMath.wrapDegrees(degrees);
+            Assert.assertTrue(wrapped >= -180.0f && wrapped < 180.0f);
+
+            double turns = (degrees - wrapped) / 360.0;
+            Assert.assertEquals(Math.rint(turns), turns, 1.0e-6);
+        }
+
+        // Expected: Angles already in range are unchanged
+        Assert.assertEquals(0.0f, FastMath.wrapDegrees(0.0f), 0.0f);
+        Assert.assertEquals(179.5f, FastMath.wrapDegrees(179.5f), 0.0f);
+        Assert.assertEquals(-180.0f, FastMath.wrapDegrees(180.0f), 0.0f);
+        Assert.assertEquals(-90.0f, FastMath.wrapDegrees(270.0f), 0.0f);
+    }
+}
@@ -2,6 +2,8 @@ package uk.co.thomaspickup.spacewars.test;
 
 import org.junit.Assert;
 import org.junit.Test;
+import java.util.Random;
+import uk.co.thomaspickup.spacewars.gage.util.SaveableRandom;
 import uk.co.thomaspickup.spacewars.game.HelperTools;
 
 /**
@@ -57,4 +59,34 @@ public class GeneralTest {
         expectedResult = 471.7f;
         Assert.assertEquals(expectedResult, helperTools.getDistance(deltaX,deltaY), 0.1);
     }
+
+    /**
+     * Tests that the saveable random matches java.util.Random and can continue
+     * a sequence from a saved state.
+     */
+    @Test
+    public void testSaveableRandomContinuesSequence() {
+        // Expected: The same sequence as java.util.Random for the same seed
+        Random random = new Random(42);
+        SaveableRandom saveableRandom = new SaveableRandom(42);
+        for (int idx = 0; idx < 100; idx++) {
+            Assert.assertEquals(random.nextFloat(), saveableRandom.nextFloat(), 0.0);
+        }
+
+        // Expected: A restored generator continues where the saved one left off
+        long state = saveableRandom.getState();
+        float expectedResult = saveableRandom.nextFloat();
+        SaveableRandom restoredRandom = new SaveableRandom(0);
+        restoredRandom.setState(state);
+        Assert.assertEquals(expectedResult, restoredRandom.nextFloat(), 0.0);
+
+        // Expected: No gaussian value is held back from the saved state
+        saveableRandom.nextGaussian();
+        restoredRandom.nextGaussian();
+        state = saveableRandom.getState();
+        double expectedGaussian = saveableRandom.nextGaussian();
+        restoredRandom = new SaveableRandom(0);
+        restoredRandom.setState(state);
+        Assert.assertEquals(expectedGaussian, restoredRandom.nextGaussian(), 0.0);
+    }
 }
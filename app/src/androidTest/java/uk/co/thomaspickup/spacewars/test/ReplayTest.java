@@ -0,0 +1,212 @@
+package uk.co.thomaspickup.spacewars.test;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
+import uk.co.thomaspickup.spacewars.gage.engine.audio.Sound;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.SoftwareImage;
+import uk.co.thomaspickup.spacewars.gage.util.ParallelLoop;
+import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
+import uk.co.thomaspickup.spacewars.gage.world.Sprite;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.AISpaceship;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.Asteroid;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.LevelInput;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.ReplayLog;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.SpaceLevel;
+
+/**
+ * Tests that a level recorded through a replay log plays out exactly the same
+ * when the replay is played back on a level generated from the same seed.
+ *
+ * The levels are run headless, without a game or screen, as the benchmarks
+ * and the desktop launcher run them.
+ *
+ * Created by Thomas Pickup.
+ */
+public class ReplayTest {
+    private static final long SEED = 42L;
+    private static final int DIFFICULTY = 2;
+    private static final int TICKS_PER_SECOND = 20;
+    private static final int TICK_COUNT = 1200;
+
+    private static final String[] BITMAPS = {"Asteroid1", "Asteroid2", "Spaceship1",
+            "Spaceship2", "Turret", "PlayerBeam", "EnemyBeam"};
+    private static final String[] SOUNDS = {"WeaponExplosion", "WeaponFire"};
+
+    private AssetStore assetStore;
+    private ParallelLoop recordingLoop;
+
+    /**
+     * Sets up the assets of the level, and a loop that works out the steering
+     * of the recorded level on several threads
+     */
+    @Before
+    public void preTest() {
+        assetStore = new AssetStore(null);
+        for (String bitmap : BITMAPS) {
+            assetStore.add(bitmap, new SoftwareImage(64, 64));
+        }
+        for (String sound : SOUNDS) {
+            assetStore.add(sound, new SilentSound());
+        }
+        recordingLoop = new ParallelLoop(4);
+    }
+
+    /**
+     * Stops the threads of the recorded level
+     */
+    @After
+    public void postTest() {
+        recordingLoop.shutdown();
+    }
+
+    /**
+     * Tests that playing back a recorded level leaves every ship and asteroid
+     * in the same place with the same health, and the random number generator
+     * in the same state, as when the level was recorded. The recorded level
+     * works out its steering on several threads and the played back level on
+     * one, which must not change how the level plays out.
+     */
+    @Test
+    public void testPlaybackMatchesRecording() throws IOException {
+        // Record the level, stopping early should it be won or lost
+        SpaceLevel recorded = createLevel(SEED, DIFFICULTY);
+        recorded.setParallelLoop(recordingLoop);
+        ByteArrayOutputStream replay = new ByteArrayOutputStream();
+        ReplayLog recording = ReplayLog.startRecording(replay, SEED, DIFFICULTY);
+        LevelInput levelInput = new LevelInput();
+        int recordedOutcome = SpaceLevel.TICK_CONTINUE;
+        for (int tick = 0; tick < TICK_COUNT && recordedOutcome == SpaceLevel.TICK_CONTINUE; tick++) {
+            scriptInput(tick, levelInput);
+            recording.record(levelInput);
+            recordedOutcome = recorded.tick(levelInput);
+        }
+        int recordedTicks = recording.getTickCount();
+        recording.close();
+
+        // Play the level back from the seed and difficulty held in the replay
+        ReplayLog playback = ReplayLog.startPlayback(new ByteArrayInputStream(replay.toByteArray()));
+        Assert.assertEquals(SEED, playback.getSeed());
+        Assert.assertEquals(DIFFICULTY, playback.getDifficulty());
+        SpaceLevel played = createLevel(playback.getSeed(), playback.getDifficulty());
+        LevelInput playedInput = new LevelInput();
+        int playedOutcome = SpaceLevel.TICK_CONTINUE;
+        while (playback.playback(playedInput)) {
+            playedOutcome = played.tick(playedInput);
+        }
+        playback.close();
+
+        // Expected: Every recorded tick played back, with the same outcome
+        Assert.assertEquals(recordedTicks, playback.getTickCount());
+        Assert.assertEquals(recordedOutcome, playedOutcome);
+
+        // Expected: The player, AI spaceships and asteroids left exactly as recorded
+        assertSameSprite(recorded.getPlayerSpaceship(), played.getPlayerSpaceship());
+        Assert.assertEquals(recorded.getPlayerSpaceship().getLivesLeft(),
+                played.getPlayerSpaceship().getLivesLeft());
+        Assert.assertEquals(recorded.getPlayerSpaceship().mLasers.size(),
+                played.getPlayerSpaceship().mLasers.size());
+
+        List<AISpaceship> recordedShips = recorded.getAISpaceships();
+        List<AISpaceship> playedShips = played.getAISpaceships();
+        Assert.assertEquals(recordedShips.size(), playedShips.size());
+        for (int idx = 0; idx < recordedShips.size(); idx++) {
+            assertSameSprite(recordedShips.get(idx), playedShips.get(idx));
+            Assert.assertEquals(recordedShips.get(idx).mLasers.size(),
+                    playedShips.get(idx).mLasers.size());
+        }
+
+        List<Asteroid> recordedAsteroids = recorded.getAsteroids();
+        List<Asteroid> playedAsteroids = played.getAsteroids();
+        Assert.assertEquals(recordedAsteroids.size(), playedAsteroids.size());
+        for (int idx = 0; idx < recordedAsteroids.size(); idx++) {
+            assertSameSprite(recordedAsteroids.get(idx), playedAsteroids.get(idx));
+        }
+
+        // Expected: The random number generator left in the same state
+        Assert.assertEquals(recorded.getRandom().getState(), played.getRandom().getState());
+    }
+
+    /**
+     * Tests that the level plays out differently from another seed, so that
+     * the comparison above cannot pass on two levels that never change.
+     */
+    @Test
+    public void testOtherSeedDiffers() {
+        SpaceLevel one = createLevel(SEED, DIFFICULTY);
+        SpaceLevel two = createLevel(SEED + 1, DIFFICULTY);
+        LevelInput levelInput = new LevelInput();
+        for (int tick = 0; tick < TICKS_PER_SECOND; tick++) {
+            scriptInput(tick, levelInput);
+            one.tick(levelInput);
+            two.tick(levelInput);
+        }
+
+        // Expected: The AI spaceships have been placed and moved differently
+        Assert.assertNotEquals(one.getAISpaceships().get(0).position.x,
+                two.getAISpaceships().get(0).position.x, 0.0f);
+        Assert.assertNotEquals(one.getRandom().getState(), two.getRandom().getState());
+    }
+
+    /**
+     * Asserts that two sprites are in exactly the same place, moving in
+     * exactly the same way, with the same health
+     */
+    private void assertSameSprite(Sprite expected, Sprite actual) {
+        Assert.assertEquals(expected.position.x, actual.position.x, 0.0f);
+        Assert.assertEquals(expected.position.y, actual.position.y, 0.0f);
+        Assert.assertEquals(expected.velocity.x, actual.velocity.x, 0.0f);
+        Assert.assertEquals(expected.velocity.y, actual.velocity.y, 0.0f);
+        Assert.assertEquals(expected.orientation, actual.orientation, 0.0f);
+        Assert.assertEquals(expected.getHealth(), actual.getHealth());
+    }
+
+    /**
+     * Fills in the scripted input of a tick, in which the player steers in a
+     * slow circle and fires twice a second
+     */
+    private void scriptInput(int tick, LevelInput levelInput) {
+        double angle = 2.0 * Math.PI * tick / (8 * TICKS_PER_SECOND);
+        levelInput.stepTime = 1.0f / TICKS_PER_SECOND;
+        levelInput.steering = true;
+        levelInput.steerX = (float) Math.cos(angle);
+        levelInput.steerY = (float) Math.sin(angle);
+        levelInput.fire = tick % (TICKS_PER_SECOND / 2) == 0;
+    }
+
+    private SpaceLevel createLevel(long seed, int difficulty) {
+        SpaceLevel level = new SpaceLevel(null, assetStore, TICKS_PER_SECOND, 0,
+                new LayerViewport(240.0f, 135.0f, 240.0f, 135.0f), difficulty);
+        level.generate(seed);
+        return level;
+    }
+
+    /**
+     * Sound that plays nothing, as there is no sound pool off device
+     */
+    private static class SilentSound extends Sound {
+        SilentSound() {
+            super(null, 0);
+        }
+
+        @Override
+        public void play() {
+        }
+
+        @Override
+        public void play(float volume) {
+        }
+
+        @Override
+        public void play(float leftVolume, float rightVolume) {
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package uk.co.thomaspickup.spacewars.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
+import uk.co.thomaspickup.spacewars.gage.engine.ScreenManager;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
+
+/**
+ * Tests that the screen manager pauses, resumes and retires the screens on
+ * its stack once each, however they leave the stack.
+ *
+ * Created by Thomas Pickup.
+ */
+public class ScreenManagerTest {
+    private ScreenManager screenManager;
+    private CountingScreen menu;
+    private CountingScreen level;
+    private CountingScreen pause;
+
+    /**
+     * Sets up a stack of a cacheable menu, covered by a level, covered by a
+     * pause screen
+     */
+    @Before
+    public void preTest() {
+        screenManager = new ScreenManager();
+        menu = new CountingScreen("MenuScreen", true);
+        level = new CountingScreen("LevelScreen", false);
+        pause = new CountingScreen("PauseScreen", false);
+        screenManager.addScreen(menu);
+        screenManager.pushScreen(level);
+        screenManager.pushScreen(pause);
+    }
+
+    /**
+     * Tests that covering a screen pauses it once.
+     */
+    @Test
+    public void testPushPausesCoveredScreen() {
+        // Expected: The menu and level were paused as they were covered
+        Assert.assertEquals(1, menu.pauseCount);
+        Assert.assertEquals(1, level.pauseCount);
+        Assert.assertEquals(0, pause.pauseCount);
+        Assert.assertSame(pause, screenManager.getCurrentScreen());
+    }
+
+    /**
+     * Tests that clearing the stack does not pause the covered screens again.
+     */
+    @Test
+    public void testSetScreenPausesEachScreenOnce() {
+        CountingScreen other = new CountingScreen("OtherScreen", false);
+        screenManager.setScreen(other);
+
+        // Expected: Every screen paused once, the covered ones when covered
+        // and the pause screen when retired
+        Assert.assertEquals(1, menu.pauseCount);
+        Assert.assertEquals(1, level.pauseCount);
+        Assert.assertEquals(1, pause.pauseCount);
+
+        // Expected: The menu is cached and the others disposed
+        Assert.assertEquals(0, menu.disposeCount);
+        Assert.assertEquals(1, level.disposeCount);
+        Assert.assertEquals(1, pause.disposeCount);
+        Assert.assertSame(menu, screenManager.getCachedScreen("MenuScreen"));
+        Assert.assertSame(other, screenManager.getCurrentScreen());
+        Assert.assertNull(screenManager.getScreenBelowCurrent());
+    }
+
+    /**
+     * Tests that popping a screen pauses only the popped screen and resumes
+     * the screen it reveals.
+     */
+    @Test
+    public void testPopPausesPoppedScreenOnce() {
+        screenManager.popScreen();
+
+        // Expected: The pause screen paused and disposed, the level resumed
+        Assert.assertEquals(1, pause.pauseCount);
+        Assert.assertEquals(1, pause.disposeCount);
+        Assert.assertEquals(1, level.pauseCount);
+        Assert.assertEquals(2, level.resumeCount);
+        Assert.assertSame(level, screenManager.getCurrentScreen());
+
+        screenManager.popScreen();
+
+        // Expected: The level paused once more on leaving, the menu resumed
+        // without being paused again
+        Assert.assertEquals(2, level.pauseCount);
+        Assert.assertEquals(1, menu.pauseCount);
+        Assert.assertEquals(1, menu.resumeCount);
+        Assert.assertSame(menu, screenManager.getCurrentScreen());
+    }
+
+    /**
+     * Tests that making a screen further down the stack current retires the
+     * screens above it without pausing the covered screens again.
+     */
+    @Test
+    public void testSetAsCurrentScreenPausesEachScreenOnce() {
+        screenManager.setAsCurrentScreen("MenuScreen");
+
+        // Expected: Only the pause screen was retired, the level stays below
+        Assert.assertEquals(1, pause.pauseCount);
+        Assert.assertEquals(1, pause.disposeCount);
+        Assert.assertEquals(1, level.pauseCount);
+        Assert.assertEquals(0, level.disposeCount);
+        Assert.assertEquals(1, menu.pauseCount);
+        Assert.assertSame(menu, screenManager.getCurrentScreen());
+        Assert.assertSame(level, screenManager.getScreenBelowCurrent());
+    }
+
+    /**
+     * Screen that counts how often it is paused, resumed and disposed
+     */
+    private static class CountingScreen extends GameScreen {
+        int pauseCount;
+        int resumeCount;
+        int disposeCount;
+
+        CountingScreen(String name, boolean cacheable) {
+            super(name, null);
+            mCacheable = cacheable;
+        }
+
+        @Override
+        public void update(ElapsedTime elapsedTime) {
+        }
+
+        @Override
+        public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D) {
+        }
+
+        @Override
+        public void pause() {
+            pauseCount++;
+        }
+
+        @Override
+        public void resume() {
+            resumeCount++;
+        }
+
+        @Override
+        public void dispose() {
+            disposeCount++;
+        }
+    }
+}
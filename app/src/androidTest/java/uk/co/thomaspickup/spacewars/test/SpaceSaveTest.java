@@ -0,0 +1,269 @@
+package uk.co.thomaspickup.spacewars.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
+import uk.co.thomaspickup.spacewars.gage.engine.audio.Sound;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.SoftwareImage;
+import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
+import uk.co.thomaspickup.spacewars.gage.world.Sprite;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.AISpaceship;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.Asteroid;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.Laser;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.LevelInput;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.PlayerSpaceship;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.SpaceLevel;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.SpaceSave;
+
+/**
+ * Tests that a level written to a binary snapshot is read back as it was,
+ * and that a damaged snapshot is rejected rather than crashing the game.
+ *
+ * Created by Thomas Pickup.
+ */
+public class SpaceSaveTest {
+    private static final long SEED = 42L;
+    private static final int DIFFICULTY = 2;
+    private static final int TICKS_PER_SECOND = 20;
+
+    private static final String[] BITMAPS = {"Asteroid1", "Asteroid2", "Spaceship1",
+            "Spaceship2", "Turret", "PlayerBeam", "EnemyBeam"};
+    private static final String[] SOUNDS = {"WeaponExplosion", "WeaponFire"};
+
+    // Length of the header and level sections of a snapshot, which come
+    // before the player
+    private static final int LEVEL_LENGTH = 4 + 4 + 4 + 8 + 4 * 4;
+
+    private AssetStore assetStore;
+
+    /**
+     * Sets up the assets of the level
+     */
+    @Before
+    public void preTest() {
+        assetStore = new AssetStore(null);
+        for (String bitmap : BITMAPS) {
+            assetStore.add(bitmap, new SoftwareImage(64, 64));
+        }
+        for (String sound : SOUNDS) {
+            assetStore.add(sound, new SilentSound());
+        }
+    }
+
+    /**
+     * Tests that a level part way through play, with lasers in flight and
+     * ships reloading, is read back from a snapshot exactly as it was.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        SpaceLevel level = createLevel();
+        playLevel(level, 3 * TICKS_PER_SECOND + 7);
+        byte[] snapshot = writeSnapshot(level);
+
+        SpaceLevel restored = createEmptyLevel();
+        SpaceSave saveFile = SpaceSave.read(new DataInputStream(new ByteArrayInputStream(snapshot)),
+                restored);
+        restored.restore(saveFile);
+
+        // Expected: The level settings, viewport and random number generator
+        Assert.assertEquals(level.getDifficulty(), restored.getDifficulty());
+        Assert.assertEquals(level.getRandom().getState(), restored.getRandom().getState());
+        LayerViewport viewport = level.getLayerViewport();
+        LayerViewport restoredViewport = restored.getLayerViewport();
+        Assert.assertEquals(viewport.x, restoredViewport.x, 0.0f);
+        Assert.assertEquals(viewport.y, restoredViewport.y, 0.0f);
+        Assert.assertEquals(viewport.halfWidth, restoredViewport.halfWidth, 0.0f);
+        Assert.assertEquals(viewport.halfHeight, restoredViewport.halfHeight, 0.0f);
+
+        // Expected: The player, its lives and its lasers in flight
+        PlayerSpaceship player = level.getPlayerSpaceship();
+        PlayerSpaceship restoredPlayer = restored.getPlayerSpaceship();
+        assertSameState(player, restoredPlayer);
+        Assert.assertEquals(player.getLivesLeft(), restoredPlayer.getLivesLeft());
+        Assert.assertEquals(player.getLivesLost(), restoredPlayer.getLivesLost());
+        Assert.assertFalse(player.mLasers.isEmpty());
+        assertSameLasers(player.mLasers, restoredPlayer.mLasers);
+
+        // Expected: Every asteroid, including its type
+        List<Asteroid> asteroids = level.getAsteroids();
+        List<Asteroid> restoredAsteroids = restored.getAsteroids();
+        Assert.assertEquals(asteroids.size(), restoredAsteroids.size());
+        for (int idx = 0; idx < asteroids.size(); idx++) {
+            assertSameState(asteroids.get(idx), restoredAsteroids.get(idx));
+            Assert.assertSame(asteroids.get(idx).getBitmap(), restoredAsteroids.get(idx).getBitmap());
+        }
+
+        // Expected: Every AI spaceship, its behaviour and its lasers in flight
+        List<AISpaceship> aiSpaceships = level.getAISpaceships();
+        List<AISpaceship> restoredAISpaceships = restored.getAISpaceships();
+        Assert.assertEquals(aiSpaceships.size(), restoredAISpaceships.size());
+        for (int idx = 0; idx < aiSpaceships.size(); idx++) {
+            AISpaceship aiSpaceship = aiSpaceships.get(idx);
+            AISpaceship restoredAISpaceship = restoredAISpaceships.get(idx);
+            Assert.assertEquals(aiSpaceship.getShipBehaviour(), restoredAISpaceship.getShipBehaviour());
+            assertSameState(aiSpaceship, restoredAISpaceship);
+            assertSameLasers(aiSpaceship.mLasers, restoredAISpaceship.mLasers);
+        }
+
+        // Expected: The restored level, reload progress included, writes the
+        // same snapshot again
+        Assert.assertArrayEquals(snapshot, writeSnapshot(restored));
+    }
+
+    /**
+     * Tests that a negative or huge asteroid count is rejected with an
+     * IOException before any list is sized from it.
+     */
+    @Test
+    public void testRejectsDamagedAsteroidCount() throws IOException {
+        SpaceLevel level = createLevel();
+        byte[] snapshot = writeSnapshot(level);
+        int countOffset = LEVEL_LENGTH + getPlayerLength(level);
+
+        // Expected: The count read from an undamaged snapshot
+        Assert.assertEquals(SpaceLevel.NUM_ASTEROIDS, ByteBuffer.wrap(snapshot).getInt(countOffset));
+
+        // Expected: Counts no snapshot could hold are rejected
+        assertRejected(withInt(snapshot, countOffset, -1));
+        assertRejected(withInt(snapshot, countOffset, Integer.MAX_VALUE));
+        assertRejected(withInt(snapshot, countOffset, SpaceSave.MAX_ENTITY_COUNT + 1));
+    }
+
+    /**
+     * Tests that a negative laser count is rejected with an IOException.
+     */
+    @Test
+    public void testRejectsDamagedLaserCount() throws IOException {
+        SpaceLevel level = createLevel();
+        byte[] snapshot = writeSnapshot(level);
+
+        // The player's laser count is the last field of the player
+        int countOffset = LEVEL_LENGTH + getPlayerLength(level) - 4;
+        Assert.assertEquals(0, ByteBuffer.wrap(snapshot).getInt(countOffset));
+        assertRejected(withInt(snapshot, countOffset, -5));
+    }
+
+    /**
+     * Asserts that two sprites hold exactly the same state
+     */
+    private void assertSameState(Sprite expected, Sprite actual) {
+        Assert.assertEquals(expected.position.x, actual.position.x, 0.0f);
+        Assert.assertEquals(expected.position.y, actual.position.y, 0.0f);
+        Assert.assertEquals(expected.velocity.x, actual.velocity.x, 0.0f);
+        Assert.assertEquals(expected.velocity.y, actual.velocity.y, 0.0f);
+        Assert.assertEquals(expected.acceleration.x, actual.acceleration.x, 0.0f);
+        Assert.assertEquals(expected.acceleration.y, actual.acceleration.y, 0.0f);
+        Assert.assertEquals(expected.orientation, actual.orientation, 0.0f);
+        Assert.assertEquals(expected.angularVelocity, actual.angularVelocity, 0.0f);
+        Assert.assertEquals(expected.angularAcceleration, actual.angularAcceleration, 0.0f);
+        Assert.assertEquals(expected.getHealth(), actual.getHealth());
+    }
+
+    /**
+     * Asserts that two lists of lasers hold the same lasers in the same order
+     */
+    private void assertSameLasers(List<Laser> expected, List<Laser> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int idx = 0; idx < expected.size(); idx++) {
+            assertSameState(expected.get(idx), actual.get(idx));
+        }
+    }
+
+    /**
+     * Plays a number of ticks of the level, steering in a slow circle and
+     * firing twice a second
+     */
+    private void playLevel(SpaceLevel level, int ticks) {
+        LevelInput levelInput = new LevelInput();
+        for (int tick = 0; tick < ticks; tick++) {
+            double angle = 2.0 * Math.PI * tick / (8 * TICKS_PER_SECOND);
+            levelInput.stepTime = 1.0f / TICKS_PER_SECOND;
+            levelInput.steering = true;
+            levelInput.steerX = (float) Math.cos(angle);
+            levelInput.steerY = (float) Math.sin(angle);
+            levelInput.fire = tick % (TICKS_PER_SECOND / 2) == 0;
+            Assert.assertEquals(SpaceLevel.TICK_CONTINUE, level.tick(levelInput));
+        }
+    }
+
+    /**
+     * Asserts that reading a snapshot fails with an IOException
+     */
+    private void assertRejected(byte[] snapshot) {
+        try {
+            SpaceSave.read(new DataInputStream(new ByteArrayInputStream(snapshot)),
+                    createEmptyLevel());
+            Assert.fail("Damaged snapshot was read");
+        } catch (IOException e) {
+            // Expected: The snapshot is rejected as unreadable
+        }
+    }
+
+    /**
+     * Returns a copy of a snapshot with an int replaced
+     */
+    private byte[] withInt(byte[] snapshot, int offset, int value) {
+        byte[] damaged = snapshot.clone();
+        ByteBuffer.wrap(damaged).putInt(offset, value);
+        return damaged;
+    }
+
+    /**
+     * Returns the number of bytes the player takes up in a snapshot
+     */
+    private int getPlayerLength(SpaceLevel level) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        level.getPlayerSpaceship().writeState(new DataOutputStream(bytes));
+        return bytes.size();
+    }
+
+    private byte[] writeSnapshot(SpaceLevel level) throws IOException {
+        SpaceSave saveFile = new SpaceSave();
+        level.save(saveFile);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        saveFile.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private SpaceLevel createLevel() {
+        SpaceLevel level = createEmptyLevel();
+        level.generate(SEED);
+        return level;
+    }
+
+    private SpaceLevel createEmptyLevel() {
+        return new SpaceLevel(null, assetStore, TICKS_PER_SECOND, 0,
+                new LayerViewport(240.0f, 135.0f, 240.0f, 135.0f), DIFFICULTY);
+    }
+
+    /**
+     * Sound that plays nothing, as there is no sound pool off device
+     */
+    private static class SilentSound extends Sound {
+        SilentSound() {
+            super(null, 0);
+        }
+
+        @Override
+        public void play() {
+        }
+
+        @Override
+        public void play(float volume) {
+        }
+
+        @Override
+        public void play(float leftVolume, float rightVolume) {
+        }
+    }
+}
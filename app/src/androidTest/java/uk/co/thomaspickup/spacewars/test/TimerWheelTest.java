@@ -0,0 +1,162 @@
+package uk.co.thomaspickup.spacewars.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.co.thomaspickup.spacewars.gage.engine.timer.ITimerCallback;
+import uk.co.thomaspickup.spacewars.gage.engine.timer.Timer;
+import uk.co.thomaspickup.spacewars.gage.engine.timer.TimerWheel;
+
+/**
+ * Tests that timers scheduled on the timer wheel fall due at their due time,
+ * in order, however far away that time is.
+ *
+ * Created by Thomas Pickup.
+ */
+public class TimerWheelTest {
+    private TimerWheel wheel;
+    private List<Timer> fired;
+    private List<Long> firedAt;
+    private ITimerCallback recorder;
+
+    /**
+     * Sets up an empty wheel that records each timer as it fires
+     */
+    @Before
+    public void preTest() {
+        wheel = new TimerWheel();
+        fired = new ArrayList<>();
+        firedAt = new ArrayList<>();
+        recorder = new ITimerCallback() {
+            @Override
+            public void onTimer(Timer timer) {
+                fired.add(timer);
+                firedAt.add(wheel.getTime());
+            }
+        };
+    }
+
+    /**
+     * Tests that a timer fires once the wheel reaches its due time, and not before.
+     */
+    @Test
+    public void testFiresAtDueTime() {
+        Timer timer = new Timer(recorder);
+        wheel.schedule(timer, 10);
+
+        // Expected: Not yet due
+        wheel.advanceTo(9);
+        Assert.assertTrue(fired.isEmpty());
+        Assert.assertTrue(timer.isScheduled());
+        Assert.assertEquals(1, timer.getRemainingTime());
+
+        // Expected: Fires at 10 and is no longer scheduled
+        wheel.advanceTo(10);
+        Assert.assertEquals(1, fired.size());
+        Assert.assertEquals(10L, (long) firedAt.get(0));
+        Assert.assertFalse(timer.isScheduled());
+        Assert.assertEquals(0, wheel.getScheduledCount());
+    }
+
+    /**
+     * Tests that timers in every level of the wheel fire at their due time and
+     * in order of due time, however large the step the wheel is advanced by.
+     */
+    @Test
+    public void testFiresInOrderAcrossLevels() {
+        long[] delays = {100000L, 1L, 4096L, 63L, 64L, 262144L, 4095L, 65L, 20000000L};
+        for (long delay : delays) {
+            wheel.schedule(new Timer(recorder), delay);
+        }
+
+        wheel.advanceTo(30000000L);
+
+        // Expected: Every timer fires, each at its due time and in order
+        Assert.assertEquals(delays.length, fired.size());
+        for (int idx = 0; idx < fired.size(); idx++) {
+            Assert.assertEquals(fired.get(idx).getDueTime(), (long) firedAt.get(idx));
+            if (idx > 0)
+                Assert.assertTrue(firedAt.get(idx - 1) <= firedAt.get(idx));
+        }
+        Assert.assertEquals(1L, (long) firedAt.get(0));
+        Assert.assertEquals(20000000L, (long) firedAt.get(delays.length - 1));
+    }
+
+    /**
+     * Tests that a cancelled timer does not fire and that a rescheduled timer
+     * fires only at its new due time.
+     */
+    @Test
+    public void testCancelAndReschedule() {
+        Timer cancelled = new Timer(recorder);
+        Timer rescheduled = new Timer(recorder);
+        wheel.schedule(cancelled, 50);
+        wheel.schedule(rescheduled, 50);
+
+        cancelled.cancel();
+        wheel.schedule(rescheduled, 5000);
+        Assert.assertEquals(1, wheel.getScheduledCount());
+
+        // Expected: Nothing fires at the original due time
+        wheel.advanceTo(4999);
+        Assert.assertTrue(fired.isEmpty());
+
+        // Expected: Only the rescheduled timer fires
+        wheel.advanceTo(5000);
+        Assert.assertEquals(1, fired.size());
+        Assert.assertSame(rescheduled, fired.get(0));
+    }
+
+    /**
+     * Tests that a timer rescheduled from within its callback fires again, as
+     * a reload does, when the wheel is keyed on simulation time in
+     * milliseconds and advanced by uneven steps.
+     */
+    @Test
+    public void testRepeatingTimerOnMillisecondSteps() {
+        Timer reload = new Timer(new ITimerCallback() {
+            @Override
+            public void onTimer(Timer timer) {
+                firedAt.add(wheel.getTime());
+                wheel.schedule(timer, 1000);
+            }
+        });
+        wheel.schedule(reload, 1000);
+
+        // Advance by alternating 16 and 17 ms steps, as a 60 fps level would
+        double totalTime = 0.0;
+        for (int tick = 0; tick < 300; tick++) {
+            totalTime += (tick % 2 == 0) ? 0.016 : 0.017;
+            wheel.advanceTo((long) (totalTime * 1000.0));
+        }
+
+        // Expected: Fires every second of simulation time
+        Assert.assertEquals(4, firedAt.size());
+        for (int idx = 0; idx < firedAt.size(); idx++) {
+            Assert.assertEquals(1000L * (idx + 1), (long) firedAt.get(idx));
+        }
+        Assert.assertTrue(reload.isScheduled());
+    }
+
+    /**
+     * Tests that clearing the wheel unschedules every timer.
+     */
+    @Test
+    public void testClear() {
+        Timer timer = new Timer(recorder);
+        wheel.schedule(timer, 10);
+        wheel.schedule(new Timer(recorder), 100000);
+
+        wheel.clear();
+
+        // Expected: Nothing scheduled and nothing fires
+        Assert.assertEquals(0, wheel.getScheduledCount());
+        Assert.assertFalse(timer.isScheduled());
+        wheel.advanceTo(200000);
+        Assert.assertTrue(fired.isEmpty());
+    }
+}
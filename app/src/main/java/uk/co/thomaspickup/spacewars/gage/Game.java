@@ -3,11 +3,24 @@ package uk.co.thomaspickup.spacewars.gage;
 import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
 import uk.co.thomaspickup.spacewars.gage.engine.ScreenManager;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.IDebugCounters;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.LoopWatchdog;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.PerformanceOverlay;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.Tracer;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.AndroidGraphicsPlatform;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.CanvasRenderSurface;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphicsPlatform;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IRenderSurface;
 import uk.co.thomaspickup.spacewars.gage.engine.input.Input;
+import uk.co.thomaspickup.spacewars.gage.engine.input.TouchEvent;
 import uk.co.thomaspickup.spacewars.gage.engine.io.FileIO;
+import uk.co.thomaspickup.spacewars.gage.engine.timer.TimerWheel;
+import uk.co.thomaspickup.spacewars.gage.util.ParallelLoop;
 import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
+
+import java.io.IOException;
+import java.util.List;
+
 import android.app.Fragment;
 import android.media.AudioManager;
 import android.os.Bundle;
@@ -58,6 +71,8 @@ public abstract class Game extends Fragment {
 		// stored in ns)
 		if (mLoop != null)
 			mLoop.targetStepPeriod = 1000000000 / targetFramesPerSecond;
+		if (mPerformanceOverlay != null)
+			mPerformanceOverlay.setTargetFramesPerSecond(targetFramesPerSecond);
 	}
 
 	/**
@@ -134,10 +149,89 @@ public abstract class Game extends Fragment {
 		return mFileIO;
 	}
 		
+	/**
+	 * Graphics Platform
+	 */
+	protected IGraphicsPlatform mGraphicsPlatform;
+
+	/**
+	 * Get the game's graphics platform
+	 * 
+	 * @return Graphics platform
+	 */
+	public IGraphicsPlatform getGraphicsPlatform() {
+		return mGraphicsPlatform;
+	}
+
 	/**
 	 * Render Surface
 	 */
 	protected IRenderSurface mRenderSurface;
+
+	/**
+	 * Timer Wheel, keyed on the game time in ms. Only time spent updating
+	 * the game is counted, so timers do not run whilst the game is paused.
+	 */
+	protected TimerWheel mTimerWheel;
+
+	/**
+	 * Game time (in seconds) the timer wheel has been advanced to
+	 */
+	private double mTimerWheelTime;
+
+	/**
+	 * Get the game's timer wheel, on which timers are scheduled in ms
+	 * 
+	 * @return Timer wheel
+	 */
+	public TimerWheel getTimerWheel() {
+		return mTimerWheel;
+	}
+
+	/**
+	 * Performance Overlay
+	 */
+	protected PerformanceOverlay mPerformanceOverlay;
+
+	/**
+	 * Get the game's performance overlay. The overlay is toggled by touching
+	 * the screen with three fingers.
+	 * 
+	 * @return Performance overlay
+	 */
+	public PerformanceOverlay getPerformanceOverlay() {
+		return mPerformanceOverlay;
+	}
+
+	/**
+	 * Loop Watchdog
+	 */
+	protected LoopWatchdog mLoopWatchdog;
+
+	/**
+	 * Get the watchdog reporting (and recovering from) stalls of the game
+	 * loop. The watchdog runs whilst the game is resumed.
+	 * 
+	 * @return Loop watchdog
+	 */
+	public LoopWatchdog getLoopWatchdog() {
+		return mLoopWatchdog;
+	}
+
+	/**
+	 * Parallel Loop
+	 */
+	protected ParallelLoop mParallelLoop;
+
+	/**
+	 * Get the game's parallel loop, which runs work split by index across one
+	 * thread for each available processor
+	 * 
+	 * @return Parallel loop
+	 */
+	public ParallelLoop getParallelLoop() {
+		return mParallelLoop;
+	}
 	
 	
 	// /////////////////////////////////////////////////////////////////////////
@@ -205,12 +299,29 @@ public abstract class Game extends Fragment {
 
 		// Create the file IO service
 		mFileIO = new FileIO(getActivity().getApplicationContext());
+
+		// Create the graphics platform
+		mGraphicsPlatform = new AndroidGraphicsPlatform();
 				
 		// Create the asset manager
 		mAssetManager = new AssetStore(mFileIO);
 		
 		// Create the screen manager
 		mScreenManager = new ScreenManager();
+
+		// Create the timer wheel
+		mTimerWheel = new TimerWheel();
+
+		// Create the performance overlay
+		mPerformanceOverlay = new PerformanceOverlay();
+		mPerformanceOverlay.setTargetFramesPerSecond(mTargetFramesPerSecond);
+		mPerformanceOverlay.setAssetStore(mAssetManager);
+
+		// Create the game loop watchdog
+		mLoopWatchdog = new LoopWatchdog(this);
+
+		// Create the parallel loop
+		mParallelLoop = new ParallelLoop(Runtime.getRuntime().availableProcessors());
 		
 		// Request control of the volume
 		getActivity().setVolumeControlStream(AudioManager.STREAM_MUSIC);
@@ -231,11 +342,14 @@ public abstract class Game extends Fragment {
 		// ////////////////////////////////////////////////////////
 
 		// Create the output view and associated renderer
-		mRenderSurface = new CanvasRenderSurface(this, getActivity());
-		View view = mRenderSurface.getAsView();
+		CanvasRenderSurface canvasRenderSurface = new CanvasRenderSurface(this, getActivity());
+		mRenderSurface = canvasRenderSurface;
+		View view = canvasRenderSurface.getAsView();
 
 		// Get our input from the created view
 		mInput = new Input(getActivity(), view);
+		mPerformanceOverlay.addPool("touch", mInput.getTouchEventPool());
+		mPerformanceOverlay.addPool("key", mInput.getKeyEventPool());
 
 		// Store the size of the window we're using		
 		DisplayMetrics metrics = new DisplayMetrics();
@@ -259,7 +373,8 @@ public abstract class Game extends Fragment {
 		if (mScreenManager.getCurrentScreen() != null)
 			mScreenManager.getCurrentScreen().resume();
 
-		// Resume the game loop
+		// Resume the game loop, and the watchdog watching it
+		mLoopWatchdog.start();
 		mLoop.resume();
 	}
 
@@ -270,8 +385,10 @@ public abstract class Game extends Fragment {
 	 */
 	@Override
 	public void onPause() {
-		// Pause the game loop
+		// Pause the game loop. The watchdog is stopped once the loop has
+		// finished, as it may be needed to complete the last frame.
 		mLoop.pause();
+		mLoopWatchdog.stop();
 
 		// If needed, pause the current game screen
 		if (mScreenManager.getCurrentScreen() != null)
@@ -290,6 +407,9 @@ public abstract class Game extends Fragment {
 		// Dispose of any game screens
 		mScreenManager.dispose();
 
+		// Stop the threads of the parallel loop
+		mParallelLoop.shutdown();
+
 		super.onDestroy();
 	}
 
@@ -322,11 +442,33 @@ public abstract class Game extends Fragment {
 	private void doUpdate(ElapsedTime elapsedTime) {
 		// Reset accumulators for keys/touch events for the current frame
 		((Input) mInput).resetAccumulators();		
+
+		// Toggle the performance overlay, and with it tracing, if a third
+		// finger touches down. A fourth finger writes out the trace.
+		List<TouchEvent> touchEvents = mInput.getTouchEvents();
+		for (int idx = 0; idx < touchEvents.size(); idx++) {
+			TouchEvent touchEvent = touchEvents.get(idx);
+			if (touchEvent.type != TouchEvent.TOUCH_DOWN)
+				continue;
+			if (touchEvent.pointer == 2) {
+				mPerformanceOverlay.toggle();
+				Tracer.setEnabled(mPerformanceOverlay.isEnabled());
+			} else if (touchEvent.pointer == 3) {
+				flushTrace();
+			}
+		}
 		
+		// Fire any timers that have fallen due
+		mTimerWheelTime += elapsedTime.stepTime;
+		mTimerWheel.advanceTo((long) (mTimerWheelTime * 1000.0));
+
 		// Get and update the current game screen
 		GameScreen gameScreen = mScreenManager.getCurrentScreen();
-		if (gameScreen != null)
+		if (gameScreen != null) {
+			Tracer.beginSection("GameScreen.update", gameScreen.getName());
 			gameScreen.update(elapsedTime);
+			Tracer.endSection();
+		}
 
 		// It is assumed that if the update is multi-threaded then the
 		// method call will not return until all update processes have
@@ -334,6 +476,27 @@ public abstract class Game extends Fragment {
 		notifyUpdateCompleted();		
 	}
 
+	/**
+	 * Write the recorded trace to a time stamped file in device storage. The
+	 * file is written from a background thread so the game loop is not held
+	 * up.
+	 */
+	private void flushTrace() {
+		final String fileName = "trace-" + System.currentTimeMillis() + ".json";
+		new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					int eventCount = Tracer.flush(mFileIO, fileName);
+					Log.i("Game", "Wrote " + eventCount + " trace events to "
+							+ fileName);
+				} catch (IOException e) {
+					Log.e("Game", "Unable to write trace " + fileName, e);
+				}
+			}
+		}, "TraceWriter").start();
+	}
+
 	/**
 	 * Notify the game loop that the update has completed. This method is in
 	 * invoked automatically once control has returned from the SpaceGame update()
@@ -520,6 +683,9 @@ public abstract class Game extends Fragment {
 							(targetStepPeriod / 1000000000.0) * maximumStepPeriodScale;
 					
 					// Trigger an update
+					long startUpdate = System.nanoTime();
+					Tracer.beginSection("GameLoop.update");
+					mLoopWatchdog.beginUpdate();
 					synchronized (update) {
 						update.isLocked = true;
 					}
@@ -530,8 +696,12 @@ public abstract class Game extends Fragment {
 							update.wait();
 						}
 					}
+					Tracer.endSection();
 
 					// Trigger a draw request
+					long startDraw = System.nanoTime();
+					Tracer.beginSection("GameLoop.draw");
+					mLoopWatchdog.beginDraw();
 					synchronized (draw) {
 						draw.isLocked = true;
 					}
@@ -544,18 +714,29 @@ public abstract class Game extends Fragment {
 							draw.wait();
 						}
 					}
+					mLoopWatchdog.endFrame();
+					Tracer.endSection();
 
 					// Measure how long the update/draw took to complete and
 					// how long to sleep until the next cycle is due. This may
 					// be a negative number (we've exceeded the 'available'
 					// time).
 					endStep = System.nanoTime();
+
+					// Record the frame for the performance overlay
+					GameScreen gameScreen = mScreenManager.getCurrentScreen();
+					IDebugCounters counters = gameScreen != null ? gameScreen
+							.getDebugCounters() : null;
+					mPerformanceOverlay.recordFrame(startDraw - startUpdate,
+							endStep - startDraw, counters);
 					sleepTime = (targetStepPeriod - (endStep - startStep))
 							- overSleepTime;
 
 					// If needed put the thread to sleep
 					if (sleepTime > 0) {
+						Tracer.beginSection("GameLoop.sleep");
 						Thread.sleep(sleepTime / 1000000L); // Covert ns into ms
+						Tracer.endSection();
 
 						// Determine how much longer we slept than was
 						// originally requested, we'll correct for this error
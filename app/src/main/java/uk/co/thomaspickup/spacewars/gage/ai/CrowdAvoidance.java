@@ -0,0 +1,603 @@
+package uk.co.thomaspickup.spacewars.gage.ai;
+
+import java.util.Arrays;
+
+import uk.co.thomaspickup.spacewars.gage.world.SpatialGrid;
+
+/**
+ * Crowd avoidance using optimal reciprocal collision avoidance (ORCA). Each
+ * agent has a preferred velocity, and the solver finds the velocity closest
+ * to it that will not bring the agent into collision with any of its
+ * neighbours within the time horizon, assuming avoiding neighbours take half
+ * of the responsibility for avoiding each collision.
+ *
+ * Agents that do not avoid (such as static obstacles, or sprites controlled
+ * by the player) are still avoided by the others, which take all of the
+ * responsibility for avoiding them.
+ *
+ * The agents are held as parallel arrays, and only the closest
+ * maxNeighbours neighbours within the neighbour distance are considered, so
+ * the cost for each agent is bounded however crowded the agents are. The
+ * neighbours are found from a SpatialGrid of the agents, with cells the size
+ * of the neighbour distance. The agents are added and then prepared once per
+ * tick; the velocity of each
+ * agent can then be computed on any thread, as computing the velocity of an
+ * agent only writes to the state of that agent. Nothing is allocated once the
+ * solver has grown.
+ *
+ * @version 1.0
+ */
+public class CrowdAvoidance {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Tolerance used when checking for parallel lines
+	 */
+	private static final float EPSILON = 0.00001f;
+
+	/**
+	 * Largest number of neighbours considered, the distance within which
+	 * agents are neighbours and the time ahead collisions are avoided for
+	 */
+	private final int mMaxNeighbours;
+	private final float mNeighbourDistance;
+	private final float mInverseTimeHorizon;
+
+	/**
+	 * Number of agents, and the state of each agent
+	 */
+	private int mAgentCount;
+	private float[] mPositionX = new float[0];
+	private float[] mPositionY = new float[0];
+	private float[] mVelocityX = new float[0];
+	private float[] mVelocityY = new float[0];
+	private float[] mRadius = new float[0];
+	private float[] mMaxSpeed = new float[0];
+	private boolean[] mAvoiding = new boolean[0];
+	private float[] mPreferredVelocityX = new float[0];
+	private float[] mPreferredVelocityY = new float[0];
+
+	/**
+	 * Velocity computed for each agent
+	 */
+	private float[] mNewVelocityX = new float[0];
+	private float[] mNewVelocityY = new float[0];
+
+	/**
+	 * Neighbours of each agent, closest first, and the squared distance to
+	 * each of them. Each agent has maxNeighbours entries.
+	 */
+	private int[] mNeighbours = new int[0];
+	private float[] mNeighbourDistancesPow2 = new float[0];
+
+	/**
+	 * Half-plane constraints of each agent, held as a point on the boundary
+	 * line and the direction of the line, with the permitted velocities on
+	 * the left. Each agent has maxNeighbours entries, and the same again for
+	 * the projected constraints used when the constraints cannot all be met.
+	 */
+	private float[] mLinePointX = new float[0];
+	private float[] mLinePointY = new float[0];
+	private float[] mLineDirectionX = new float[0];
+	private float[] mLineDirectionY = new float[0];
+	private float[] mProjectedPointX = new float[0];
+	private float[] mProjectedPointY = new float[0];
+	private float[] mProjectedDirectionX = new float[0];
+	private float[] mProjectedDirectionY = new float[0];
+
+	/**
+	 * Grid of the agent positions, used to find the neighbours of each agent
+	 */
+	private final SpatialGrid mGrid;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new crowd avoidance solver
+	 *
+	 * @param maxNeighbours
+	 *            Largest number of neighbours considered by each agent
+	 * @param neighbourDistance
+	 *            Distance (between centres) within which agents are
+	 *            considered neighbours
+	 * @param timeHorizon
+	 *            Time ahead for which collisions are avoided
+	 */
+	public CrowdAvoidance(int maxNeighbours, float neighbourDistance,
+			float timeHorizon) {
+		mMaxNeighbours = Math.max(1, maxNeighbours);
+		mNeighbourDistance = neighbourDistance;
+		mInverseTimeHorizon = 1.0f / timeHorizon;
+		mGrid = new SpatialGrid(neighbourDistance);
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Agents
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Get the number of agents
+	 *
+	 * @return Number of agents
+	 */
+	public int getAgentCount() {
+		return mAgentCount;
+	}
+
+	/**
+	 * Remove every agent
+	 */
+	public void clear() {
+		mAgentCount = 0;
+	}
+
+	/**
+	 * Add an agent. The preferred velocity of the agent is its current
+	 * velocity until it is set.
+	 *
+	 * @param x
+	 *            x location of the agent
+	 * @param y
+	 *            y location of the agent
+	 * @param velocityX
+	 *            x component of the current velocity
+	 * @param velocityY
+	 *            y component of the current velocity
+	 * @param radius
+	 *            Radius of the agent
+	 * @param maxSpeed
+	 *            Largest speed the agent can move at
+	 * @param avoiding
+	 *            true if the agent avoids the others, false if the others
+	 *            must avoid it
+	 * @return Index of the agent
+	 */
+	public int addAgent(float x, float y, float velocityX, float velocityY,
+			float radius, float maxSpeed, boolean avoiding) {
+		if (mAgentCount == mPositionX.length)
+			grow(Math.max(16, mAgentCount * 2));
+
+		int agent = mAgentCount++;
+		mPositionX[agent] = x;
+		mPositionY[agent] = y;
+		mVelocityX[agent] = velocityX;
+		mVelocityY[agent] = velocityY;
+		mRadius[agent] = radius;
+		mMaxSpeed[agent] = maxSpeed;
+		mAvoiding[agent] = avoiding;
+		mPreferredVelocityX[agent] = velocityX;
+		mPreferredVelocityY[agent] = velocityY;
+		mNewVelocityX[agent] = velocityX;
+		mNewVelocityY[agent] = velocityY;
+		return agent;
+	}
+
+	/**
+	 * Set the velocity the agent would move at if there was nothing to avoid
+	 *
+	 * @param agent
+	 *            Index of the agent
+	 * @param velocityX
+	 *            x component of the preferred velocity
+	 * @param velocityY
+	 *            y component of the preferred velocity
+	 */
+	public void setPreferredVelocity(int agent, float velocityX, float velocityY) {
+		mPreferredVelocityX[agent] = velocityX;
+		mPreferredVelocityY[agent] = velocityY;
+	}
+
+	/**
+	 * Get the x component of the velocity last computed for the agent
+	 *
+	 * @param agent
+	 *            Index of the agent
+	 * @return x component of the velocity
+	 */
+	public float getVelocityX(int agent) {
+		return mNewVelocityX[agent];
+	}
+
+	/**
+	 * Get the y component of the velocity last computed for the agent
+	 *
+	 * @param agent
+	 *            Index of the agent
+	 * @return y component of the velocity
+	 */
+	public float getVelocityY(int agent) {
+		return mNewVelocityY[agent];
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Solving
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Prepare to compute velocities, once every agent has been added
+	 */
+	public void prepare() {
+		// Each agent is held as a point at its position
+		mGrid.rebuild(mAgentCount, mPositionX, mPositionY, mPositionX,
+				mPositionY);
+	}
+
+	/**
+	 * Compute the velocity of an avoiding agent. Agents that do not avoid
+	 * keep their current velocity.
+	 *
+	 * @param agent
+	 *            Index of the agent
+	 * @param timeStep
+	 *            Time until the velocities are next computed
+	 */
+	public void computeVelocity(int agent, float timeStep) {
+		if (!mAvoiding[agent]) {
+			mNewVelocityX[agent] = mVelocityX[agent];
+			mNewVelocityY[agent] = mVelocityY[agent];
+			return;
+		}
+
+		int base = agent * mMaxNeighbours;
+		int neighbourCount = findNeighbours(agent, base);
+		int lineCount = 0;
+
+		float velocityX = mVelocityX[agent];
+		float velocityY = mVelocityY[agent];
+		float inverseTimeStep = 1.0f / timeStep;
+
+		// Build a half-plane of permitted velocities for each neighbour
+		for (int idx = 0; idx < neighbourCount; idx++) {
+			int other = mNeighbours[base + idx];
+
+			float relativePositionX = mPositionX[other] - mPositionX[agent];
+			float relativePositionY = mPositionY[other] - mPositionY[agent];
+			float relativeVelocityX = velocityX - mVelocityX[other];
+			float relativeVelocityY = velocityY - mVelocityY[other];
+			float distancePow2 = relativePositionX * relativePositionX
+					+ relativePositionY * relativePositionY;
+			float combinedRadius = mRadius[agent] + mRadius[other];
+			float combinedRadiusPow2 = combinedRadius * combinedRadius;
+
+			float directionX, directionY, uX, uY;
+			if (distancePow2 > combinedRadiusPow2) {
+				// Vector from the cut-off centre to the relative velocity
+				float wX = relativeVelocityX - mInverseTimeHorizon * relativePositionX;
+				float wY = relativeVelocityY - mInverseTimeHorizon * relativePositionY;
+				float wLengthPow2 = wX * wX + wY * wY;
+				float dotProduct = wX * relativePositionX + wY * relativePositionY;
+
+				if (dotProduct < 0.0f
+						&& dotProduct * dotProduct > combinedRadiusPow2 * wLengthPow2) {
+					// Project onto the cut-off circle
+					float wLength = (float) Math.sqrt(wLengthPow2);
+					float unitWX = wX / wLength;
+					float unitWY = wY / wLength;
+					directionX = unitWY;
+					directionY = -unitWX;
+					float scale = combinedRadius * mInverseTimeHorizon - wLength;
+					uX = scale * unitWX;
+					uY = scale * unitWY;
+				} else {
+					// Project onto the nearer leg of the cone
+					float leg = (float) Math.sqrt(distancePow2 - combinedRadiusPow2);
+					if (relativePositionX * wY - relativePositionY * wX > 0.0f) {
+						directionX = (relativePositionX * leg - relativePositionY * combinedRadius) / distancePow2;
+						directionY = (relativePositionX * combinedRadius + relativePositionY * leg) / distancePow2;
+					} else {
+						directionX = -(relativePositionX * leg + relativePositionY * combinedRadius) / distancePow2;
+						directionY = -(-relativePositionX * combinedRadius + relativePositionY * leg) / distancePow2;
+					}
+					float projection = relativeVelocityX * directionX + relativeVelocityY * directionY;
+					uX = projection * directionX - relativeVelocityX;
+					uY = projection * directionY - relativeVelocityY;
+				}
+			} else {
+				// Already colliding, so separate within the time step
+				float wX = relativeVelocityX - inverseTimeStep * relativePositionX;
+				float wY = relativeVelocityY - inverseTimeStep * relativePositionY;
+				float wLength = (float) Math.sqrt(wX * wX + wY * wY);
+				if (wLength < EPSILON)
+					continue;
+				float unitWX = wX / wLength;
+				float unitWY = wY / wLength;
+				directionX = unitWY;
+				directionY = -unitWX;
+				float scale = combinedRadius * inverseTimeStep - wLength;
+				uX = scale * unitWX;
+				uY = scale * unitWY;
+			}
+
+			// Take half of the responsibility if the neighbour also avoids
+			float responsibility = mAvoiding[other] ? 0.5f : 1.0f;
+			int line = base + lineCount++;
+			mLinePointX[line] = velocityX + responsibility * uX;
+			mLinePointY[line] = velocityY + responsibility * uY;
+			mLineDirectionX[line] = directionX;
+			mLineDirectionY[line] = directionY;
+		}
+
+		// Find the permitted velocity closest to the preferred velocity,
+		// or the velocity least in breach of the constraints if there is
+		// no permitted velocity
+		int failedLine = linearProgram2(mLinePointX, mLinePointY,
+				mLineDirectionX, mLineDirectionY, base, lineCount,
+				mMaxSpeed[agent], mPreferredVelocityX[agent],
+				mPreferredVelocityY[agent], false, agent);
+		if (failedLine < lineCount)
+			linearProgram3(base, lineCount, failedLine, mMaxSpeed[agent], agent);
+	}
+
+	/**
+	 * Find the closest neighbours of an agent, storing them from the
+	 * specified base
+	 *
+	 * @return Number of neighbours found
+	 */
+	private int findNeighbours(int agent, int base) {
+		float x = mPositionX[agent];
+		float y = mPositionY[agent];
+		float rangePow2 = mNeighbourDistance * mNeighbourDistance;
+		int count = 0;
+
+		SpatialGrid grid = mGrid;
+		int minCellX = grid.toCell(x - mNeighbourDistance);
+		int maxCellX = grid.toCell(x + mNeighbourDistance);
+		int minCellY = grid.toCell(y - mNeighbourDistance);
+		int maxCellY = grid.toCell(y + mNeighbourDistance);
+		for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+			for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+				int bucket = grid.getBucket(cellX, cellY);
+				int end = grid.getBucketEnd(bucket);
+				for (int entry = grid.getBucketStart(bucket); entry < end; entry++) {
+					// Skip agents of other cells sharing the bucket
+					if (!grid.isInCell(entry, cellX, cellY))
+						continue;
+					int other = grid.getItem(entry);
+					if (other == agent)
+						continue;
+
+					float separationX = mPositionX[other] - x;
+					float separationY = mPositionY[other] - y;
+					float distancePow2 = separationX * separationX
+							+ separationY * separationY;
+					if (distancePow2 >= rangePow2)
+						continue;
+
+					// Insert the neighbour in order of distance, dropping
+					// the furthest once there are enough neighbours
+					if (count < mMaxNeighbours)
+						count++;
+					else if (distancePow2 >= mNeighbourDistancesPow2[base + count - 1])
+						continue;
+					int position = base + count - 1;
+					while (position > base
+							&& mNeighbourDistancesPow2[position - 1] > distancePow2) {
+						mNeighbours[position] = mNeighbours[position - 1];
+						mNeighbourDistancesPow2[position] = mNeighbourDistancesPow2[position - 1];
+						position--;
+					}
+					mNeighbours[position] = other;
+					mNeighbourDistancesPow2[position] = distancePow2;
+				}
+			}
+		}
+		return count;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Linear Programs
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Find the point on a constraint line closest to the optimal velocity
+	 * (or furthest in the optimal direction) that meets the earlier
+	 * constraints and lies within the speed limit, storing it as the new
+	 * velocity of the agent
+	 *
+	 * @return false if no point on the line meets the constraints
+	 */
+	private boolean linearProgram1(float[] pointX, float[] pointY,
+			float[] directionX, float[] directionY, int base, int lineNo,
+			float radius, float optimalX, float optimalY,
+			boolean directionOptimal, int agent) {
+		int line = base + lineNo;
+		float dotProduct = pointX[line] * directionX[line] + pointY[line]
+				* directionY[line];
+		float discriminant = dotProduct * dotProduct + radius * radius
+				- (pointX[line] * pointX[line] + pointY[line] * pointY[line]);
+		if (discriminant < 0.0f)
+			return false;
+
+		float sqrtDiscriminant = (float) Math.sqrt(discriminant);
+		float tLeft = -dotProduct - sqrtDiscriminant;
+		float tRight = -dotProduct + sqrtDiscriminant;
+
+		for (int idx = 0; idx < lineNo; idx++) {
+			int other = base + idx;
+			float denominator = directionX[line] * directionY[other]
+					- directionY[line] * directionX[other];
+			float numerator = directionX[other] * (pointY[line] - pointY[other])
+					- directionY[other] * (pointX[line] - pointX[other]);
+
+			if (Math.abs(denominator) <= EPSILON) {
+				// The lines are parallel
+				if (numerator < 0.0f)
+					return false;
+				continue;
+			}
+
+			float t = numerator / denominator;
+			if (denominator >= 0.0f)
+				tRight = Math.min(tRight, t);
+			else
+				tLeft = Math.max(tLeft, t);
+			if (tLeft > tRight)
+				return false;
+		}
+
+		float t;
+		if (directionOptimal) {
+			t = optimalX * directionX[line] + optimalY * directionY[line] > 0.0f
+					? tRight : tLeft;
+		} else {
+			t = directionX[line] * (optimalX - pointX[line])
+					+ directionY[line] * (optimalY - pointY[line]);
+			if (t < tLeft)
+				t = tLeft;
+			else if (t > tRight)
+				t = tRight;
+		}
+		mNewVelocityX[agent] = pointX[line] + t * directionX[line];
+		mNewVelocityY[agent] = pointY[line] + t * directionY[line];
+		return true;
+	}
+
+	/**
+	 * Find the velocity within the speed limit closest to the optimal
+	 * velocity (or furthest in the optimal direction) that meets every
+	 * constraint, storing it as the new velocity of the agent
+	 *
+	 * @return Number of lines if successful, otherwise the line that could
+	 *         not be met
+	 */
+	private int linearProgram2(float[] pointX, float[] pointY,
+			float[] directionX, float[] directionY, int base, int lineCount,
+			float radius, float optimalX, float optimalY,
+			boolean directionOptimal, int agent) {
+		float optimalLengthPow2 = optimalX * optimalX + optimalY * optimalY;
+		if (directionOptimal) {
+			mNewVelocityX[agent] = optimalX * radius;
+			mNewVelocityY[agent] = optimalY * radius;
+		} else if (optimalLengthPow2 > radius * radius) {
+			float scale = radius / (float) Math.sqrt(optimalLengthPow2);
+			mNewVelocityX[agent] = optimalX * scale;
+			mNewVelocityY[agent] = optimalY * scale;
+		} else {
+			mNewVelocityX[agent] = optimalX;
+			mNewVelocityY[agent] = optimalY;
+		}
+
+		for (int idx = 0; idx < lineCount; idx++) {
+			int line = base + idx;
+			if (directionX[line] * (pointY[line] - mNewVelocityY[agent])
+					- directionY[line] * (pointX[line] - mNewVelocityX[agent]) > 0.0f) {
+				// The velocity breaks this constraint, so move onto its line
+				float previousX = mNewVelocityX[agent];
+				float previousY = mNewVelocityY[agent];
+				if (!linearProgram1(pointX, pointY, directionX, directionY,
+						base, idx, radius, optimalX, optimalY,
+						directionOptimal, agent)) {
+					mNewVelocityX[agent] = previousX;
+					mNewVelocityY[agent] = previousY;
+					return idx;
+				}
+			}
+		}
+		return lineCount;
+	}
+
+	/**
+	 * Find the velocity that breaks the constraints from the failed line on
+	 * by the least distance, storing it as the new velocity of the agent
+	 */
+	private void linearProgram3(int base, int lineCount, int beginLine,
+			float radius, int agent) {
+		float distance = 0.0f;
+
+		for (int idx = beginLine; idx < lineCount; idx++) {
+			int line = base + idx;
+			if (mLineDirectionX[line] * (mLinePointY[line] - mNewVelocityY[agent])
+					- mLineDirectionY[line] * (mLinePointX[line] - mNewVelocityX[agent]) <= distance)
+				continue;
+
+			// The velocity breaks this constraint by more than the others,
+			// so project the earlier constraints onto its line
+			int projectedCount = 0;
+			for (int earlier = 0; earlier < idx; earlier++) {
+				int other = base + earlier;
+				float determinant = mLineDirectionX[line] * mLineDirectionY[other]
+						- mLineDirectionY[line] * mLineDirectionX[other];
+
+				float projectedPointX, projectedPointY;
+				if (Math.abs(determinant) <= EPSILON) {
+					// The lines are parallel
+					if (mLineDirectionX[line] * mLineDirectionX[other]
+							+ mLineDirectionY[line] * mLineDirectionY[other] > 0.0f)
+						continue;
+					projectedPointX = 0.5f * (mLinePointX[line] + mLinePointX[other]);
+					projectedPointY = 0.5f * (mLinePointY[line] + mLinePointY[other]);
+				} else {
+					float t = (mLineDirectionX[other] * (mLinePointY[line] - mLinePointY[other])
+							- mLineDirectionY[other] * (mLinePointX[line] - mLinePointX[other]))
+							/ determinant;
+					projectedPointX = mLinePointX[line] + t * mLineDirectionX[line];
+					projectedPointY = mLinePointY[line] + t * mLineDirectionY[line];
+				}
+
+				float projectedDirectionX = mLineDirectionX[other] - mLineDirectionX[line];
+				float projectedDirectionY = mLineDirectionY[other] - mLineDirectionY[line];
+				float length = (float) Math.sqrt(projectedDirectionX * projectedDirectionX
+						+ projectedDirectionY * projectedDirectionY);
+				int projected = base + projectedCount++;
+				mProjectedPointX[projected] = projectedPointX;
+				mProjectedPointY[projected] = projectedPointY;
+				mProjectedDirectionX[projected] = projectedDirectionX / length;
+				mProjectedDirectionY[projected] = projectedDirectionY / length;
+			}
+
+			float previousX = mNewVelocityX[agent];
+			float previousY = mNewVelocityY[agent];
+			if (linearProgram2(mProjectedPointX, mProjectedPointY,
+					mProjectedDirectionX, mProjectedDirectionY, base,
+					projectedCount, radius, -mLineDirectionY[line],
+					mLineDirectionX[line], true, agent) < projectedCount) {
+				// Only fails through rounding, in which case keep the
+				// previous velocity
+				mNewVelocityX[agent] = previousX;
+				mNewVelocityY[agent] = previousY;
+			}
+
+			distance = mLineDirectionX[line] * (mLinePointY[line] - mNewVelocityY[agent])
+					- mLineDirectionY[line] * (mLinePointX[line] - mNewVelocityX[agent]);
+		}
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Storage
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Grow the storage of the agents to the specified capacity
+	 */
+	private void grow(int capacity) {
+		mPositionX = Arrays.copyOf(mPositionX, capacity);
+		mPositionY = Arrays.copyOf(mPositionY, capacity);
+		mVelocityX = Arrays.copyOf(mVelocityX, capacity);
+		mVelocityY = Arrays.copyOf(mVelocityY, capacity);
+		mRadius = Arrays.copyOf(mRadius, capacity);
+		mMaxSpeed = Arrays.copyOf(mMaxSpeed, capacity);
+		mAvoiding = Arrays.copyOf(mAvoiding, capacity);
+		mPreferredVelocityX = Arrays.copyOf(mPreferredVelocityX, capacity);
+		mPreferredVelocityY = Arrays.copyOf(mPreferredVelocityY, capacity);
+		mNewVelocityX = Arrays.copyOf(mNewVelocityX, capacity);
+		mNewVelocityY = Arrays.copyOf(mNewVelocityY, capacity);
+
+		int neighbourCapacity = capacity * mMaxNeighbours;
+		mNeighbours = new int[neighbourCapacity];
+		mNeighbourDistancesPow2 = new float[neighbourCapacity];
+		mLinePointX = new float[neighbourCapacity];
+		mLinePointY = new float[neighbourCapacity];
+		mLineDirectionX = new float[neighbourCapacity];
+		mLineDirectionY = new float[neighbourCapacity];
+		mProjectedPointX = new float[neighbourCapacity];
+		mProjectedPointY = new float[neighbourCapacity];
+		mProjectedDirectionX = new float[neighbourCapacity];
+		mProjectedDirectionY = new float[neighbourCapacity];
+	}
+}
@@ -0,0 +1,361 @@
+package uk.co.thomaspickup.spacewars.gage.ai;
+
+import uk.co.thomaspickup.spacewars.gage.util.BoundingBox;
+import uk.co.thomaspickup.spacewars.gage.util.Vector2;
+
+/**
+ * Flow field leading towards a target around obstacles. The area covered by
+ * the field is split into square cells, obstacles block the cells they cover
+ * and the shortest path from every cell to the target is worked out in one
+ * go (Dijkstra's algorithm over the cells and their eight neighbours). Each
+ * cell then holds the direction to its next cell along that path.
+ *
+ * The field is computed once and shared: finding the direction to follow
+ * from a position is a single lookup, however many sprites are following the
+ * field. Looking up directions only reads the field, so several threads can
+ * do so at once, as long as the field is not being computed at the same time.
+ * Computing the field does not allocate.
+ *
+ * @version 1.0
+ */
+public class FlowField {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Cost of moving to an orthogonal and to a diagonal neighbour
+	 */
+	private static final int ORTHOGONAL_COST = 10;
+	private static final int DIAGONAL_COST = 14;
+
+	/**
+	 * Distance of cells the target cannot be reached from
+	 */
+	private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	/**
+	 * Offsets of the eight neighbours of a cell, orthogonal neighbours first,
+	 * and the unit direction towards each of them
+	 */
+	private static final int[] NEIGHBOUR_X = { 1, 0, -1, 0, 1, -1, -1, 1 };
+	private static final int[] NEIGHBOUR_Y = { 0, 1, 0, -1, 1, 1, -1, -1 };
+	private static final float[] DIRECTION_X = new float[8];
+	private static final float[] DIRECTION_Y = new float[8];
+
+	static {
+		for (int neighbour = 0; neighbour < 8; neighbour++) {
+			float length = (float) Math.sqrt(NEIGHBOUR_X[neighbour]
+					* NEIGHBOUR_X[neighbour] + NEIGHBOUR_Y[neighbour]
+					* NEIGHBOUR_Y[neighbour]);
+			DIRECTION_X[neighbour] = NEIGHBOUR_X[neighbour] / length;
+			DIRECTION_Y[neighbour] = NEIGHBOUR_Y[neighbour] / length;
+		}
+	}
+
+	/**
+	 * Area covered by the field and the size of each cell
+	 */
+	private final float mLeft;
+	private final float mBottom;
+	private final float mCellSize;
+	private final int mColumns;
+	private final int mRows;
+
+	/**
+	 * Whether each cell is blocked by an obstacle
+	 */
+	private final boolean[] mBlocked;
+
+	/**
+	 * Distance from each cell to the target, and the neighbour each cell
+	 * leads to (or -1 if the cell leads nowhere)
+	 */
+	private final int[] mDistances;
+	private final byte[] mDirections;
+
+	/**
+	 * Binary heap of the cells still to be visited, ordered by their
+	 * distance. A cell can be queued once for each of its neighbours.
+	 */
+	private final int[] mHeapCells;
+	private final int[] mHeapDistances;
+	private int mHeapSize;
+
+	/**
+	 * Whether the field has been computed since it was created or cleared
+	 */
+	private boolean mComputed;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new flow field
+	 *
+	 * @param left
+	 *            Left edge of the area covered
+	 * @param bottom
+	 *            Bottom edge of the area covered
+	 * @param width
+	 *            Width of the area covered
+	 * @param height
+	 *            Height of the area covered
+	 * @param cellSize
+	 *            Size of each cell
+	 */
+	public FlowField(float left, float bottom, float width, float height,
+			float cellSize) {
+		mLeft = left;
+		mBottom = bottom;
+		mCellSize = cellSize;
+		mColumns = Math.max(1, (int) Math.ceil(width / cellSize));
+		mRows = Math.max(1, (int) Math.ceil(height / cellSize));
+
+		int cellCount = mColumns * mRows;
+		mBlocked = new boolean[cellCount];
+		mDistances = new int[cellCount];
+		mDirections = new byte[cellCount];
+		mHeapCells = new int[cellCount * 8 + 1];
+		mHeapDistances = new int[cellCount * 8 + 1];
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Obstacles
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Remove every obstacle. The directions already computed are kept until
+	 * the field is next computed.
+	 */
+	public void clearObstacles() {
+		for (int cell = 0; cell < mBlocked.length; cell++)
+			mBlocked[cell] = false;
+	}
+
+	/**
+	 * Block the cells whose centres lie within the specified bound, grown by
+	 * the specified margin (normally the half size of the sprites following
+	 * the field, so that they keep clear of the obstacle)
+	 *
+	 * @param bound
+	 *            Bound of the obstacle
+	 * @param margin
+	 *            Distance to grow the bound by on each side
+	 */
+	public void addObstacle(BoundingBox bound, float margin) {
+		float halfCell = mCellSize / 2.0f;
+		int minColumn = Math.max(0, (int) Math.ceil((bound.getLeft() - margin
+				- mLeft - halfCell) / mCellSize));
+		int maxColumn = Math.min(mColumns - 1, (int) Math.floor((bound.getRight()
+				+ margin - mLeft - halfCell) / mCellSize));
+		int minRow = Math.max(0, (int) Math.ceil((bound.getBottom() - margin
+				- mBottom - halfCell) / mCellSize));
+		int maxRow = Math.min(mRows - 1, (int) Math.floor((bound.getTop()
+				+ margin - mBottom - halfCell) / mCellSize));
+
+		for (int row = minRow; row <= maxRow; row++)
+			for (int column = minColumn; column <= maxColumn; column++)
+				mBlocked[row * mColumns + column] = true;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Computing the Field
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Compute the field, leading every cell that can reach the target along
+	 * the shortest path around the obstacles
+	 *
+	 * @param targetX
+	 *            x location of the target
+	 * @param targetY
+	 *            y location of the target
+	 */
+	public void compute(float targetX, float targetY) {
+		for (int cell = 0; cell < mDistances.length; cell++) {
+			mDistances[cell] = UNREACHABLE;
+			mDirections[cell] = -1;
+		}
+		mComputed = true;
+
+		int targetCell = toCell(targetX, targetY);
+		if (targetCell < 0)
+			return;
+
+		// Work out the distance of each cell from the target. The target
+		// cell is visited even if it is blocked, so the field still leads
+		// towards a target resting against an obstacle.
+		mHeapSize = 0;
+		mDistances[targetCell] = 0;
+		push(targetCell, 0);
+		while (mHeapSize > 0) {
+			int distance = mHeapDistances[0];
+			int cell = pop();
+			if (distance > mDistances[cell])
+				continue;
+
+			int column = cell % mColumns;
+			int row = cell / mColumns;
+			for (int neighbour = 0; neighbour < 8; neighbour++) {
+				int neighbourCell = toNeighbour(column, row, neighbour);
+				if (neighbourCell < 0 || mBlocked[neighbourCell])
+					continue;
+
+				int neighbourDistance = distance
+						+ (neighbour < 4 ? ORTHOGONAL_COST : DIAGONAL_COST);
+				if (neighbourDistance < mDistances[neighbourCell]) {
+					mDistances[neighbourCell] = neighbourDistance;
+					push(neighbourCell, neighbourDistance);
+				}
+			}
+		}
+
+		// Lead each cell to its closest neighbour. Cells within obstacles are
+		// led out to the closest open neighbour.
+		for (int cell = 0; cell < mDistances.length; cell++) {
+			if (cell == targetCell)
+				continue;
+
+			int column = cell % mColumns;
+			int row = cell / mColumns;
+			int bestDistance = mBlocked[cell] ? UNREACHABLE : mDistances[cell];
+			for (int neighbour = 0; neighbour < 8; neighbour++) {
+				int neighbourCell = toNeighbour(column, row, neighbour);
+				if (neighbourCell < 0
+						|| mDistances[neighbourCell] >= bestDistance)
+					continue;
+				if (neighbour >= 4 && !mBlocked[cell]
+						&& cutsCorner(column, row, neighbour))
+					continue;
+
+				bestDistance = mDistances[neighbourCell];
+				mDirections[cell] = (byte) neighbour;
+			}
+		}
+	}
+
+	/**
+	 * Determine if the field has been computed
+	 *
+	 * @return true if the field has been computed
+	 */
+	public boolean isComputed() {
+		return mComputed;
+	}
+
+	/**
+	 * Get the direction to follow from the specified position
+	 *
+	 * @param x
+	 *            x location
+	 * @param y
+	 *            y location
+	 * @param direction
+	 *            Output unit direction to follow
+	 * @return true if there is a direction to follow, false if the position is
+	 *         outside the field, in the target cell or cannot reach the target
+	 */
+	public boolean getDirection(float x, float y, Vector2 direction) {
+		int cell = toCell(x, y);
+		if (cell < 0 || mDirections[cell] < 0)
+			return false;
+
+		direction.set(DIRECTION_X[mDirections[cell]],
+				DIRECTION_Y[mDirections[cell]]);
+		return true;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Cells
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Get the cell covering the specified position
+	 *
+	 * @return Cell, or -1 if the position is outside the field
+	 */
+	private int toCell(float x, float y) {
+		float column = (x - mLeft) / mCellSize;
+		float row = (y - mBottom) / mCellSize;
+		if (!(column >= 0.0f && column < mColumns && row >= 0.0f && row < mRows))
+			return -1;
+		return (int) row * mColumns + (int) column;
+	}
+
+	/**
+	 * Get the specified neighbour of a cell
+	 *
+	 * @return Neighbouring cell, or -1 if it is outside the field
+	 */
+	private int toNeighbour(int column, int row, int neighbour) {
+		column += NEIGHBOUR_X[neighbour];
+		row += NEIGHBOUR_Y[neighbour];
+		if (column < 0 || column >= mColumns || row < 0 || row >= mRows)
+			return -1;
+		return row * mColumns + column;
+	}
+
+	/**
+	 * Determine if moving to a diagonal neighbour cuts the corner of a
+	 * blocked cell
+	 */
+	private boolean cutsCorner(int column, int row, int neighbour) {
+		int besideX = toNeighbour(column, row, NEIGHBOUR_X[neighbour] > 0 ? 0 : 2);
+		int besideY = toNeighbour(column, row, NEIGHBOUR_Y[neighbour] > 0 ? 1 : 3);
+		return (besideX >= 0 && mBlocked[besideX])
+				|| (besideY >= 0 && mBlocked[besideY]);
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Heap
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Queue a cell to be visited at the specified distance
+	 */
+	private void push(int cell, int distance) {
+		int idx = mHeapSize++;
+		while (idx > 0) {
+			int parent = (idx - 1) >>> 1;
+			if (mHeapDistances[parent] <= distance)
+				break;
+			mHeapCells[idx] = mHeapCells[parent];
+			mHeapDistances[idx] = mHeapDistances[parent];
+			idx = parent;
+		}
+		mHeapCells[idx] = cell;
+		mHeapDistances[idx] = distance;
+	}
+
+	/**
+	 * Remove the closest queued cell
+	 *
+	 * @return Closest queued cell
+	 */
+	private int pop() {
+		int cell = mHeapCells[0];
+		int lastCell = mHeapCells[--mHeapSize];
+		int lastDistance = mHeapDistances[mHeapSize];
+
+		int idx = 0;
+		while (true) {
+			int child = idx * 2 + 1;
+			if (child >= mHeapSize)
+				break;
+			if (child + 1 < mHeapSize
+					&& mHeapDistances[child + 1] < mHeapDistances[child])
+				child++;
+			if (mHeapDistances[child] >= lastDistance)
+				break;
+			mHeapCells[idx] = mHeapCells[child];
+			mHeapDistances[idx] = mHeapDistances[child];
+			idx = child;
+		}
+		mHeapCells[idx] = lastCell;
+		mHeapDistances[idx] = lastDistance;
+		return cell;
+	}
+}
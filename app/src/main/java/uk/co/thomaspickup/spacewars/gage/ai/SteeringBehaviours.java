@@ -2,9 +2,21 @@ package uk.co.thomaspickup.spacewars.gage.ai;
 
 import java.util.List;
 
+import uk.co.thomaspickup.spacewars.gage.util.FastMath;
 import uk.co.thomaspickup.spacewars.gage.util.Vector2;
 import uk.co.thomaspickup.spacewars.gage.world.Sprite;
 
+/**
+ * Steering behaviours for sprites. The behaviours keep no state of their own,
+ * so they can be used from several threads at once, as long as the sprites
+ * they read are not being changed at the same time.
+ *
+ * The separate behaviour acting on a list of sprites considers every sprite
+ * of the list it is given, so for large groups pass only the neighbours of
+ * the separating sprite.
+ *
+ * @version 1.0
+ */
 public class SteeringBehaviours {
 
 	// /////////////////////////////////////////////////////////////////////////
@@ -69,12 +81,6 @@ public class SteeringBehaviours {
 	// Arrive
 	// /////////////////////////////////////////////////////////////////////////
 
-	/**
-	 * Private variables use to facilitate the arrive functionality
-	 */
-	private static Vector2 arriveDirection = new Vector2();
-	private static Vector2 arriveSpeed = new Vector2();
-
 	/**
 	 * Output an acceleration vector for the specified sprite that will cause it
 	 * to arrive with a stopping velocity at the specified target.
@@ -90,28 +96,28 @@ public class SteeringBehaviours {
 			Vector2 arriveAcceleration) {
 
 		// Determine the current separation and target direction
-		arriveDirection.set(targetPosition.x - arrivingSprite.position.x,
-				targetPosition.y - arrivingSprite.position.y);
-		float distance = arriveDirection.length();
-		arriveDirection.divide(distance);
+		float directionX = targetPosition.x - arrivingSprite.position.x;
+		float directionY = targetPosition.y - arrivingSprite.position.y;
+		float distance = (float) Math.sqrt(directionX * directionX
+				+ directionY * directionY);
+		directionX /= distance;
+		directionY /= distance;
 
 		// Determining the slow down radius
 		float slowDownRadius = arrivingSprite.maxVelocity
 				* arrivingSprite.maxVelocity / arrivingSprite.maxAcceleration;
 
 		// Determine the target speed
-		if (distance > slowDownRadius) {
-			arriveSpeed.set(arriveDirection);
-			arriveSpeed.multiply(arrivingSprite.maxVelocity);
-		} else {
-			arriveSpeed.set(arriveDirection);
-			arriveSpeed.multiply(arrivingSprite.maxVelocity * distance
-					/ slowDownRadius);
-		}
+		float speed;
+		if (distance > slowDownRadius)
+			speed = arrivingSprite.maxVelocity;
+		else
+			speed = arrivingSprite.maxVelocity * distance / slowDownRadius;
 
 		// Determine the arrival acceleration
-		arriveAcceleration.set(arriveSpeed);
-		arriveAcceleration.subtract(arrivingSprite.velocity);
+		arriveAcceleration.set(directionX * speed
+				- arrivingSprite.velocity.x, directionY * speed
+				- arrivingSprite.velocity.y);
 
 		if (arriveAcceleration.lengthSquared() > arrivingSprite.maxAcceleration
 				* arrivingSprite.maxAcceleration) {
@@ -158,14 +164,9 @@ public class SteeringBehaviours {
 	 */
 	public static float align(Sprite aligningSprite, float targetOrientation,
 			float smoothness) {
-		// Determine the target rotation (in +-PI range)
-		float separation = targetOrientation - aligningSprite.orientation;
-		int numDivisions = (int) ((separation) / 180.0f);
-		if (numDivisions > 0)
-			numDivisions += 1;
-		else
-			numDivisions -= 1;
-		separation -= (numDivisions / 2) * 360;
+		// Determine the target rotation (in +-180 degree range)
+		float separation = FastMath.wrapDegrees(targetOrientation
+				- aligningSprite.orientation);
 		float absSeparation = separation < 0.0 ? -separation : separation;
 
 		// Determining the slow down rotational distance
@@ -208,12 +209,12 @@ public class SteeringBehaviours {
 	 */
 	public static float lookAt(Sprite aligningSprite, Vector2 targetPosition) {
 		// Determine the lookat vector
-		float targetOrientation = (float) Math.atan2(
+		float targetOrientation = FastMath.atan2Deg(
 				-(targetPosition.y - aligningSprite.position.y),
 				(targetPosition.x - aligningSprite.position.x));
 
 		// Determine the desired angular acceleration
-		return align(aligningSprite, (float) Math.toDegrees(targetOrientation));
+		return align(aligningSprite, targetOrientation);
 	}
 
 	/**
@@ -226,22 +227,17 @@ public class SteeringBehaviours {
 	 */
 	public static float alignWithMovement(Sprite aligningSprite) {
 		// Determine the direction of movement
-		float targetOrientation = (float) Math.atan2(
+		float targetOrientation = FastMath.atan2Deg(
 				-aligningSprite.velocity.y, aligningSprite.velocity.x);
 
 		// Determine the desired angular acceleration
-		return align(aligningSprite, (float) Math.toDegrees(targetOrientation));
+		return align(aligningSprite, targetOrientation);
 	}
 
 	// /////////////////////////////////////////////////////////////////////////
 	// Separate
 	// /////////////////////////////////////////////////////////////////////////
 
-	/**
-	 * Private variable used within the separate algorithms
-	 */
-	private static Vector2 separateAcceleration = new Vector2();
-
 	/**
 	 * Separate the specified sprite from the list of other sprites.
 	 * 
@@ -283,13 +279,10 @@ public class SteeringBehaviours {
 				if (repulsiveStrength > separatingSprite.maxAcceleration)
 					repulsiveStrength = separatingSprite.maxAcceleration;
 
-				// Build the repulsive force
-				separateAcceleration.set(separationX, separationY);
-				separateAcceleration.normalise();
-				separateAcceleration.multiply(repulsiveStrength);
-
-				// Update the output acceleration
-				outputAcceleration.add(separateAcceleration);
+				// Build the repulsive force and update the output acceleration
+				float separation = (float) Math.sqrt(separationPow2);
+				outputAcceleration.add(separationX / separation * repulsiveStrength,
+						separationY / separation * repulsiveStrength);
 			}
 		}
 	}
@@ -333,13 +326,10 @@ public class SteeringBehaviours {
 			if (repulsiveStrength > separatingSprite.maxAcceleration)
 				repulsiveStrength = separatingSprite.maxAcceleration;
 
-			// Build the repulsive force
-			separateAcceleration.set(separationX, separationY);
-			separateAcceleration.normalise();
-			separateAcceleration.multiply(repulsiveStrength);
-
-			// Update the output acceleration
-			outputAcceleration.add(separateAcceleration);
+			// Build the repulsive force and update the output acceleration
+			float separation = (float) Math.sqrt(separationPow2);
+			outputAcceleration.add(separationX / separation * repulsiveStrength,
+					separationY / separation * repulsiveStrength);
 		}
 	}
 }
@@ -1,7 +1,6 @@
 package uk.co.thomaspickup.spacewars.gage.engine;
 
 import android.content.Context;
-import android.graphics.Bitmap;
 import android.media.AudioManager;
 import android.media.SoundPool;
 import android.util.Log;
@@ -13,6 +12,9 @@ import java.util.HashMap;
 
 import uk.co.thomaspickup.spacewars.gage.engine.audio.Music;
 import uk.co.thomaspickup.spacewars.gage.engine.audio.Sound;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.Tracer;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.AndroidImage;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
 import uk.co.thomaspickup.spacewars.gage.engine.io.FileIO;
 
 /**
@@ -29,7 +31,7 @@ public class AssetStore {
     /**
      * Bitmap asset store
      */
-    private HashMap<String, Bitmap> mBitmaps;
+    private HashMap<String, IImage> mBitmaps;
 
     /**
      * Music asset store
@@ -40,6 +42,10 @@ public class AssetStore {
      * Sound asset store
      */
     private HashMap<String, Sound> mSounds;
+
+    /**
+     * Sound pool the sounds are loaded into, created with the first sound
+     */
     private SoundPool mSoundPool;
 
     /**
@@ -47,6 +53,11 @@ public class AssetStore {
      */
     private FileIO mFileIO;
 
+    /**
+     * Number of bytes used by the pixels of the stored bitmaps
+     */
+    private long mBitmapByteCount;
+
     // /////////////////////////////////////////////////////////////////////////
     // Constructors
     // /////////////////////////////////////////////////////////////////////////
@@ -58,11 +69,9 @@ public class AssetStore {
      */
     public AssetStore(FileIO fileIO) {
         mFileIO = fileIO;
-        mBitmaps = new HashMap<String, Bitmap>();
+        mBitmaps = new HashMap<String, IImage>();
         mMusic = new HashMap<String, Music>();
         mSounds = new HashMap<String, Sound>();
-        mSoundPool = new SoundPool(Sound.MAX_CONCURRENT_SOUNDS,
-                AudioManager.STREAM_MUSIC, 0);
     }
 
     // /////////////////////////////////////////////////////////////////////////
@@ -77,11 +86,12 @@ public class AssetStore {
      * @return boolean true if the asset could be added, false it not (e.g. an
      * asset with the specified name already exists).
      */
-    public boolean add(String assetName, Bitmap asset) {
+    public boolean add(String assetName, IImage asset) {
         if (mBitmaps.containsKey(assetName))
             return false;
 
         mBitmaps.put(assetName, asset);
+        mBitmapByteCount += asset.getByteCount();
         return true;
     }
 
@@ -94,7 +104,7 @@ public class AssetStore {
      * asset with the specified name already exists).
      */
     public boolean add(String assetName, Music asset) {
-        if (mBitmaps.containsKey(assetName))
+        if (mMusic.containsKey(assetName))
             return false;
 
         mMusic.put(assetName, asset);
@@ -118,35 +128,44 @@ public class AssetStore {
     }
 
     /**
-     * Load and add the specified bitmap asset to the store
+     * Load and add the specified bitmap asset to the store. If an asset with
+     * the specified name is already stored then it is not loaded again.
      *
      * @param assetName  Name given to the asset
      * @param bitmapFile Location of the bitmap asset
      * @return boolean true if the asset could be loaded and added, false if not
      */
     public boolean loadAndAddBitmap(String assetName, String bitmapFile) {
+        if (mBitmaps.containsKey(assetName))
+            return false;
 
+        Tracer.beginSection("AssetStore.loadAndAddBitmap", assetName);
         boolean success = true;
         try {
-            Bitmap bitmap = mFileIO.loadBitmap(bitmapFile, null);
+            IImage bitmap = new AndroidImage(mFileIO.loadBitmap(bitmapFile, null));
             success = add(assetName, bitmap);
         } catch (IOException e) {
             Log.e("Gage", "AssetStore.loadAndAddBitmap: Cannot load ["
                     + bitmapFile + "]");
             success = false;
         }
+        Tracer.endSection();
 
         return success;
     }
 
     /**
-     * Load and add the specified music asset to the store
+     * Load and add the specified music asset to the store. If an asset with
+     * the specified name is already stored then it is not loaded again.
      *
      * @param assetName Name given to the asset
      * @param musicFile Location of the music asset
      * @return boolean true if the asset could be loaded and added, false if not
      */
     public boolean loadAndAddMusic(String assetName, String musicFile) {
+        if (mMusic.containsKey(assetName))
+            return false;
+        Tracer.beginSection("AssetStore.loadAndAddMusic", assetName);
         boolean success = true;
         try {
             Music music = mFileIO.loadMusic(musicFile);
@@ -157,20 +176,30 @@ public class AssetStore {
                     + musicFile + "]");
             success = false;
         }
+        Tracer.endSection();
 
         return success;
     }
 
     /**
-     * Load and add the specified sound asset to the store
+     * Load and add the specified sound asset to the store. If an asset with
+     * the specified name is already stored then it is not loaded again.
      *
      * @param assetName Name given to the asset
      * @param soundFile Location of the sound asset
      * @return boolean true if the asset could be loaded and added, false if not
      */
     public boolean loadAndAddSound(String assetName, String soundFile) {
+        if (mSounds.containsKey(assetName))
+            return false;
+        Tracer.beginSection("AssetStore.loadAndAddSound", assetName);
         boolean success = true;
         try {
+            // The sound pool is only created once a sound is needed
+            if (mSoundPool == null)
+                mSoundPool = new SoundPool(Sound.MAX_CONCURRENT_SOUNDS,
+                        AudioManager.STREAM_MUSIC, 0);
+
             Sound sound = mFileIO.loadSound(soundFile, mSoundPool);
             success = add(assetName, sound);
         } catch (IOException e) {
@@ -178,6 +207,7 @@ public class AssetStore {
                     + soundFile + "]");
             success = false;
         }
+        Tracer.endSection();
 
         return success;
     }
@@ -188,7 +218,7 @@ public class AssetStore {
      * @param assetName Name of the asset to retrieve
      * @return Bitmap asset, null if the named asset could not be found
      */
-    public Bitmap getBitmap(String assetName) {
+    public IImage getBitmap(String assetName) {
         return mBitmaps.get(assetName);
     }
 
@@ -212,6 +242,15 @@ public class AssetStore {
         return mSounds.get(assetName);
     }
 
+    /**
+     * Return the number of bytes used by the pixels of the stored bitmaps
+     *
+     * @return Bitmap memory in bytes
+     */
+    public long getBitmapByteCount() {
+        return mBitmapByteCount;
+    }
+
     /**
      * Retrives the specified text file
      *
@@ -1,8 +1,13 @@
 package uk.co.thomaspickup.spacewars.gage.engine;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+import uk.co.thomaspickup.spacewars.gage.engine.debug.Tracer;
 import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
 
 /**
@@ -10,7 +15,13 @@ import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
  * Screens can be added or remove to reflect the evolution of the game. Within
  * the central game loop, the current game screen will be retrieved and
  * updated/rendered.
- * 
+ *
+ * Screens are held on a stack, with the screen on the top of the stack being
+ * the current screen. Pushing a screen pauses the screen below it and popping
+ * a screen resumes the screen that is revealed. Screens that leave the stack
+ * are either disposed or, if they are cacheable, kept warm within a bounded
+ * cache so that returning to them does not require them to be rebuilt.
+ *
  * @version 1.0
  */
 public class ScreenManager {
@@ -19,11 +30,32 @@ public class ScreenManager {
 	// Properties
 	// /////////////////////////////////////////////////////////////////////////
 
+	/**
+	 * Default number of warm screens that will be held within the cache
+	 */
+	public static final int DEFAULT_MAX_CACHED_SCREENS = 3;
+
 	/**
 	 * Collection of available game screens
 	 */
 	private Map<String, GameScreen> mGameScreens;
 
+	/**
+	 * Stack of game screens, the last entry is the top of the stack
+	 */
+	private List<GameScreen> mScreenStack;
+
+	/**
+	 * Cache of warm game screens that are no longer on the stack, held in
+	 * least recently used order
+	 */
+	private LinkedHashMap<String, GameScreen> mScreenCache;
+
+	/**
+	 * Maximum number of screens that will be held within the cache
+	 */
+	private int mMaxCachedScreens;
+
 	/**
 	 * Current game screen
 	 */
@@ -38,6 +70,9 @@ public class ScreenManager {
 	 */
 	public ScreenManager() {
 		mGameScreens = new HashMap<String, GameScreen>();
+		mScreenStack = new ArrayList<GameScreen>();
+		mScreenCache = new LinkedHashMap<String, GameScreen>(16, 0.75f, true);
+		mMaxCachedScreens = DEFAULT_MAX_CACHED_SCREENS;
 		mCurrentScreen = null;
 	}
 
@@ -47,10 +82,10 @@ public class ScreenManager {
 
 	/**
 	 * Add the specified game screen to the manager.
-	 * 
+	 *
 	 * Note: If this is the first game screen to be added to the manager then it
 	 * will automatically become the current game screen.
-	 * 
+	 *
 	 * @param screen
 	 *            GameScreen instance to be added
 	 * @return Boolean true if the screen was added, false if the screen could
@@ -62,17 +97,21 @@ public class ScreenManager {
 			return false;
 		mGameScreens.put(screen.getName(), screen);
 
-		// If this is the first added screen then automatically set it as
+		// If there is no current screen then automatically set it as
 		// the default game screen
-		if (mGameScreens.size() == 1)
+		if (mCurrentScreen == null) {
+			mScreenStack.add(screen);
 			mCurrentScreen = screen;
+		}
 
 		return true;
 	}
 
 	/**
-	 * Set the named game screen as the current screen.
-	 * 
+	 * Set the named game screen as the current screen. The named screen will
+	 * replace the screen on the top of the stack, which is retired (cached if
+	 * it is cacheable, otherwise disposed) as when popped.
+	 *
 	 * @param name
 	 *            String name reference for the target screen
 	 * @return Boolean true if the screen could be set as the current game
@@ -80,17 +119,30 @@ public class ScreenManager {
 	 *         name).
 	 */
 	public boolean setAsCurrentScreen(String name) {
-		GameScreen currentScreen = mGameScreens.get(name);
-		if (currentScreen != null) {
-			mCurrentScreen = currentScreen;
-			return true;
-		} else
+		GameScreen screen = mGameScreens.get(name);
+		if (screen == null)
 			return false;
+		if (screen == mCurrentScreen)
+			return true;
+
+		Tracer.beginSection("ScreenManager.setAsCurrentScreen", name);
+
+		// Take the named screen out of the stack before retiring the screen
+		// it replaces, so that the screen below is not revealed
+		mScreenStack.remove(screen);
+		if (mCurrentScreen != null)
+			retireScreen(mCurrentScreen, true);
+
+		mScreenStack.add(screen);
+		mCurrentScreen = screen;
+		mCurrentScreen.resume();
+		Tracer.endSection();
+		return true;
 	}
 
 	/**
 	 * Return the current game screen.
-	 * 
+	 *
 	 * @return Current game instance instance, or null if no current game screen
 	 *         has been defined.
 	 */
@@ -98,9 +150,20 @@ public class ScreenManager {
 		return mCurrentScreen;
 	}
 
+	/**
+	 * Return the game screen directly below the current screen on the stack.
+	 *
+	 * @return Game screen below the current screen, or null if the current
+	 *         screen is the only screen on the stack.
+	 */
+	public GameScreen getScreenBelowCurrent() {
+		int size = mScreenStack.size();
+		return size > 1 ? mScreenStack.get(size - 2) : null;
+	}
+
 	/**
 	 * Return the named game screen.
-	 * 
+	 *
 	 * @param name
 	 *            String name reference for the target screen.
 	 * @return Current game instance instance, or null if no the specified game
@@ -112,10 +175,10 @@ public class ScreenManager {
 
 	/**
 	 * Remove the specified game screen from the manager.
-	 * 
+	 *
 	 * Note: Remove a screen from the manager will not result in dispose being
 	 * automatically called on the removed screen.
-	 * 
+	 *
 	 * @param name
 	 *            String name reference for the screen to remove.
 	 * @return Boolean true if the screen was removed, false otherwise (the
@@ -123,14 +186,204 @@ public class ScreenManager {
 	 */
 	public boolean removeScreen(String name) {
 		GameScreen gameScreen = mGameScreens.remove(name);
-		return (gameScreen != null);
+		if (gameScreen == null)
+			return false;
+
+		mScreenStack.remove(gameScreen);
+		if (gameScreen == mCurrentScreen) {
+			mCurrentScreen = mScreenStack.isEmpty() ? null
+					: mScreenStack.get(mScreenStack.size() - 1);
+		}
+		return true;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Screen Stack
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Push the specified game screen onto the top of the stack, making it the
+	 * current screen. The screen that was previously current is paused and
+	 * remains on the stack. The pushed screen is resumed, so screens taken
+	 * from the cache will pick up where they left off.
+	 *
+	 * @param screen
+	 *            GameScreen instance to be pushed
+	 * @return Boolean true if the screen was pushed, false if a screen with the
+	 *         same name is already on the stack.
+	 */
+	public boolean pushScreen(GameScreen screen) {
+		if (mGameScreens.containsKey(screen.getName()))
+			return false;
+
+		Tracer.beginSection("ScreenManager.pushScreen", screen.getName());
+
+		// Pause the screen that is being covered
+		if (mCurrentScreen != null)
+			mCurrentScreen.pause();
+
+		mGameScreens.put(screen.getName(), screen);
+		mScreenStack.add(screen);
+		mCurrentScreen = screen;
+
+		mCurrentScreen.resume();
+		Tracer.endSection();
+		return true;
 	}
-	
+
+	/**
+	 * Pop the current screen off the top of the stack. The popped screen is
+	 * retired (cached if it is cacheable, otherwise disposed) and the screen
+	 * that is revealed is resumed.
+	 *
+	 * @return Game screen that is now current, or null if the stack is empty.
+	 */
+	public GameScreen popScreen() {
+		if (mCurrentScreen == null)
+			return null;
+
+		Tracer.beginSection("ScreenManager.popScreen", mCurrentScreen.getName());
+		retireScreen(mCurrentScreen, true);
+
+		if (mCurrentScreen != null)
+			mCurrentScreen.resume();
+		Tracer.endSection();
+		return mCurrentScreen;
+	}
+
+	/**
+	 * Replace the current screen with the specified screen. The replaced
+	 * screen is retired (cached if it is cacheable, otherwise disposed). Any
+	 * screens further down the stack are left in place.
+	 *
+	 * @param screen
+	 *            GameScreen instance that will become current
+	 */
+	public void replaceScreen(GameScreen screen) {
+		Tracer.beginSection("ScreenManager.replaceScreen", screen.getName());
+		if (mCurrentScreen != null)
+			retireScreen(mCurrentScreen, true);
+
+		// The covered screen (if any) is already paused, so push directly
+		mGameScreens.put(screen.getName(), screen);
+		mScreenStack.add(screen);
+		mCurrentScreen = screen;
+		mCurrentScreen.resume();
+		Tracer.endSection();
+	}
+
+	/**
+	 * Retire every screen currently on the stack and make the specified screen
+	 * the only screen on the stack. Only the current screen is paused, as the
+	 * screens below it were paused when they were covered.
+	 *
+	 * @param screen
+	 *            GameScreen instance that will become current
+	 */
+	public void setScreen(GameScreen screen) {
+		Tracer.beginSection("ScreenManager.setScreen", screen.getName());
+		if (mCurrentScreen != null)
+			retireScreen(mCurrentScreen, true);
+		while (mCurrentScreen != null)
+			retireScreen(mCurrentScreen, false);
+
+		pushScreen(screen);
+		Tracer.endSection();
+	}
+
+	/**
+	 * Remove the specified screen from the stack and either cache or dispose
+	 * of it.
+	 *
+	 * @param screen
+	 *            GameScreen to retire
+	 * @param pause
+	 *            True if the screen is running and needs to be paused, false
+	 *            if it was already paused when it was covered
+	 */
+	private void retireScreen(GameScreen screen, boolean pause) {
+		removeScreen(screen.getName());
+
+		if (pause)
+			screen.pause();
+		if (screen.isCacheable())
+			cacheScreen(screen);
+		else
+			screen.dispose();
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Screen Cache
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Set the maximum number of warm screens held within the cache. Screens
+	 * that no longer fit are disposed, least recently used first.
+	 *
+	 * @param maxCachedScreens
+	 *            Maximum number of cached screens
+	 */
+	public void setMaxCachedScreens(int maxCachedScreens) {
+		mMaxCachedScreens = maxCachedScreens;
+		trimCache();
+	}
+
+	/**
+	 * Get the maximum number of warm screens held within the cache
+	 *
+	 * @return Maximum number of cached screens
+	 */
+	public int getMaxCachedScreens() {
+		return mMaxCachedScreens;
+	}
+
+	/**
+	 * Take the named screen out of the cache. The returned screen is paused
+	 * and can be placed back on the stack using pushScreen, replaceScreen or
+	 * setScreen.
+	 *
+	 * @param name
+	 *            String name reference for the target screen
+	 * @return Cached game screen, or null if no warm instance is available
+	 */
+	public GameScreen getCachedScreen(String name) {
+		return mScreenCache.remove(name);
+	}
+
+	/**
+	 * Add the specified screen to the cache, disposing of the least recently
+	 * used screens if the cache is full.
+	 *
+	 * @param screen
+	 *            GameScreen to cache
+	 */
+	private void cacheScreen(GameScreen screen) {
+		GameScreen replaced = mScreenCache.put(screen.getName(), screen);
+		if (replaced != null && replaced != screen)
+			replaced.dispose();
+		trimCache();
+	}
+
+	/**
+	 * Dispose of cached screens until the cache is within its maximum size
+	 */
+	private void trimCache() {
+		Iterator<GameScreen> iterCache = mScreenCache.values().iterator();
+		while (mScreenCache.size() > mMaxCachedScreens && iterCache.hasNext()) {
+			GameScreen eldest = iterCache.next();
+			iterCache.remove();
+			eldest.dispose();
+		}
+	}
+
 	/**
 	 * Dispose of the manager and all game screens stored within the manager.
 	 */
 	public void dispose() {
 		for (GameScreen gameScreen : mGameScreens.values())
 			gameScreen.dispose();
+		for (GameScreen gameScreen : mScreenCache.values())
+			gameScreen.dispose();
+		mScreenCache.clear();
 	}
 }
@@ -0,0 +1,38 @@
+package uk.co.thomaspickup.spacewars.gage.engine.debug;
+
+/**
+ * The debug counters interface allows a game screen to report live counts,
+ * e.g. of the entities in its world, to the performance overlay. Counters are
+ * read once per frame on the game loop thread, so they should be cheap to
+ * determine and must not allocate.
+ *
+ * @version 1.0
+ */
+public interface IDebugCounters {
+
+	/**
+	 * Get the number of counters reported
+	 *
+	 * @return Number of counters
+	 */
+	public int getDebugCounterCount();
+
+	/**
+	 * Get the name of the specified counter. The same String instance should
+	 * be returned each time.
+	 *
+	 * @param index
+	 *            Index of the counter
+	 * @return Name of the counter
+	 */
+	public String getDebugCounterName(int index);
+
+	/**
+	 * Get the current value of the specified counter
+	 *
+	 * @param index
+	 *            Index of the counter
+	 * @return Value of the counter
+	 */
+	public int getDebugCounterValue(int index);
+}
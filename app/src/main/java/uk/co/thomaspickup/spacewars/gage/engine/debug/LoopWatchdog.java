@@ -0,0 +1,390 @@
+package uk.co.thomaspickup.spacewars.gage.engine.debug;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+
+import uk.co.thomaspickup.spacewars.gage.Game;
+import uk.co.thomaspickup.spacewars.gage.engine.io.FileIO;
+import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
+
+/**
+ * Watchdog monitoring the heartbeat of the game loop. The game loop reports
+ * when it starts the update and draw of each frame and when the frame is
+ * complete. Should an update or draw run for longer than the stall threshold
+ * the watchdog writes a report holding the current screen, frame metrics and
+ * the stack of every thread to a rotating file in the app's private storage.
+ *
+ * As the game loop waits without a timeout for the update and draw to be
+ * completed, a missed completion notification would otherwise hang the game
+ * silently. If recovery is enabled, a phase running past the recovery
+ * threshold has its completion forced so the game loop can move on.
+ *
+ * @version 1.0
+ */
+public class LoopWatchdog implements Runnable {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Phases of the game loop
+	 */
+	private static final int PHASE_IDLE = 0;
+	private static final int PHASE_UPDATE = 1;
+	private static final int PHASE_DRAW = 2;
+	private static final String[] PHASE_NAMES = { "idle", "update", "draw" };
+
+	/**
+	 * Name of the file reports are written to. Once the file exceeds
+	 * MAX_FILE_LENGTH it is rotated to FILE_NAME.1, FILE_NAME.2, and so on, with
+	 * at most MAX_ROTATED_FILES older files kept.
+	 */
+	public static final String FILE_NAME = "stalls.txt";
+	private static final long MAX_FILE_LENGTH = 64 * 1024;
+	private static final int MAX_ROTATED_FILES = 2;
+
+	/**
+	 * Period (in ms) between checks of the heartbeat
+	 */
+	private static final long CHECK_PERIOD = 100L;
+
+	/**
+	 * Game whose loop is being watched
+	 */
+	private Game mGame;
+
+	/**
+	 * Phase the game loop is in and the time (in ns) at which it entered the
+	 * phase. The start time is written before the phase, so a reader that
+	 * sees a phase will see a start time no older than the phase.
+	 */
+	private volatile int mPhase = PHASE_IDLE;
+	private volatile long mPhaseStart;
+
+	/**
+	 * Number of frames completed by the game loop
+	 */
+	private volatile long mFrameCount;
+
+	/**
+	 * Time (in ns) an update or draw may run for before it is reported
+	 */
+	private long mStallThreshold = 1000000000L;
+
+	/**
+	 * Time (in ns) an update or draw may run for before its completion is
+	 * forced, or 0 if recovery is disabled
+	 */
+	private long mRecoveryThreshold = 5000000000L;
+
+	/**
+	 * Start times of the phases that have already been reported and recovered,
+	 * so each stalled phase is reported and recovered only once
+	 */
+	private long mReportedPhaseStart = -1L;
+	private long mRecoveredPhaseStart = -1L;
+
+	/**
+	 * Number of stalls seen since the watchdog was created
+	 */
+	private int mStallCount;
+
+	/**
+	 * Thread on which the watchdog runs, and the game loop thread it watches
+	 */
+	private Thread mWatchdogThread;
+	private volatile Thread mLoopThread;
+
+	/**
+	 * Flag determining if the watchdog is running
+	 */
+	private volatile boolean mRunning;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new watchdog for the game loop of the specified game
+	 *
+	 * @param game
+	 *            Game whose loop is to be watched
+	 */
+	public LoopWatchdog(Game game) {
+		mGame = game;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Configuration
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Set the time an update or draw may run for before it is reported
+	 *
+	 * @param stallThreshold
+	 *            Stall threshold in ms
+	 */
+	public void setStallThreshold(long stallThreshold) {
+		mStallThreshold = stallThreshold * 1000000L;
+	}
+
+	/**
+	 * Set the time an update or draw may run for before its completion is
+	 * forced
+	 *
+	 * @param recoveryThreshold
+	 *            Recovery threshold in ms, or 0 to disable recovery
+	 */
+	public void setRecoveryThreshold(long recoveryThreshold) {
+		mRecoveryThreshold = recoveryThreshold * 1000000L;
+	}
+
+	/**
+	 * Get the number of stalls seen since the watchdog was created
+	 *
+	 * @return Number of stalls
+	 */
+	public int getStallCount() {
+		return mStallCount;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Heartbeat
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Report that the game loop has started an update. Called on the game
+	 * loop thread.
+	 */
+	public void beginUpdate() {
+		mLoopThread = Thread.currentThread();
+		enterPhase(PHASE_UPDATE);
+	}
+
+	/**
+	 * Report that the game loop has started a draw. Called on the game loop
+	 * thread.
+	 */
+	public void beginDraw() {
+		enterPhase(PHASE_DRAW);
+	}
+
+	/**
+	 * Report that the game loop has completed a frame. Called on the game loop
+	 * thread.
+	 */
+	public void endFrame() {
+		enterPhase(PHASE_IDLE);
+		mFrameCount++;
+	}
+
+	/**
+	 * Record the phase entered by the game loop
+	 *
+	 * @param phase
+	 *            Phase entered
+	 */
+	private void enterPhase(int phase) {
+		mPhaseStart = System.nanoTime();
+		mPhase = phase;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Start/Stop
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Start watching the game loop on a new thread
+	 */
+	public void start() {
+		mPhase = PHASE_IDLE;
+		mRunning = true;
+		mWatchdogThread = new Thread(this, "LoopWatchdog");
+		mWatchdogThread.setDaemon(true);
+		mWatchdogThread.start();
+	}
+
+	/**
+	 * Stop watching the game loop, waiting for the watchdog thread to finish
+	 */
+	public void stop() {
+		mRunning = false;
+		if (mWatchdogThread == null)
+			return;
+		mWatchdogThread.interrupt();
+		while (true) {
+			try {
+				mWatchdogThread.join();
+				mWatchdogThread = null;
+				return;
+			} catch (InterruptedException e) {
+				// retry
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run() {
+		while (mRunning) {
+			try {
+				Thread.sleep(CHECK_PERIOD);
+			} catch (InterruptedException e) {
+				continue;
+			}
+
+			int phase = mPhase;
+			long phaseStart = mPhaseStart;
+			if (phase == PHASE_IDLE)
+				continue;
+			long phaseTime = System.nanoTime() - phaseStart;
+
+			// Report each stalled phase once
+			if (phaseTime > mStallThreshold
+					&& phaseStart != mReportedPhaseStart) {
+				mReportedPhaseStart = phaseStart;
+				mStallCount++;
+				Tracer.instant("LoopWatchdog.stall", PHASE_NAMES[phase]);
+				writeReport(phase, phaseTime);
+			}
+
+			// Force the completion of the stalled phase, if enabled
+			if (mRecoveryThreshold > 0 && phaseTime > mRecoveryThreshold
+					&& phaseStart != mRecoveredPhaseStart) {
+				mRecoveredPhaseStart = phaseStart;
+				Log.w("Gage", "LoopWatchdog: Forcing completion of the "
+						+ PHASE_NAMES[phase] + " after "
+						+ phaseTime / 1000000L + " ms");
+				if (phase == PHASE_UPDATE)
+					mGame.notifyUpdateCompleted();
+				else
+					mGame.notifyDrawCompleted();
+			}
+		}
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Reporting
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Append a report of the stalled phase to the stall file, rotating the
+	 * file first if it has grown too large
+	 *
+	 * @param phase
+	 *            Stalled phase
+	 * @param phaseTime
+	 *            Time (in ns) the phase has run for
+	 */
+	private void writeReport(int phase, long phaseTime) {
+		Log.w("Gage", "LoopWatchdog: The " + PHASE_NAMES[phase]
+				+ " has run for " + phaseTime / 1000000L + " ms");
+
+		FileIO fileIO = mGame.getFileIO();
+		try {
+			if (fileIO.getPrivateFileLength(FILE_NAME) > MAX_FILE_LENGTH)
+				rotateFiles(fileIO);
+
+			PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+					fileIO.appendPrivateFile(FILE_NAME), "UTF-8"));
+			try {
+				printReport(writer, phase, phaseTime);
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			Log.e("Gage", "LoopWatchdog: Cannot write [" + FILE_NAME + "]", e);
+		}
+	}
+
+	/**
+	 * Shift each stall file along by one, discarding the oldest
+	 *
+	 * @param fileIO
+	 *            File IO service holding the files
+	 * @throws IOException
+	 *             if a file could not be renamed
+	 */
+	private void rotateFiles(FileIO fileIO) throws IOException {
+		fileIO.deletePrivateFile(FILE_NAME + "." + MAX_ROTATED_FILES);
+		for (int idx = MAX_ROTATED_FILES - 1; idx > 0; idx--) {
+			String fileName = FILE_NAME + "." + idx;
+			if (fileIO.privateFileExists(fileName))
+				fileIO.renamePrivateFile(fileName, FILE_NAME + "." + (idx + 1));
+		}
+		fileIO.renamePrivateFile(FILE_NAME, FILE_NAME + ".1");
+	}
+
+	/**
+	 * Print a report of the stalled phase
+	 *
+	 * @param writer
+	 *            Writer to print the report to
+	 * @param phase
+	 *            Stalled phase
+	 * @param phaseTime
+	 *            Time (in ns) the phase has run for
+	 */
+	private void printReport(PrintWriter writer, int phase, long phaseTime) {
+		GameScreen screen = mGame.getScreenManager().getCurrentScreen();
+		Runtime runtime = Runtime.getRuntime();
+
+		writer.println("=== Stall "
+				+ new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.UK)
+						.format(new Date()));
+		writer.println("Phase: " + PHASE_NAMES[phase] + " for " + phaseTime
+				/ 1000000L + " ms");
+		writer.println("Screen: " + (screen != null ? screen.getName() : "none"));
+		writer.println(String.format(Locale.UK,
+				"Frames: %d, target %d fps, average %.1f fps, stalls %d",
+				mFrameCount, mGame.getTargetFramesPerSecond(),
+				mGame.getAverageFramesPerSecond(), mStallCount));
+		writer.println(String.format(Locale.UK,
+				"Memory: %d KB used of %d KB", (runtime.totalMemory() - runtime
+						.freeMemory()) / 1024, runtime.maxMemory() / 1024));
+
+		// The game loop thread first, followed by every other thread
+		Map<Thread, StackTraceElement[]> stackTraces = Thread
+				.getAllStackTraces();
+		Thread loopThread = mLoopThread;
+		if (loopThread != null && stackTraces.containsKey(loopThread))
+			printStackTrace(writer, loopThread, stackTraces.get(loopThread));
+		for (Map.Entry<Thread, StackTraceElement[]> entry : stackTraces
+				.entrySet()) {
+			if (entry.getKey() != loopThread)
+				printStackTrace(writer, entry.getKey(), entry.getValue());
+		}
+		writer.println();
+	}
+
+	/**
+	 * Print the stack trace of a thread
+	 *
+	 * @param writer
+	 *            Writer to print the stack trace to
+	 * @param thread
+	 *            Thread the stack trace was taken from
+	 * @param stackTrace
+	 *            Stack trace of the thread
+	 */
+	private void printStackTrace(PrintWriter writer, Thread thread,
+			StackTraceElement[] stackTrace) {
+		writer.println();
+		writer.println("\"" + thread.getName() + "\" " + thread.getState()
+				+ (thread == mLoopThread ? " (game loop)" : ""));
+		for (StackTraceElement element : stackTrace)
+			writer.println("    at " + element);
+	}
+}
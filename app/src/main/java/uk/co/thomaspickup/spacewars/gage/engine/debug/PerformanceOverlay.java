@@ -0,0 +1,394 @@
+package uk.co.thomaspickup.spacewars.gage.engine.debug;
+
+import java.lang.ref.WeakReference;
+
+import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect;
+import uk.co.thomaspickup.spacewars.gage.util.Pool;
+
+/**
+ * Debug overlay, drawn over the current game screen, showing the frame rate,
+ * a rolling graph of the update and draw times, the number of garbage
+ * collections, the live counters of the screen, the occupancy of the
+ * registered object pools and the memory used by the stored bitmaps.
+ *
+ * The overlay is intended to be left on during playtests. Frame timings are
+ * recorded into fixed arrays and the text is only rebuilt a few times a
+ * second, so neither recording nor drawing a frame allocates.
+ *
+ * @version 1.0
+ */
+public class PerformanceOverlay {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties: Configuration
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Number of frames shown in the frame time graph
+	 */
+	public static final int HISTORY_LENGTH = 120;
+
+	/**
+	 * Maximum number of object pools that can be registered
+	 */
+	public static final int MAX_POOLS = 8;
+
+	/**
+	 * Period (in ns) between rebuilds of the overlay text
+	 */
+	private static final long TEXT_REFRESH_PERIOD = 250000000L;
+
+	/**
+	 * Maximum number of lines of text shown
+	 */
+	private static final int MAX_LINES = 4;
+
+	/**
+	 * Colours used to draw the overlay
+	 */
+	private static final int BACKGROUND_COLOUR = 0xA0000000;
+	private static final int TEXT_COLOUR = 0xFFFFFFFF;
+	private static final int UPDATE_COLOUR = 0xFF40C040;
+	private static final int DRAW_COLOUR = 0xFFE0A030;
+	private static final int TARGET_COLOUR = 0xFFE04040;
+
+	/**
+	 * Flag determining if the overlay is shown
+	 */
+	private volatile boolean mEnabled;
+
+	/**
+	 * Target frame period in ms, marked on the frame time graph
+	 */
+	private float mTargetFrameTime = 1000.0f / 30.0f;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties: Sources
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Asset store whose bitmap memory is reported, or null
+	 */
+	private AssetStore mAssetStore;
+
+	/**
+	 * Registered object pools and their names
+	 */
+	private Pool<?>[] mPools = new Pool<?>[MAX_POOLS];
+	private String[] mPoolNames = new String[MAX_POOLS];
+	private int mPoolCount;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties: Recorded Statistics
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Update and draw times (in ms) of the recent frames, stored as a ring
+	 */
+	private float[] mUpdateTimes = new float[HISTORY_LENGTH];
+	private float[] mDrawTimes = new float[HISTORY_LENGTH];
+	private int mHistoryIndex;
+	private int mHistoryCount;
+
+	/**
+	 * Weighted average number of frames per second and the time at which the
+	 * last frame was recorded
+	 */
+	private float mFramesPerSecond;
+	private long mLastFrameTime;
+
+	/**
+	 * Weakly held object which is cleared by the garbage collector, used to
+	 * count collections without any platform specific API. At most one
+	 * collection is counted per frame.
+	 */
+	private WeakReference<Object> mGcSentinel = new WeakReference<Object>(
+			new Object());
+	private int mGcCount;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties: Cached Text and Drawing
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Lines of text shown, rebuilt every TEXT_REFRESH_PERIOD
+	 */
+	private String[] mLines = new String[MAX_LINES];
+	private int mLineCount;
+	private long mLastTextRefresh;
+	private StringBuilder mBuilder = new StringBuilder(128);
+
+	/**
+	 * Reusable rect and paints used whilst drawing
+	 */
+	private IntRect mRect = new IntRect();
+	private DrawPaint mBackgroundPaint = new DrawPaint(BACKGROUND_COLOUR);
+	private DrawPaint mTextPaint = new DrawPaint(TEXT_COLOUR);
+	private DrawPaint mUpdatePaint = new DrawPaint(UPDATE_COLOUR);
+	private DrawPaint mDrawPaint = new DrawPaint(DRAW_COLOUR);
+	private DrawPaint mTargetPaint = new DrawPaint(TARGET_COLOUR);
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Configuration
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Determine if the overlay is shown
+	 *
+	 * @return true if the overlay is shown, otherwise false
+	 */
+	public boolean isEnabled() {
+		return mEnabled;
+	}
+
+	/**
+	 * Show or hide the overlay
+	 *
+	 * @param enabled
+	 *            true to show the overlay
+	 */
+	public void setEnabled(boolean enabled) {
+		mEnabled = enabled;
+		mLastTextRefresh = 0L;
+	}
+
+	/**
+	 * Show the overlay if it is hidden, otherwise hide it
+	 */
+	public void toggle() {
+		setEnabled(!mEnabled);
+	}
+
+	/**
+	 * Set the target frame rate, marked on the frame time graph
+	 *
+	 * @param targetFramesPerSecond
+	 *            Target number of frames per second
+	 */
+	public void setTargetFramesPerSecond(int targetFramesPerSecond) {
+		mTargetFrameTime = 1000.0f / targetFramesPerSecond;
+	}
+
+	/**
+	 * Set the asset store whose bitmap memory is reported
+	 *
+	 * @param assetStore
+	 *            Asset store, or null
+	 */
+	public void setAssetStore(AssetStore assetStore) {
+		mAssetStore = assetStore;
+	}
+
+	/**
+	 * Register an object pool whose occupancy is reported. A pool registered
+	 * with the name of an existing pool replaces it.
+	 *
+	 * @param name
+	 *            Name shown for the pool
+	 * @param pool
+	 *            Pool to report
+	 * @return true if the pool was registered, false if MAX_POOLS pools are
+	 *         already registered
+	 */
+	public boolean addPool(String name, Pool<?> pool) {
+		for (int idx = 0; idx < mPoolCount; idx++) {
+			if (mPoolNames[idx].equals(name)) {
+				mPools[idx] = pool;
+				return true;
+			}
+		}
+
+		if (mPoolCount == MAX_POOLS)
+			return false;
+		mPoolNames[mPoolCount] = name;
+		mPools[mPoolCount++] = pool;
+		return true;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Recording
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Record the timings of a completed frame. This should be called once per
+	 * frame, whether or not the overlay is shown, so that the history is
+	 * complete when the overlay is shown.
+	 *
+	 * @param updateTime
+	 *            Time (in ns) taken by the update
+	 * @param drawTime
+	 *            Time (in ns) taken by the draw
+	 * @param counters
+	 *            Counters of the current screen, or null
+	 */
+	public void recordFrame(long updateTime, long drawTime,
+							IDebugCounters counters) {
+		mUpdateTimes[mHistoryIndex] = updateTime / 1000000.0f;
+		mDrawTimes[mHistoryIndex] = drawTime / 1000000.0f;
+		mHistoryIndex = (mHistoryIndex + 1) % HISTORY_LENGTH;
+		if (mHistoryCount < HISTORY_LENGTH)
+			mHistoryCount++;
+
+		long currentTime = System.nanoTime();
+		if (mLastFrameTime != 0L)
+			mFramesPerSecond = 0.85f * mFramesPerSecond + 0.15f
+					* (1000000000.0f / (currentTime - mLastFrameTime));
+		mLastFrameTime = currentTime;
+
+		if (mGcSentinel.get() == null) {
+			mGcCount++;
+			mGcSentinel = new WeakReference<Object>(new Object());
+		}
+
+		if (mEnabled && currentTime - mLastTextRefresh >= TEXT_REFRESH_PERIOD) {
+			mLastTextRefresh = currentTime;
+			buildText(counters);
+		}
+	}
+
+	/**
+	 * Rebuild the lines of text shown by the overlay
+	 *
+	 * @param counters
+	 *            Counters of the current screen, or null
+	 */
+	private void buildText(IDebugCounters counters) {
+		float updateTotal = 0.0f, drawTotal = 0.0f, frameMax = 0.0f;
+		for (int idx = 0; idx < mHistoryCount; idx++) {
+			updateTotal += mUpdateTimes[idx];
+			drawTotal += mDrawTimes[idx];
+			frameMax = Math.max(frameMax, mUpdateTimes[idx] + mDrawTimes[idx]);
+		}
+		int frames = Math.max(mHistoryCount, 1);
+
+		mLineCount = 0;
+		StringBuilder builder = mBuilder;
+
+		builder.setLength(0);
+		builder.append("FPS ");
+		appendDecimal(builder, mFramesPerSecond);
+		builder.append("   update ");
+		appendDecimal(builder, updateTotal / frames);
+		builder.append(" ms   draw ");
+		appendDecimal(builder, drawTotal / frames);
+		builder.append(" ms   worst ");
+		appendDecimal(builder, frameMax);
+		builder.append(" ms");
+		mLines[mLineCount++] = builder.toString();
+
+		builder.setLength(0);
+		builder.append("GC ").append(mGcCount);
+		if (mAssetStore != null) {
+			builder.append("   bitmaps ");
+			appendDecimal(builder, mAssetStore.getBitmapByteCount()
+					/ (1024.0f * 1024.0f));
+			builder.append(" MB");
+		}
+		mLines[mLineCount++] = builder.toString();
+
+		if (mPoolCount > 0) {
+			builder.setLength(0);
+			builder.append("Pools");
+			for (int idx = 0; idx < mPoolCount; idx++)
+				builder.append("   ").append(mPoolNames[idx]).append(' ')
+						.append(mPools[idx].getFreeCount()).append('/')
+						.append(mPools[idx].getMaxPoolSize());
+			mLines[mLineCount++] = builder.toString();
+		}
+
+		if (counters != null && counters.getDebugCounterCount() > 0) {
+			builder.setLength(0);
+			for (int idx = 0; idx < counters.getDebugCounterCount(); idx++) {
+				if (idx > 0)
+					builder.append("   ");
+				builder.append(counters.getDebugCounterName(idx)).append(' ')
+						.append(counters.getDebugCounterValue(idx));
+			}
+			mLines[mLineCount++] = builder.toString();
+		}
+	}
+
+	/**
+	 * Append the specified value to one decimal place, without the
+	 * allocation of String.format
+	 *
+	 * @param builder
+	 *            Builder to append to
+	 * @param value
+	 *            Non-negative value to append
+	 */
+	private static void appendDecimal(StringBuilder builder, float value) {
+		int tenths = Math.round(value * 10.0f);
+		builder.append(tenths / 10).append('.').append(tenths % 10);
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Draw
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Draw the overlay in the bottom left corner of the surface. Nothing is
+	 * drawn if the overlay is not enabled.
+	 *
+	 * @param graphics2D
+	 *            Graphics instance to draw with
+	 */
+	public void draw(IGraphics2D graphics2D) {
+		if (!mEnabled)
+			return;
+
+		int surfaceWidth = graphics2D.getSurfaceWidth();
+		int surfaceHeight = graphics2D.getSurfaceHeight();
+
+		// Size the overlay relative to the surface
+		int padding = surfaceHeight / 80;
+		float textSize = surfaceHeight / 40.0f;
+		int lineHeight = (int) (textSize * 1.3f);
+		int graphHeight = surfaceHeight / 8;
+		int width = surfaceWidth / 2;
+		int height = padding * 3 + lineHeight * mLineCount + graphHeight;
+		int left = padding;
+		int top = surfaceHeight - padding - height;
+
+		mRect.set(left, top, left + width, top + height);
+		graphics2D.drawRect(mRect, mBackgroundPaint);
+
+		// Draw the cached text
+		mTextPaint.setTextSize(textSize);
+		for (int idx = 0; idx < mLineCount; idx++)
+			graphics2D.drawText(mLines[idx], left + padding, top + padding
+					+ textSize + lineHeight * idx, mTextPaint);
+
+		// Draw the frame times, oldest first, as update and draw stacked
+		// bars. The graph is scaled to twice the target frame time.
+		int graphLeft = left + padding;
+		int graphBottom = top + height - padding;
+		int graphWidth = width - padding * 2;
+		float scale = graphHeight / (mTargetFrameTime * 2.0f);
+		for (int bar = 0; bar < mHistoryCount; bar++) {
+			int idx = (mHistoryIndex - mHistoryCount + bar + HISTORY_LENGTH)
+					% HISTORY_LENGTH;
+			int barLeft = graphLeft + bar * graphWidth / HISTORY_LENGTH;
+			int barRight = graphLeft + (bar + 1) * graphWidth / HISTORY_LENGTH;
+
+			int updateTop = graphBottom
+					- (int) Math.min(mUpdateTimes[idx] * scale, graphHeight);
+			int drawTop = graphBottom
+					- (int) Math.min((mUpdateTimes[idx] + mDrawTimes[idx])
+							* scale, graphHeight);
+
+			mRect.set(barLeft, updateTop, barRight, graphBottom);
+			graphics2D.drawRect(mRect, mUpdatePaint);
+			mRect.set(barLeft, drawTop, barRight, updateTop);
+			graphics2D.drawRect(mRect, mDrawPaint);
+		}
+
+		// Mark the target frame time
+		int targetY = graphBottom - graphHeight / 2;
+		mRect.set(graphLeft, targetY, graphLeft + graphWidth, targetY + 2);
+		graphics2D.drawRect(mRect, mTargetPaint);
+	}
+}
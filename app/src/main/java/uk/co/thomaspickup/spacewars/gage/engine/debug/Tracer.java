@@ -0,0 +1,324 @@
+package uk.co.thomaspickup.spacewars.gage.engine.debug;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import uk.co.thomaspickup.spacewars.gage.engine.io.FileIO;
+
+/**
+ * Lightweight tracer recording begin/end sections and instant events into a
+ * lock-free ring buffer. The buffer can be written out on demand in the
+ * Chrome Trace Event format, which is opened by chrome://tracing and by the
+ * Perfetto UI to give a timeline of each thread.
+ *
+ * Sections are recorded by the thread that opens and closes them and must be
+ * properly nested on that thread. Section names are held by reference, so
+ * constant Strings should be used; recording an event does not allocate.
+ * Whilst tracing is disabled, recording an event only reads a flag.
+ *
+ * Once the buffer is full the oldest events are overwritten, so a flush
+ * always holds the most recent CAPACITY events.
+ *
+ * @version 1.0
+ */
+public final class Tracer {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Number of events held by the ring buffer (a power of two)
+	 */
+	public static final int CAPACITY = 1 << 16;
+
+	/**
+	 * Mask mapping an event sequence number onto its slot
+	 */
+	private static final int MASK = CAPACITY - 1;
+
+	/**
+	 * Event phases, as defined by the trace event format
+	 */
+	private static final byte PHASE_BEGIN = 'B';
+	private static final byte PHASE_END = 'E';
+	private static final byte PHASE_INSTANT = 'i';
+
+	/**
+	 * Flag determining if events are recorded
+	 */
+	private static volatile boolean sEnabled;
+
+	/**
+	 * Sequence number of the next event to be recorded
+	 */
+	private static final AtomicLong sNextSequence = new AtomicLong();
+
+	/**
+	 * Sequence number of the event held in each slot, or -1 whilst the slot
+	 * is being written. The stamp is published after the event, so a reader
+	 * can tell if the slot changed whilst it was being read.
+	 */
+	private static final AtomicLongArray sStamps = new AtomicLongArray(CAPACITY);
+
+	/**
+	 * Event data, stored by slot
+	 */
+	private static final long[] sTimes = new long[CAPACITY];
+	private static final byte[] sPhases = new byte[CAPACITY];
+	private static final String[] sNames = new String[CAPACITY];
+	private static final String[] sDetails = new String[CAPACITY];
+	private static final long[] sThreadIds = new long[CAPACITY];
+	private static final String[] sThreadNames = new String[CAPACITY];
+
+	static {
+		for (int slot = 0; slot < CAPACITY; slot++)
+			sStamps.set(slot, -1L);
+	}
+
+	private Tracer() {
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Recording
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Determine if events are being recorded
+	 *
+	 * @return true if events are being recorded, otherwise false
+	 */
+	public static boolean isEnabled() {
+		return sEnabled;
+	}
+
+	/**
+	 * Start or stop recording events. Events already recorded are kept.
+	 *
+	 * @param enabled
+	 *            true to record events
+	 */
+	public static void setEnabled(boolean enabled) {
+		sEnabled = enabled;
+	}
+
+	/**
+	 * Begin a section on the calling thread
+	 *
+	 * @param name
+	 *            Name of the section
+	 */
+	public static void beginSection(String name) {
+		if (sEnabled)
+			record(PHASE_BEGIN, name, null);
+	}
+
+	/**
+	 * Begin a section on the calling thread, with a detail shown as an
+	 * argument of the section (e.g. the name of the screen or asset)
+	 *
+	 * @param name
+	 *            Name of the section
+	 * @param detail
+	 *            Detail of the section
+	 */
+	public static void beginSection(String name, String detail) {
+		if (sEnabled)
+			record(PHASE_BEGIN, name, detail);
+	}
+
+	/**
+	 * End the most recently begun section on the calling thread
+	 */
+	public static void endSection() {
+		if (sEnabled)
+			record(PHASE_END, null, null);
+	}
+
+	/**
+	 * Record an instant event on the calling thread, e.g. a screen transition
+	 *
+	 * @param name
+	 *            Name of the event
+	 * @param detail
+	 *            Detail of the event, or null
+	 */
+	public static void instant(String name, String detail) {
+		if (sEnabled)
+			record(PHASE_INSTANT, name, detail);
+	}
+
+	/**
+	 * Record an event into the next slot of the ring buffer
+	 *
+	 * @param phase
+	 *            Phase of the event
+	 * @param name
+	 *            Name of the event, or null for an end event
+	 * @param detail
+	 *            Detail of the event, or null
+	 */
+	private static void record(byte phase, String name, String detail) {
+		long sequence = sNextSequence.getAndIncrement();
+		int slot = (int) (sequence & MASK);
+		Thread thread = Thread.currentThread();
+
+		sStamps.set(slot, -1L);
+		sTimes[slot] = System.nanoTime();
+		sPhases[slot] = phase;
+		sNames[slot] = name;
+		sDetails[slot] = detail;
+		sThreadIds[slot] = thread.getId();
+		sThreadNames[slot] = thread.getName();
+		sStamps.lazySet(slot, sequence);
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Export
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Write the recorded events to the named file in device storage
+	 *
+	 * @param fileIO
+	 *            File IO service used to open the file
+	 * @param fileName
+	 *            Name of the file to write
+	 * @return Number of events written
+	 * @throws IOException
+	 *             if the file could not be written
+	 */
+	public static int flush(FileIO fileIO, String fileName) throws IOException {
+		OutputStream out = fileIO.writeFile(fileName);
+		try {
+			return writeTo(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Write the recorded events as a Chrome Trace Event JSON object. Events
+	 * can continue to be recorded whilst writing; any event overwritten
+	 * whilst it is being read is left out.
+	 *
+	 * @param out
+	 *            Stream to write the JSON to
+	 * @return Number of events written
+	 * @throws IOException
+	 *             if the events could not be written
+	 */
+	public static int writeTo(OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+
+		long end = sNextSequence.get();
+		long start = Math.max(0L, end - CAPACITY);
+
+		// Threads already named in the output
+		long[] namedThreads = new long[16];
+		int namedThreadCount = 0;
+
+		writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+		int written = 0;
+		long baseTime = -1L;
+		for (long sequence = start; sequence < end; sequence++) {
+			int slot = (int) (sequence & MASK);
+			if (sStamps.get(slot) != sequence)
+				continue;
+			long time = sTimes[slot];
+			byte phase = sPhases[slot];
+			String name = sNames[slot];
+			String detail = sDetails[slot];
+			long threadId = sThreadIds[slot];
+			String threadName = sThreadNames[slot];
+			if (sStamps.get(slot) != sequence)
+				continue;
+
+			// Name each thread the first time it appears
+			boolean named = false;
+			for (int idx = 0; idx < namedThreadCount && !named; idx++)
+				named = namedThreads[idx] == threadId;
+			if (!named) {
+				if (namedThreadCount == namedThreads.length) {
+					long[] grown = new long[namedThreads.length * 2];
+					System.arraycopy(namedThreads, 0, grown, 0, namedThreadCount);
+					namedThreads = grown;
+				}
+				namedThreads[namedThreadCount++] = threadId;
+				writer.write(written++ == 0 ? "\n" : ",\n");
+				writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":");
+				writer.write(Long.toString(threadId));
+				writer.write(",\"args\":{\"name\":");
+				writeString(writer, threadName);
+				writer.write("}}");
+			}
+
+			// Time stamps are in microseconds from the first event written
+			if (baseTime < 0L)
+				baseTime = time;
+			writer.write(written++ == 0 ? "\n" : ",\n");
+			writer.write("{\"ph\":\"");
+			writer.write((char) phase);
+			writer.write("\",\"pid\":1,\"tid\":");
+			writer.write(Long.toString(threadId));
+			writer.write(",\"ts\":");
+			writer.write(String.format(Locale.UK, "%.3f", (time - baseTime) / 1000.0));
+			if (name != null) {
+				writer.write(",\"name\":");
+				writeString(writer, name);
+			}
+			if (phase == PHASE_INSTANT)
+				writer.write(",\"s\":\"t\"");
+			if (detail != null) {
+				writer.write(",\"args\":{\"detail\":");
+				writeString(writer, detail);
+				writer.write("}");
+			}
+			writer.write("}");
+		}
+		writer.write("\n]}\n");
+		writer.flush();
+		return written;
+	}
+
+	/**
+	 * Write the specified value as a JSON string
+	 *
+	 * @param writer
+	 *            Writer to write to
+	 * @param value
+	 *            Value to write
+	 * @throws IOException
+	 *             if the value could not be written
+	 */
+	private static void writeString(Writer writer, String value)
+			throws IOException {
+		writer.write('"');
+		for (int idx = 0; idx < value.length(); idx++) {
+			char c = value.charAt(idx);
+			if (c == '"' || c == '\\') {
+				writer.write('\\');
+				writer.write(c);
+			} else if (c < 0x20) {
+				writer.write(String.format(Locale.UK, "\\u%04x", (int) c));
+			} else {
+				writer.write(c);
+			}
+		}
+		writer.write('"');
+	}
+
+	/**
+	 * Discard all recorded events
+	 */
+	public static void clear() {
+		for (int slot = 0; slot < CAPACITY; slot++)
+			sStamps.set(slot, -1L);
+	}
+}
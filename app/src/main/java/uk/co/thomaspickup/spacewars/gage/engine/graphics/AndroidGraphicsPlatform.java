@@ -0,0 +1,70 @@
+package uk.co.thomaspickup.spacewars.gage.engine.graphics;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * Android binding of the graphics platform, backed by bitmaps and canvases.
+ *
+ * @version 1.0
+ */
+public class AndroidGraphicsPlatform implements IGraphicsPlatform {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Reusable paint and rect used to measure text
+	 */
+	private Paint mTextPaint = new Paint();
+	private Rect mTextBounds = new Rect();
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphicsPlatform#
+	 * createImage(int, int)
+	 */
+	@Override
+	public IImage createImage(int width, int height) {
+		// An opaque 16-bit image is sufficient and halves the memory
+		return new AndroidImage(
+				Bitmap.createBitmap(width, height, Bitmap.Config.RGB_565));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphicsPlatform#
+	 * createGraphics(uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage)
+	 */
+	@Override
+	public IGraphics2D createGraphics(IImage image) {
+		CanvasGraphics2D graphics2D = new CanvasGraphics2D(null);
+		graphics2D.setCanvas(new Canvas(((AndroidImage) image).getBitmap()));
+		return graphics2D;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphicsPlatform#
+	 * getTextBounds(java.lang.String,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect)
+	 */
+	@Override
+	public void getTextBounds(String text, DrawPaint paint, IntRect bounds) {
+		mTextPaint.setTextSize(paint.textSize);
+		mTextPaint.getTextBounds(text, 0, text.length(), mTextBounds);
+		bounds.set(mTextBounds.left, mTextBounds.top, mTextBounds.right,
+				mTextBounds.bottom);
+	}
+}
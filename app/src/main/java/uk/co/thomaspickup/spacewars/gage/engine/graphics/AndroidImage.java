@@ -0,0 +1,87 @@
+package uk.co.thomaspickup.spacewars.gage.engine.graphics;
+
+import android.graphics.Bitmap;
+
+/**
+ * Android binding of the image interface, wrapping an Android bitmap.
+ *
+ * @version 1.0
+ */
+public class AndroidImage implements IImage {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Bitmap wrapped by this image
+	 */
+	private Bitmap mBitmap;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new image wrapping the specified bitmap
+	 *
+	 * @param bitmap
+	 *            Bitmap to wrap
+	 */
+	public AndroidImage(Bitmap bitmap) {
+		mBitmap = bitmap;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Return the bitmap wrapped by this image
+	 *
+	 * @return Wrapped bitmap
+	 */
+	public Bitmap getBitmap() {
+		return mBitmap;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage#getWidth()
+	 */
+	@Override
+	public int getWidth() {
+		return mBitmap.getWidth();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage#getHeight()
+	 */
+	@Override
+	public int getHeight() {
+		return mBitmap.getHeight();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage#getByteCount()
+	 */
+	@Override
+	public int getByteCount() {
+		return mBitmap.getByteCount();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage#dispose()
+	 */
+	@Override
+	public void dispose() {
+		mBitmap.recycle();
+	}
+}
@@ -1,14 +1,16 @@
 package uk.co.thomaspickup.spacewars.gage.engine.graphics;
 
 import android.content.res.AssetManager;
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Rect;
 
 /**
- * Graphics2D class that provides basic draw functionality for a canvas.
+ * Graphics2D class that provides basic draw functionality for a canvas. This
+ * is the Android binding of the graphics interface; the engine's rects,
+ * transforms and paints are copied into reusable Android equivalents as each
+ * draw is issued.
  * 
  * @version 1.0
  */
@@ -34,6 +36,16 @@ public class CanvasGraphics2D implements IGraphics2D {
 	 */
 	private AssetManager mAssetManager;
 
+	/**
+	 * Reusable Android rects, matrix and paint that the engine's equivalents
+	 * are copied into
+	 */
+	private Rect mSrcRect = new Rect();
+	private Rect mDesRect = new Rect();
+	private Matrix mMatrix = new Matrix();
+	private float[] mMatrixValues = new float[9];
+	private Paint mPaint = new Paint();
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Methods: Constructors
 	// /////////////////////////////////////////////////////////////////////////
@@ -61,26 +73,30 @@ public class CanvasGraphics2D implements IGraphics2D {
 	 * (non-Javadoc)
 	 * 
 	 * @see
-	 * uk.ac.qub.eeecs.gage.interfaces.IGraphics2D#drawBitmap(android.graphics
-	 * .Bitmap, android.graphics.Rect, android.graphics.Rect,
-	 * android.graphics.Paint)
+	 * uk.ac.qub.eeecs.gage.interfaces.IGraphics2D#drawBitmap(uk.co.thomaspickup
+	 * .spacewars.gage.engine.graphics.IImage, IntRect, IntRect, DrawPaint)
 	 */
 	@Override
-	public void drawBitmap(Bitmap bitmap, Rect srcRect, Rect desRect,
-						   Paint paint) {
-		mCanvas.drawBitmap(bitmap, srcRect, desRect, paint);
+	public void drawBitmap(IImage bitmap, IntRect srcRect, IntRect desRect,
+						   DrawPaint paint) {
+		mCanvas.drawBitmap(((AndroidImage) bitmap).getBitmap(),
+				toRect(srcRect, mSrcRect), toRect(desRect, mDesRect),
+				toPaint(paint));
 	}
 
 	/*
 	 * (non-Javadoc)
 	 * 
 	 * @see
-	 * uk.ac.qub.eeecs.gage.interfaces.IGraphics2D#drawBitmap(android.graphics
-	 * .Bitmap, android.graphics.Matrix, android.graphics.Paint)
+	 * uk.ac.qub.eeecs.gage.interfaces.IGraphics2D#drawBitmap(uk.co.thomaspickup
+	 * .spacewars.gage.engine.graphics.IImage, Transform, DrawPaint)
 	 */
 	@Override
-	public void drawBitmap(Bitmap bitmap, Matrix matrix, Paint paint) {
-		mCanvas.drawBitmap(bitmap, matrix, paint);
+	public void drawBitmap(IImage bitmap, Transform transform, DrawPaint paint) {
+		transform.getValues(mMatrixValues);
+		mMatrix.setValues(mMatrixValues);
+		mCanvas.drawBitmap(((AndroidImage) bitmap).getBitmap(), mMatrix,
+				toPaint(paint));
 	}
 
 	/*
@@ -88,21 +104,22 @@ public class CanvasGraphics2D implements IGraphics2D {
 	 * 
 	 * @see
 	 * uk.ac.qub.eeecs.gage.interfaces.IGraphics2D#drawText(java.lang.String,
-	 * float, float, android.graphics.Paint)
+	 * float, float, DrawPaint)
 	 */
 	@Override
-	public void drawText(String text, float x, float y, Paint paint) {
-		mCanvas.drawText(text, x, y, paint);
+	public void drawText(String text, float x, float y, DrawPaint paint) {
+		mCanvas.drawText(text, x, y, toPaint(paint));
 	}
 
-	/**
-	 *
-	 * @param r
-	 * @param paint
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see uk.ac.qub.eeecs.gage.interfaces.IGraphics2D#drawRect(IntRect,
+	 * DrawPaint)
 	 */
-	public void drawRect(Rect r, Paint paint) {
-		mCanvas.drawRect(r, paint);
-
+	@Override
+	public void drawRect(IntRect rect, DrawPaint paint) {
+		mCanvas.drawRect(toRect(rect, mDesRect), toPaint(paint));
 	}
 
 	/*
@@ -125,8 +142,17 @@ public class CanvasGraphics2D implements IGraphics2D {
 	 * @see uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D#clipRect(android.graphics.Rect)
 	 */
 	@Override
-	public void clipRect(Rect clipRegion) {
-		mCanvas.clipRect(clipRegion);
+	public void clipRect(IntRect clipRegion) {
+		mCanvas.clipRect(toRect(clipRegion, mDesRect));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D#scale(float, float)
+	 */
+	@Override
+	public void scale(float scaleX, float scaleY) {
+		mCanvas.scale(scaleX, scaleY);
 	}
 		
 	/*
@@ -149,5 +175,47 @@ public class CanvasGraphics2D implements IGraphics2D {
 		return mHeight;
 	}
 
+	/**
+	 * Return the canvas onto which this graphics instance renders. Only
+	 * screens that draw Android views need direct access to the canvas.
+	 *
+	 * @return Current canvas
+	 */
 	public Canvas getMCanvas() { return mCanvas; }
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Conversion
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Copy the specified engine rect into the specified Android rect
+	 *
+	 * @param rect
+	 *            Engine rect, may be null
+	 * @param out
+	 *            Android rect to copy into
+	 * @return Android rect, or null if the engine rect is null
+	 */
+	private static Rect toRect(IntRect rect, Rect out) {
+		if (rect == null)
+			return null;
+		out.set(rect.left, rect.top, rect.right, rect.bottom);
+		return out;
+	}
+
+	/**
+	 * Copy the specified engine paint into the reusable Android paint
+	 *
+	 * @param paint
+	 *            Engine paint, may be null
+	 * @return Android paint, or null if the engine paint is null
+	 */
+	private Paint toPaint(DrawPaint paint) {
+		if (paint == null)
+			return null;
+		mPaint.setColor(paint.colour);
+		mPaint.setTextSize(paint.textSize);
+		mPaint.setFilterBitmap(paint.filterBitmap);
+		return mPaint;
+	}
 }
@@ -2,6 +2,7 @@ package uk.co.thomaspickup.spacewars.gage.engine.graphics;
 
 import uk.co.thomaspickup.spacewars.gage.Game;
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.Tracer;
 import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
 import android.content.Context;
 import android.graphics.Canvas;
@@ -80,12 +81,11 @@ public class CanvasRenderSurface extends View implements IRenderSurface {
 	// Methods: Interface Implementation
 	// /////////////////////////////////////////////////////////////////////////
 
-	/*
-	 * (non-Javadoc)
+	/**
+	 * Return the Android View associated with this render surface.
 	 * 
-	 * @see uk.ac.qub.eeecs.gage.interfaces.IRenderSurface#getAsView()
+	 * @return View onto which the surface is drawn
 	 */
-	@Override
 	public View getAsView() {
 		return this;
 	}
@@ -119,7 +119,15 @@ public class CanvasRenderSurface extends View implements IRenderSurface {
 		// Request that the game screen render itself to this surface
 		// using the available graphics 2D instance
 		mCanvasGraphics2D.setCanvas(canvas);
+		Tracer.beginSection("GameScreen.draw", mScreenToRender.getName());
+		int saveCount = canvas.save();
 		mScreenToRender.draw(mElapsedTime, mCanvasGraphics2D);
+		canvas.restoreToCount(saveCount);
+		Tracer.endSection();
+
+		// Draw the performance overlay (if shown) over the screen, free of
+		// any clip or scale the screen has applied
+		mGame.getPerformanceOverlay().draw(mCanvasGraphics2D);
 
 		// Notify the game that the render has been completed
 		mGame.notifyDrawCompleted();
@@ -0,0 +1,79 @@
+package uk.co.thomaspickup.spacewars.gage.engine.graphics;
+
+/**
+ * Platform independent paint parameters controlling how shapes, text and
+ * images are drawn. Each graphics binding maps these onto its own paint.
+ *
+ * @version 1.0
+ */
+public class DrawPaint {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * ARGB colour used to fill shapes and text, opaque black by default
+	 */
+	public int colour = 0xFF000000;
+
+	/**
+	 * Text size in pixels
+	 */
+	public float textSize = 12.0f;
+
+	/**
+	 * Whether scaled images should be filtered
+	 */
+	public boolean filterBitmap;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors and Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new paint with the default parameters
+	 */
+	public DrawPaint() {
+	}
+
+	/**
+	 * Create a new paint of the specified colour
+	 *
+	 * @param colour
+	 *            ARGB colour
+	 */
+	public DrawPaint(int colour) {
+		this.colour = colour;
+	}
+
+	/**
+	 * Set the colour of the paint
+	 *
+	 * @param colour
+	 *            ARGB colour
+	 */
+	public void setColour(int colour) {
+		this.colour = colour;
+	}
+
+	/**
+	 * Set the text size of the paint
+	 *
+	 * @param textSize
+	 *            Text size in pixels
+	 */
+	public void setTextSize(float textSize) {
+		this.textSize = textSize;
+	}
+
+	/**
+	 * Set whether scaled images should be filtered
+	 *
+	 * @param filterBitmap
+	 *            true to filter scaled images
+	 */
+	public void setFilterBitmap(boolean filterBitmap) {
+		this.filterBitmap = filterBitmap;
+	}
+}
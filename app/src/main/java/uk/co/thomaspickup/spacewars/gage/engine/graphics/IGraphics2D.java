@@ -1,11 +1,5 @@
 package uk.co.thomaspickup.spacewars.gage.engine.graphics;
 
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.Matrix;
-import android.graphics.Paint;
-import android.graphics.Rect;
-
 /**
  * The graphics 2D interface defines the set of graphical operations that can be
  * applied to a render surface.
@@ -33,7 +27,17 @@ public interface IGraphics2D {
 	 * 
 	 * @param clipRegion
 	 */
-	public void clipRect(Rect clipRegion);
+	public void clipRect(IntRect clipRegion);
+
+	/**
+	 * Scale all subsequent draw operations by the specified amount
+	 * 
+	 * @param scaleX
+	 *            Scale on the x-axis
+	 * @param scaleY
+	 *            Scale on the y-axis
+	 */
+	public void scale(float scaleX, float scaleY);
 		
 	/**
 	 * Set the surface colour to that specified colour (assumed to be in the
@@ -56,7 +60,7 @@ public interface IGraphics2D {
 	 * @param paint
 	 *            Paint parameters controlling text render format
 	 */
-	public void drawText(String text, float x, float y, Paint paint);
+	public void drawText(String text, float x, float y, DrawPaint paint);
 
 	/**
 	 * Draw the specified bitmap
@@ -70,22 +74,28 @@ public interface IGraphics2D {
 	 * @param paint
 	 *            Paint parameters controlling how the bitmap is rendered
 	 */
-	public void drawBitmap(Bitmap bitmap, Rect srcRect, Rect desRect,
-						   Paint paint);
+	public void drawBitmap(IImage bitmap, IntRect srcRect, IntRect desRect,
+						   DrawPaint paint);
 
 	/**
 	 * Draw the specified bitmap
 	 * 
 	 * @param bitmap
 	 *            Bitmap to be rendered
-	 * @param matrix
-	 *            Matrix defining bitmap scaling, rotation, translation, etc.
+	 * @param transform
+	 *            Transform defining bitmap scaling, rotation, translation, etc.
 	 * @param paint
 	 *            Paint parameters controlling how the bitmap is rendered
 	 */
-	public void drawBitmap(Bitmap bitmap, Matrix matrix, Paint paint);
+	public void drawBitmap(IImage bitmap, Transform transform, DrawPaint paint);
 
-	public Canvas getMCanvas();
-
-	public void drawRect(Rect r, Paint paint);
+	/**
+	 * Fill the specified rectangle
+	 * 
+	 * @param rect
+	 *            Rectangle to be filled
+	 * @param paint
+	 *            Paint parameters controlling the fill colour
+	 */
+	public void drawRect(IntRect rect, DrawPaint paint);
 }
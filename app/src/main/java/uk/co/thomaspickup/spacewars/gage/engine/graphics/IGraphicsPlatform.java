@@ -0,0 +1,45 @@
+package uk.co.thomaspickup.spacewars.gage.engine.graphics;
+
+/**
+ * The graphics platform interface binds the engine's image, paint and
+ * graphics abstractions to a particular runtime. Engine code that needs to
+ * create images or measure text does so through the platform, leaving the
+ * world, physics and AI code free of any runtime specific graphics types.
+ *
+ * @version 1.0
+ */
+public interface IGraphicsPlatform {
+
+	/**
+	 * Create a new opaque offscreen image
+	 *
+	 * @param width
+	 *            Width of the image
+	 * @param height
+	 *            Height of the image
+	 * @return New image
+	 */
+	public IImage createImage(int width, int height);
+
+	/**
+	 * Create a graphics instance that will draw onto the specified image
+	 *
+	 * @param image
+	 *            Image created by this platform
+	 * @return Graphics instance drawing onto the image
+	 */
+	public IGraphics2D createGraphics(IImage image);
+
+	/**
+	 * Determine the bounds of the specified text relative to its baseline
+	 * origin (the top of the bounds will be negative)
+	 *
+	 * @param text
+	 *            Text to measure
+	 * @param paint
+	 *            Paint the text would be drawn with
+	 * @param bounds
+	 *            Output rectangle holding the text bounds
+	 */
+	public void getTextBounds(String text, DrawPaint paint, IntRect bounds);
+}
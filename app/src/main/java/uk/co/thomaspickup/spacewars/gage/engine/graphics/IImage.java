@@ -0,0 +1,38 @@
+package uk.co.thomaspickup.spacewars.gage.engine.graphics;
+
+/**
+ * The image interface defines a platform independent handle to a bitmap
+ * image. Images are created by the graphics platform in use, and can only be
+ * drawn by a graphics instance from the same platform.
+ *
+ * @version 1.0
+ */
+public interface IImage {
+
+	/**
+	 * Get the width of the image
+	 *
+	 * @return Width of the image in pixels
+	 */
+	public int getWidth();
+
+	/**
+	 * Get the height of the image
+	 *
+	 * @return Height of the image in pixels
+	 */
+	public int getHeight();
+
+	/**
+	 * Get the number of bytes used to store the pixels of the image
+	 *
+	 * @return Size of the pixel data in bytes
+	 */
+	public int getByteCount();
+
+	/**
+	 * Release the memory held by the image. The image should not be drawn
+	 * once it has been disposed.
+	 */
+	public void dispose();
+}
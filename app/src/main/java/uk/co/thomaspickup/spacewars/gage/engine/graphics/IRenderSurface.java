@@ -2,7 +2,6 @@ package uk.co.thomaspickup.spacewars.gage.engine.graphics;
 
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
 import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
-import android.view.View;
 
 /**
  * The render surface interface defines a graphical surface to which a game
@@ -31,11 +30,4 @@ public interface IRenderSurface {
 	 *            GameScreen to be rendered
 	 */
 	public void render(ElapsedTime elapsedTime, GameScreen screenToRender);
-
-	/**
-	 * Return the Android View associated with this render surface.
-	 * 
-	 * @return
-	 */
-	public View getAsView();
 }
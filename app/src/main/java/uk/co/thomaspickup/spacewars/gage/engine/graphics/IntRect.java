@@ -0,0 +1,173 @@
+package uk.co.thomaspickup.spacewars.gage.engine.graphics;
+
+/**
+ * Integer rectangle, used for screen and image regions. The left and top
+ * edges are inside the rectangle and the right and bottom edges are outside.
+ *
+ * @version 1.0
+ */
+public class IntRect {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Left hand x-coordinate of the rectangle
+	 */
+	public int left;
+
+	/**
+	 * Top y-coordinate of the rectangle
+	 */
+	public int top;
+
+	/**
+	 * Right hand x-coordinate of the rectangle
+	 */
+	public int right;
+
+	/**
+	 * Bottom y-coordinate of the rectangle
+	 */
+	public int bottom;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors and Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new empty rectangle
+	 */
+	public IntRect() {
+	}
+
+	/**
+	 * Create a rectangle of the specified dimensions
+	 *
+	 * @param left
+	 *            Left hand x-coordinate of the rectangle
+	 * @param top
+	 *            Top y-coordinate of the rectangle
+	 * @param right
+	 *            Right hand x-coordinate of the rectangle
+	 * @param bottom
+	 *            Bottom y-coordinate of the rectangle
+	 */
+	public IntRect(int left, int top, int right, int bottom) {
+		this.left = left;
+		this.top = top;
+		this.right = right;
+		this.bottom = bottom;
+	}
+
+	/**
+	 * Set the rectangle using the specified dimensions
+	 *
+	 * @param left
+	 *            Left hand x-coordinate of the rectangle
+	 * @param top
+	 *            Top y-coordinate of the rectangle
+	 * @param right
+	 *            Right hand x-coordinate of the rectangle
+	 * @param bottom
+	 *            Bottom y-coordinate of the rectangle
+	 */
+	public void set(int left, int top, int right, int bottom) {
+		this.left = left;
+		this.top = top;
+		this.right = right;
+		this.bottom = bottom;
+	}
+
+	/**
+	 * Set the rectangle to a copy of the specified rectangle
+	 *
+	 * @param rect
+	 *            Rectangle to copy
+	 */
+	public void set(IntRect rect) {
+		set(rect.left, rect.top, rect.right, rect.bottom);
+	}
+
+	/**
+	 * Return the width of the rectangle
+	 *
+	 * @return Width of the rectangle
+	 */
+	public final int width() {
+		return right - left;
+	}
+
+	/**
+	 * Return the height of the rectangle
+	 *
+	 * @return Height of the rectangle
+	 */
+	public final int height() {
+		return bottom - top;
+	}
+
+	/**
+	 * Get the centre x-location of the rectangle
+	 *
+	 * @return Centre x-location
+	 */
+	public final int centerX() {
+		return (left + right) >> 1;
+	}
+
+	/**
+	 * Get the centre y-location of the rectangle
+	 *
+	 * @return Centre y-location
+	 */
+	public final int centerY() {
+		return (top + bottom) >> 1;
+	}
+
+	/**
+	 * Determine if the rectangle is empty
+	 *
+	 * @return boolean true if the rectangle has no area, otherwise false
+	 */
+	public final boolean isEmpty() {
+		return left >= right || top >= bottom;
+	}
+
+	/**
+	 * Determine if the rectangle contains the specified point
+	 *
+	 * @param x
+	 *            Test point x-coordinate
+	 * @param y
+	 *            Test point y-coordinate
+	 * @return boolean true if the point is contained within the rectangle,
+	 *         otherwise false
+	 */
+	public boolean contains(int x, int y) {
+		return left < right && top < bottom // check for empty first
+				&& x >= left && x < right && y >= top && y < bottom;
+	}
+
+	/**
+	 * Clip this rectangle to the region it shares with the specified
+	 * rectangle
+	 *
+	 * @param rect
+	 *            Rectangle to intersect with
+	 * @return boolean true if the rectangles intersect (this rectangle is
+	 *         updated), otherwise false (this rectangle is unchanged)
+	 */
+	public boolean intersect(IntRect rect) {
+		if (left < rect.right && rect.left < right && top < rect.bottom
+				&& rect.top < bottom) {
+			left = Math.max(left, rect.left);
+			top = Math.max(top, rect.top);
+			right = Math.min(right, rect.right);
+			bottom = Math.min(bottom, rect.bottom);
+			return true;
+		}
+		return false;
+	}
+}
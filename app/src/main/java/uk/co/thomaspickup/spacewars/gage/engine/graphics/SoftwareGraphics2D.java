@@ -0,0 +1,319 @@
+package uk.co.thomaspickup.spacewars.gage.engine.graphics;
+
+/**
+ * Pure Java binding of the graphics interface that rasterises onto a software
+ * image. Images are sampled using the nearest pixel and blended using source
+ * over compositing.
+ *
+ * Note: Text is not rasterised as there is no font renderer available without
+ * a platform runtime; drawText calls are ignored.
+ *
+ * @version 1.0
+ */
+public class SoftwareGraphics2D implements IGraphics2D {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Image onto which this graphics instance will render
+	 */
+	private SoftwareImage mTarget;
+
+	/**
+	 * Current clip region, in target pixels
+	 */
+	private IntRect mClip = new IntRect();
+
+	/**
+	 * Current scale applied to all draw operations
+	 */
+	private float mScaleX = 1.0f;
+	private float mScaleY = 1.0f;
+
+	/**
+	 * Reusable rect and transforms used whilst drawing
+	 */
+	private IntRect mDrawRect = new IntRect();
+	private Transform mTransform = new Transform();
+	private Transform mInverse = new Transform();
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new graphics instance rendering onto the specified image
+	 *
+	 * @param target
+	 *            Image to render onto
+	 */
+	public SoftwareGraphics2D(SoftwareImage target) {
+		mTarget = target;
+		mClip.set(0, 0, target.getWidth(), target.getHeight());
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Configuration
+	// /////////////////////////////////////////////////////////////////////////
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * getSurfaceWidth()
+	 */
+	@Override
+	public int getSurfaceWidth() {
+		return mTarget.getWidth();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * getSurfaceHeight()
+	 */
+	@Override
+	public int getSurfaceHeight() {
+		return mTarget.getHeight();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * clipRect(uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect)
+	 */
+	@Override
+	public void clipRect(IntRect clipRegion) {
+		if (!mClip.intersect(toTarget(clipRegion, mDrawRect)))
+			mClip.set(0, 0, 0, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * scale(float, float)
+	 */
+	@Override
+	public void scale(float scaleX, float scaleY) {
+		mScaleX *= scaleX;
+		mScaleY *= scaleY;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Draw
+	// /////////////////////////////////////////////////////////////////////////
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * clear(int)
+	 */
+	@Override
+	public void clear(int colour) {
+		fill(mClip, 0xFF000000 | colour);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * drawText(java.lang.String, float, float,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint)
+	 */
+	@Override
+	public void drawText(String text, float x, float y, DrawPaint paint) {
+		// Text is not rasterised by the software binding
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * drawRect(uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint)
+	 */
+	@Override
+	public void drawRect(IntRect rect, DrawPaint paint) {
+		IntRect region = toTarget(rect, mDrawRect);
+		if (region.intersect(mClip))
+			fill(region, paint.colour);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * drawBitmap(uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint)
+	 */
+	@Override
+	public void drawBitmap(IImage bitmap, IntRect srcRect, IntRect desRect,
+						   DrawPaint paint) {
+		int srcLeft = srcRect == null ? 0 : srcRect.left;
+		int srcTop = srcRect == null ? 0 : srcRect.top;
+		int srcWidth = srcRect == null ? bitmap.getWidth() : srcRect.width();
+		int srcHeight = srcRect == null ? bitmap.getHeight() : srcRect.height();
+
+		// Express the draw as a transform from the source region onto the
+		// destination region so both draw forms share the same rasteriser
+		mTransform.reset();
+		mTransform.postTranslate(-srcLeft, -srcTop);
+		mTransform.postScale((float) desRect.width() / srcWidth,
+				(float) desRect.height() / srcHeight);
+		mTransform.postTranslate(desRect.left, desRect.top);
+
+		rasterise((SoftwareImage) bitmap, mTransform, srcLeft, srcTop,
+				srcLeft + srcWidth, srcTop + srcHeight);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * drawBitmap(uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.Transform,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint)
+	 */
+	@Override
+	public void drawBitmap(IImage bitmap, Transform transform, DrawPaint paint) {
+		mTransform.scaleX = transform.scaleX;
+		mTransform.skewX = transform.skewX;
+		mTransform.transX = transform.transX;
+		mTransform.skewY = transform.skewY;
+		mTransform.scaleY = transform.scaleY;
+		mTransform.transY = transform.transY;
+
+		rasterise((SoftwareImage) bitmap, mTransform, 0, 0,
+				bitmap.getWidth(), bitmap.getHeight());
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Rasterisation
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Draw the specified region of the image through the specified transform
+	 *
+	 * @param image
+	 *            Image to draw
+	 * @param transform
+	 *            Transform from image to surface coordinates (the current
+	 *            scale is applied by this method)
+	 * @param srcLeft
+	 *            Left of the image region to draw
+	 * @param srcTop
+	 *            Top of the image region to draw
+	 * @param srcRight
+	 *            Right of the image region to draw
+	 * @param srcBottom
+	 *            Bottom of the image region to draw
+	 */
+	private void rasterise(SoftwareImage image, Transform transform,
+			int srcLeft, int srcTop, int srcRight, int srcBottom) {
+		transform.postScale(mScaleX, mScaleY);
+		if (!transform.invert(mInverse))
+			return;
+
+		// Determine the target pixels covered by the transformed region
+		float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+		for (int corner = 0; corner < 4; corner++) {
+			int cx = (corner & 1) == 0 ? srcLeft : srcRight;
+			int cy = (corner & 2) == 0 ? srcTop : srcBottom;
+			float x = transform.scaleX * cx + transform.skewX * cy + transform.transX;
+			float y = transform.skewY * cx + transform.scaleY * cy + transform.transY;
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+		}
+		IntRect region = mDrawRect;
+		region.set((int) Math.floor(minX), (int) Math.floor(minY),
+				(int) Math.ceil(maxX), (int) Math.ceil(maxY));
+		if (!region.intersect(mClip))
+			return;
+
+		// Map each covered pixel centre back into the image
+		int[] srcPixels = image.getPixels();
+		int srcStride = image.getWidth();
+		int[] desPixels = mTarget.getPixels();
+		int desStride = mTarget.getWidth();
+		for (int y = region.top; y < region.bottom; y++) {
+			float py = y + 0.5f;
+			for (int x = region.left; x < region.right; x++) {
+				float px = x + 0.5f;
+				float u = mInverse.scaleX * px + mInverse.skewX * py + mInverse.transX;
+				float v = mInverse.skewY * px + mInverse.scaleY * py + mInverse.transY;
+				if (u < srcLeft || v < srcTop || u >= srcRight || v >= srcBottom)
+					continue;
+
+				int index = y * desStride + x;
+				desPixels[index] = blend(
+						srcPixels[(int) v * srcStride + (int) u], desPixels[index]);
+			}
+		}
+	}
+
+	/**
+	 * Blend the specified colour over the specified region
+	 *
+	 * @param region
+	 *            Region to fill, already clipped to the surface
+	 * @param colour
+	 *            ARGB colour
+	 */
+	private void fill(IntRect region, int colour) {
+		int[] pixels = mTarget.getPixels();
+		int stride = mTarget.getWidth();
+		for (int y = region.top; y < region.bottom; y++)
+			for (int x = region.left, index = y * stride + x; x < region.right; x++, index++)
+				pixels[index] = blend(colour, pixels[index]);
+	}
+
+	/**
+	 * Composite the source colour over the destination colour
+	 *
+	 * @param src
+	 *            ARGB source colour
+	 * @param des
+	 *            ARGB destination colour
+	 * @return Composited ARGB colour
+	 */
+	private static int blend(int src, int des) {
+		int srcAlpha = src >>> 24;
+		if (srcAlpha == 0xFF)
+			return src;
+		if (srcAlpha == 0)
+			return des;
+
+		int inverse = 0xFF - srcAlpha;
+		int a = srcAlpha + ((des >>> 24) * inverse) / 0xFF;
+		int r = (((src >> 16) & 0xFF) * srcAlpha + ((des >> 16) & 0xFF) * inverse) / 0xFF;
+		int g = (((src >> 8) & 0xFF) * srcAlpha + ((des >> 8) & 0xFF) * inverse) / 0xFF;
+		int b = ((src & 0xFF) * srcAlpha + (des & 0xFF) * inverse) / 0xFF;
+		return (a << 24) | (r << 16) | (g << 8) | b;
+	}
+
+	/**
+	 * Map the specified rect through the current scale
+	 *
+	 * @param rect
+	 *            Rect in surface coordinates
+	 * @param out
+	 *            Rect to hold the target pixel region
+	 * @return Target pixel region
+	 */
+	private IntRect toTarget(IntRect rect, IntRect out) {
+		out.set((int) (rect.left * mScaleX), (int) (rect.top * mScaleY),
+				(int) (rect.right * mScaleX), (int) (rect.bottom * mScaleY));
+		return out;
+	}
+}
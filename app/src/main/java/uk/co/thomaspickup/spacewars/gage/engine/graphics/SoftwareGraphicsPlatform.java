@@ -0,0 +1,67 @@
+package uk.co.thomaspickup.spacewars.gage.engine.graphics;
+
+import java.util.Arrays;
+
+/**
+ * Pure Java binding of the graphics platform, backed by software images.
+ * This allows the engine to be run, tested and profiled on a plain JVM.
+ *
+ * @version 1.0
+ */
+public class SoftwareGraphicsPlatform implements IGraphicsPlatform {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Approximate glyph metrics, relative to the text size, used to measure
+	 * text in the absence of a font renderer
+	 */
+	private static final float GLYPH_ADVANCE = 0.6f;
+	private static final float GLYPH_ASCENT = 0.75f;
+	private static final float GLYPH_DESCENT = 0.25f;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphicsPlatform#
+	 * createImage(int, int)
+	 */
+	@Override
+	public IImage createImage(int width, int height) {
+		SoftwareImage image = new SoftwareImage(width, height);
+		Arrays.fill(image.getPixels(), 0xFF000000);
+		return image;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphicsPlatform#
+	 * createGraphics(uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage)
+	 */
+	@Override
+	public IGraphics2D createGraphics(IImage image) {
+		return new SoftwareGraphics2D((SoftwareImage) image);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphicsPlatform#
+	 * getTextBounds(java.lang.String,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect)
+	 */
+	@Override
+	public void getTextBounds(String text, DrawPaint paint, IntRect bounds) {
+		bounds.set(0, -Math.round(paint.textSize * GLYPH_ASCENT),
+				Math.round(paint.textSize * GLYPH_ADVANCE * text.length()),
+				Math.round(paint.textSize * GLYPH_DESCENT));
+	}
+}
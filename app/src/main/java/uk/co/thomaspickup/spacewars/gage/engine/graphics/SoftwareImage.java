@@ -0,0 +1,125 @@
+package uk.co.thomaspickup.spacewars.gage.engine.graphics;
+
+/**
+ * Pure Java binding of the image interface, holding its pixels as an array
+ * of ARGB ints. Software images can be created and drawn without any
+ * platform runtime, e.g. when running the engine in tests or benchmarks.
+ *
+ * @version 1.0
+ */
+public class SoftwareImage implements IImage {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Width and height of the image
+	 */
+	private int mWidth;
+	private int mHeight;
+
+	/**
+	 * ARGB pixels of the image, stored row by row
+	 */
+	private int[] mPixels;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new fully transparent image
+	 *
+	 * @param width
+	 *            Width of the image
+	 * @param height
+	 *            Height of the image
+	 */
+	public SoftwareImage(int width, int height) {
+		mWidth = width;
+		mHeight = height;
+		mPixels = new int[width * height];
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage#getWidth()
+	 */
+	@Override
+	public int getWidth() {
+		return mWidth;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage#getHeight()
+	 */
+	@Override
+	public int getHeight() {
+		return mHeight;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage#getByteCount()
+	 */
+	@Override
+	public int getByteCount() {
+		return mWidth * mHeight * 4;
+	}
+
+	/**
+	 * Return the ARGB colour of the specified pixel
+	 *
+	 * @param x
+	 *            Pixel x-location
+	 * @param y
+	 *            Pixel y-location
+	 * @return ARGB colour
+	 */
+	public int getPixel(int x, int y) {
+		return mPixels[y * mWidth + x];
+	}
+
+	/**
+	 * Set the ARGB colour of the specified pixel
+	 *
+	 * @param x
+	 *            Pixel x-location
+	 * @param y
+	 *            Pixel y-location
+	 * @param colour
+	 *            ARGB colour
+	 */
+	public void setPixel(int x, int y, int colour) {
+		mPixels[y * mWidth + x] = colour;
+	}
+
+	/**
+	 * Return the pixel array backing this image. Changes to the array are
+	 * reflected in the image.
+	 *
+	 * @return ARGB pixels, stored row by row
+	 */
+	public int[] getPixels() {
+		return mPixels;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage#dispose()
+	 */
+	@Override
+	public void dispose() {
+		mPixels = null;
+	}
+}
@@ -0,0 +1,140 @@
+package uk.co.thomaspickup.spacewars.gage.engine.graphics;
+
+import uk.co.thomaspickup.spacewars.gage.util.FastMath;
+
+/**
+ * 2D affine transform used to position an image when it is drawn. A point
+ * (x, y) is mapped to:
+ *
+ * x' = scaleX * x + skewX * y + transX
+ * y' = skewY * x + scaleY * y + transY
+ *
+ * The post methods follow the same convention as android.graphics.Matrix,
+ * i.e. each operation is applied after those already held by the transform.
+ *
+ * @version 1.0
+ */
+public class Transform {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Transform coefficients
+	 */
+	public float scaleX, skewX, transX;
+	public float skewY, scaleY, transY;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors and Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new identity transform
+	 */
+	public Transform() {
+		reset();
+	}
+
+	/**
+	 * Set the transform to the identity
+	 */
+	public void reset() {
+		scaleX = 1.0f; skewX = 0.0f; transX = 0.0f;
+		skewY = 0.0f; scaleY = 1.0f; transY = 0.0f;
+	}
+
+	/**
+	 * Apply the specified scale
+	 *
+	 * @param sx
+	 *            Scale on the x-axis
+	 * @param sy
+	 *            Scale on the y-axis
+	 */
+	public void postScale(float sx, float sy) {
+		scaleX *= sx; skewX *= sx; transX *= sx;
+		skewY *= sy; scaleY *= sy; transY *= sy;
+	}
+
+	/**
+	 * Apply the specified translation
+	 *
+	 * @param dx
+	 *            Translation on the x-axis
+	 * @param dy
+	 *            Translation on the y-axis
+	 */
+	public void postTranslate(float dx, float dy) {
+		transX += dx;
+		transY += dy;
+	}
+
+	/**
+	 * Apply the specified rotation about the specified pivot point
+	 *
+	 * @param degrees
+	 *            Rotation in degrees (clockwise on a y-down surface)
+	 * @param px
+	 *            Pivot x-location
+	 * @param py
+	 *            Pivot y-location
+	 */
+	public void postRotate(float degrees, float px, float py) {
+		float cos = FastMath.cosDeg(degrees);
+		float sin = FastMath.sinDeg(degrees);
+
+		postTranslate(-px, -py);
+
+		float newScaleX = cos * scaleX - sin * skewY;
+		float newSkewX = cos * skewX - sin * scaleY;
+		float newTransX = cos * transX - sin * transY;
+		skewY = sin * scaleX + cos * skewY;
+		scaleY = sin * skewX + cos * scaleY;
+		transY = sin * transX + cos * transY;
+		scaleX = newScaleX;
+		skewX = newSkewX;
+		transX = newTransX;
+
+		postTranslate(px, py);
+	}
+
+	/**
+	 * Store the inverse of this transform within the specified transform
+	 *
+	 * @param inverse
+	 *            Transform to hold the inverse
+	 * @return boolean true if the transform could be inverted, false if it is
+	 *         degenerate (the inverse is unchanged)
+	 */
+	public boolean invert(Transform inverse) {
+		float det = scaleX * scaleY - skewX * skewY;
+		if (det == 0.0f)
+			return false;
+
+		float invDet = 1.0f / det;
+		float a = scaleY * invDet, b = -skewX * invDet;
+		float c = -skewY * invDet, d = scaleX * invDet;
+		inverse.transX = -(a * transX + b * transY);
+		inverse.transY = -(c * transX + d * transY);
+		inverse.scaleX = a;
+		inverse.skewX = b;
+		inverse.skewY = c;
+		inverse.scaleY = d;
+		return true;
+	}
+
+	/**
+	 * Store the coefficients within the specified array in the row major
+	 * order used by android.graphics.Matrix#setValues
+	 *
+	 * @param values
+	 *            Array of at least 9 values to hold the coefficients
+	 */
+	public void getValues(float[] values) {
+		values[0] = scaleX; values[1] = skewX; values[2] = transX;
+		values[3] = skewY; values[4] = scaleY; values[5] = transY;
+		values[6] = 0.0f; values[7] = 0.0f; values[8] = 1.0f;
+	}
+}
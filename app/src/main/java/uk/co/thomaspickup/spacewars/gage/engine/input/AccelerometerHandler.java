@@ -45,6 +45,13 @@ public class AccelerometerHandler implements SensorEventListener {
 				SensorManager.SENSOR_DELAY_GAME);
 	}
 
+	/**
+	 * Create a new accelerometer handler that is not registered with a sensor.
+	 * All accelerative forces are reported as zero.
+	 */
+	public AccelerometerHandler() {
+	}
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Sensor Update
 	// /////////////////////////////////////////////////////////////////////////
@@ -70,6 +70,13 @@ public class CompassHandler implements SensorEventListener {
 				SensorManager.SENSOR_DELAY_GAME);
 	}
 
+	/**
+	 * Create a new compass handler that is not registered with a sensor. The
+	 * azimuth is reported as zero.
+	 */
+	public CompassHandler() {
+	}
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Sensor Update
 	// /////////////////////////////////////////////////////////////////////////
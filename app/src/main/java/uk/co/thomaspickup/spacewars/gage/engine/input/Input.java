@@ -5,6 +5,8 @@ import android.view.View;
 
 import java.util.List;
 
+import uk.co.thomaspickup.spacewars.gage.util.Pool;
+
 /**
  * Touch, key, accelerometer and compass input support
  * 
@@ -36,6 +38,18 @@ public class Input {
 		mTouchHandler = new TouchHandler(view);
 	}
 
+	/**
+	 * Create a new input manager that is not attached to a view or sensors.
+	 * Touch and key events are supplied using addTouchEvent and addKeyEvent,
+	 * e.g. by a desktop input adapter.
+	 */
+	public Input() {
+		mAccelHandler = new AccelerometerHandler();
+		mCompassHandler = new CompassHandler();
+		mKeyHandler = new KeyHandler();
+		mTouchHandler = new TouchHandler();
+	}
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Touch Input Events //
 	// /////////////////////////////////////////////////////////////////////////
@@ -86,6 +100,22 @@ public class Input {
 		return mTouchHandler.getTouchEvents();
 	}
 
+	/**
+	 * Add a touch event captured outside of the content view
+	 * 
+	 * @param type
+	 *            Type of the event (TouchEvent.TOUCH_XXX)
+	 * @param pointerId
+	 *            Touch pointer ID
+	 * @param x
+	 *            x touch location
+	 * @param y
+	 *            y touch location
+	 */
+	public void addTouchEvent(int type, int pointerId, float x, float y) {
+		mTouchHandler.addTouchEvent(type, pointerId, x, y);
+	}
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Accelerometer Input Events //
 	// /////////////////////////////////////////////////////////////////////////
@@ -154,10 +184,42 @@ public class Input {
 		return mKeyHandler.getKeyEvents();
 	}
 
+	/**
+	 * Add a key event captured outside of the content view
+	 * 
+	 * @param type
+	 *            Type of the event (KeyEvent.KEY_XXX)
+	 * @param keyCode
+	 *            Key code of the event
+	 * @param keyChar
+	 *            Unicode character of the key
+	 */
+	public void addKeyEvent(int type, int keyCode, char keyChar) {
+		mKeyHandler.addKeyEvent(type, keyCode, keyChar);
+	}
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Support Methods //
 	// /////////////////////////////////////////////////////////////////////////
 
+	/**
+	 * Return the pool from which touch events are taken
+	 * 
+	 * @return Touch event pool
+	 */
+	public Pool<TouchEvent> getTouchEventPool() {
+		return mTouchHandler.getTouchEventPool();
+	}
+
+	/**
+	 * Return the pool from which key events are taken
+	 * 
+	 * @return Key event pool
+	 */
+	public Pool<KeyEvent> getKeyEventPool() {
+		return mKeyHandler.getKeyEventPool();
+	}
+
 	/**
 	 * Reset the touch and key accumulators so that all touch and key events
 	 * accumulated since the last accumulator reset are now returned through the
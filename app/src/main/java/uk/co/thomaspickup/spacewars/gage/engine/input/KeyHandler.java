@@ -47,16 +47,24 @@ public class KeyHandler implements OnKeyListener {
 	 *            View whose key events shoudl be captured by this handler
 	 */
 	public KeyHandler(View view) {
+		this();
+
+		view.setOnKeyListener(this);
+		view.setFocusableInTouchMode(true);
+		view.requestFocus();
+	}
+
+	/**
+	 * Create a new key handler instance that is not attached to a view. Key
+	 * events are supplied to the handler using addKeyEvent.
+	 */
+	public KeyHandler() {
 
 		mKeyEventPool = new Pool<KeyEvent>(new Pool.ObjectFactory<KeyEvent>() {
 			public KeyEvent createObject() {
 				return new KeyEvent();
 			}
 		}, KEY_POOL_SIZE);
-
-		view.setOnKeyListener(this);
-		view.setFocusableInTouchMode(true);
-		view.requestFocus();
 	}
 
 	// /////////////////////////////////////////////////////////////////////////
@@ -81,29 +89,40 @@ public class KeyHandler implements OnKeyListener {
 			return false;
 		}
 
+		if (event.getAction() == android.view.KeyEvent.ACTION_DOWN)
+			addKeyEvent(KeyEvent.KEY_DOWN, keyCode, (char) event.getUnicodeChar());
+		if (event.getAction() == android.view.KeyEvent.ACTION_UP)
+			addKeyEvent(KeyEvent.KEY_UP, keyCode, (char) event.getUnicodeChar());
+		return false;
+	}
+
+	/**
+	 * Add a key event from a source other than an Android view, e.g. a
+	 * desktop keyboard.
+	 * 
+	 * @param type
+	 *            Type of the event (KeyEvent.KEY_XXX)
+	 * @param keyCode
+	 *            Key code, using android.view.KeyEvent.KEYCODE_XXX values
+	 * @param keyChar
+	 *            Unicode character of the key
+	 */
+	public void addKeyEvent(int type, int keyCode, char keyChar) {
 		// Store details of the key events (synchronised as a non-UI thread may
 		// request access to the event list.
 		synchronized (this) {
 			// Retrieve and populate a key event
 			KeyEvent keyEvent = mKeyEventPool.get();
+			keyEvent.type = type;
 			keyEvent.keyCode = keyCode;
-			keyEvent.keyChar = (char) event.getUnicodeChar();
+			keyEvent.keyChar = keyChar;
 
-			if (event.getAction() == android.view.KeyEvent.ACTION_DOWN) {
-				keyEvent.type = KeyEvent.KEY_DOWN;
-				if (keyCode > 0 && keyCode < 127)
-					mPressedKeys[keyCode] = true;
-			}
-			if (event.getAction() == android.view.KeyEvent.ACTION_UP) {
-				keyEvent.type = KeyEvent.KEY_UP;
-				if (keyCode > 0 && keyCode < 127)
-					mPressedKeys[keyCode] = false;
-			}
+			if (keyCode > 0 && keyCode < 127)
+				mPressedKeys[keyCode] = type == KeyEvent.KEY_DOWN;
 
 			// Add the event to the list of unconsumed key events
 			mUnconsumedKeyEvents.add(keyEvent);
 		}
-		return false;
 	}
 
 	/**
@@ -140,6 +159,15 @@ public class KeyHandler implements OnKeyListener {
 		}
 	}
 
+	/**
+	 * Return the pool from which key events are taken.
+	 * 
+	 * @return Key event pool
+	 */
+	public Pool<KeyEvent> getKeyEventPool() {
+		return mKeyEventPool;
+	}
+
 	/**
 	 * Reset the accumulator - update the current set of frame key events to
 	 * those accumulated since the last time the accumulator was reset.
@@ -66,6 +66,16 @@ public class TouchHandler implements OnTouchListener {
 	 *            View whose touch events should be captured by this handler
 	 */
 	public TouchHandler(View view) {
+		this();
+
+		view.setOnTouchListener(this);
+	}
+
+	/**
+	 * Create a new touch handler instance that is not attached to a view.
+	 * Touch events are supplied to the handler using addTouchEvent.
+	 */
+	public TouchHandler() {
 
 		mPool = new Pool<TouchEvent>(new Pool.ObjectFactory<TouchEvent>() {
 			public TouchEvent createObject() {
@@ -73,8 +83,6 @@ public class TouchHandler implements OnTouchListener {
 			}
 		}, TOUCH_POOL_SIZE);
 
-		view.setOnTouchListener(this);
-
 		// PJH: This could be better defined against an enum, i.e.
 		// raw pixel or 0-1 or -1 to 1 ranges
 		mScaleX = 1.0f;
@@ -130,39 +138,72 @@ public class TouchHandler implements OnTouchListener {
 		int eventType = event.getActionMasked();
 		int pointerId = event.getPointerId(event.getActionIndex());
 
-		// Retrieve and populate a touch event
-		TouchEvent touchEvent = mPool.get();
-		touchEvent.pointer = pointerId;
-		touchEvent.x = mTouchX[pointerId];
-		touchEvent.y = mTouchY[pointerId];
-
 		switch (eventType) {
 		case MotionEvent.ACTION_DOWN:
 		case MotionEvent.ACTION_POINTER_DOWN:
-			touchEvent.type = TouchEvent.TOUCH_DOWN;
-			mExistsTouch[pointerId] = true;
+			recordTouchEvent(TouchEvent.TOUCH_DOWN, pointerId);
 			break;
 
 		case MotionEvent.ACTION_MOVE:
-			touchEvent.type = TouchEvent.TOUCH_DRAGGED;
+			recordTouchEvent(TouchEvent.TOUCH_DRAGGED, pointerId);
 			break;
 
 		case MotionEvent.ACTION_UP:
 		case MotionEvent.ACTION_POINTER_UP:
-			touchEvent.type = TouchEvent.TOUCH_UP;
-			mExistsTouch[pointerId] = false;
+			recordTouchEvent(TouchEvent.TOUCH_UP, pointerId);
 			break;
 		}
 
+		return true;
+	}
+
+	/**
+	 * Add a touch event from a source other than an Android view, e.g. a
+	 * desktop mouse. The location is scaled in the same way as view events.
+	 * 
+	 * @param type
+	 *            Type of the event (TouchEvent.TOUCH_XXX)
+	 * @param pointerId
+	 *            ID of the pointer, less than MAX_TOUCHPOINTS
+	 * @param x
+	 *            x-location of the pointer in pixels
+	 * @param y
+	 *            y-location of the pointer in pixels
+	 */
+	public void addTouchEvent(int type, int pointerId, float x, float y) {
+		mTouchX[pointerId] = x * mScaleX;
+		mTouchY[pointerId] = y * mScaleY;
+		recordTouchEvent(type, pointerId);
+	}
+
+	/**
+	 * Record a touch event for the specified pointer at its current location
+	 * 
+	 * @param type
+	 *            Type of the event (TouchEvent.TOUCH_XXX)
+	 * @param pointerId
+	 *            ID of the pointer
+	 */
+	private void recordTouchEvent(int type, int pointerId) {
 		// Add this touch events to the list of unconsumed events (to be
 		// returned at the start of the next update). It is added in a
 		// synchronized manner as a non-GUI threads may be acquiring
 		// the unconsumed touch events.
 		synchronized (this) {
+			// Retrieve and populate a touch event
+			TouchEvent touchEvent = mPool.get();
+			touchEvent.type = type;
+			touchEvent.pointer = pointerId;
+			touchEvent.x = mTouchX[pointerId];
+			touchEvent.y = mTouchY[pointerId];
+
+			if (type == TouchEvent.TOUCH_DOWN)
+				mExistsTouch[pointerId] = true;
+			else if (type == TouchEvent.TOUCH_UP)
+				mExistsTouch[pointerId] = false;
+
 			mUnconsumedTouchEvents.add(touchEvent);
 		}
-
-		return true;
 	}
 
 	/**
@@ -238,6 +279,15 @@ public class TouchHandler implements OnTouchListener {
 		}
 	}
 
+	/**
+	 * Return the pool from which touch events are taken.
+	 * 
+	 * @return Touch event pool
+	 */
+	public Pool<TouchEvent> getTouchEventPool() {
+		return mPool;
+	}
+
 	/**
 	 * Reset the accumulator - update the current set of frame touch events to
 	 * those accumulated since the last time the accumulator was reset.
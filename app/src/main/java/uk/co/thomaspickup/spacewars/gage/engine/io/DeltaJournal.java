@@ -0,0 +1,695 @@
+package uk.co.thomaspickup.spacewars.gage.engine.io;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Journal used to checkpoint serialised state to device storage in the
+ * background.
+ *
+ * Each checkpoint is handed over as the buffer the state was serialised
+ * into. The array behind the buffer is passed to a background writer thread
+ * and the buffer given an array the writer has finished with, so the calling
+ * thread never copies the state. The writer compares the state block by block
+ * with the previous checkpoint and only appends the changed blocks to the
+ * journal. Once enough deltas have been written (or the journal has grown
+ * larger than the state itself) the journal is compacted: the complete state
+ * is written out as a new base and the journal is emptied. Should the writer
+ * fall behind, a checkpoint still waiting to be written is replaced by the
+ * next one.
+ *
+ * The base and every journal record carry a generation and a checksum. When
+ * the state is recovered, a record torn by the app being killed mid-write
+ * ends the journal and records left over from an older base are skipped.
+ *
+ * @version 1.0
+ */
+public class DeltaJournal implements Runnable {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Default size of the blocks compared between checkpoints
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 32;
+
+	/**
+	 * Default number of deltas written before the journal is compacted
+	 */
+	public static final int DEFAULT_COMPACT_AFTER = 16;
+
+	/**
+	 * Identifies a base file
+	 */
+	private static final int BASE_MAGIC = 0x474A524E; // "GJRN"
+
+	/**
+	 * Largest record that will be read back, guarding against a corrupt length
+	 */
+	private static final int MAX_RECORD_LENGTH = 64 * 1024 * 1024;
+
+	/**
+	 * Largest number of arrays held for reuse by the checkpoint buffer
+	 */
+	private static final int MAX_FREE_ARRAYS = 2;
+
+	/**
+	 * Types of write performed by the writer thread
+	 */
+	private static final int WRITE_CHECKPOINT = 0;
+	private static final int WRITE_DELETE = 1;
+
+	/**
+	 * Pending write handed from the calling thread to the writer thread
+	 */
+	private static class PendingWrite {
+		int type;
+		byte[] data;
+		int length;
+
+		PendingWrite(int type, byte[] data, int length) {
+			this.type = type;
+			this.data = data;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Buffer the state is serialised into before being checkpointed. The
+	 * array behind the buffer is handed to the journal by checkpoint, rather
+	 * than being copied out.
+	 */
+	public static class CheckpointBuffer extends ByteArrayOutputStream {
+
+		/**
+		 * Create a new checkpoint buffer
+		 *
+		 * @param size
+		 *            Initial capacity of the buffer
+		 */
+		public CheckpointBuffer(int size) {
+			super(size);
+		}
+
+		/**
+		 * Hand over the array behind the buffer, replacing it with the
+		 * specified array and emptying the buffer
+		 *
+		 * @param array
+		 *            Array to buffer into next, or null to allocate one
+		 * @return Array holding the buffered state
+		 */
+		private byte[] exchange(byte[] array) {
+			byte[] data = buf;
+			buf = array != null ? array : new byte[data.length];
+			count = 0;
+			return data;
+		}
+	}
+
+	/**
+	 * File IO service and the files the base and journal are written to
+	 */
+	private FileIO mFileIO;
+	private String mBaseFileName;
+	private String mJournalFileName;
+
+	/**
+	 * Size of the compared blocks and the number of deltas between compactions
+	 */
+	private int mBlockSize;
+	private int mCompactAfter;
+
+	/**
+	 * Previous checkpoint along with the delta bookkeeping since the last
+	 * base. Only used by the writer thread.
+	 */
+	private byte[] mLastCheckpoint;
+	private int mLastCheckpointLength;
+	private int mDeltasSinceBase;
+	private int mJournalLength;
+	private long mGeneration;
+
+	/**
+	 * Writes waiting for the writer thread and the arrays the writer has
+	 * finished with, alongside the writer state. All are guarded by this
+	 * journal's lock.
+	 */
+	private ArrayDeque<PendingWrite> mPendingWrites = new ArrayDeque<PendingWrite>();
+	private ArrayDeque<byte[]> mFreeArrays = new ArrayDeque<byte[]>();
+	private boolean mWriting;
+	private boolean mRunning;
+	private Thread mWriterThread;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new journal using the default block size and compaction
+	 *
+	 * @param fileIO
+	 *            File IO service used to write the files
+	 * @param baseFileName
+	 *            Private file holding the complete state
+	 * @param journalFileName
+	 *            Private file holding the deltas since the base
+	 */
+	public DeltaJournal(FileIO fileIO, String baseFileName,
+			String journalFileName) {
+		this(fileIO, baseFileName, journalFileName, DEFAULT_BLOCK_SIZE,
+				DEFAULT_COMPACT_AFTER);
+	}
+
+	/**
+	 * Create a new journal
+	 *
+	 * @param fileIO
+	 *            File IO service used to write the files
+	 * @param baseFileName
+	 *            Private file holding the complete state
+	 * @param journalFileName
+	 *            Private file holding the deltas since the base
+	 * @param blockSize
+	 *            Size of the blocks compared between checkpoints
+	 * @param compactAfter
+	 *            Number of deltas written before the journal is compacted
+	 */
+	public DeltaJournal(FileIO fileIO, String baseFileName,
+			String journalFileName, int blockSize, int compactAfter) {
+		mFileIO = fileIO;
+		mBaseFileName = baseFileName;
+		mJournalFileName = journalFileName;
+		mBlockSize = blockSize;
+		mCompactAfter = compactAfter;
+
+		// Generations only need to differ from those of earlier journals
+		mGeneration = System.currentTimeMillis();
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Checkpoint
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Checkpoint the state serialised into the specified buffer. The state is
+	 * handed to the writer thread, which compares it against the previous
+	 * checkpoint and writes the changes, and the buffer is emptied ready for
+	 * the next state.
+	 *
+	 * @param buffer
+	 *            Buffer holding the serialised state
+	 */
+	public void checkpoint(CheckpointBuffer buffer) {
+		int length = buffer.size();
+		synchronized (this) {
+			byte[] data = buffer.exchange(mFreeArrays.poll());
+
+			// A checkpoint the writer has yet to start is out of date
+			PendingWrite lastWrite = mPendingWrites.peekLast();
+			if (lastWrite != null && lastWrite.type == WRITE_CHECKPOINT) {
+				recycle(lastWrite.data);
+				lastWrite.data = data;
+				lastWrite.length = length;
+				return;
+			}
+
+			submit(new PendingWrite(WRITE_CHECKPOINT, data, length));
+		}
+	}
+
+	/**
+	 * Hold on to an array the writer has finished with, for the checkpoint
+	 * buffer to reuse
+	 *
+	 * @param array
+	 *            Array to reuse
+	 */
+	private synchronized void recycle(byte[] array) {
+		if (array != null && mFreeArrays.size() < MAX_FREE_ARRAYS)
+			mFreeArrays.add(array);
+	}
+
+	/**
+	 * Build a delta holding the blocks of the state that differ from the
+	 * previous checkpoint. The delta is laid out as the new length, the number
+	 * of changed blocks and then the index and contents of each block.
+	 *
+	 * @param data
+	 *            Array holding the serialised state
+	 * @param length
+	 *            Length of the state within the array
+	 * @return Delta, or null if the state has not changed
+	 */
+	private byte[] createDelta(byte[] data, int length) {
+		int blockCount = (length + mBlockSize - 1) / mBlockSize;
+
+		// Count the changed blocks before building the delta
+		int changedBlocks = 0;
+		for (int block = 0; block < blockCount; block++)
+			if (isBlockChanged(data, length, block))
+				changedBlocks++;
+
+		if (changedBlocks == 0 && length == mLastCheckpointLength)
+			return null;
+
+		ByteArrayOutputStream delta = new ByteArrayOutputStream(8
+				+ changedBlocks * (4 + mBlockSize));
+		DataOutputStream out = new DataOutputStream(delta);
+		try {
+			out.writeInt(length);
+			out.writeInt(changedBlocks);
+			for (int block = 0; block < blockCount; block++) {
+				if (isBlockChanged(data, length, block)) {
+					int start = block * mBlockSize;
+					out.writeInt(block);
+					out.write(data, start, Math.min(mBlockSize, length - start));
+				}
+			}
+		} catch (IOException e) {
+			// Writing to memory cannot fail
+		}
+		return delta.toByteArray();
+	}
+
+	/**
+	 * Determine if the specified block differs from the previous checkpoint
+	 *
+	 * @param data
+	 *            Array holding the serialised state
+	 * @param length
+	 *            Length of the state within the array
+	 * @param block
+	 *            Index of the block
+	 * @return Boolean true if the block has changed
+	 */
+	private boolean isBlockChanged(byte[] data, int length, int block) {
+		int start = block * mBlockSize;
+		int end = Math.min(start + mBlockSize, length);
+		if (end > mLastCheckpointLength)
+			return true;
+
+		for (int idx = start; idx < end; idx++)
+			if (data[idx] != mLastCheckpoint[idx])
+				return true;
+		return false;
+	}
+
+	/**
+	 * Apply a delta to the specified state
+	 *
+	 * @param data
+	 *            State the delta was taken against
+	 * @param delta
+	 *            Delta to apply
+	 * @param blockSize
+	 *            Size of the blocks within the delta
+	 * @return Updated state
+	 * @throws IOException
+	 *             if the delta is malformed
+	 */
+	private static byte[] applyDelta(byte[] data, byte[] delta, int blockSize)
+			throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(delta));
+		int length = in.readInt();
+		int changedBlocks = in.readInt();
+
+		byte[] result = Arrays.copyOf(data, length);
+		for (int idx = 0; idx < changedBlocks; idx++) {
+			int start = in.readInt() * blockSize;
+			if (start < 0 || start >= length)
+				throw new IOException("Journal delta block out of range");
+			in.readFully(result, start, Math.min(blockSize, length - start));
+		}
+		return result;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Writer
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Queue a write for the writer thread, starting the thread if needed
+	 *
+	 * @param pendingWrite
+	 *            Write to queue
+	 */
+	private synchronized void submit(PendingWrite pendingWrite) {
+		mPendingWrites.add(pendingWrite);
+
+		if (mWriterThread == null) {
+			mRunning = true;
+			mWriterThread = new Thread(this, "DeltaJournal");
+			mWriterThread.setPriority(Thread.NORM_PRIORITY - 1);
+			mWriterThread.start();
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Wait until all queued writes have reached device storage
+	 */
+	public synchronized void flush() {
+		while (!mPendingWrites.isEmpty() || mWriting) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Discard the journal, deleting the base and journal files once any write
+	 * that is underway has completed. Writes that have not started are dropped.
+	 */
+	public synchronized void discard() {
+		while (!mPendingWrites.isEmpty())
+			recycle(mPendingWrites.poll().data);
+		submit(new PendingWrite(WRITE_DELETE, null, 0));
+	}
+
+	/**
+	 * Complete all queued writes and stop the writer thread
+	 */
+	public void close() {
+		Thread writerThread;
+		synchronized (this) {
+			mRunning = false;
+			notifyAll();
+			writerThread = mWriterThread;
+			mWriterThread = null;
+		}
+
+		if (writerThread != null) {
+			try {
+				writerThread.join();
+			} catch (InterruptedException e) {
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run() {
+		while (true) {
+			PendingWrite pendingWrite;
+			synchronized (this) {
+				while (mPendingWrites.isEmpty() && mRunning) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+					}
+				}
+
+				// Stopped, with every queued write completed
+				if (mPendingWrites.isEmpty())
+					return;
+
+				pendingWrite = mPendingWrites.poll();
+				mWriting = true;
+			}
+
+			try {
+				write(pendingWrite);
+			} catch (IOException e) {
+				Log.w("Gage", "DeltaJournal: Cannot write [" + mBaseFileName
+						+ "] " + e.getMessage());
+			}
+
+			synchronized (this) {
+				mWriting = false;
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Perform the specified write. Called on the writer thread.
+	 *
+	 * @param pendingWrite
+	 *            Write to perform
+	 * @throws IOException
+	 *             if the write fails
+	 */
+	private void write(PendingWrite pendingWrite) throws IOException {
+		switch (pendingWrite.type) {
+		case WRITE_CHECKPOINT:
+			writeCheckpoint(pendingWrite.data, pendingWrite.length);
+			break;
+
+		case WRITE_DELETE:
+			setLastCheckpoint(null, 0);
+			mFileIO.deletePrivateFile(mBaseFileName);
+			mFileIO.deletePrivateFile(mJournalFileName);
+			break;
+		}
+	}
+
+	/**
+	 * Write the specified state as a new base or as a delta against the
+	 * previous checkpoint. Called on the writer thread.
+	 *
+	 * @param data
+	 *            Array holding the serialised state
+	 * @param length
+	 *            Length of the state within the array
+	 * @throws IOException
+	 *             if the write fails
+	 */
+	private void writeCheckpoint(byte[] data, int length) throws IOException {
+		try {
+			if (mLastCheckpoint == null || mDeltasSinceBase >= mCompactAfter
+					|| mJournalLength > length) {
+				// Start a new base, replacing the journal
+				mGeneration++;
+				mDeltasSinceBase = 0;
+				mJournalLength = 0;
+				writeBase(data, length);
+			} else {
+				byte[] delta = createDelta(data, length);
+				if (delta != null) {
+					mDeltasSinceBase++;
+					mJournalLength += delta.length;
+					writeDelta(delta);
+				}
+			}
+		} catch (IOException e) {
+			// The files no longer follow the checkpoints, so start again from
+			// a new base
+			recycle(data);
+			setLastCheckpoint(null, 0);
+			throw e;
+		}
+
+		// Hold on to the state for the next comparison
+		setLastCheckpoint(data, length);
+	}
+
+	/**
+	 * Replace the checkpoint compared against, recycling the array of the one
+	 * replaced. Called on the writer thread.
+	 *
+	 * @param data
+	 *            Array holding the serialised state, or null for none
+	 * @param length
+	 *            Length of the state within the array
+	 */
+	private void setLastCheckpoint(byte[] data, int length) {
+		recycle(mLastCheckpoint);
+		mLastCheckpoint = data;
+		mLastCheckpointLength = length;
+	}
+
+	/**
+	 * Write the specified state as the base. The base is written to one side
+	 * and then swapped in, and the journal is emptied after as its deltas
+	 * belong to the old generation.
+	 *
+	 * @param data
+	 *            Array holding the serialised state
+	 * @param length
+	 *            Length of the state within the array
+	 * @throws IOException
+	 *             if the write fails
+	 */
+	private void writeBase(byte[] data, int length) throws IOException {
+		String tempFileName = mBaseFileName + ".tmp";
+		DataOutputStream baseOut = new DataOutputStream(
+				new BufferedOutputStream(mFileIO.writePrivateFile(tempFileName)));
+		try {
+			baseOut.writeInt(BASE_MAGIC);
+			baseOut.writeLong(mGeneration);
+			writeRecord(baseOut, data, length);
+		} finally {
+			baseOut.close();
+		}
+		mFileIO.renamePrivateFile(tempFileName, mBaseFileName);
+		mFileIO.deletePrivateFile(mJournalFileName);
+	}
+
+	/**
+	 * Append the specified delta to the journal
+	 *
+	 * @param delta
+	 *            Delta to append
+	 * @throws IOException
+	 *             if the write fails
+	 */
+	private void writeDelta(byte[] delta) throws IOException {
+		DataOutputStream journalOut = new DataOutputStream(
+				new BufferedOutputStream(mFileIO.appendPrivateFile(mJournalFileName)));
+		try {
+			journalOut.writeLong(mGeneration);
+			writeRecord(journalOut, delta, delta.length);
+		} finally {
+			journalOut.close();
+		}
+	}
+
+	/**
+	 * Write a length and checksum prefixed record
+	 *
+	 * @param out
+	 *            Output to write to
+	 * @param payload
+	 *            Array holding the record contents
+	 * @param length
+	 *            Length of the record within the array
+	 * @throws IOException
+	 *             if the write fails
+	 */
+	private static void writeRecord(DataOutputStream out, byte[] payload,
+			int length) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(payload, 0, length);
+
+		out.writeInt(length);
+		out.writeInt((int) crc.getValue());
+		out.write(payload, 0, length);
+	}
+
+	/**
+	 * Read a length and checksum prefixed record
+	 *
+	 * @param in
+	 *            Input to read from
+	 * @return Record contents, or null if the checksum does not match
+	 * @throws IOException
+	 *             if the record cannot be read
+	 */
+	private static byte[] readRecord(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		int checksum = in.readInt();
+		if (length < 0 || length > MAX_RECORD_LENGTH)
+			return null;
+
+		byte[] payload = new byte[length];
+		in.readFully(payload);
+
+		CRC32 crc = new CRC32();
+		crc.update(payload, 0, payload.length);
+		return (int) crc.getValue() == checksum ? payload : null;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Recovery
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Recover the most recent state from the base and journal written by a
+	 * journal using the default block size.
+	 *
+	 * @param fileIO
+	 *            File IO service used to read the files
+	 * @param baseFileName
+	 *            Private file holding the complete state
+	 * @param journalFileName
+	 *            Private file holding the deltas since the base
+	 * @return Recovered state, or null if there is no base
+	 * @throws IOException
+	 *             if the base cannot be read
+	 */
+	public static byte[] recover(FileIO fileIO, String baseFileName,
+			String journalFileName) throws IOException {
+		return recover(fileIO, baseFileName, journalFileName, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Recover the most recent state from the base and journal.
+	 *
+	 * @param fileIO
+	 *            File IO service used to read the files
+	 * @param baseFileName
+	 *            Private file holding the complete state
+	 * @param journalFileName
+	 *            Private file holding the deltas since the base
+	 * @param blockSize
+	 *            Block size used by the journal that wrote the files
+	 * @return Recovered state, or null if there is no base
+	 * @throws IOException
+	 *             if the base cannot be read
+	 */
+	public static byte[] recover(FileIO fileIO, String baseFileName,
+			String journalFileName, int blockSize) throws IOException {
+		if (!fileIO.privateFileExists(baseFileName))
+			return null;
+
+		// Read the base
+		byte[] data;
+		long generation;
+		DataInputStream baseIn = new DataInputStream(new BufferedInputStream(
+				fileIO.readPrivateFile(baseFileName)));
+		try {
+			if (baseIn.readInt() != BASE_MAGIC)
+				throw new IOException("Not a journal base [" + baseFileName + "]");
+			generation = baseIn.readLong();
+			data = readRecord(baseIn);
+			if (data == null)
+				throw new IOException("Corrupt journal base [" + baseFileName + "]");
+		} finally {
+			baseIn.close();
+		}
+
+		if (!fileIO.privateFileExists(journalFileName))
+			return data;
+
+		// Apply the deltas belonging to the base, stopping at the first
+		// incomplete or corrupt record
+		DataInputStream journalIn = new DataInputStream(new BufferedInputStream(
+				fileIO.readPrivateFile(journalFileName)));
+		try {
+			while (true) {
+				long recordGeneration = journalIn.readLong();
+				byte[] delta = readRecord(journalIn);
+				if (delta == null)
+					break;
+				if (recordGeneration == generation)
+					data = applyDelta(data, delta, blockSize);
+			}
+		} catch (EOFException e) {
+			// End of the journal, or a record torn part way through writing
+		} finally {
+			journalIn.close();
+		}
+
+		return data;
+	}
+}
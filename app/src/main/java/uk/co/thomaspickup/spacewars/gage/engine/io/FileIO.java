@@ -195,6 +195,105 @@ public class FileIO {
 		return new FileOutputStream(mExternalStoragePath + fileName);
 	}
 
+	// /////////////////////////////////////////////////////////////////////////
+	// Private Storage IO //
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Open an input stream to the named file in the app's private storage.
+	 * 
+	 * @param fileName
+	 *            Name of the file to open for reading
+	 * @return InputStream that can be used to read the file
+	 * @throws IOException
+	 *             if the file cannot be opened.
+	 */
+	public InputStream readPrivateFile(String fileName) throws IOException {
+		return mContext.openFileInput(fileName);
+	}
+
+	/**
+	 * Open an output stream to the named file in the app's private storage,
+	 * replacing any existing contents.
+	 * 
+	 * @param fileName
+	 *            Name of the file to open for writing
+	 * @return OutputStream that can be used to write to the file
+	 * @throws IOException
+	 *             if the file cannot be opened for writing
+	 */
+	public OutputStream writePrivateFile(String fileName) throws IOException {
+		return mContext.openFileOutput(fileName, Context.MODE_PRIVATE);
+	}
+
+	/**
+	 * Open an output stream to the named file in the app's private storage,
+	 * appending to any existing contents.
+	 * 
+	 * @param fileName
+	 *            Name of the file to open for appending
+	 * @return OutputStream that can be used to append to the file
+	 * @throws IOException
+	 *             if the file cannot be opened for writing
+	 */
+	public OutputStream appendPrivateFile(String fileName) throws IOException {
+		return mContext.openFileOutput(fileName, Context.MODE_APPEND);
+	}
+
+	/**
+	 * Rename a file in the app's private storage, replacing any file that
+	 * already has the target name. Writing to a temporary file and renaming it
+	 * ensures a reader never sees a partially written file.
+	 * 
+	 * @param fromName
+	 *            Name of the file to rename
+	 * @param toName
+	 *            New name of the file
+	 * @throws IOException
+	 *             if the file could not be renamed
+	 */
+	public void renamePrivateFile(String fromName, String toName)
+			throws IOException {
+		File from = mContext.getFileStreamPath(fromName);
+		File to = mContext.getFileStreamPath(toName);
+		if (!from.renameTo(to))
+			throw new IOException("Could not rename [" + fromName + "] to ["
+					+ toName + "]");
+	}
+
+	/**
+	 * Determine if the named file exists in the app's private storage.
+	 * 
+	 * @param fileName
+	 *            Name of the file
+	 * @return Boolean true if the file exists, otherwise false
+	 */
+	public boolean privateFileExists(String fileName) {
+		return mContext.getFileStreamPath(fileName).exists();
+	}
+
+	/**
+	 * Get the length of the named file in the app's private storage.
+	 * 
+	 * @param fileName
+	 *            Name of the file
+	 * @return Length of the file in bytes, or 0 if the file does not exist
+	 */
+	public long getPrivateFileLength(String fileName) {
+		return mContext.getFileStreamPath(fileName).length();
+	}
+
+	/**
+	 * Delete the named file from the app's private storage.
+	 * 
+	 * @param fileName
+	 *            Name of the file to delete
+	 * @return Boolean true if the file was deleted, otherwise false
+	 */
+	public boolean deletePrivateFile(String fileName) {
+		return mContext.deleteFile(fileName);
+	}
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Preferences IO //
 	// /////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,18 @@
+package uk.co.thomaspickup.spacewars.gage.engine.timer;
+
+/**
+ * Callback invoked when a timer scheduled on a timer wheel falls due.
+ *
+ * @version 1.0
+ */
+public interface ITimerCallback {
+
+	/**
+	 * Called once the timer falls due. The timer is no longer scheduled, so it
+	 * may be scheduled again from within the callback.
+	 *
+	 * @param timer
+	 *            Timer that has fallen due
+	 */
+	public void onTimer(Timer timer);
+}
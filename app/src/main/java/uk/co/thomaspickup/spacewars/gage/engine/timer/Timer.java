@@ -0,0 +1,93 @@
+package uk.co.thomaspickup.spacewars.gage.engine.timer;
+
+/**
+ * Timer that can be scheduled on a timer wheel. A timer is normally created
+ * once by its owner and then scheduled and cancelled as often as needed, so
+ * scheduling a timer does not allocate.
+ *
+ * @version 1.0
+ */
+public class Timer {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Callback invoked when the timer falls due
+	 */
+	final ITimerCallback mCallback;
+
+	/**
+	 * Wheel the timer is scheduled on, or null if it is not scheduled
+	 */
+	TimerWheel mWheel;
+
+	/**
+	 * Time at which the timer falls due
+	 */
+	long mDueTime;
+
+	/**
+	 * Level and slot of the wheel holding the timer, and the neighbouring
+	 * timers within the slot
+	 */
+	int mLevel;
+	int mSlot;
+	Timer mPrevious;
+	Timer mNext;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new timer
+	 *
+	 * @param callback
+	 *            Callback invoked when the timer falls due
+	 */
+	public Timer(ITimerCallback callback) {
+		mCallback = callback;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Determine if the timer is scheduled
+	 *
+	 * @return true if the timer is scheduled, otherwise false
+	 */
+	public boolean isScheduled() {
+		return mWheel != null;
+	}
+
+	/**
+	 * Get the time at which the timer falls due. Only meaningful whilst the
+	 * timer is scheduled.
+	 *
+	 * @return Due time of the timer
+	 */
+	public long getDueTime() {
+		return mDueTime;
+	}
+
+	/**
+	 * Get the time remaining until the timer falls due
+	 *
+	 * @return Time remaining, or 0 if the timer is not scheduled
+	 */
+	public long getRemainingTime() {
+		return mWheel != null ? mDueTime - mWheel.getTime() : 0L;
+	}
+
+	/**
+	 * Cancel the timer, if it is scheduled
+	 */
+	public void cancel() {
+		if (mWheel != null)
+			mWheel.cancel(this);
+	}
+}
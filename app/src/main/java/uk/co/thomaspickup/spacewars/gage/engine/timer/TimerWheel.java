@@ -0,0 +1,237 @@
+package uk.co.thomaspickup.spacewars.gage.engine.timer;
+
+/**
+ * Hierarchical timer wheel. Timers are scheduled against the wheel's own
+ * time, which is advanced by its owner (e.g. to the simulation time of a
+ * level, or by the elapsed game time, in milliseconds), so timers fall due at
+ * the same simulation time however quickly frames are being run.
+ *
+ * The wheel has LEVELS levels of SLOTS slots. A timer is held in the level
+ * whose span covers the time remaining until it falls due, and is moved down
+ * a level each time the level below wraps around. Scheduling, cancelling and
+ * firing a timer all take constant time, and whilst no timers are scheduled
+ * advancing the wheel is free, so idle timers cost nothing each frame.
+ *
+ * @version 1.0
+ */
+public class TimerWheel {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Number of bits of the time mapped onto each level, and the resulting
+	 * number of slots within a level
+	 */
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+
+	/**
+	 * Number of levels. Timers due further away than the span of every level
+	 * are held in the top level until they come within range.
+	 */
+	private static final int LEVELS = 4;
+	private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+	/**
+	 * Head of the list of timers held in each slot of each level
+	 */
+	private final Timer[][] mSlots = new Timer[LEVELS][SLOTS];
+
+	/**
+	 * Current time of the wheel
+	 */
+	private long mTime;
+
+	/**
+	 * Number of timers scheduled
+	 */
+	private int mScheduledCount;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Get the current time of the wheel
+	 *
+	 * @return Current time
+	 */
+	public long getTime() {
+		return mTime;
+	}
+
+	/**
+	 * Get the number of timers scheduled
+	 *
+	 * @return Number of scheduled timers
+	 */
+	public int getScheduledCount() {
+		return mScheduledCount;
+	}
+
+	/**
+	 * Schedule a timer to fall due after the specified delay. A timer that is
+	 * already scheduled is rescheduled.
+	 *
+	 * @param timer
+	 *            Timer to schedule
+	 * @param delay
+	 *            Delay from the current time; delays of less than 1 fall due
+	 *            the next time the wheel advances
+	 */
+	public void schedule(Timer timer, long delay) {
+		scheduleAt(timer, mTime + Math.max(1L, delay));
+	}
+
+	/**
+	 * Schedule a timer to fall due at the specified time. A timer that is
+	 * already scheduled is rescheduled.
+	 *
+	 * @param timer
+	 *            Timer to schedule
+	 * @param dueTime
+	 *            Time at which the timer falls due; times that have already
+	 *            passed fall due the next time the wheel advances
+	 */
+	public void scheduleAt(Timer timer, long dueTime) {
+		if (timer.mWheel != null)
+			timer.mWheel.cancel(timer);
+
+		timer.mWheel = this;
+		timer.mDueTime = Math.max(mTime + 1L, dueTime);
+		insert(timer);
+		mScheduledCount++;
+	}
+
+	/**
+	 * Cancel a timer scheduled on this wheel
+	 *
+	 * @param timer
+	 *            Timer to cancel
+	 */
+	public void cancel(Timer timer) {
+		if (timer.mWheel != this)
+			return;
+
+		unlink(timer);
+		timer.mWheel = null;
+		mScheduledCount--;
+	}
+
+	/**
+	 * Cancel every scheduled timer
+	 */
+	public void clear() {
+		for (int level = 0; level < LEVELS; level++) {
+			for (int slot = 0; slot < SLOTS; slot++) {
+				Timer timer = mSlots[level][slot];
+				while (timer != null) {
+					Timer next = timer.mNext;
+					timer.mWheel = null;
+					timer.mPrevious = timer.mNext = null;
+					timer = next;
+				}
+				mSlots[level][slot] = null;
+			}
+		}
+		mScheduledCount = 0;
+	}
+
+	/**
+	 * Advance the wheel to the specified time, invoking the callback of each
+	 * timer that falls due on the way in order of due time. Timers due at the
+	 * same time fire in an unspecified order.
+	 *
+	 * @param time
+	 *            Time to advance to
+	 */
+	public void advanceTo(long time) {
+		while (mTime < time) {
+			// Nothing needs to be visited whilst no timers are scheduled
+			if (mScheduledCount == 0) {
+				mTime = time;
+				return;
+			}
+
+			mTime++;
+
+			// Move timers down a level each time the level below wraps
+			int slot = (int) (mTime & SLOT_MASK);
+			for (int level = 1; slot == 0 && level < LEVELS; level++) {
+				slot = (int) ((mTime >> (SLOT_BITS * level)) & SLOT_MASK);
+				cascade(level, slot);
+			}
+
+			// Fire the timers that are now due. A callback can only schedule
+			// timers due later than now, so the slot is emptied.
+			Timer[] slots = mSlots[0];
+			slot = (int) (mTime & SLOT_MASK);
+			while (slots[slot] != null) {
+				Timer timer = slots[slot];
+				cancel(timer);
+				timer.mCallback.onTimer(timer);
+			}
+		}
+	}
+
+	/**
+	 * Reinsert every timer of the specified slot, moving them to lower levels
+	 *
+	 * @param level
+	 *            Level of the slot
+	 * @param slot
+	 *            Slot to cascade
+	 */
+	private void cascade(int level, int slot) {
+		Timer timer = mSlots[level][slot];
+		mSlots[level][slot] = null;
+		while (timer != null) {
+			Timer next = timer.mNext;
+			insert(timer);
+			timer = next;
+		}
+	}
+
+	/**
+	 * Insert a timer into the slot covering its due time
+	 *
+	 * @param timer
+	 *            Timer to insert
+	 */
+	private void insert(Timer timer) {
+		long delay = Math.min(timer.mDueTime - mTime, MAX_DELAY);
+		long slotTime = mTime + delay;
+
+		int level = 0;
+		while (delay >= (1L << (SLOT_BITS * (level + 1))))
+			level++;
+		int slot = (int) ((slotTime >> (SLOT_BITS * level)) & SLOT_MASK);
+
+		timer.mLevel = level;
+		timer.mSlot = slot;
+		timer.mPrevious = null;
+		timer.mNext = mSlots[level][slot];
+		if (timer.mNext != null)
+			timer.mNext.mPrevious = timer;
+		mSlots[level][slot] = timer;
+	}
+
+	/**
+	 * Remove a timer from the slot holding it
+	 *
+	 * @param timer
+	 *            Timer to remove
+	 */
+	private void unlink(Timer timer) {
+		if (timer.mPrevious != null)
+			timer.mPrevious.mNext = timer.mNext;
+		else
+			mSlots[timer.mLevel][timer.mSlot] = timer.mNext;
+		if (timer.mNext != null)
+			timer.mNext.mPrevious = timer.mPrevious;
+		timer.mPrevious = timer.mNext = null;
+	}
+}
@@ -1,12 +1,12 @@
 package uk.co.thomaspickup.spacewars.gage.ui;
 
-import android.graphics.Bitmap;
 import android.util.Log;
 
 import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
 import uk.co.thomaspickup.spacewars.gage.engine.audio.Sound;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
 import uk.co.thomaspickup.spacewars.gage.engine.input.Input;
 import uk.co.thomaspickup.spacewars.gage.engine.input.TouchEvent;
 import uk.co.thomaspickup.spacewars.gage.engine.input.TouchHandler;
@@ -32,19 +32,19 @@ public class ReleaseButton extends GameObject {
     /**
      * Name of the graphical asset used to represent the default button state
      */
-    protected Bitmap mDefaultBitmap;
+    protected IImage mDefaultBitmap;
 
     /**
      * Name of the graphical asset used to represent the pushed button state
      */
-    protected Bitmap mPushBitmap;
+    protected IImage mPushBitmap;
 
     /**
      * Name of the sound asset to be played whenever the button is clicked
      */
     protected Sound mReleaseSound;
 
-    private Bitmap mBitmap;
+    private IImage mBitmap;
 
     ///////////////////////////////////////////////////////////////////////////
     // Constructors                                                          //
@@ -1,11 +1,10 @@
 package uk.co.thomaspickup.spacewars.gage.ui;
 
-import android.graphics.Bitmap;
-
 import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
 import uk.co.thomaspickup.spacewars.gage.engine.audio.Sound;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
 import uk.co.thomaspickup.spacewars.gage.engine.input.Input;
 import uk.co.thomaspickup.spacewars.gage.engine.input.TouchEvent;
 import uk.co.thomaspickup.spacewars.gage.engine.input.TouchHandler;
@@ -48,22 +47,22 @@ public class ToggleButton extends GameObject {
     /**
      * Name of the graphical asset used to represent the default off button state
      */
-    protected Bitmap mOffBitmap;
+    protected IImage mOffBitmap;
 
     /**
      * Name of the graphical asset used to represent the hover bitmap when the button is off
      */
-    protected Bitmap mOffHoverBitmap;
+    protected IImage mOffHoverBitmap;
 
     /**
      * Name of the graphical asset used to represent the default on button state
      */
-    protected Bitmap mOnBitmap;
+    protected IImage mOnBitmap;
 
     /**
      * Name of the graphical asset used to represent the hover bitmap when the button is on
      */
-    protected Bitmap mOnHoverBitmap;
+    protected IImage mOnHoverBitmap;
 
 
     /**
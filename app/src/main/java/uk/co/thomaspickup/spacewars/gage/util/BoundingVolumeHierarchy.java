@@ -0,0 +1,280 @@
+package uk.co.thomaspickup.spacewars.gage.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+import uk.co.thomaspickup.spacewars.gage.world.GameObject;
+
+/**
+ * Bounding volume hierarchy of game objects that never move, such as the
+ * asteroids of a level. The hierarchy is built once and then queried for the
+ * objects overlapping a bound, which only visits the branches of the tree
+ * whose bounds overlap it, so costs O(log n) for a small bound.
+ *
+ * The tree is built top down: each node is split in half at the median of
+ * its objects along its longest side, until no more than a few objects are
+ * left in a leaf. The nodes are laid out depth first, so the first child of a
+ * node directly follows it. The bounds of the objects are taken when the tree
+ * is built; if an object moves, the tree must be built again. Objects are
+ * held by their collision bounds, which enclose their collision shapes.
+ *
+ * A query only reads the tree, so several threads can query it at once.
+ *
+ * @param <T>
+ *            Type of the objects held
+ * @version 1.0
+ */
+public class BoundingVolumeHierarchy<T extends GameObject> {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Largest number of objects held by a leaf
+	 */
+	private static final int MAX_LEAF_SIZE = 4;
+
+	/**
+	 * Number of objects held
+	 */
+	private int mCount;
+
+	/**
+	 * Objects held, ordered so that the objects of each leaf are together,
+	 * along with their bounds
+	 */
+	private Object[] mObjects = new Object[0];
+	private float[] mLefts = new float[0];
+	private float[] mRights = new float[0];
+	private float[] mBottoms = new float[0];
+	private float[] mTops = new float[0];
+
+	/**
+	 * Number of nodes, the bound of each node, the range of objects it
+	 * covers and its second child (or -1 if the node is a leaf)
+	 */
+	private int mNodeCount;
+	private float[] mNodeLefts = new float[0];
+	private float[] mNodeRights = new float[0];
+	private float[] mNodeBottoms = new float[0];
+	private float[] mNodeTops = new float[0];
+	private int[] mNodeStarts = new int[0];
+	private int[] mNodeEnds = new int[0];
+	private int[] mNodeSecondChildren = new int[0];
+
+	/**
+	 * Working storage used whilst building the tree, holding the index of
+	 * each object within the list it was built from
+	 */
+	private int[] mOrder = new int[0];
+	private long[] mSortKeys = new long[0];
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Get the number of objects held by the tree
+	 *
+	 * @return Number of objects
+	 */
+	public int size() {
+		return mCount;
+	}
+
+	/**
+	 * Build the tree so that it holds the specified objects at their current
+	 * bounds
+	 *
+	 * @param objects
+	 *            Objects to hold
+	 */
+	public void build(List<? extends T> objects) {
+		int count = objects.size();
+		ensureCapacity(count);
+
+		// Release any objects no longer held
+		for (int idx = count; idx < mCount; idx++)
+			mObjects[idx] = null;
+		mCount = count;
+
+		for (int idx = 0; idx < count; idx++) {
+			BoundingBox bound = objects.get(idx).getCollisionBound();
+			mLefts[idx] = bound.getLeft();
+			mRights[idx] = bound.getRight();
+			mBottoms[idx] = bound.getBottom();
+			mTops[idx] = bound.getTop();
+			mOrder[idx] = idx;
+		}
+
+		mNodeCount = 0;
+		if (count > 0)
+			buildNode(0, count);
+
+		// Put the objects and their bounds into the order of the leaves
+		for (int idx = 0; idx < count; idx++)
+			mObjects[idx] = objects.get(mOrder[idx]);
+		for (int idx = 0; idx < count; idx++) {
+			BoundingBox bound = ((GameObject) mObjects[idx]).getCollisionBound();
+			mLefts[idx] = bound.getLeft();
+			mRights[idx] = bound.getRight();
+			mBottoms[idx] = bound.getBottom();
+			mTops[idx] = bound.getTop();
+		}
+	}
+
+	/**
+	 * Remove every object from the tree
+	 */
+	public void clear() {
+		for (int idx = 0; idx < mCount; idx++)
+			mObjects[idx] = null;
+		mCount = 0;
+		mNodeCount = 0;
+	}
+
+	/**
+	 * Find the objects whose bounds overlap the specified bound. The results
+	 * list is cleared and then filled with the objects found, in an order
+	 * that only depends on the objects the tree was built from.
+	 *
+	 * @param bound
+	 *            Bound to search within
+	 * @param results
+	 *            Output list of the objects found
+	 */
+	public void query(BoundingBox bound, List<? super T> results) {
+		results.clear();
+		if (mNodeCount > 0)
+			queryNode(0, bound.getLeft(), bound.getRight(), bound.getBottom(),
+					bound.getTop(), results);
+	}
+
+	/**
+	 * Add the objects of a node overlapping the specified area to the results
+	 */
+	@SuppressWarnings("unchecked")
+	private void queryNode(int node, float left, float right, float bottom,
+			float top, List<? super T> results) {
+		if (!(mNodeLefts[node] < right && mNodeRights[node] > left
+				&& mNodeBottoms[node] < top && mNodeTops[node] > bottom))
+			return;
+
+		if (mNodeSecondChildren[node] < 0) {
+			for (int idx = mNodeStarts[node]; idx < mNodeEnds[node]; idx++)
+				if (mLefts[idx] < right && mRights[idx] > left
+						&& mBottoms[idx] < top && mTops[idx] > bottom)
+					results.add((T) mObjects[idx]);
+		} else {
+			queryNode(node + 1, left, right, bottom, top, results);
+			queryNode(mNodeSecondChildren[node], left, right, bottom, top,
+					results);
+		}
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Building
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Build the node covering the specified range of objects, along with its
+	 * children. The bounds of the objects are still indexed by their position
+	 * in the list the tree is built from.
+	 *
+	 * @return Node built
+	 */
+	private int buildNode(int start, int end) {
+		int node = mNodeCount++;
+		mNodeStarts[node] = start;
+		mNodeEnds[node] = end;
+
+		// Work out the bound of the node, and the extent of the centres of
+		// its objects
+		float left = Float.MAX_VALUE, right = -Float.MAX_VALUE;
+		float bottom = Float.MAX_VALUE, top = -Float.MAX_VALUE;
+		float minCentreX = Float.MAX_VALUE, maxCentreX = -Float.MAX_VALUE;
+		float minCentreY = Float.MAX_VALUE, maxCentreY = -Float.MAX_VALUE;
+		for (int idx = start; idx < end; idx++) {
+			int object = mOrder[idx];
+			left = Math.min(left, mLefts[object]);
+			right = Math.max(right, mRights[object]);
+			bottom = Math.min(bottom, mBottoms[object]);
+			top = Math.max(top, mTops[object]);
+
+			float centreX = (mLefts[object] + mRights[object]) * 0.5f;
+			float centreY = (mBottoms[object] + mTops[object]) * 0.5f;
+			minCentreX = Math.min(minCentreX, centreX);
+			maxCentreX = Math.max(maxCentreX, centreX);
+			minCentreY = Math.min(minCentreY, centreY);
+			maxCentreY = Math.max(maxCentreY, centreY);
+		}
+		mNodeLefts[node] = left;
+		mNodeRights[node] = right;
+		mNodeBottoms[node] = bottom;
+		mNodeTops[node] = top;
+
+		if (end - start <= MAX_LEAF_SIZE) {
+			mNodeSecondChildren[node] = -1;
+			return node;
+		}
+
+		// Split the objects in half along the longest side, ties being kept
+		// in list order
+		boolean splitX = maxCentreX - minCentreX >= maxCentreY - minCentreY;
+		for (int idx = start; idx < end; idx++) {
+			int object = mOrder[idx];
+			float centre = splitX ? mLefts[object] + mRights[object]
+					: mBottoms[object] + mTops[object];
+			mSortKeys[idx] = ((long) toSortable(centre) << 32) | object;
+		}
+		Arrays.sort(mSortKeys, start, end);
+		for (int idx = start; idx < end; idx++)
+			mOrder[idx] = (int) mSortKeys[idx];
+
+		int middle = (start + end) >>> 1;
+		buildNode(start, middle);
+		mNodeSecondChildren[node] = buildNode(middle, end);
+		return node;
+	}
+
+	/**
+	 * Map a float to an int with the same ordering
+	 */
+	private static int toSortable(float value) {
+		int bits = Float.floatToIntBits(value);
+		return bits ^ ((bits >> 31) & 0x7fffffff);
+	}
+
+	/**
+	 * Grow the storage, if needed, so that it can hold the specified number
+	 * of objects
+	 *
+	 * @param count
+	 *            Number of objects to hold
+	 */
+	private void ensureCapacity(int count) {
+		if (count > mObjects.length) {
+			mObjects = Arrays.copyOf(mObjects, count);
+			mLefts = new float[count];
+			mRights = new float[count];
+			mBottoms = new float[count];
+			mTops = new float[count];
+			mOrder = new int[count];
+			mSortKeys = new long[count];
+		}
+
+		// A tree splitting objects in half has fewer than two nodes for each
+		// object
+		int nodeCapacity = Math.max(1, 2 * count);
+		if (nodeCapacity > mNodeStarts.length) {
+			mNodeLefts = new float[nodeCapacity];
+			mNodeRights = new float[nodeCapacity];
+			mNodeBottoms = new float[nodeCapacity];
+			mNodeTops = new float[nodeCapacity];
+			mNodeStarts = new int[nodeCapacity];
+			mNodeEnds = new int[nodeCapacity];
+			mNodeSecondChildren = new int[nodeCapacity];
+		}
+	}
+}
@@ -17,6 +17,22 @@ public class CollisionDetector {
 		None, Top, Bottom, Left, Right
 	};
 
+	/**
+	 * Shape of a game object tested by the narrowphase: its bounding box, its
+	 * bounding box rotated by its orientation, or the circle within its
+	 * bounding box
+	 */
+	public enum CollisionShape {
+		Box, OrientedBox, Circle
+	};
+
+	/**
+	 * Collision layer of game objects not placed on a layer of their own, and
+	 * the mask of every layer, which game objects collide with by default
+	 */
+	public static final int DEFAULT_LAYER = 1;
+	public static final int ALL_LAYERS = 0xffffffff;
+
 	/**
 	 * Determine if the two specified bounding boxes are in collision
 	 * 
@@ -33,6 +49,307 @@ public class CollisionDetector {
 				+ one.halfHeight > two.y - two.halfHeight);
 	}
 
+	/**
+	 * Determine if the two specified game objects can ever collide, that is
+	 * if each is on a layer the other collides with. Pairs that cannot
+	 * collide should be rejected before their shapes are tested.
+	 * 
+	 * @param one
+	 *            First game object
+	 * @param two
+	 *            Second game object
+	 * @return boolean true if the objects can collide, false otherwise
+	 */
+	public static boolean canCollide(GameObject one, GameObject two) {
+		return (one.getCollisionLayer() & two.getCollisionMask()) != 0
+				&& (two.getCollisionLayer() & one.getCollisionMask()) != 0;
+	}
+
+	/**
+	 * Determine if the shapes of the two specified game objects are in
+	 * collision. The boxes enclosing the shapes are tested first, so objects
+	 * far apart are rejected without testing their shapes.
+	 * 
+	 * @param one
+	 *            First game object
+	 * @param two
+	 *            Second game object
+	 * @return boolean true if the shapes overlap, false otherwise
+	 */
+	public static boolean isCollision(GameObject one, GameObject two) {
+		if (!isCollision(one.getCollisionBound(), two.getCollisionBound()))
+			return false;
+
+		CollisionShape oneShape = one.getCollisionShape();
+		CollisionShape twoShape = two.getCollisionShape();
+		if (oneShape == CollisionShape.Box && twoShape == CollisionShape.Box)
+			return true;
+
+		if (oneShape == CollisionShape.Circle) {
+			if (twoShape == CollisionShape.Circle)
+				return isCircleCollision(one.position.x, one.position.y,
+						one.getCollisionRadius(), two.position.x,
+						two.position.y, two.getCollisionRadius());
+			return isCollision(two.getOrientedBound(), one.position.x,
+					one.position.y, one.getCollisionRadius());
+		}
+		if (twoShape == CollisionShape.Circle)
+			return isCollision(one.getOrientedBound(), two.position.x,
+					two.position.y, two.getCollisionRadius());
+
+		return isCollision(one.getOrientedBound(), two.getOrientedBound());
+	}
+
+	/**
+	 * Find the contact between the shapes of the two specified game objects,
+	 * being the shortest push separating them. As with isCollision, the
+	 * boxes enclosing the shapes are tested first.
+	 * 
+	 * @param one
+	 *            First game object
+	 * @param two
+	 *            Second game object
+	 * @param contact
+	 *            Output contact, with the normal pointing from the first
+	 *            object towards the second
+	 * @return boolean true if the shapes overlap, false otherwise
+	 */
+	public static boolean getContact(GameObject one, GameObject two,
+			Contact contact) {
+		if (!isCollision(one.getCollisionBound(), two.getCollisionBound()))
+			return false;
+
+		CollisionShape oneShape = one.getCollisionShape();
+		CollisionShape twoShape = two.getCollisionShape();
+		if (oneShape == CollisionShape.Box && twoShape == CollisionShape.Box)
+			return getBoxContact(one.getCollisionBound(),
+					two.getCollisionBound(), contact);
+
+		if (oneShape == CollisionShape.Circle) {
+			if (twoShape == CollisionShape.Circle)
+				return getCircleContact(one.position.x, one.position.y,
+						one.getCollisionRadius(), two.position.x,
+						two.position.y, two.getCollisionRadius(), contact);
+
+			// Find the contact from the box, then turn it around
+			if (!getContact(two.getOrientedBound(), one.position.x,
+					one.position.y, one.getCollisionRadius(), contact))
+				return false;
+			contact.normalX = -contact.normalX;
+			contact.normalY = -contact.normalY;
+			return true;
+		}
+		if (twoShape == CollisionShape.Circle)
+			return getContact(one.getOrientedBound(), two.position.x,
+					two.position.y, two.getCollisionRadius(), contact);
+
+		return getContact(one.getOrientedBound(), two.getOrientedBound(),
+				contact);
+	}
+
+	/**
+	 * Find the contact between two overlapping bounding boxes, along the
+	 * axis on which they overlap the least
+	 */
+	private static boolean getBoxContact(BoundingBox one, BoundingBox two,
+			Contact contact) {
+		float dx = two.x - one.x;
+		float dy = two.y - one.y;
+		float overlapX = one.halfWidth + two.halfWidth - Math.abs(dx);
+		float overlapY = one.halfHeight + two.halfHeight - Math.abs(dy);
+		if (overlapX < overlapY)
+			contact.set(dx < 0.0f ? -1.0f : 1.0f, 0.0f, overlapX);
+		else
+			contact.set(0.0f, dy < 0.0f ? -1.0f : 1.0f, overlapY);
+		return true;
+	}
+
+	/**
+	 * Find the contact between two circles, if they are in collision
+	 */
+	private static boolean getCircleContact(float oneX, float oneY,
+			float oneRadius, float twoX, float twoY, float twoRadius,
+			Contact contact) {
+		float dx = twoX - oneX;
+		float dy = twoY - oneY;
+		float reach = oneRadius + twoRadius;
+		float distanceSquared = dx * dx + dy * dy;
+		if (distanceSquared >= reach * reach)
+			return false;
+
+		// Circles with the same centre are pushed apart along the x-axis
+		float distance = (float) Math.sqrt(distanceSquared);
+		if (distance == 0.0f)
+			contact.set(1.0f, 0.0f, reach);
+		else
+			contact.set(dx / distance, dy / distance, reach - distance);
+		return true;
+	}
+
+	/**
+	 * Find the contact between an oriented box and a circle, if they are in
+	 * collision, with the normal pointing from the box towards the circle
+	 */
+	private static boolean getContact(OrientedBoundingBox box, float x,
+			float y, float radius, Contact contact) {
+		// Find the centre of the circle along the axes of the box
+		float dx = x - box.x;
+		float dy = y - box.y;
+		float localX = dx * box.axisX + dy * box.axisY;
+		float localY = dy * box.axisX - dx * box.axisY;
+
+		float normalX, normalY, depth;
+		float outsideX = Math.abs(localX) - box.halfWidth;
+		float outsideY = Math.abs(localY) - box.halfHeight;
+		if (outsideX > 0.0f || outsideY > 0.0f) {
+			// The centre is outside the box, so push the circle away from
+			// the closest point of the box
+			float closestX = Math.max(-box.halfWidth, Math.min(localX, box.halfWidth));
+			float closestY = Math.max(-box.halfHeight, Math.min(localY, box.halfHeight));
+			float offsetX = localX - closestX;
+			float offsetY = localY - closestY;
+			float distanceSquared = offsetX * offsetX + offsetY * offsetY;
+			if (distanceSquared >= radius * radius)
+				return false;
+			float distance = (float) Math.sqrt(distanceSquared);
+			normalX = offsetX / distance;
+			normalY = offsetY / distance;
+			depth = radius - distance;
+		} else if (outsideX > outsideY) {
+			// The centre is inside the box, so push the circle out of the
+			// nearest side
+			normalX = localX < 0.0f ? -1.0f : 1.0f;
+			normalY = 0.0f;
+			depth = radius - outsideX;
+		} else {
+			normalX = 0.0f;
+			normalY = localY < 0.0f ? -1.0f : 1.0f;
+			depth = radius - outsideY;
+		}
+
+		// Turn the normal back from the axes of the box
+		contact.set(normalX * box.axisX - normalY * box.axisY, normalX
+				* box.axisY + normalY * box.axisX, depth);
+		return true;
+	}
+
+	/**
+	 * Find the contact between two oriented boxes, if they are in collision,
+	 * along the axis of either box on which they overlap the least
+	 */
+	private static boolean getContact(OrientedBoundingBox one,
+			OrientedBoundingBox two, Contact contact) {
+		float dx = two.x - one.x;
+		float dy = two.y - one.y;
+		float depth = Float.MAX_VALUE;
+		float normalX = 0.0f;
+		float normalY = 0.0f;
+		for (int axis = 0; axis < 4; axis++) {
+			OrientedBoundingBox box = axis < 2 ? one : two;
+			float axisX = (axis & 1) == 0 ? box.axisX : -box.axisY;
+			float axisY = (axis & 1) == 0 ? box.axisY : box.axisX;
+
+			float offset = dx * axisX + dy * axisY;
+			float overlap = one.getProjectedExtent(axisX, axisY)
+					+ two.getProjectedExtent(axisX, axisY) - Math.abs(offset);
+			if (overlap <= 0.0f)
+				return false;
+			if (overlap < depth) {
+				depth = overlap;
+				normalX = offset < 0.0f ? -axisX : axisX;
+				normalY = offset < 0.0f ? -axisY : axisY;
+			}
+		}
+		contact.set(normalX, normalY, depth);
+		return true;
+	}
+
+	/**
+	 * Determine if the two specified circles are in collision
+	 * 
+	 * @param oneX
+	 *            Centre x location of the first circle
+	 * @param oneY
+	 *            Centre y location of the first circle
+	 * @param oneRadius
+	 *            Radius of the first circle
+	 * @param twoX
+	 *            Centre x location of the second circle
+	 * @param twoY
+	 *            Centre y location of the second circle
+	 * @param twoRadius
+	 *            Radius of the second circle
+	 * @return boolean true if the circles overlap, false otherwise
+	 */
+	public static boolean isCircleCollision(float oneX, float oneY,
+			float oneRadius, float twoX, float twoY, float twoRadius) {
+		float dx = twoX - oneX;
+		float dy = twoY - oneY;
+		float reach = oneRadius + twoRadius;
+		return dx * dx + dy * dy < reach * reach;
+	}
+
+	/**
+	 * Determine if the specified oriented box and circle are in collision,
+	 * by finding the point of the box closest to the centre of the circle
+	 * 
+	 * @param box
+	 *            Oriented bounding box
+	 * @param x
+	 *            Centre x location of the circle
+	 * @param y
+	 *            Centre y location of the circle
+	 * @param radius
+	 *            Radius of the circle
+	 * @return boolean true if the box and circle overlap, false otherwise
+	 */
+	public static boolean isCollision(OrientedBoundingBox box, float x,
+			float y, float radius) {
+		// Find the centre of the circle along the axes of the box
+		float dx = x - box.x;
+		float dy = y - box.y;
+		float localX = dx * box.axisX + dy * box.axisY;
+		float localY = dy * box.axisX - dx * box.axisY;
+
+		// And its distance from the closest point of the box
+		float outsideX = Math.max(Math.abs(localX) - box.halfWidth, 0.0f);
+		float outsideY = Math.max(Math.abs(localY) - box.halfHeight, 0.0f);
+		return outsideX * outsideX + outsideY * outsideY < radius * radius;
+	}
+
+	/**
+	 * Determine if the two specified oriented boxes are in collision. The
+	 * boxes overlap unless they are apart when projected onto one of the
+	 * axes of either box (the separating axis test), and the test stops at
+	 * the first axis found to separate them.
+	 * 
+	 * @param one
+	 *            First oriented bounding box
+	 * @param two
+	 *            Second oriented bounding box
+	 * @return boolean true if the boxes overlap, false otherwise
+	 */
+	public static boolean isCollision(OrientedBoundingBox one,
+			OrientedBoundingBox two) {
+		float dx = two.x - one.x;
+		float dy = two.y - one.y;
+		return !isSeparatingAxis(one, two, dx, dy, one.axisX, one.axisY)
+				&& !isSeparatingAxis(one, two, dx, dy, -one.axisY, one.axisX)
+				&& !isSeparatingAxis(one, two, dx, dy, two.axisX, two.axisY)
+				&& !isSeparatingAxis(one, two, dx, dy, -two.axisY, two.axisX);
+	}
+
+	/**
+	 * Determine if two oriented boxes, the second offset from the first by
+	 * the specified amount, are apart when projected onto the specified axis
+	 */
+	private static boolean isSeparatingAxis(OrientedBoundingBox one,
+			OrientedBoundingBox two, float dx, float dy, float axisX,
+			float axisY) {
+		return Math.abs(dx * axisX + dy * axisY) >= one.getProjectedExtent(
+				axisX, axisY) + two.getProjectedExtent(axisX, axisY);
+	}
+
 	/**
 	 * Determine the type of collision between the two bounding boxes.
 	 * CollisionType.None is returned if there are no collisions.
@@ -162,4 +479,150 @@ public class CollisionDetector {
 
 		return collisionType;
 	}
+
+	/**
+	 * Determine when a bounding box moving by the specified displacement
+	 * first comes into collision with a stationary bounding box. The moving
+	 * box is shrunk to a point and the stationary box grown by its size, and
+	 * the path of the point is then clipped against the grown box one axis at
+	 * a time. Unlike testing the boxes where they end up, a box moving further
+	 * than its own size in a step cannot pass through the other unnoticed.
+	 * 
+	 * @param moving
+	 *            Bounding box at the start of the movement
+	 * @param dx
+	 *            Displacement along the x-axis
+	 * @param dy
+	 *            Displacement along the y-axis
+	 * @param target
+	 *            Stationary bounding box
+	 * @return Fraction (from 0 to 1) of the movement made before the boxes
+	 *         first overlap, 0 if they overlap from the start, or -1 if they
+	 *         never overlap
+	 */
+	public static float sweptTimeOfImpact(BoundingBox moving, float dx,
+			float dy, BoundingBox target) {
+		float enter = 0.0f;
+		float exit = 1.0f;
+
+		// Clip the movement against the slab of the grown box along x
+		float halfWidth = target.halfWidth + moving.halfWidth;
+		float offsetX = target.x - moving.x;
+		if (dx == 0.0f) {
+			if (Math.abs(offsetX) >= halfWidth)
+				return -1.0f;
+		} else {
+			float inverse = 1.0f / dx;
+			float near = (offsetX - halfWidth) * inverse;
+			float far = (offsetX + halfWidth) * inverse;
+			if (near > far) {
+				float swap = near;
+				near = far;
+				far = swap;
+			}
+			enter = Math.max(enter, near);
+			exit = Math.min(exit, far);
+		}
+
+		// And then along y
+		float halfHeight = target.halfHeight + moving.halfHeight;
+		float offsetY = target.y - moving.y;
+		if (dy == 0.0f) {
+			if (Math.abs(offsetY) >= halfHeight)
+				return -1.0f;
+		} else {
+			float inverse = 1.0f / dy;
+			float near = (offsetY - halfHeight) * inverse;
+			float far = (offsetY + halfHeight) * inverse;
+			if (near > far) {
+				float swap = near;
+				near = far;
+				far = swap;
+			}
+			enter = Math.max(enter, near);
+			exit = Math.min(exit, far);
+		}
+
+		// The boxes only overlap if the movement is within both slabs at once
+		return enter < exit ? enter : -1.0f;
+	}
+
+	/**
+	 * Determine when an oriented box moving by the specified displacement
+	 * first comes into collision with a stationary oriented box. Along each
+	 * axis of either box the projections of the boxes overlap for a window
+	 * of the movement, and the boxes overlap while every window is open, so
+	 * the test stops as soon as the windows are found not to meet.
+	 * 
+	 * @param moving
+	 *            Oriented bounding box at the start of the movement
+	 * @param dx
+	 *            Displacement along the x-axis
+	 * @param dy
+	 *            Displacement along the y-axis
+	 * @param target
+	 *            Stationary oriented bounding box
+	 * @return Fraction (from 0 to 1) of the movement made before the boxes
+	 *         first overlap, 0 if they overlap from the start, or -1 if they
+	 *         never overlap
+	 */
+	public static float sweptTimeOfImpact(OrientedBoundingBox moving,
+			float dx, float dy, OrientedBoundingBox target) {
+		float offsetX = target.x - moving.x;
+		float offsetY = target.y - moving.y;
+		float enter = 0.0f;
+		float exit = 1.0f;
+		for (int axis = 0; axis < 4; axis++) {
+			OrientedBoundingBox box = axis < 2 ? moving : target;
+			float axisX = (axis & 1) == 0 ? box.axisX : -box.axisY;
+			float axisY = (axis & 1) == 0 ? box.axisY : box.axisX;
+
+			// The projections overlap whilst the distance between their
+			// centres is less than their reach
+			float offset = offsetX * axisX + offsetY * axisY;
+			float reach = moving.getProjectedExtent(axisX, axisY)
+					+ target.getProjectedExtent(axisX, axisY);
+			float speed = dx * axisX + dy * axisY;
+			if (speed == 0.0f) {
+				if (Math.abs(offset) >= reach)
+					return -1.0f;
+				continue;
+			}
+
+			float near = (offset - reach) / speed;
+			float far = (offset + reach) / speed;
+			if (near > far) {
+				float swap = near;
+				near = far;
+				far = swap;
+			}
+			enter = Math.max(enter, near);
+			exit = Math.min(exit, far);
+			if (enter >= exit)
+				return -1.0f;
+		}
+		return enter;
+	}
+
+	/**
+	 * Determine the bounding box covering the whole of the movement of a
+	 * bounding box by the specified displacement, which is what needs
+	 * searching for anything the movement could come into collision with
+	 * 
+	 * @param start
+	 *            Bounding box at the start of the movement
+	 * @param dx
+	 *            Displacement along the x-axis
+	 * @param dy
+	 *            Displacement along the y-axis
+	 * @param swept
+	 *            Output bounding box covering the movement
+	 */
+	public static void getSweptBound(BoundingBox start, float dx, float dy,
+			BoundingBox swept) {
+		swept.x = start.x + dx * 0.5f;
+		swept.y = start.y + dy * 0.5f;
+		swept.halfWidth = start.halfWidth + Math.abs(dx) * 0.5f;
+		swept.halfHeight = start.halfHeight + Math.abs(dy) * 0.5f;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package uk.co.thomaspickup.spacewars.gage.util;
+
+/**
+ * Contact between two overlapping collision shapes, found by the
+ * CollisionDetector and resolved by the ContactSolver
+ *
+ * @version 1.0
+ */
+public class Contact {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Direction (of unit length) in which the second shape is pushed out of
+	 * the first
+	 */
+	public float normalX;
+	public float normalY;
+
+	/**
+	 * Distance the shapes overlap along the normal
+	 */
+	public float depth;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Set the contact
+	 *
+	 * @param normalX
+	 *            x component of the normal
+	 * @param normalY
+	 *            y component of the normal
+	 * @param depth
+	 *            Distance the shapes overlap along the normal
+	 */
+	public void set(float normalX, float normalY, float depth) {
+		this.normalX = normalX;
+		this.normalY = normalY;
+		this.depth = depth;
+	}
+}
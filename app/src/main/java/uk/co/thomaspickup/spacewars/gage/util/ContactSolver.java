@@ -0,0 +1,207 @@
+package uk.co.thomaspickup.spacewars.gage.util;
+
+import java.util.Arrays;
+
+import uk.co.thomaspickup.spacewars.gage.world.GameObject;
+
+/**
+ * Position solver separating game objects in collision. The contacts of a
+ * tick are gathered first, and then every contact is pushed apart in turn
+ * over a fixed number of iterations, so an object pressed between several
+ * others is settled against all of them together rather than being pushed
+ * out of each in whatever order the pairs were found.
+ *
+ * Each iteration finds the contact of each pair again from where its objects
+ * now are, so the push follows the objects as they are moved by the other
+ * contacts. The push is shared between the objects in proportion to their
+ * inverse masses, so objects with an inverse mass of zero never move.
+ *
+ * Contacts overlapping by no more than the slop are left resting, which
+ * stops objects jittering against each other, and the solver stops as soon
+ * as an iteration finds every contact resting.
+ *
+ * @version 1.0
+ */
+public class ContactSolver {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Default number of iterations and slop
+	 */
+	public static final int DEFAULT_ITERATIONS = 8;
+	public static final float DEFAULT_SLOP = 0.5f;
+
+	/**
+	 * Overlap beyond the slop small enough to leave a contact resting, which
+	 * stops rounding errors keeping the solver running
+	 */
+	private static final float RESTING_TOLERANCE = 0.01f;
+
+	/**
+	 * Largest number of iterations run, and the overlap left resting
+	 */
+	private final int mIterations;
+	private final float mSlop;
+
+	/**
+	 * Number of contacts held
+	 */
+	private int mCount;
+
+	/**
+	 * Objects of each contact
+	 */
+	private GameObject[] mOnes = new GameObject[0];
+	private GameObject[] mTwos = new GameObject[0];
+
+	/**
+	 * Contact found whilst solving
+	 */
+	private Contact mContact = new Contact();
+
+	/**
+	 * Number of iterations run by the last solve
+	 */
+	private int mIterationsRun;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new contact solver with the default iterations and slop
+	 */
+	public ContactSolver() {
+		this(DEFAULT_ITERATIONS, DEFAULT_SLOP);
+	}
+
+	/**
+	 * Create a new contact solver
+	 *
+	 * @param iterations
+	 *            Largest number of iterations run
+	 * @param slop
+	 *            Overlap left resting
+	 */
+	public ContactSolver(int iterations, float slop) {
+		mIterations = iterations;
+		mSlop = slop;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Get the number of contacts held
+	 *
+	 * @return Number of contacts
+	 */
+	public int size() {
+		return mCount;
+	}
+
+	/**
+	 * Get the number of iterations run by the last solve
+	 *
+	 * @return Number of iterations
+	 */
+	public int getIterationsRun() {
+		return mIterationsRun;
+	}
+
+	/**
+	 * Determine if a contact overlaps by so little that it is left resting.
+	 * Objects pushed apart by the solver are left resting against each other,
+	 * so this tells a contact carried over from the last tick from a new one.
+	 *
+	 * @param contact
+	 *            Contact found between two objects
+	 * @return boolean true if the contact is resting, false otherwise
+	 */
+	public boolean isResting(Contact contact) {
+		return contact.depth - mSlop <= RESTING_TOLERANCE;
+	}
+
+	/**
+	 * Add a contact between two game objects
+	 *
+	 * @param one
+	 *            First game object
+	 * @param two
+	 *            Second game object
+	 */
+	public void add(GameObject one, GameObject two) {
+		ensureCapacity(mCount + 1);
+		mOnes[mCount] = one;
+		mTwos[mCount] = two;
+		mCount++;
+	}
+
+	/**
+	 * Remove every contact from the solver
+	 */
+	public void clear() {
+		for (int idx = 0; idx < mCount; idx++) {
+			mOnes[idx] = null;
+			mTwos[idx] = null;
+		}
+		mCount = 0;
+	}
+
+	/**
+	 * Push the objects of the contacts held apart
+	 */
+	public void solve() {
+		mIterationsRun = 0;
+		while (mIterationsRun < mIterations) {
+			mIterationsRun++;
+			boolean resting = true;
+			for (int idx = 0; idx < mCount; idx++) {
+				GameObject one = mOnes[idx];
+				GameObject two = mTwos[idx];
+				float oneInverseMass = one.getInverseMass();
+				float twoInverseMass = two.getInverseMass();
+				float totalInverseMass = oneInverseMass + twoInverseMass;
+				if (totalInverseMass == 0.0f)
+					continue;
+
+				// Work out how far the objects still overlap
+				if (!CollisionDetector.getContact(one, two, mContact)
+						|| isResting(mContact))
+					continue;
+
+				// Push the objects apart in proportion to their inverse masses
+				resting = false;
+				float push = (mContact.depth - mSlop) / totalInverseMass;
+				float normalX = mContact.normalX;
+				float normalY = mContact.normalY;
+				one.position.x -= normalX * push * oneInverseMass;
+				one.position.y -= normalY * push * oneInverseMass;
+				two.position.x += normalX * push * twoInverseMass;
+				two.position.y += normalY * push * twoInverseMass;
+			}
+			if (resting)
+				break;
+		}
+	}
+
+	/**
+	 * Grow the storage, if needed, so that it can hold the specified number
+	 * of contacts
+	 *
+	 * @param count
+	 *            Number of contacts to hold
+	 */
+	private void ensureCapacity(int count) {
+		if (count <= mOnes.length)
+			return;
+
+		int capacity = Math.max(Math.max(count, 16), mOnes.length * 2);
+		mOnes = Arrays.copyOf(mOnes, capacity);
+		mTwos = Arrays.copyOf(mTwos, capacity);
+	}
+}
@@ -0,0 +1,216 @@
+package uk.co.thomaspickup.spacewars.gage.util;
+
+/**
+ * Table driven trigonometry for the angle math done for every sprite on every
+ * frame. Angles are in degrees, as used for sprite orientations, unless noted
+ * otherwise.
+ *
+ * Each function looks up the two nearest entries of a table and interpolates
+ * between them. The tables are built with StrictMath, so the results are the
+ * same on every device, which keeps replays of the game deterministic.
+ *
+ * Error bounds against java.lang.Math:
+ *
+ * sin, cos: within SIN_COS_MAX_ERROR, for angles within two turns of zero
+ * (further out, the float angle itself holds less precision)
+ * atan2: within ATAN2_MAX_ERROR degrees, for every vector
+ *
+ * @version 1.0
+ */
+public final class FastMath {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Largest difference from java.lang.Math of sinDeg and cosDeg
+	 */
+	public static final float SIN_COS_MAX_ERROR = 1.0e-6f;
+
+	/**
+	 * Largest difference (in degrees) from java.lang.Math of atan2Deg
+	 */
+	public static final float ATAN2_MAX_ERROR = 1.0e-4f;
+
+	/**
+	 * Number of entries in the sine table for a whole turn, and the number of
+	 * entries for each degree
+	 */
+	private static final int SIN_BITS = 12;
+	private static final int SIN_COUNT = 1 << SIN_BITS;
+	private static final int SIN_MASK = SIN_COUNT - 1;
+	private static final int SIN_QUARTER_TURN = SIN_COUNT / 4;
+	private static final float SIN_ENTRIES_PER_DEGREE = SIN_COUNT / 360.0f;
+	private static final float SIN_ENTRIES_PER_RADIAN = (float) (SIN_COUNT / (2.0 * Math.PI));
+
+	/**
+	 * Number of entries in the arctangent table, which covers ratios from 0
+	 * to 1
+	 */
+	private static final int ATAN_COUNT = 1 << 10;
+
+	/**
+	 * Conversion from degrees to radians
+	 */
+	private static final float RADIANS_PER_DEGREE = (float) (Math.PI / 180.0);
+
+	/**
+	 * Sine of each entry of a turn, and the arctangent (in degrees) of each
+	 * ratio from 0 to 1. Each table has an extra entry so that interpolation
+	 * never wraps.
+	 */
+	private static final float[] SIN_TABLE = new float[SIN_COUNT + 1];
+	private static final float[] ATAN_TABLE = new float[ATAN_COUNT + 1];
+
+	static {
+		for (int idx = 0; idx <= SIN_COUNT; idx++)
+			SIN_TABLE[idx] = (float) StrictMath.sin(idx * 2.0 * StrictMath.PI
+					/ SIN_COUNT);
+		for (int idx = 0; idx <= ATAN_COUNT; idx++)
+			ATAN_TABLE[idx] = (float) StrictMath.toDegrees(StrictMath
+					.atan((double) idx / ATAN_COUNT));
+	}
+
+	private FastMath() {
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Sine and Cosine
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Get the sine of an angle
+	 *
+	 * @param degrees
+	 *            Angle in degrees
+	 * @return Sine of the angle
+	 */
+	public static float sinDeg(float degrees) {
+		return lookUpSin(degrees * SIN_ENTRIES_PER_DEGREE, 0);
+	}
+
+	/**
+	 * Get the cosine of an angle
+	 *
+	 * @param degrees
+	 *            Angle in degrees
+	 * @return Cosine of the angle
+	 */
+	public static float cosDeg(float degrees) {
+		return lookUpSin(degrees * SIN_ENTRIES_PER_DEGREE, SIN_QUARTER_TURN);
+	}
+
+	/**
+	 * Get the sine of an angle in radians
+	 *
+	 * @param radians
+	 *            Angle in radians
+	 * @return Sine of the angle
+	 */
+	public static float sin(float radians) {
+		return lookUpSin(radians * SIN_ENTRIES_PER_RADIAN, 0);
+	}
+
+	/**
+	 * Get the cosine of an angle in radians
+	 *
+	 * @param radians
+	 *            Angle in radians
+	 * @return Cosine of the angle
+	 */
+	public static float cos(float radians) {
+		return lookUpSin(radians * SIN_ENTRIES_PER_RADIAN, SIN_QUARTER_TURN);
+	}
+
+	/**
+	 * Interpolate the sine table at the specified position. The offset (in
+	 * whole entries) is added after the position is split into its entry and
+	 * fraction, so shifting to the cosine loses no precision.
+	 *
+	 * @return Interpolated sine
+	 */
+	private static float lookUpSin(float position, int offset) {
+		float floor = (float) Math.floor(position);
+		int idx = ((int) (long) floor + offset) & SIN_MASK;
+		float fraction = position - floor;
+		return SIN_TABLE[idx] + (SIN_TABLE[idx + 1] - SIN_TABLE[idx]) * fraction;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Arctangent
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Get the angle of the specified vector from the x-axis, as
+	 * Math.atan2(y, x) does
+	 *
+	 * @param y
+	 *            y component of the vector
+	 * @param x
+	 *            x component of the vector
+	 * @return Angle in degrees, from -180 to 180, or 0 for the zero vector
+	 */
+	public static float atan2Deg(float y, float x) {
+		float absX = Math.abs(x);
+		float absY = Math.abs(y);
+		if (absX == 0.0f && absY == 0.0f)
+			return 0.0f;
+
+		// Look up the angle of the first octant, then reflect it into the
+		// octant of the vector
+		float angle;
+		if (absY <= absX)
+			angle = atanDeg(absY / absX);
+		else
+			angle = 90.0f - atanDeg(absX / absY);
+		if (x < 0.0f)
+			angle = 180.0f - angle;
+		return y < 0.0f ? -angle : angle;
+	}
+
+	/**
+	 * Get the angle of the specified vector from the x-axis, as
+	 * Math.atan2(y, x) does
+	 *
+	 * @param y
+	 *            y component of the vector
+	 * @param x
+	 *            x component of the vector
+	 * @return Angle in radians, from -PI to PI, or 0 for the zero vector
+	 */
+	public static float atan2(float y, float x) {
+		return atan2Deg(y, x) * RADIANS_PER_DEGREE;
+	}
+
+	/**
+	 * Get the arctangent of a ratio from 0 to 1
+	 *
+	 * @return Arctangent in degrees
+	 */
+	private static float atanDeg(float ratio) {
+		float position = ratio * ATAN_COUNT;
+		int idx = (int) position;
+		if (idx >= ATAN_COUNT)
+			return ATAN_TABLE[ATAN_COUNT];
+		float fraction = position - idx;
+		return ATAN_TABLE[idx] + (ATAN_TABLE[idx + 1] - ATAN_TABLE[idx]) * fraction;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Angle Wrapping
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Wrap an angle into the range -180 (inclusive) to 180 (exclusive)
+	 * degrees, without branching on the size of the angle
+	 *
+	 * @param degrees
+	 *            Angle in degrees
+	 * @return Equivalent angle from -180 to 180
+	 */
+	public static float wrapDegrees(float degrees) {
+		return degrees - 360.0f * (float) Math.floor((degrees + 180.0f)
+				* (1.0f / 360.0f));
+	}
+}
@@ -1,10 +1,14 @@
 package uk.co.thomaspickup.spacewars.gage.util;
 
-import android.graphics.Bitmap;
-import android.graphics.Rect;
-
 import uk.co.thomaspickup.spacewars.gage.Game;
+import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphicsPlatform;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect;
 import uk.co.thomaspickup.spacewars.gage.world.GameObject;
+import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
 import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
 import uk.co.thomaspickup.spacewars.gage.world.ScreenViewport;
 
@@ -35,7 +39,7 @@ public final class GraphicsHelper {
 	 */
 	public static final boolean getSourceAndScreenRect(GameObject gameObject,
 													   LayerViewport layerViewport, ScreenViewport screenViewport,
-													   Rect sourceRect, Rect screenRect) {
+													   IntRect sourceRect, IntRect screenRect) {
 
 		// Get the bounding box for the specified sprite
 		BoundingBox spriteBound = gameObject.getBound();
@@ -47,7 +51,7 @@ public final class GraphicsHelper {
 			spriteBound.y + spriteBound.halfHeight > layerViewport.y - layerViewport.halfHeight) {
 
 			// Define the source rectangle
-			Bitmap spriteBitmap = gameObject.getBitmap();
+			IImage spriteBitmap = gameObject.getBitmap();
 			sourceRect.set(0, 0, spriteBitmap.getWidth(), spriteBitmap.getHeight());
 
 			// Determine the x- and y-aspect rations between the layer and screen viewports
@@ -94,7 +98,7 @@ public final class GraphicsHelper {
 	 */
 	public static final boolean getClippedSourceAndScreenRect(GameObject gameObject,
 															  LayerViewport layerViewport, ScreenViewport screenViewport,
-															  Rect sourceRect, Rect screenRect) {
+															  IntRect sourceRect, IntRect screenRect) {
 
 		// Get the bounding box for the specified sprite
 		BoundingBox spriteBound = gameObject.getBound();
@@ -124,7 +128,7 @@ public final class GraphicsHelper {
 			// Determining the scale factor for mapping the bitmap onto this
 			// Rect and set the sourceRect value.
 
-			Bitmap spriteBitmap = gameObject.getBitmap();
+			IImage spriteBitmap = gameObject.getBitmap();
 			
 			float sourceScaleWidth = (float) spriteBitmap.getWidth()
 					/ (2 * spriteBound.halfWidth);
@@ -164,6 +168,56 @@ public final class GraphicsHelper {
 		return false;
 	}
 	
+	// /////////////////////////////////////////////////////////////////////////
+	// Frame Capture
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Render the specified game screen into a new offscreen bitmap. The
+	 * capture can be downscaled (drawn back with filtering to hide the lower
+	 * resolution) and dimmed, with both applied once at capture time so that
+	 * drawing the captured frame costs a single bitmap blit.
+	 *
+	 * The screen is drawn again to capture it, as a render surface need not
+	 * keep the frames it has shown (the canvas render surface does not).
+	 *
+	 * Note: The capture should be taken from the update step, when the game
+	 * loop guarantees the screen is not being drawn elsewhere.
+	 *
+	 * @param gameScreen
+	 *            Game screen to capture
+	 * @param elapsedTime
+	 *            Elapsed time information passed to the screen's draw
+	 * @param scale
+	 *            Scale (0-1] of the captured bitmap relative to the screen
+	 * @param dimAlpha
+	 *            Alpha (0-255) of the black wash drawn over the capture, 0 for
+	 *            no dimming
+	 * @return Captured frame, sized to the scaled screen dimensions
+	 */
+	public static IImage captureScreen(GameScreen gameScreen,
+			ElapsedTime elapsedTime, float scale, int dimAlpha) {
+		Game game = gameScreen.getGame();
+		int width = Math.max(1, (int) (game.getScreenWidth() * scale));
+		int height = Math.max(1, (int) (game.getScreenHeight() * scale));
+
+		IGraphicsPlatform platform = game.getGraphicsPlatform();
+		IImage frame = platform.createImage(width, height);
+		IGraphics2D graphics2D = platform.createGraphics(frame);
+		graphics2D.scale((float) width / game.getScreenWidth(),
+				(float) height / game.getScreenHeight());
+
+		// Ask the screen to draw itself onto the offscreen image
+		gameScreen.draw(elapsedTime, graphics2D);
+
+		// Bake in the dimming
+		if (dimAlpha > 0)
+			graphics2D.drawRect(new IntRect(0, 0, game.getScreenWidth(),
+					game.getScreenHeight()), new DrawPaint(dimAlpha << 24));
+
+		return frame;
+	}
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Aspect Ratios
 	// /////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,219 @@
+package uk.co.thomaspickup.spacewars.gage.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+import uk.co.thomaspickup.spacewars.gage.world.GameObject;
+import uk.co.thomaspickup.spacewars.gage.world.SpatialGrid;
+
+/**
+ * Uniform grid broadphase. Each object is entered into every cell its bound
+ * covers, and only objects sharing a cell are tested against each other. A
+ * pair sharing several cells is only reported from the first of them.
+ *
+ * The cells are held by a SpatialGrid, which is rebuilt from the bounds of
+ * the objects on every update. The grid works best when the objects are
+ * spread evenly and the cell size is close to the size of the objects.
+ *
+ * @param <T>
+ *            Type of the objects held
+ * @version 1.0
+ */
+public class GridBroadphase<T extends GameObject> implements IBroadphase<T> {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Grid of the object bounds, numbering each object by its place in the
+	 * list it was updated from
+	 */
+	private final SpatialGrid mGrid;
+
+	/**
+	 * Number of objects held
+	 */
+	private int mCount;
+
+	/**
+	 * Objects held, in list order, along with their bounds
+	 */
+	private Object[] mObjects = new Object[0];
+	private float[] mLefts = new float[0];
+	private float[] mRights = new float[0];
+	private float[] mBottoms = new float[0];
+	private float[] mTops = new float[0];
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new grid broadphase
+	 *
+	 * @param cellSize
+	 *            Size of each cell of the grid
+	 */
+	public GridBroadphase(float cellSize) {
+		mGrid = new SpatialGrid(cellSize);
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Get the size of each cell of the grid
+	 *
+	 * @return Cell size
+	 */
+	public float getCellSize() {
+		return mGrid.getCellSize();
+	}
+
+	@Override
+	public int size() {
+		return mCount;
+	}
+
+	@Override
+	public void update(List<? extends T> objects) {
+		int count = objects.size();
+		ensureCapacity(count);
+
+		// Store the bound of each object
+		for (int idx = 0; idx < count; idx++) {
+			GameObject object = objects.get(idx);
+			BoundingBox bound = object.getCollisionBound();
+			mObjects[idx] = object;
+			mLefts[idx] = bound.getLeft();
+			mRights[idx] = bound.getRight();
+			mBottoms[idx] = bound.getBottom();
+			mTops[idx] = bound.getTop();
+		}
+
+		// Release any objects no longer held
+		for (int idx = count; idx < mCount; idx++)
+			mObjects[idx] = null;
+		mCount = count;
+
+		mGrid.rebuild(count, mLefts, mBottoms, mRights, mTops);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void findPairs(List<? super T> pairs) {
+		pairs.clear();
+		SpatialGrid grid = mGrid;
+		int bucketCount = grid.getBucketCount();
+		for (int bucket = 0; bucket < bucketCount; bucket++) {
+			int end = grid.getBucketEnd(bucket);
+			for (int entry = grid.getBucketStart(bucket); entry < end; entry++) {
+				int cellX = grid.getCellX(entry);
+				int cellY = grid.getCellY(entry);
+				int one = grid.getItem(entry);
+				for (int other = entry + 1; other < end; other++) {
+					// Skip entries of other cells sharing the bucket
+					if (!grid.isInCell(other, cellX, cellY))
+						continue;
+
+					// Only report the pair from the first cell both share
+					int two = grid.getItem(other);
+					if (!grid.isFirstSharedCell(two, grid.getMinCellX(one),
+							grid.getMinCellY(one), cellX, cellY))
+						continue;
+
+					if (mRights[two] > mLefts[one] && mLefts[two] < mRights[one]
+							&& mTops[two] > mBottoms[one]
+							&& mBottoms[two] < mTops[one]) {
+						pairs.add((T) mObjects[one]);
+						pairs.add((T) mObjects[two]);
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void query(BoundingBox bound, List<? super T> results) {
+		results.clear();
+		float left = bound.getLeft();
+		float right = bound.getRight();
+		float bottom = bound.getBottom();
+		float top = bound.getTop();
+
+		SpatialGrid grid = mGrid;
+		int minCellX = grid.toCell(left);
+		int maxCellX = grid.toCell(right);
+		int minCellY = grid.toCell(bottom);
+		int maxCellY = grid.toCell(top);
+
+		// If the search covers more cells than there are objects, it is
+		// cheaper to consider every object
+		long cellCount = ((long) maxCellX - minCellX + 1)
+				* ((long) maxCellY - minCellY + 1);
+		if (cellCount > mCount) {
+			for (int idx = 0; idx < mCount; idx++)
+				if (overlaps(idx, left, right, bottom, top))
+					results.add((T) mObjects[idx]);
+			return;
+		}
+
+		for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+			for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+				int bucket = grid.getBucket(cellX, cellY);
+				int end = grid.getBucketEnd(bucket);
+				for (int entry = grid.getBucketStart(bucket); entry < end; entry++) {
+					// Skip entries of other cells sharing the bucket
+					if (!grid.isInCell(entry, cellX, cellY))
+						continue;
+
+					// Only report the object from the first cell it shares
+					// with the search
+					int idx = grid.getItem(entry);
+					if (!grid.isFirstSharedCell(idx, minCellX, minCellY,
+							cellX, cellY))
+						continue;
+
+					if (overlaps(idx, left, right, bottom, top))
+						results.add((T) mObjects[idx]);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void clear() {
+		for (int idx = 0; idx < mCount; idx++)
+			mObjects[idx] = null;
+		mGrid.clear();
+		mCount = 0;
+	}
+
+	/**
+	 * Determine if the bound of an object overlaps the specified area
+	 */
+	private boolean overlaps(int idx, float left, float right, float bottom,
+			float top) {
+		return mLefts[idx] < right && mRights[idx] > left
+				&& mBottoms[idx] < top && mTops[idx] > bottom;
+	}
+
+	/**
+	 * Grow the storage of the objects, if needed, so that it can hold the
+	 * specified number of objects
+	 */
+	private void ensureCapacity(int count) {
+		if (count <= mObjects.length)
+			return;
+
+		int capacity = Math.max(count, mObjects.length * 2);
+		mObjects = Arrays.copyOf(mObjects, capacity);
+		mLefts = new float[capacity];
+		mRights = new float[capacity];
+		mBottoms = new float[capacity];
+		mTops = new float[capacity];
+	}
+}
@@ -0,0 +1,64 @@
+package uk.co.thomaspickup.spacewars.gage.util;
+
+import java.util.List;
+
+import uk.co.thomaspickup.spacewars.gage.world.GameObject;
+
+/**
+ * Broadphase of the collision detection, narrowing the pairs of game objects
+ * that need testing with the CollisionDetector down to those whose bounds
+ * overlap. The broadphase is updated from a list of objects (normally once
+ * per tick) and then queried as often as needed; queries use the bounds as
+ * they stood when it was last updated. Objects are held by their collision
+ * bounds, which enclose their collision shapes.
+ *
+ * Results only depend on the objects and their bounds, never on the
+ * broadphase used, apart from the order in which they are found.
+ *
+ * @param <T>
+ *            Type of the objects held
+ * @version 1.0
+ */
+public interface IBroadphase<T extends GameObject> {
+
+	/**
+	 * Update the broadphase so that it holds the specified objects at their
+	 * current bounds
+	 *
+	 * @param objects
+	 *            Objects to hold
+	 */
+	public void update(List<? extends T> objects);
+
+	/**
+	 * Find every pair of objects whose bounds overlap. The pairs list is
+	 * cleared and then filled with the two objects of each pair in turn.
+	 *
+	 * @param pairs
+	 *            Output list of the objects of each pair
+	 */
+	public void findPairs(List<? super T> pairs);
+
+	/**
+	 * Find the objects whose bounds overlap the specified bound. The results
+	 * list is cleared and then filled with the objects found.
+	 *
+	 * @param bound
+	 *            Bound to search within
+	 * @param results
+	 *            Output list of the objects found
+	 */
+	public void query(BoundingBox bound, List<? super T> results);
+
+	/**
+	 * Remove every object from the broadphase
+	 */
+	public void clear();
+
+	/**
+	 * Get the number of objects held by the broadphase
+	 *
+	 * @return Number of objects
+	 */
+	public int size();
+}
@@ -0,0 +1,19 @@
+package uk.co.thomaspickup.spacewars.gage.util;
+
+/**
+ * Task run once for each index of a parallel loop. Runs for different indices
+ * may happen at the same time on different threads, so a run must only write
+ * to state belonging to its own index.
+ *
+ * @version 1.0
+ */
+public interface IIndexedTask {
+
+	/**
+	 * Run the task for the specified index
+	 *
+	 * @param index
+	 *            Index to run the task for
+	 */
+	public void run(int index);
+}
@@ -0,0 +1,137 @@
+package uk.co.thomaspickup.spacewars.gage.util;
+
+/**
+ * Bounding box rotated about its centre, used to test the collisions of
+ * rotated sprites.
+ *
+ * The box is rotated by an orientation in degrees, as used for sprite
+ * orientations, so its x-axis points along (cos, -sin) of the orientation.
+ *
+ * @version 1.0
+ */
+public class OrientedBoundingBox {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Centre x location of the box
+	 */
+	public float x;
+
+	/**
+	 * Centre y location of the box
+	 */
+	public float y;
+
+	/**
+	 * Half-width of the box, along its x-axis
+	 */
+	public float halfWidth;
+
+	/**
+	 * Half-height of the box, along its y-axis
+	 */
+	public float halfHeight;
+
+	/**
+	 * Direction of the x-axis of the box. The y-axis of the box is at right
+	 * angles to it, along (-axisY, axisX).
+	 */
+	public float axisX = 1.0f;
+	public float axisY = 0.0f;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors and Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new oriented bounding box.
+	 *
+	 * By default a x,y location of [0,0] is assumed, with a half width/height
+	 * of 1 and no rotation
+	 */
+	public OrientedBoundingBox() {
+		halfWidth = 1.0f;
+		halfHeight = 1.0f;
+	}
+
+	/**
+	 * Create an oriented bounding box of the specified dimensions
+	 *
+	 * @param x
+	 *            Centre x location of the box
+	 * @param y
+	 *            Centre y location of the box
+	 * @param halfWidth
+	 *            Half width of the box
+	 * @param halfHeight
+	 *            Half height of the box
+	 * @param orientation
+	 *            Rotation of the box in degrees
+	 */
+	public OrientedBoundingBox(float x, float y, float halfWidth,
+			float halfHeight, float orientation) {
+		this.x = x;
+		this.y = y;
+		this.halfWidth = halfWidth;
+		this.halfHeight = halfHeight;
+		setOrientation(orientation);
+	}
+
+	/**
+	 * Set the box to the specified bounding box, rotated about its centre
+	 *
+	 * @param bound
+	 *            Bounding box to rotate
+	 * @param orientation
+	 *            Rotation of the box in degrees
+	 */
+	public void set(BoundingBox bound, float orientation) {
+		x = bound.x;
+		y = bound.y;
+		halfWidth = bound.halfWidth;
+		halfHeight = bound.halfHeight;
+		setOrientation(orientation);
+	}
+
+	/**
+	 * Set the rotation of the box
+	 *
+	 * @param orientation
+	 *            Rotation of the box in degrees
+	 */
+	public void setOrientation(float orientation) {
+		axisX = FastMath.cosDeg(orientation);
+		axisY = -FastMath.sinDeg(orientation);
+	}
+
+	/**
+	 * Return the half length of the box when projected onto the specified
+	 * direction
+	 *
+	 * @param directionX
+	 *            x component of the (unit length) direction
+	 * @param directionY
+	 *            y component of the (unit length) direction
+	 * @return Half length of the projection
+	 */
+	public float getProjectedExtent(float directionX, float directionY) {
+		return halfWidth * Math.abs(axisX * directionX + axisY * directionY)
+				+ halfHeight * Math.abs(axisX * directionY - axisY * directionX);
+	}
+
+	/**
+	 * Determine the smallest axis aligned bounding box enclosing the box
+	 *
+	 * @param bound
+	 *            Output bounding box enclosing the box
+	 */
+	public void getEnclosingBound(BoundingBox bound) {
+		bound.x = x;
+		bound.y = y;
+		bound.halfWidth = getProjectedExtent(1.0f, 0.0f);
+		bound.halfHeight = getProjectedExtent(0.0f, 1.0f);
+	}
+}
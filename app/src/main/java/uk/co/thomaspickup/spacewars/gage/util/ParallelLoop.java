@@ -0,0 +1,144 @@
+package uk.co.thomaspickup.spacewars.gage.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a task for each index of a range across a work-stealing fork/join
+ * pool. The range is split in half recursively until the pieces are no larger
+ * than the batch size, and idle threads steal pieces from busy ones.
+ *
+ * The loop returns once the task has run for every index. As long as each run
+ * only writes to state belonging to its own index, the outcome is the same
+ * whatever the number of threads. Ranges too small to be worth splitting run
+ * on the calling thread.
+ *
+ * @version 1.0
+ */
+public class ParallelLoop {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Default number of indices run together as a single piece of work
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 32;
+
+	/**
+	 * Pool the loop is run on, or null if the loop runs on the calling thread
+	 */
+	private ForkJoinPool mPool;
+
+	/**
+	 * Number of indices run together as a single piece of work
+	 */
+	private int mBatchSize = DEFAULT_BATCH_SIZE;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new parallel loop
+	 *
+	 * @param threadCount
+	 *            Number of threads to run the loop on; 1 or fewer runs the
+	 *            loop on the calling thread
+	 */
+	public ParallelLoop(int threadCount) {
+		if (threadCount > 1)
+			mPool = new ForkJoinPool(threadCount);
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Get the number of threads the loop is run on
+	 *
+	 * @return Number of threads
+	 */
+	public int getThreadCount() {
+		return mPool != null ? mPool.getParallelism() : 1;
+	}
+
+	/**
+	 * Set the number of indices run together as a single piece of work
+	 *
+	 * @param batchSize
+	 *            Batch size
+	 */
+	public void setBatchSize(int batchSize) {
+		mBatchSize = Math.max(1, batchSize);
+	}
+
+	/**
+	 * Run the task for every index from 0 up to (but excluding) the count,
+	 * returning once every run has completed. Any exception thrown by a run
+	 * is rethrown on the calling thread.
+	 *
+	 * @param count
+	 *            Number of indices
+	 * @param task
+	 *            Task to run for each index
+	 */
+	public void run(int count, IIndexedTask task) {
+		if (mPool == null || count <= mBatchSize) {
+			for (int index = 0; index < count; index++)
+				task.run(index);
+		} else {
+			mPool.invoke(new RangeAction(task, 0, count, mBatchSize));
+		}
+	}
+
+	/**
+	 * Stop the threads of the loop. Once shut down, the loop runs on the
+	 * calling thread.
+	 */
+	public void shutdown() {
+		if (mPool != null) {
+			mPool.shutdown();
+			mPool = null;
+		}
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Range Action
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Action running the task over a range of indices, splitting the range
+	 * until it is no larger than the batch size
+	 */
+	private static class RangeAction extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final IIndexedTask mTask;
+		private final int mStart;
+		private final int mEnd;
+		private final int mBatchSize;
+
+		RangeAction(IIndexedTask task, int start, int end, int batchSize) {
+			mTask = task;
+			mStart = start;
+			mEnd = end;
+			mBatchSize = batchSize;
+		}
+
+		@Override
+		protected void compute() {
+			if (mEnd - mStart <= mBatchSize) {
+				for (int index = mStart; index < mEnd; index++)
+					mTask.run(index);
+			} else {
+				int middle = (mStart + mEnd) >>> 1;
+				invokeAll(new RangeAction(mTask, mStart, middle, mBatchSize),
+						new RangeAction(mTask, middle, mEnd, mBatchSize));
+			}
+		}
+	}
+}
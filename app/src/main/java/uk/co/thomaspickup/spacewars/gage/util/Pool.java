@@ -78,4 +78,23 @@ public class Pool<T> {
 		if (mPool.size() < mMaxPoolSize)
 			mPool.add(object);
 	}
+
+	/**
+	 * Return the number of objects currently held in the pool, ready for
+	 * reuse.
+	 * 
+	 * @return Number of pooled objects
+	 */
+	public int getFreeCount() {
+		return mPool.size();
+	}
+
+	/**
+	 * Return the maximum number of objects that can be held in the pool.
+	 * 
+	 * @return Maximum pool size
+	 */
+	public int getMaxPoolSize() {
+		return mMaxPoolSize;
+	}
 }
\ No newline at end of file
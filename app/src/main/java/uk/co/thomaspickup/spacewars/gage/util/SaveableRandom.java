@@ -0,0 +1,115 @@
+package uk.co.thomaspickup.spacewars.gage.util;
+
+import java.util.Random;
+
+/**
+ * Random number generator whose internal state can be read and restored,
+ * allowing a sequence to be continued exactly after a save and load.
+ * 
+ * The generator uses the same linear congruential formula as
+ * java.util.Random and so produces an identical sequence for a given seed,
+ * other than from nextGaussian, which does not cache a value between calls.
+ * 
+ * @version 1.0
+ */
+public class SaveableRandom extends Random {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constants of the linear congruential generator, as used by
+	 * java.util.Random
+	 */
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	private static final long ADDEND = 0xBL;
+	private static final long MASK = (1L << 48) - 1;
+
+	/**
+	 * Current 48-bit state of the generator. This is assigned by setSeed from
+	 * within the superclass constructor, so must not have an initialiser.
+	 */
+	private long mState;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new generator using the specified seed
+	 * 
+	 * @param seed
+	 *            Initial seed
+	 */
+	public SaveableRandom(long seed) {
+		super(seed);
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.Random#setSeed(long)
+	 */
+	@Override
+	public synchronized void setSeed(long seed) {
+		super.setSeed(seed);
+		mState = (seed ^ MULTIPLIER) & MASK;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.Random#next(int)
+	 */
+	@Override
+	protected int next(int bits) {
+		mState = (mState * MULTIPLIER + ADDEND) & MASK;
+		return (int) (mState >>> (48 - bits));
+	}
+
+	/**
+	 * Return the next normally distributed value. Unlike java.util.Random,
+	 * the second value of each pair generated is discarded rather than cached
+	 * for the next call, so that getState holds the whole state of the
+	 * generator.
+	 * 
+	 * @return Normally distributed value with a mean of 0 and a standard
+	 *         deviation of 1
+	 */
+	@Override
+	public synchronized double nextGaussian() {
+		double v1, v2, s;
+		do {
+			v1 = 2.0 * nextDouble() - 1.0;
+			v2 = 2.0 * nextDouble() - 1.0;
+			s = v1 * v1 + v2 * v2;
+		} while (s >= 1.0 || s == 0.0);
+		return v1 * StrictMath.sqrt(-2.0 * StrictMath.log(s) / s);
+	}
+
+	/**
+	 * Get the current state of the generator
+	 * 
+	 * @return State that can be passed to setState to continue the sequence
+	 */
+	public long getState() {
+		return mState;
+	}
+
+	/**
+	 * Restore the generator to a state returned by getState
+	 * 
+	 * @param state
+	 *            State to restore
+	 */
+	public void setState(long state) {
+		mState = state & MASK;
+	}
+}
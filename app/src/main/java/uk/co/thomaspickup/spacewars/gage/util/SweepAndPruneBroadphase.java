@@ -0,0 +1,257 @@
+package uk.co.thomaspickup.spacewars.gage.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+import uk.co.thomaspickup.spacewars.gage.world.GameObject;
+
+/**
+ * Sort and sweep broadphase. The objects are kept sorted on the left edge of
+ * their bounds, so the objects overlapping an object along the x-axis are
+ * those that follow it until one starts beyond its right edge. Only those are
+ * then tested along the y-axis.
+ *
+ * Objects only move a little between ticks, so the order from the last
+ * update is nearly right and an insertion sort brings it up to date in close
+ * to linear time. If the objects held have changed since the last update they
+ * are sorted from scratch instead. Unlike a grid, the memory used only
+ * depends on the number of objects, however they are spread, which suits
+ * levels where the objects are clustered together.
+ *
+ * @param <T>
+ *            Type of the objects held
+ * @version 1.0
+ */
+public class SweepAndPruneBroadphase<T extends GameObject> implements
+		IBroadphase<T> {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Number of objects held
+	 */
+	private int mCount;
+
+	/**
+	 * Objects held, sorted on the left edge of their bounds, along with the
+	 * index of each object within the list it was updated from and its
+	 * bound at that time
+	 */
+	private Object[] mObjects = new Object[0];
+	private int[] mListIndices = new int[0];
+	private float[] mLefts = new float[0];
+	private float[] mRights = new float[0];
+	private float[] mBottoms = new float[0];
+	private float[] mTops = new float[0];
+
+	/**
+	 * Widest bound held, which limits how far back a query has to look
+	 */
+	private float mMaxWidth;
+
+	/**
+	 * Working storage used whilst sorting the objects from scratch
+	 */
+	private long[] mSortKeys = new long[0];
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	@Override
+	public int size() {
+		return mCount;
+	}
+
+	@Override
+	public void update(List<? extends T> objects) {
+		int count = objects.size();
+
+		// The objects are the same as last time if each is still found at
+		// the index it was taken from
+		boolean sameObjects = count == mCount;
+		for (int slot = 0; slot < mCount && sameObjects; slot++)
+			sameObjects = objects.get(mListIndices[slot]) == mObjects[slot];
+
+		if (sameObjects) {
+			for (int slot = 0; slot < count; slot++)
+				storeBound(slot, (GameObject) mObjects[slot]);
+			insertionSort();
+		} else {
+			ensureCapacity(count);
+			sortFromScratch(objects);
+
+			// Release any objects no longer held
+			for (int slot = count; slot < mCount; slot++)
+				mObjects[slot] = null;
+			mCount = count;
+		}
+
+		mMaxWidth = 0.0f;
+		for (int slot = 0; slot < count; slot++)
+			mMaxWidth = Math.max(mMaxWidth, mRights[slot] - mLefts[slot]);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void findPairs(List<? super T> pairs) {
+		pairs.clear();
+		for (int slot = 0; slot < mCount; slot++) {
+			float right = mRights[slot];
+			for (int other = slot + 1; other < mCount && mLefts[other] < right; other++) {
+				if (mRights[other] > mLefts[slot] && mBottoms[other] < mTops[slot]
+						&& mTops[other] > mBottoms[slot]) {
+					pairs.add((T) mObjects[slot]);
+					pairs.add((T) mObjects[other]);
+				}
+			}
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void query(BoundingBox bound, List<? super T> results) {
+		results.clear();
+		float left = bound.getLeft();
+		float right = bound.getRight();
+		float bottom = bound.getBottom();
+		float top = bound.getTop();
+
+		// Objects starting further back than the widest bound cannot reach
+		// the query
+		for (int slot = firstSlotAfter(left - mMaxWidth); slot < mCount
+				&& mLefts[slot] < right; slot++) {
+			if (mRights[slot] > left && mBottoms[slot] < top
+					&& mTops[slot] > bottom)
+				results.add((T) mObjects[slot]);
+		}
+	}
+
+	@Override
+	public void clear() {
+		for (int slot = 0; slot < mCount; slot++)
+			mObjects[slot] = null;
+		mCount = 0;
+		mMaxWidth = 0.0f;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Sorting
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Bring the order of the objects up to date with their new bounds. Each
+	 * object is moved back past those that now start after it, which is
+	 * cheap as long as the objects have only moved a little.
+	 */
+	private void insertionSort() {
+		for (int slot = 1; slot < mCount; slot++) {
+			float left = mLefts[slot];
+			if (mLefts[slot - 1] <= left)
+				continue;
+
+			Object object = mObjects[slot];
+			int listIndex = mListIndices[slot];
+			float right = mRights[slot];
+			float bottom = mBottoms[slot];
+			float top = mTops[slot];
+
+			int target = slot;
+			do {
+				mObjects[target] = mObjects[target - 1];
+				mListIndices[target] = mListIndices[target - 1];
+				mLefts[target] = mLefts[target - 1];
+				mRights[target] = mRights[target - 1];
+				mBottoms[target] = mBottoms[target - 1];
+				mTops[target] = mTops[target - 1];
+				target--;
+			} while (target > 0 && mLefts[target - 1] > left);
+
+			mObjects[target] = object;
+			mListIndices[target] = listIndex;
+			mLefts[target] = left;
+			mRights[target] = right;
+			mBottoms[target] = bottom;
+			mTops[target] = top;
+		}
+	}
+
+	/**
+	 * Sort the specified objects on the left edge of their bounds, ties being
+	 * kept in list order
+	 */
+	private void sortFromScratch(List<? extends T> objects) {
+		int count = objects.size();
+		for (int idx = 0; idx < count; idx++) {
+			BoundingBox bound = objects.get(idx).getCollisionBound();
+			mSortKeys[idx] = ((long) toSortable(bound.getLeft()) << 32) | idx;
+		}
+		Arrays.sort(mSortKeys, 0, count);
+
+		for (int slot = 0; slot < count; slot++) {
+			int listIndex = (int) mSortKeys[slot];
+			GameObject object = objects.get(listIndex);
+			mObjects[slot] = object;
+			mListIndices[slot] = listIndex;
+			storeBound(slot, object);
+		}
+	}
+
+	/**
+	 * Map a float to an int with the same ordering
+	 */
+	private static int toSortable(float value) {
+		int bits = Float.floatToIntBits(value);
+		return bits ^ ((bits >> 31) & 0x7fffffff);
+	}
+
+	/**
+	 * Store the current bound of an object in the specified slot
+	 */
+	private void storeBound(int slot, GameObject object) {
+		BoundingBox bound = object.getCollisionBound();
+		mLefts[slot] = bound.getLeft();
+		mRights[slot] = bound.getRight();
+		mBottoms[slot] = bound.getBottom();
+		mTops[slot] = bound.getTop();
+	}
+
+	/**
+	 * Get the first slot whose object starts after the specified position
+	 */
+	private int firstSlotAfter(float position) {
+		int low = 0;
+		int high = mCount;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (mLefts[middle] <= position)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	/**
+	 * Grow the storage, if needed, so that it can hold the specified number
+	 * of objects
+	 *
+	 * @param count
+	 *            Number of objects to hold
+	 */
+	private void ensureCapacity(int count) {
+		if (count <= mObjects.length)
+			return;
+
+		int capacity = Math.max(count, mObjects.length * 2);
+		mObjects = Arrays.copyOf(mObjects, capacity);
+		mListIndices = new int[capacity];
+		mLefts = new float[capacity];
+		mRights = new float[capacity];
+		mBottoms = new float[capacity];
+		mTops = new float[capacity];
+		mSortKeys = new long[capacity];
+	}
+}
@@ -0,0 +1,277 @@
+package uk.co.thomaspickup.spacewars.gage.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Registry of entities, giving each entity a generational handle that other
+ * objects can hold without keeping a destroyed entity alive or mistaking a
+ * later entity for it. A handle packs the slot of the entity with the
+ * generation of that slot; the generation is bumped each time the slot is
+ * freed, so stale handles no longer resolve.
+ *
+ * Entities are held densely in a list for iteration. Destroying an entity
+ * only queues it, so it is safe to destroy entities (even more than once)
+ * whilst iterating over them. Queued entities stay in the list, but no
+ * longer resolve from their handle, until flushDestroyed is called at the end
+ * of the tick, which swap-removes each of them from the list in constant
+ * time. Removal does not keep the order of the list.
+ *
+ * @param <T>
+ *            Type of the entities held
+ * @version 1.0
+ */
+public class EntityRegistry<T> {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Handle that never resolves to an entity
+	 */
+	public static final long NO_HANDLE = 0L;
+
+	/**
+	 * Entities held by the registry, and the slot of each entity
+	 */
+	private ArrayList<T> mEntities;
+	private int[] mEntitySlots;
+
+	/**
+	 * Generation of each slot, the index of the entity held in each slot (or
+	 * -1 if the slot is free) and whether the entity is queued for
+	 * destruction
+	 */
+	private int[] mGenerations;
+	private int[] mEntityIndices;
+	private boolean[] mDestroyQueued;
+
+	/**
+	 * Number of slots in use, including freed slots awaiting reuse
+	 */
+	private int mSlotCount;
+
+	/**
+	 * Stack of freed slots
+	 */
+	private int[] mFreeSlots;
+	private int mFreeSlotCount;
+
+	/**
+	 * Slots of the entities queued for destruction
+	 */
+	private int[] mDestroyQueue;
+	private int mDestroyQueueCount;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new entity registry
+	 *
+	 * @param initialCapacity
+	 *            Number of entities that can be held before the registry
+	 *            needs to grow
+	 */
+	public EntityRegistry(int initialCapacity) {
+		initialCapacity = Math.max(1, initialCapacity);
+		mEntities = new ArrayList<T>(initialCapacity);
+		mEntitySlots = new int[initialCapacity];
+		mGenerations = new int[initialCapacity];
+		mEntityIndices = new int[initialCapacity];
+		mDestroyQueued = new boolean[initialCapacity];
+		mFreeSlots = new int[initialCapacity];
+		mDestroyQueue = new int[initialCapacity];
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Get the entities held by the registry, including any queued for
+	 * destruction. The list must only be changed through the registry.
+	 *
+	 * @return Entities held by the registry
+	 */
+	public List<T> getEntities() {
+		return mEntities;
+	}
+
+	/**
+	 * Get the number of entities held, including any queued for destruction
+	 *
+	 * @return Number of entities
+	 */
+	public int size() {
+		return mEntities.size();
+	}
+
+	/**
+	 * Add an entity to the registry
+	 *
+	 * @param entity
+	 *            Entity to add
+	 * @return Handle of the entity
+	 */
+	public long add(T entity) {
+		int slot;
+		if (mFreeSlotCount > 0) {
+			slot = mFreeSlots[--mFreeSlotCount];
+		} else {
+			if (mSlotCount == mGenerations.length)
+				grow();
+			slot = mSlotCount++;
+		}
+
+		int index = mEntities.size();
+		mEntities.add(entity);
+		mEntitySlots[index] = slot;
+		mEntityIndices[slot] = index;
+		mDestroyQueued[slot] = false;
+		return toHandle(slot);
+	}
+
+	/**
+	 * Get the entity with the specified handle
+	 *
+	 * @param handle
+	 *            Handle of the entity
+	 * @return Entity, or null if the entity has been destroyed
+	 */
+	public T get(long handle) {
+		int slot = toSlot(handle);
+		return slot >= 0 ? mEntities.get(mEntityIndices[slot]) : null;
+	}
+
+	/**
+	 * Determine if the entity with the specified handle is alive
+	 *
+	 * @param handle
+	 *            Handle of the entity
+	 * @return true if the entity is held and not queued for destruction
+	 */
+	public boolean isAlive(long handle) {
+		return toSlot(handle) >= 0;
+	}
+
+	/**
+	 * Get the handle of the entity at the specified index of the entity list
+	 *
+	 * @param index
+	 *            Index of the entity
+	 * @return Handle of the entity
+	 */
+	public long getHandle(int index) {
+		return toHandle(mEntitySlots[index]);
+	}
+
+	/**
+	 * Queue the entity with the specified handle for destruction. The entity
+	 * is removed when flushDestroyed is next called.
+	 *
+	 * @param handle
+	 *            Handle of the entity
+	 * @return true if the entity was queued, false if it had already been
+	 *         destroyed or queued
+	 */
+	public boolean destroy(long handle) {
+		int slot = toSlot(handle);
+		if (slot < 0)
+			return false;
+
+		mDestroyQueued[slot] = true;
+		mDestroyQueue[mDestroyQueueCount++] = slot;
+		return true;
+	}
+
+	/**
+	 * Remove every entity queued for destruction, freeing their slots
+	 */
+	public void flushDestroyed() {
+		for (int idx = 0; idx < mDestroyQueueCount; idx++) {
+			int slot = mDestroyQueue[idx];
+
+			// Move the last entity into the place of the destroyed entity
+			int index = mEntityIndices[slot];
+			int lastIndex = mEntities.size() - 1;
+			if (index != lastIndex) {
+				int lastSlot = mEntitySlots[lastIndex];
+				mEntities.set(index, mEntities.get(lastIndex));
+				mEntitySlots[index] = lastSlot;
+				mEntityIndices[lastSlot] = index;
+			}
+			mEntities.remove(lastIndex);
+
+			freeSlot(slot);
+		}
+		mDestroyQueueCount = 0;
+	}
+
+	/**
+	 * Remove every entity, invalidating all of their handles
+	 */
+	public void clear() {
+		for (int index = 0; index < mEntities.size(); index++)
+			freeSlot(mEntitySlots[index]);
+		mEntities.clear();
+		mDestroyQueueCount = 0;
+	}
+
+	/**
+	 * Free a slot, bumping its generation so old handles no longer resolve
+	 *
+	 * @param slot
+	 *            Slot to free
+	 */
+	private void freeSlot(int slot) {
+		mEntityIndices[slot] = -1;
+		mDestroyQueued[slot] = false;
+		mGenerations[slot]++;
+		mFreeSlots[mFreeSlotCount++] = slot;
+	}
+
+	/**
+	 * Create the handle of the entity currently held in a slot
+	 *
+	 * @param slot
+	 *            Slot of the entity
+	 * @return Handle of the entity
+	 */
+	private long toHandle(int slot) {
+		// Generations are offset by one so a handle is never NO_HANDLE
+		return ((long) (mGenerations[slot] + 1) << 32) | slot;
+	}
+
+	/**
+	 * Get the slot of a live entity from its handle
+	 *
+	 * @param handle
+	 *            Handle of the entity
+	 * @return Slot of the entity, or -1 if the handle is stale
+	 */
+	private int toSlot(long handle) {
+		int slot = (int) handle;
+		int generation = (int) (handle >>> 32) - 1;
+		if (slot < 0 || slot >= mSlotCount || mGenerations[slot] != generation
+				|| mEntityIndices[slot] < 0 || mDestroyQueued[slot])
+			return -1;
+		return slot;
+	}
+
+	/**
+	 * Double the number of slots
+	 */
+	private void grow() {
+		int capacity = mGenerations.length * 2;
+		mEntitySlots = Arrays.copyOf(mEntitySlots, capacity);
+		mGenerations = Arrays.copyOf(mGenerations, capacity);
+		mEntityIndices = Arrays.copyOf(mEntityIndices, capacity);
+		mFreeSlots = Arrays.copyOf(mFreeSlots, capacity);
+		mDestroyQueue = Arrays.copyOf(mDestroyQueue, capacity);
+		mDestroyQueued = Arrays.copyOf(mDestroyQueued, capacity);
+	}
+}
@@ -1,13 +1,15 @@
 package uk.co.thomaspickup.spacewars.gage.world;
 
-import android.graphics.Bitmap;
-import android.graphics.Paint;
-import android.graphics.Rect;
-
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect;
 import uk.co.thomaspickup.spacewars.gage.util.BoundingBox;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector.CollisionShape;
 import uk.co.thomaspickup.spacewars.gage.util.GraphicsHelper;
+import uk.co.thomaspickup.spacewars.gage.util.OrientedBoundingBox;
 import uk.co.thomaspickup.spacewars.gage.util.Vector2;
 
 /**
@@ -29,7 +31,7 @@ public class GameObject {
 	/**
 	 * Bitmap used to render this game object
 	 */
-	protected Bitmap mBitmap;
+	protected IImage mBitmap;
 
 	/**
 	 * Position of this game object
@@ -41,11 +43,31 @@ public class GameObject {
 	 */
 	protected BoundingBox mBound = new BoundingBox();
 
+	/**
+	 * Shape of this game object tested for collisions, and the box it is held
+	 * in whilst tested as an oriented box
+	 */
+	protected CollisionShape mCollisionShape = CollisionShape.Box;
+	protected OrientedBoundingBox mOrientedBound = new OrientedBoundingBox();
+
+	/**
+	 * Collision layer this game object is on, and the layers it collides with
+	 */
+	protected int mCollisionLayer = CollisionDetector.DEFAULT_LAYER;
+	protected int mCollisionMask = CollisionDetector.ALL_LAYERS;
+
+	/**
+	 * Inverse of the mass of this game object, deciding its share of the push
+	 * when separated from the objects it collides with. Objects with an
+	 * inverse mass of zero are never pushed.
+	 */
+	protected float mInverseMass = 1.0f;
+
 	/**
 	 * Reusable Rect's used to draw this game object
 	 */
-	protected Rect drawSourceRect = new Rect();
-	protected Rect drawScreenRect = new Rect();
+	protected IntRect drawSourceRect = new IntRect();
+	protected IntRect drawScreenRect = new IntRect();
 
 	// /////////////////////////////////////////////////////////////////////////
 	// Constructors
@@ -73,7 +95,7 @@ public class GameObject {
 	 * @param gameScreen
 	 *            Gamescreen to which this object belongs
 	 */
-	public GameObject(float x, float y, Bitmap bitmap, GameScreen gameScreen) {
+	public GameObject(float x, float y, IImage bitmap, GameScreen gameScreen) {
 		mGameScreen = gameScreen;
 
 		position.x = x;
@@ -103,7 +125,7 @@ public class GameObject {
 	 *            Gamescreen to which this object belongs
 	 */
 	public GameObject(float x, float y, float width, float height,
-					  Bitmap bitmap, GameScreen gameScreen) {
+					  IImage bitmap, GameScreen gameScreen) {
 		mGameScreen = gameScreen;
 
 		position.x = x;
@@ -134,12 +156,120 @@ public class GameObject {
 		return mBound;
 	}
 
+	/**
+	 * Return the axis aligned bounding box enclosing the collision shape of
+	 * this game object, which is what broadphases hold it by. A game object
+	 * is never rotated, so this is its bounding box.
+	 * 
+	 * Note: The values within the bounding box should not be modified.
+	 * 
+	 * @return Bounding box enclosing the collision shape
+	 */
+	public BoundingBox getCollisionBound() {
+		return getBound();
+	}
+
+	/**
+	 * Return the oriented bounding box of this game object. A game object is
+	 * never rotated, so this is its bounding box.
+	 * 
+	 * Note: The values within the oriented bounding box should not be
+	 * modified.
+	 * 
+	 * @return Oriented bounding box
+	 */
+	public OrientedBoundingBox getOrientedBound() {
+		mOrientedBound.set(getBound(), 0.0f);
+		return mOrientedBound;
+	}
+
+	/**
+	 * Return the radius of the circle within the bounding box, used when the
+	 * game object collides as a circle.
+	 * 
+	 * @return Radius of the collision circle
+	 */
+	public float getCollisionRadius() {
+		return Math.min(mBound.halfWidth, mBound.halfHeight);
+	}
+
+	/**
+	 * Return the shape of this game object tested for collisions.
+	 * 
+	 * @return Collision shape
+	 */
+	public CollisionShape getCollisionShape() {
+		return mCollisionShape;
+	}
+
+	/**
+	 * Set the shape of this game object tested for collisions.
+	 * 
+	 * @param collisionShape
+	 *            Collision shape
+	 */
+	public void setCollisionShape(CollisionShape collisionShape) {
+		mCollisionShape = collisionShape;
+	}
+
+	/**
+	 * Return the collision layer this game object is on, as a single bit.
+	 * 
+	 * @return Collision layer
+	 */
+	public int getCollisionLayer() {
+		return mCollisionLayer;
+	}
+
+	/**
+	 * Return the collision layers this game object collides with, as a bit
+	 * for each layer.
+	 * 
+	 * @return Collision mask
+	 */
+	public int getCollisionMask() {
+		return mCollisionMask;
+	}
+
+	/**
+	 * Set the collision layer this game object is on, and the layers it
+	 * collides with.
+	 * 
+	 * @param collisionLayer
+	 *            Collision layer, as a single bit
+	 * @param collisionMask
+	 *            Layers collided with, as a bit for each layer
+	 */
+	public void setCollisionLayer(int collisionLayer, int collisionMask) {
+		mCollisionLayer = collisionLayer;
+		mCollisionMask = collisionMask;
+	}
+
+	/**
+	 * Return the inverse of the mass of this game object.
+	 * 
+	 * @return Inverse mass, zero if the object is never pushed
+	 */
+	public float getInverseMass() {
+		return mInverseMass;
+	}
+
+	/**
+	 * Set the inverse of the mass of this game object.
+	 * 
+	 * @param inverseMass
+	 *            Inverse mass, zero if the object is never pushed
+	 */
+	public void setInverseMass(float inverseMass) {
+		mInverseMass = inverseMass;
+	}
+
 	/**
 	 * Return the bitmap used for this game object.
 	 * 
 	 * @return Bitmap associated with this sprite.
 	 */
-	public Bitmap getBitmap() {
+	public IImage getBitmap() {
 		return mBitmap;
 	}
 
@@ -204,7 +334,7 @@ public class GameObject {
 	 */
 	public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D,
 					 LayerViewport layerViewport, ScreenViewport screenViewport,
-					 Paint paint) {
+					 DrawPaint paint) {
 		if (GraphicsHelper.getClippedSourceAndScreenRect(this, layerViewport,
 				screenViewport, drawSourceRect, drawScreenRect)) {
 			graphics2D
@@ -2,6 +2,7 @@ package uk.co.thomaspickup.spacewars.gage.world;
 
 import uk.co.thomaspickup.spacewars.gage.Game;
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.IDebugCounters;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
 
 /**
@@ -21,6 +22,17 @@ public abstract class GameScreen {
 	 */
 	protected final String mName;
 
+	/**
+	 * SpaceGame to which game screen belongs
+	 */
+	protected final Game mGame;
+
+	/**
+	 * Flag determining if the screen manager can keep this screen warm once it
+	 * leaves the screen stack (instead of disposing of it)
+	 */
+	protected boolean mCacheable = false;
+
 	/**
 	 * Return the name of this game screen
 	 * 
@@ -30,11 +42,6 @@ public abstract class GameScreen {
 		return mName;
 	}
 
-	/**
-	 * SpaceGame to which game screen belongs
-	 */
-	protected final Game mGame;
-
 	/**
 	 * Return the game to which this game screen is attached
 	 * 
@@ -44,6 +51,15 @@ public abstract class GameScreen {
 		return mGame;
 	}
 
+	/**
+	 * Return if this game screen can be cached by the screen manager
+	 * 
+	 * @return Boolean true if the screen can be cached, otherwise false
+	 */
+	public boolean isCacheable() {
+		return mCacheable;
+	}
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Constructors
 	// /////////////////////////////////////////////////////////////////////////
@@ -84,18 +100,30 @@ public abstract class GameScreen {
 	 */
 	public abstract void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D);
 
+	/**
+	 * Return the counters reported by this screen on the performance overlay.
+	 * By default a screen reports no counters.
+	 * 
+	 * @return Debug counters, or null if there are none
+	 */
+	public IDebugCounters getDebugCounters() {
+		return null;
+	}
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Android Life Cycle
 	// /////////////////////////////////////////////////////////////////////////
 
 	/**
-	 * Invoked automatically by the game whenever the app is paused.
+	 * Invoked automatically by the game whenever the app is paused, or by the
+	 * screen manager whenever the screen is covered or leaves the stack.
 	 */
 	public void pause() {
 	}
 
 	/**
-	 * Invoked automatically by the game whenever the app is resumed.
+	 * Invoked automatically by the game whenever the app is resumed, or by the
+	 * screen manager whenever the screen becomes the current screen.
 	 */
 	public void resume() {
 	}
@@ -1,6 +1,6 @@
 package uk.co.thomaspickup.spacewars.gage.world;
 
-import android.graphics.Rect;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect;
 
 /**
  * Layer viewport
@@ -46,7 +46,7 @@ public class ScreenViewport {
 	/**
 	 * Private Rect representation of this viewport
 	 */
-	private Rect rect = new Rect();
+	private IntRect rect = new IntRect();
 	
 	// /////////////////////////////////////////////////////////////////////////
 	// Constructors and Methods
@@ -169,7 +169,7 @@ public class ScreenViewport {
 	 * 
 	 * @return Rect representation of this viewport
 	 */
-	public Rect toRect() {
+	public IntRect toRect() {
 		rect.left = left;
 		rect.right = right;
 		rect.top = top;
@@ -0,0 +1,373 @@
+package uk.co.thomaspickup.spacewars.gage.world;
+
+/**
+ * Uniform grid of items, used to find the items near a position without
+ * considering every item. Items are numbered from 0 by their owner, which
+ * keeps their positions or bounds, and the grid is rebuilt from them
+ * (normally once per tick) and then queried as often as needed. An item is
+ * entered into every cell its bound covers; a point is simply a bound with
+ * no extent, covering a single cell.
+ *
+ * Cells are hashed into a table sized to the number of entries, so the grid
+ * covers an unbounded world. Rebuilding is a counting sort of the entries by
+ * their bucket and does not allocate once the grid has grown. Within a
+ * bucket the entries keep the order of the items, so the grid is visited in
+ * an order that only depends on the items it was built from.
+ *
+ * The grid is queried by visiting the entries of the bucket of each cell of
+ * interest, skipping any entries of other cells sharing the bucket. Queries
+ * only read the grid, so several threads can query it at once, as long as it
+ * is not being rebuilt at the same time. Queries are cheapest when the query
+ * range is close to the cell size.
+ *
+ * @version 1.0
+ */
+public class SpatialGrid {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Smallest number of buckets in the hash table
+	 */
+	private static final int MIN_BUCKETS = 16;
+
+	/**
+	 * Size of each (square) cell, and its inverse
+	 */
+	private final float mCellSize;
+	private final float mInverseCellSize;
+
+	/**
+	 * Number of items held, and the range of cells covered by each item
+	 */
+	private int mItemCount;
+	private int[] mMinCellX = new int[0];
+	private int[] mMaxCellX = new int[0];
+	private int[] mMinCellY = new int[0];
+	private int[] mMaxCellY = new int[0];
+
+	/**
+	 * Entries, each being an item within a cell, sorted by bucket
+	 */
+	private int[] mEntryItems = new int[0];
+	private int[] mEntryCellX = new int[0];
+	private int[] mEntryCellY = new int[0];
+
+	/**
+	 * Index of the first entry of each bucket, followed by the number of
+	 * entries, and the mask taking a hash to a bucket
+	 */
+	private int[] mBucketStarts = new int[MIN_BUCKETS + 1];
+	private int mBucketMask = MIN_BUCKETS - 1;
+
+	/**
+	 * Working storage used whilst rebuilding the grid
+	 */
+	private int[] mBucketCursors = new int[MIN_BUCKETS];
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new spatial grid
+	 *
+	 * @param cellSize
+	 *            Size of each cell of the grid
+	 */
+	public SpatialGrid(float cellSize) {
+		mCellSize = cellSize;
+		mInverseCellSize = 1.0f / cellSize;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Building
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Get the size of each cell of the grid
+	 *
+	 * @return Cell size
+	 */
+	public float getCellSize() {
+		return mCellSize;
+	}
+
+	/**
+	 * Get the number of items held by the grid
+	 *
+	 * @return Number of items
+	 */
+	public int size() {
+		return mItemCount;
+	}
+
+	/**
+	 * Rebuild the grid so that it holds the specified number of items, each
+	 * entered into the cells covered by its bound. Points can be held by
+	 * passing the same arrays for both corners.
+	 *
+	 * @param count
+	 *            Number of items, numbered from 0
+	 * @param lefts
+	 *            Left edge of the bound of each item
+	 * @param bottoms
+	 *            Bottom edge of the bound of each item
+	 * @param rights
+	 *            Right edge of the bound of each item
+	 * @param tops
+	 *            Top edge of the bound of each item
+	 */
+	public void rebuild(int count, float[] lefts, float[] bottoms,
+			float[] rights, float[] tops) {
+		ensureItemCapacity(count);
+		mItemCount = count;
+
+		// Work out the cells covered by each item and count the entries
+		int entryCount = 0;
+		for (int item = 0; item < count; item++) {
+			mMinCellX[item] = toCell(lefts[item]);
+			mMaxCellX[item] = toCell(rights[item]);
+			mMinCellY[item] = toCell(bottoms[item]);
+			mMaxCellY[item] = toCell(tops[item]);
+			entryCount += (mMaxCellX[item] - mMinCellX[item] + 1)
+					* (mMaxCellY[item] - mMinCellY[item] + 1);
+		}
+		ensureEntryCapacity(entryCount);
+
+		// Count the entries falling into each bucket
+		int bucketCount = mBucketMask + 1;
+		for (int bucket = 0; bucket <= bucketCount; bucket++)
+			mBucketStarts[bucket] = 0;
+		for (int item = 0; item < count; item++)
+			for (int cellY = mMinCellY[item]; cellY <= mMaxCellY[item]; cellY++)
+				for (int cellX = mMinCellX[item]; cellX <= mMaxCellX[item]; cellX++)
+					mBucketStarts[getBucket(cellX, cellY) + 1]++;
+
+		// Work out where each bucket starts
+		for (int bucket = 0; bucket < bucketCount; bucket++) {
+			mBucketStarts[bucket + 1] += mBucketStarts[bucket];
+			mBucketCursors[bucket] = mBucketStarts[bucket];
+		}
+
+		// Place each entry within its bucket, keeping the order of the items
+		for (int item = 0; item < count; item++) {
+			for (int cellY = mMinCellY[item]; cellY <= mMaxCellY[item]; cellY++) {
+				for (int cellX = mMinCellX[item]; cellX <= mMaxCellX[item]; cellX++) {
+					int entry = mBucketCursors[getBucket(cellX, cellY)]++;
+					mEntryItems[entry] = item;
+					mEntryCellX[entry] = cellX;
+					mEntryCellY[entry] = cellY;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove every item from the grid
+	 */
+	public void clear() {
+		for (int bucket = 0; bucket < mBucketStarts.length; bucket++)
+			mBucketStarts[bucket] = 0;
+		mItemCount = 0;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Querying
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Get the cell covering the specified coordinate
+	 *
+	 * @param coordinate
+	 *            x or y coordinate
+	 * @return Cell along that axis
+	 */
+	public int toCell(float coordinate) {
+		return (int) Math.floor(coordinate * mInverseCellSize);
+	}
+
+	/**
+	 * Get the number of buckets in the hash table
+	 *
+	 * @return Number of buckets
+	 */
+	public int getBucketCount() {
+		return mBucketMask + 1;
+	}
+
+	/**
+	 * Get the bucket holding the entries of the specified cell, along with
+	 * those of any other cells sharing the bucket
+	 *
+	 * @param cellX
+	 *            x cell
+	 * @param cellY
+	 *            y cell
+	 * @return Bucket of the cell
+	 */
+	public int getBucket(int cellX, int cellY) {
+		return ((cellX * 73856093) ^ (cellY * 19349663)) & mBucketMask;
+	}
+
+	/**
+	 * Get the first entry of a bucket
+	 *
+	 * @param bucket
+	 *            Bucket
+	 * @return Index of the first entry
+	 */
+	public int getBucketStart(int bucket) {
+		return mBucketStarts[bucket];
+	}
+
+	/**
+	 * Get the end of the entries of a bucket
+	 *
+	 * @param bucket
+	 *            Bucket
+	 * @return Index one past the last entry
+	 */
+	public int getBucketEnd(int bucket) {
+		return mBucketStarts[bucket + 1];
+	}
+
+	/**
+	 * Determine if an entry is of the specified cell, rather than of another
+	 * cell sharing its bucket
+	 *
+	 * @param entry
+	 *            Index of the entry
+	 * @param cellX
+	 *            x cell
+	 * @param cellY
+	 *            y cell
+	 * @return true if the entry is of the cell
+	 */
+	public boolean isInCell(int entry, int cellX, int cellY) {
+		return mEntryCellX[entry] == cellX && mEntryCellY[entry] == cellY;
+	}
+
+	/**
+	 * Get the item of an entry
+	 *
+	 * @param entry
+	 *            Index of the entry
+	 * @return Item of the entry
+	 */
+	public int getItem(int entry) {
+		return mEntryItems[entry];
+	}
+
+	/**
+	 * Get the x cell of an entry
+	 *
+	 * @param entry
+	 *            Index of the entry
+	 * @return x cell of the entry
+	 */
+	public int getCellX(int entry) {
+		return mEntryCellX[entry];
+	}
+
+	/**
+	 * Get the y cell of an entry
+	 *
+	 * @param entry
+	 *            Index of the entry
+	 * @return y cell of the entry
+	 */
+	public int getCellY(int entry) {
+		return mEntryCellY[entry];
+	}
+
+	/**
+	 * Determine if the specified cell is the first (lowest) cell covered by
+	 * both an item and a range of cells starting from the specified cell. An
+	 * item covering several cells is met once in each of them, so reporting
+	 * it only from the first cell it shares with a query (or with another
+	 * item) reports it only once.
+	 *
+	 * @param item
+	 *            Item covering the cell
+	 * @param minCellX
+	 *            Lowest x cell of the query, or of the other item
+	 * @param minCellY
+	 *            Lowest y cell of the query, or of the other item
+	 * @param cellX
+	 *            x cell being visited
+	 * @param cellY
+	 *            y cell being visited
+	 * @return true if the cell is the first both cover
+	 */
+	public boolean isFirstSharedCell(int item, int minCellX, int minCellY,
+			int cellX, int cellY) {
+		return Math.max(mMinCellX[item], minCellX) == cellX
+				&& Math.max(mMinCellY[item], minCellY) == cellY;
+	}
+
+	/**
+	 * Get the lowest x cell covered by an item
+	 *
+	 * @param item
+	 *            Item
+	 * @return Lowest x cell
+	 */
+	public int getMinCellX(int item) {
+		return mMinCellX[item];
+	}
+
+	/**
+	 * Get the lowest y cell covered by an item
+	 *
+	 * @param item
+	 *            Item
+	 * @return Lowest y cell
+	 */
+	public int getMinCellY(int item) {
+		return mMinCellY[item];
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Storage
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Grow the storage of the items, if needed, so that it can hold the
+	 * specified number of items
+	 */
+	private void ensureItemCapacity(int count) {
+		if (count <= mMinCellX.length)
+			return;
+
+		int capacity = Math.max(count, mMinCellX.length * 2);
+		mMinCellX = new int[capacity];
+		mMaxCellX = new int[capacity];
+		mMinCellY = new int[capacity];
+		mMaxCellY = new int[capacity];
+	}
+
+	/**
+	 * Grow the storage of the entries, if needed, so that it can hold the
+	 * specified number of entries with about one bucket for each entry
+	 */
+	private void ensureEntryCapacity(int entryCount) {
+		if (entryCount > mEntryItems.length) {
+			int capacity = Math.max(entryCount, mEntryItems.length * 2);
+			mEntryItems = new int[capacity];
+			mEntryCellX = new int[capacity];
+			mEntryCellY = new int[capacity];
+		}
+
+		int bucketCount = mBucketMask + 1;
+		if (entryCount > bucketCount) {
+			while (bucketCount < entryCount)
+				bucketCount *= 2;
+			mBucketStarts = new int[bucketCount + 1];
+			mBucketCursors = new int[bucketCount];
+			mBucketMask = bucketCount - 1;
+		}
+	}
+}
@@ -1,11 +1,17 @@
 package uk.co.thomaspickup.spacewars.gage.world;
 
-import android.graphics.Bitmap;
-import android.graphics.Matrix;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.Transform;
+import uk.co.thomaspickup.spacewars.gage.util.BoundingBox;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector.CollisionShape;
 import uk.co.thomaspickup.spacewars.gage.util.GraphicsHelper;
+import uk.co.thomaspickup.spacewars.gage.util.OrientedBoundingBox;
 import uk.co.thomaspickup.spacewars.gage.util.Vector2;
 
 /**
@@ -57,9 +63,15 @@ public class Sprite extends GameObject {
 	public float maxAngularVelocity = DEFAULT_MAX_ANGULAR_VELOCITY;
 
 	/**
-	 * Internal matrix use to support draw requests
+	 * Internal transform use to support draw requests
 	 */
-	protected Matrix drawMatrix = new Matrix();
+	protected Transform drawMatrix = new Transform();
+
+	/**
+	 * Bounding box enclosing the oriented bounding box, used when the sprite
+	 * collides as an oriented box
+	 */
+	private BoundingBox mCollisionBound = new BoundingBox();
 
 	/**
 	 * Private variable to hold the health of the target.
@@ -94,7 +106,7 @@ public class Sprite extends GameObject {
 	 * @param gameScreen
 	 *            Gamescreen to which this sprite belongs
 	 */
-	public Sprite(float x, float y, Bitmap bitmap, GameScreen gameScreen) {
+	public Sprite(float x, float y, IImage bitmap, GameScreen gameScreen) {
 		super(x, y, bitmap, gameScreen);
 	}
 
@@ -114,7 +126,7 @@ public class Sprite extends GameObject {
 	 * @param gameScreen
 	 *            Gamescreen to which this sprite belongs
 	 */
-	public Sprite(float x, float y, float width, float height, Bitmap bitmap,
+	public Sprite(float x, float y, float width, float height, IImage bitmap,
 			GameScreen gameScreen) {
 		super(x, y, width, height, bitmap, gameScreen);
 	}
@@ -123,6 +135,45 @@ public class Sprite extends GameObject {
 	// Configuration Methods
 	// /////////////////////////////////////////////////////////////////////////
 
+	// /////////////////////////////////////////////////////////////////////////
+	// Collision Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Return the axis aligned bounding box enclosing the collision shape of
+	 * the sprite. An oriented box grows the box as it turns away from the
+	 * axes.
+	 * 
+	 * Note: The values within the bounding box should not be modified.
+	 * 
+	 * @return Bounding box enclosing the collision shape
+	 */
+	@Override
+	public BoundingBox getCollisionBound() {
+		if (mCollisionShape != CollisionShape.OrientedBox)
+			return getBound();
+
+		getOrientedBound().getEnclosingBound(mCollisionBound);
+		return mCollisionBound;
+	}
+
+	/**
+	 * Return the bounding box of the sprite, rotated by its orientation if
+	 * the sprite collides as an oriented box.
+	 * 
+	 * Note: The values within the oriented bounding box should not be
+	 * modified.
+	 * 
+	 * @return Oriented bounding box
+	 */
+	@Override
+	public OrientedBoundingBox getOrientedBound() {
+		mOrientedBound.set(getBound(),
+				mCollisionShape == CollisionShape.OrientedBox ? orientation
+						: 0.0f);
+		return mOrientedBound;
+	}
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Update and Draw
 	// /////////////////////////////////////////////////////////////////////////
@@ -218,4 +269,56 @@ public class Sprite extends GameObject {
 	public void setHealth(int health) {
 		spriteHealth = health;
 	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Snapshot
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Write the dynamic state of the sprite (position, linear and angular
+	 * motion and health) to the specified output. Subclasses holding further
+	 * state should extend this, calling the superclass first.
+	 * 
+	 * Note: Configuration that is fixed at construction (bitmap, size and
+	 * maximum values) is not written.
+	 * 
+	 * @param out
+	 *            Output to write the state to
+	 * @throws IOException
+	 *             if the state could not be written
+	 */
+	public void writeState(DataOutput out) throws IOException {
+		out.writeFloat(position.x);
+		out.writeFloat(position.y);
+		out.writeFloat(velocity.x);
+		out.writeFloat(velocity.y);
+		out.writeFloat(acceleration.x);
+		out.writeFloat(acceleration.y);
+		out.writeFloat(orientation);
+		out.writeFloat(angularVelocity);
+		out.writeFloat(angularAcceleration);
+		out.writeInt(spriteHealth);
+	}
+
+	/**
+	 * Read the dynamic state of the sprite from the specified input, in the
+	 * order written by writeState.
+	 * 
+	 * @param in
+	 *            Input to read the state from
+	 * @throws IOException
+	 *             if the state could not be read
+	 */
+	public void readState(DataInput in) throws IOException {
+		position.x = in.readFloat();
+		position.y = in.readFloat();
+		velocity.x = in.readFloat();
+		velocity.y = in.readFloat();
+		acceleration.x = in.readFloat();
+		acceleration.y = in.readFloat();
+		orientation = in.readFloat();
+		angularVelocity = in.readFloat();
+		angularAcceleration = in.readFloat();
+		spriteHealth = in.readInt();
+	}
 }
\ No newline at end of file
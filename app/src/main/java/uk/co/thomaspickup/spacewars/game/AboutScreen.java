@@ -5,9 +5,7 @@ package uk.co.thomaspickup.spacewars.game;
 // /////////////////////////////////////////////////////////////////////////
 
 // Android Graphics
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Rect;
 
 // Android Util
 import android.util.Log;
@@ -19,7 +17,10 @@ import java.util.List;
 import uk.co.thomaspickup.spacewars.gage.Game;
 import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.CanvasGraphics2D;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.TextLayout;
 import uk.co.thomaspickup.spacewars.gage.engine.input.Input;
 import uk.co.thomaspickup.spacewars.gage.engine.input.TouchEvent;
@@ -46,7 +47,7 @@ public class AboutScreen extends GameScreen {
     String strFeatures;
 
     // Bounds for back button
-    private Rect mBackBound;
+    private IntRect mBackBound;
 
     // Background Objects
     private GameObject mSpaceBackground;
@@ -74,6 +75,9 @@ public class AboutScreen extends GameScreen {
     public AboutScreen(Game game, LayerViewport backgroundViewPort) {
         super("AboutScreen", game);
 
+        // The about screen is kept warm by the screen manager between visits
+        mCacheable = true;
+
         // Creates the view port of the screen
         mScreenViewport = new ScreenViewport(0, 0, game.getScreenWidth(),
                 game.getScreenHeight());
@@ -91,6 +95,24 @@ public class AboutScreen extends GameScreen {
         setUpUI(game);
     }
 
+    /**
+     * Returns the warm about screen held by the screen manager, only creating a
+     * new about screen (and re-reading the text files) if one is not cached.
+     *
+     * @param game SpaceGame to which the screen belongs
+     * @param backgroundViewPort Previous screens layer viewport
+     * @return About screen ready to be placed on the screen stack
+     */
+    public static AboutScreen obtain(Game game, LayerViewport backgroundViewPort) {
+        GameScreen cachedScreen = game.getScreenManager().getCachedScreen("AboutScreen");
+        if (cachedScreen == null)
+            return new AboutScreen(game, backgroundViewPort);
+
+        AboutScreen aboutScreen = (AboutScreen) cachedScreen;
+        aboutScreen.mLayerViewport = backgroundViewPort;
+        return aboutScreen;
+    }
+
     // /////////////////////////////////////////////////////////////////////////
     // Update and Draw Methods
     // /////////////////////////////////////////////////////////////////////////
@@ -111,12 +133,8 @@ public class AboutScreen extends GameScreen {
 
          if (mBackBound.contains((int) touchEvent.x, (int) touchEvent.y)) {
                 getGame().getAssetManager().getSound("ButtonClick").play(settingsHandler.getSound(getGame().getContext()));
-                // Remove this screen
-                mGame.getScreenManager().removeScreen(this.getName());
-
-                // Create a new instance of menuScreen and add it to screen manager
-                MenuScreen menuScreen = new MenuScreen(mGame, mLayerViewport);
-                mGame.getScreenManager().addScreen(menuScreen);
+                // Swap back to the menu, keeping this screen warm
+                mGame.getScreenManager().replaceScreen(MenuScreen.obtain(mGame, mLayerViewport));
             }
         }
 
@@ -145,12 +163,13 @@ public class AboutScreen extends GameScreen {
                 mScreenViewport);
 
         // Back Button
-        Bitmap btnBack = mGame.getAssetManager().getBitmap("btnBack");
+        IImage btnBack = mGame.getAssetManager().getBitmap("btnBack");
         graphics2D.drawBitmap(btnBack, null, mBackBound,null);
 
         // Text View
-        // Gets the canvas
-        Canvas thisCanvas = graphics2D.getMCanvas();
+        // Gets the canvas, the text layouts are Android views so this screen
+        // can only be drawn by the canvas graphics binding
+        Canvas thisCanvas = ((CanvasGraphics2D) graphics2D).getMCanvas();
 
         // Defines the width of the textLayout
         int viewWidth = (getGame().getScreenWidth() - (mBackBound.right + 150)) / 2;
@@ -178,7 +197,7 @@ public class AboutScreen extends GameScreen {
         int btnBackHeight = (int) (game.getScreenHeight() * 0.138);
         int startX = paddingX;
         int startY = paddingY;
-        mBackBound = new Rect(startX, startY, startX + btnBackWidth, startY + btnBackHeight);
+        mBackBound = new IntRect(startX, startY, startX + btnBackWidth, startY + btnBackHeight);
 
         // Defines the background
         mSpaceBackground = new GameObject(game.getScreenWidth() / 2.0f,
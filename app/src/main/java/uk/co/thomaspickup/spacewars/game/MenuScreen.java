@@ -4,15 +4,14 @@ package uk.co.thomaspickup.spacewars.game;
 // Imports
 // /////////////////////////////////////////////////////////////////////////
 
-import android.graphics.Bitmap;
-import android.graphics.Rect;
-
 import java.util.List;
 import uk.co.thomaspickup.spacewars.gage.Game;
 import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
 import uk.co.thomaspickup.spacewars.gage.engine.audio.Music;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect;
 import uk.co.thomaspickup.spacewars.gage.engine.input.Input;
 import uk.co.thomaspickup.spacewars.gage.engine.input.TouchEvent;
 import uk.co.thomaspickup.spacewars.gage.world.GameObject;
@@ -35,10 +34,10 @@ public class MenuScreen extends GameScreen {
 	/**
 	 * Define the trigger touch region for navigating to the game or options menu
 	 */
-	private Rect mPlayButtonBound;
-	private Rect mSettingsButtonBound;
-	private Rect mTitleBound;
-	private Rect mAboutBound;
+	private IntRect mPlayButtonBound;
+	private IntRect mSettingsButtonBound;
+	private IntRect mTitleBound;
+	private IntRect mAboutBound;
 
 	// Background Objects
 	private GameObject mSpaceBackground;
@@ -68,6 +67,9 @@ public class MenuScreen extends GameScreen {
 	public MenuScreen(Game game) {
 		super("MenuScreen", game);
 
+		// The menu is kept warm by the screen manager between visits
+		mCacheable = true;
+
 		// Sets up Padding
 		paddingY = (int) (getGame().getScreenHeight() * 0.02);
 		paddingX = (int) (getGame().getScreenWidth() * 0.026);
@@ -95,6 +97,9 @@ public class MenuScreen extends GameScreen {
 	public MenuScreen(Game game, LayerViewport mLayerViewport) {
 		super("MenuScreen", game);
 
+		// The menu is kept warm by the screen manager between visits
+		mCacheable = true;
+
 		// Creates Padding
 		paddingY = (int) (getGame().getScreenHeight() * 0.02);
 		paddingX = (int) (getGame().getScreenWidth() * 0.026);
@@ -112,6 +117,40 @@ public class MenuScreen extends GameScreen {
 		this.mLayerViewport = mLayerViewport;
 	}
 
+	/**
+	 * Returns the warm menu screen held by the screen manager, only creating a
+	 * new menu screen if one is not cached.
+	 *
+	 * @param game SpaceGame to which the screen belongs
+	 * @return Menu screen ready to be placed on the screen stack
+	 */
+	public static MenuScreen obtain(Game game) {
+		GameScreen cachedScreen = game.getScreenManager().getCachedScreen("MenuScreen");
+		if (cachedScreen != null)
+			return (MenuScreen) cachedScreen;
+
+		return new MenuScreen(game);
+	}
+
+	/**
+	 * Returns the warm menu screen held by the screen manager, only creating a
+	 * new menu screen if one is not cached. The menu will continue from the
+	 * specified layer viewport.
+	 *
+	 * @param game SpaceGame to which the screen belongs
+	 * @param mLayerViewport Previous screens layer viewport
+	 * @return Menu screen ready to be placed on the screen stack
+	 */
+	public static MenuScreen obtain(Game game, LayerViewport mLayerViewport) {
+		GameScreen cachedScreen = game.getScreenManager().getCachedScreen("MenuScreen");
+		if (cachedScreen == null)
+			return new MenuScreen(game, mLayerViewport);
+
+		MenuScreen menuScreen = (MenuScreen) cachedScreen;
+		menuScreen.mLayerViewport = mLayerViewport;
+		return menuScreen;
+	}
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Update & Draw Methods
 	// /////////////////////////////////////////////////////////////////////////
@@ -134,32 +173,19 @@ public class MenuScreen extends GameScreen {
 			if (mPlayButtonBound.contains((int) touchEvent.x,
 					(int) touchEvent.y)) {
 				getGame().getAssetManager().getSound("ButtonClick").play(settingsHandler.getSound(getGame().getContext()));
-				// If the play game area has been touched then swap screens
-				mGame.getScreenManager().removeScreen(this.getName());
-				SpaceLevelScreen spaceLevelScreen = new SpaceLevelScreen(mGame);
-
-				mMainTheme.dispose();
-
-				// As it's the only added screen it will become active.
-				mGame.getScreenManager().addScreen(spaceLevelScreen);
+				// If the play game area has been touched then swap screens,
+				// keeping this screen warm for when the player returns.
+				// A level left unfinished when the app closed is continued.
+				SpaceLevelScreen spaceLevelScreen = SpaceLevelScreen.load(mGame);
+				mGame.getScreenManager().replaceScreen(spaceLevelScreen);
 			} else if (mSettingsButtonBound.contains((int) touchEvent.x, (int) touchEvent.y)) {
 				getGame().getAssetManager().getSound("ButtonClick").play(settingsHandler.getSound(getGame().getContext()));
 				// If the settingsHandler icon area has been touched then load up options menu
-				mGame.getScreenManager().removeScreen(this.getName());
-				OptionScreen optionScreen = new OptionScreen(mGame, mLayerViewport);
-
-				mMainTheme.dispose();
-
-				mGame.getScreenManager().addScreen(optionScreen);
+				mGame.getScreenManager().replaceScreen(OptionScreen.obtain(mGame, mLayerViewport));
 			} else if (mAboutBound.contains((int) touchEvent.x, (int) touchEvent.y)) {
 				getGame().getAssetManager().getSound("ButtonClick").play(settingsHandler.getSound(getGame().getContext()));
 				// If the about icon area has been touched then load up about menu
-				mGame.getScreenManager().removeScreen(this.getName());
-				AboutScreen aboutScreen = new AboutScreen(mGame, mLayerViewport);
-
-				mMainTheme.dispose();
-
-				mGame.getScreenManager().addScreen(aboutScreen);
+				mGame.getScreenManager().replaceScreen(AboutScreen.obtain(mGame, mLayerViewport));
 			}
 		}
 
@@ -185,10 +211,10 @@ public class MenuScreen extends GameScreen {
 	@Override
 	public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D) {
 		// Get and draw the bitmaps into the defined rectangles
-		Bitmap titleImage = mGame.getAssetManager().getBitmap("TitleImage");
-		Bitmap playIcon = mGame.getAssetManager().getBitmap("PlayIcon");
-		Bitmap settingsIcon = mGame.getAssetManager().getBitmap("SettingsIcon");
-		Bitmap aboutIcon = mGame.getAssetManager().getBitmap("AboutIcon");
+		IImage titleImage = mGame.getAssetManager().getBitmap("TitleImage");
+		IImage playIcon = mGame.getAssetManager().getBitmap("PlayIcon");
+		IImage settingsIcon = mGame.getAssetManager().getBitmap("SettingsIcon");
+		IImage aboutIcon = mGame.getAssetManager().getBitmap("AboutIcon");
 
 		// Draws the background with adjusted viewport
 		mSpaceBackground.draw(elapsedTime, graphics2D, mLayerViewport,
@@ -201,6 +227,27 @@ public class MenuScreen extends GameScreen {
 		graphics2D.drawBitmap(aboutIcon,null,mAboutBound,null);
 	}
 
+	// /////////////////////////////////////////////////////////////////////////
+	// Life Cycle Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Pauses the theme whilst the menu is covered or cached.
+	 */
+	@Override
+	public void pause() {
+		if (mMainTheme != null)
+			mMainTheme.pause();
+	}
+
+	/**
+	 * Restarts the theme when the menu becomes the current screen again.
+	 */
+	@Override
+	public void resume() {
+		playTheme(mGame);
+	}
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Methods
 	// /////////////////////////////////////////////////////////////////////////
@@ -223,28 +270,28 @@ public class MenuScreen extends GameScreen {
 		int titleHeight = (int) (game.getScreenHeight() *  0.373); // On 1080 Screen Height = 400
 		int spacingX = (game.getScreenWidth() / 2) - (titleWidth / 2);
 		int spacingY = paddingY * 2;
-		mTitleBound = new Rect(spacingX,spacingY, spacingX+titleWidth, spacingY + titleHeight);
+		mTitleBound = new IntRect(spacingX,spacingY, spacingX+titleWidth, spacingY + titleHeight);
 
 		// Defines the Play Button Image Rect
 		int btnPlayWidth = (int) (game.getScreenWidth() * 0.208);
 		int btnPlayHeight = (int) (game.getScreenHeight() *  0.373);
 		spacingX = (game.getScreenWidth() / 2) - (btnPlayWidth / 2);
 		spacingY = (game.getScreenHeight() / 2) + paddingY;
-		mPlayButtonBound = new Rect(spacingX, spacingY,spacingX + btnPlayWidth , spacingY +btnPlayHeight);
+		mPlayButtonBound = new IntRect(spacingX, spacingY,spacingX + btnPlayWidth , spacingY +btnPlayHeight);
 
 		// Defines the Settings Cog Rect
 		int btnSettingsWidth = (int) (game.getScreenWidth() * 0.078);
 		int btnSettingsHeight = (int) (game.getScreenHeight() * 0.138);
 		spacingY = (game.getScreenHeight() - paddingY) - btnSettingsHeight;
 		spacingX = paddingX;
-		mSettingsButtonBound = new Rect(spacingX, spacingY, spacingX + btnSettingsWidth, spacingY + btnSettingsHeight);
+		mSettingsButtonBound = new IntRect(spacingX, spacingY, spacingX + btnSettingsWidth, spacingY + btnSettingsHeight);
 
 		// Defines the about rect
 		int btnAboutWidth = (int) (game.getScreenWidth() * 0.078);
 		int btnAboutHeight = (int) (game.getScreenHeight() * 0.138);
 		spacingY = (game.getScreenHeight() - paddingY) - btnAboutHeight;
 		spacingX = (game.getScreenWidth() - paddingX) - btnAboutWidth;
-		mAboutBound = new Rect(spacingX, spacingY, spacingX + btnAboutWidth, spacingY + btnAboutHeight);
+		mAboutBound = new IntRect(spacingX, spacingY, spacingX + btnAboutWidth, spacingY + btnAboutHeight);
 	}
 
 	/**
@@ -274,6 +321,8 @@ public class MenuScreen extends GameScreen {
 	public void playTheme(Game game) {
 		// Gets the Song imported prior
 		mMainTheme = game.getAssetManager().getMusic("MainTheme");
+		if (mMainTheme == null)
+			return;
 
 		// Sets the volume according to settings handler
 		mMainTheme.setVolume((float) settingsHandler.getSound(getGame().getContext()) * 0.75f);
@@ -4,15 +4,17 @@ package uk.co.thomaspickup.spacewars.game;
 // Imports
 // /////////////////////////////////////////////////////////////////////////
 
-import android.graphics.Bitmap;
-import android.graphics.Rect;
 import java.util.List;
 import uk.co.thomaspickup.spacewars.gage.Game;
 import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect;
 import uk.co.thomaspickup.spacewars.gage.engine.input.Input;
 import uk.co.thomaspickup.spacewars.gage.engine.input.TouchEvent;
+import uk.co.thomaspickup.spacewars.gage.engine.timer.ITimerCallback;
+import uk.co.thomaspickup.spacewars.gage.engine.timer.Timer;
 import uk.co.thomaspickup.spacewars.gage.world.GameObject;
 import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
 import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
@@ -38,16 +40,16 @@ public class OptionScreen extends GameScreen {
     SettingsHandler settingsHandler = new SettingsHandler();
 
     // Bounds for difficultySettings
-    private Rect mEasyBound, mNormalBound, mHardBound, mInsaneBound;
+    private IntRect mEasyBound, mNormalBound, mHardBound, mInsaneBound;
 
     // Bounds for mute button
-    private Rect mMuteBound;
+    private IntRect mMuteBound;
 
     // Bounds for back button
-    private Rect mBackBound;
+    private IntRect mBackBound;
 
     // Bounds for titles
-    private Rect mDifficultyTitle, mMuteTitle;
+    private IntRect mDifficultyTitle, mMuteTitle;
 
     // Background Objects
     private GameObject mSpaceBackground;
@@ -55,9 +57,9 @@ public class OptionScreen extends GameScreen {
     private LayerViewport mLayerViewport;
     private int intXMultiplier = 1;
 
-    // Delay on button
-    int avgFPS;
-    int timeLeft;
+    // Delay on button, timed in ms on the game's timer wheel
+    static final long PRESS_DELAY = 1000L;
+    Timer pressTimer;
     boolean canPress;
 
     // Padding @1920x1080 = 50x50
@@ -77,6 +79,9 @@ public class OptionScreen extends GameScreen {
     public OptionScreen(Game game, LayerViewport mLayerViewport) {
         super("OptionScreen", game);
 
+        // The options screen is kept warm by the screen manager between visits
+        mCacheable = true;
+
         // Create padding
         paddingY = (int) (game.getScreenHeight() * 0.02); // @1080 = 50
         paddingX = (int) (game.getScreenWidth() * 0.026); // @1920 = 50
@@ -96,8 +101,30 @@ public class OptionScreen extends GameScreen {
 
         // Allow to press the mute button
         canPress = true;
-        avgFPS =  game.getTargetFramesPerSecond();
-        timeLeft = 0;
+        pressTimer = new Timer(new ITimerCallback() {
+            @Override
+            public void onTimer(Timer timer) {
+                canPress = true;
+            }
+        });
+    }
+
+    /**
+     * Returns the warm options screen held by the screen manager, only creating
+     * a new options screen if one is not cached.
+     *
+     * @param game SpaceGame to which the screen belongs
+     * @param mLayerViewport Previous screens layer viewport
+     * @return Options screen ready to be placed on the screen stack
+     */
+    public static OptionScreen obtain(Game game, LayerViewport mLayerViewport) {
+        GameScreen cachedScreen = game.getScreenManager().getCachedScreen("OptionScreen");
+        if (cachedScreen == null)
+            return new OptionScreen(game, mLayerViewport);
+
+        OptionScreen optionScreen = (OptionScreen) cachedScreen;
+        optionScreen.mLayerViewport = mLayerViewport;
+        return optionScreen;
     }
 
     // /////////////////////////////////////////////////////////////////////////
@@ -111,15 +138,6 @@ public class OptionScreen extends GameScreen {
      */
     @Override
     public void update(ElapsedTime elapsedTime) {
-        // Counts up to Average FPS
-        if (!canPress) {
-            timeLeft += 1;
-
-            if (timeLeft == avgFPS) {
-                canPress = true;
-            }
-        }
-
         // Process any touch events occurring since the update
         Input input = mGame.getInput();
 
@@ -152,22 +170,18 @@ public class OptionScreen extends GameScreen {
                         settingsHandler.setSound(getGame().getContext(), 1);
                         currentSoundSetting = settingsHandler.getSound(getGame().getContext());
 
-                        timeLeft = 0;
+                        getGame().getTimerWheel().schedule(pressTimer, PRESS_DELAY);
                     } else {
                         canPress = false;
                         settingsHandler.setSound(getGame().getContext(), 0);
                         currentSoundSetting = settingsHandler.getSound(getGame().getContext());
-                        timeLeft = 0;
+                        getGame().getTimerWheel().schedule(pressTimer, PRESS_DELAY);
                     }
                 }
             } else if (mBackBound.contains((int) touchEvent.x, (int) touchEvent.y)) {
                 getGame().getAssetManager().getSound("ButtonClick").play(settingsHandler.getSound(getGame().getContext()));
-                // Remove this screen
-                mGame.getScreenManager().removeScreen(this.getName());
-
-                // Create a new instance of menuScreen and add it to screen manager
-                MenuScreen menuScreen = new MenuScreen(mGame, mLayerViewport);
-                mGame.getScreenManager().addScreen(menuScreen);
+                // Swap back to the menu, keeping this screen warm
+                mGame.getScreenManager().replaceScreen(MenuScreen.obtain(mGame, mLayerViewport));
             }
         }
 
@@ -197,64 +211,77 @@ public class OptionScreen extends GameScreen {
                 mScreenViewport);
 
         // Draws Difficulty Title
-        Bitmap txtDifficulty = mGame.getAssetManager().getBitmap("txtDifficulty");
+        IImage txtDifficulty = mGame.getAssetManager().getBitmap("txtDifficulty");
         graphics2D.drawBitmap(txtDifficulty,null,mDifficultyTitle,null);
 
         // Decide whether the option is selected then display the relevant button for each setting
         // Easy Button
         if (currentDifficultySetting == 1) {
-            Bitmap btnEasy_Selected = mGame.getAssetManager().getBitmap("btnEasy-Selected");
+            IImage btnEasy_Selected = mGame.getAssetManager().getBitmap("btnEasy-Selected");
             graphics2D.drawBitmap(btnEasy_Selected, null,mEasyBound,null);
         } else {
-            Bitmap btnEasy_Normal = mGame.getAssetManager().getBitmap("btnEasy-Normal");
+            IImage btnEasy_Normal = mGame.getAssetManager().getBitmap("btnEasy-Normal");
             graphics2D.drawBitmap(btnEasy_Normal, null,mEasyBound,null);
         }
 
         // Normal Button
         if (currentDifficultySetting == 2) {
-            Bitmap btnNormal_Selected = mGame.getAssetManager().getBitmap("btnNormal-Selected");
+            IImage btnNormal_Selected = mGame.getAssetManager().getBitmap("btnNormal-Selected");
             graphics2D.drawBitmap(btnNormal_Selected, null,mNormalBound,null);
         } else {
-            Bitmap btnNormal_Normal = mGame.getAssetManager().getBitmap("btnNormal-Normal");
+            IImage btnNormal_Normal = mGame.getAssetManager().getBitmap("btnNormal-Normal");
             graphics2D.drawBitmap(btnNormal_Normal, null,mNormalBound,null);
         }
 
         // Hard Button
         if (currentDifficultySetting == 3) {
-            Bitmap btnHard_Selected = mGame.getAssetManager().getBitmap("btnHard-Selected");
+            IImage btnHard_Selected = mGame.getAssetManager().getBitmap("btnHard-Selected");
             graphics2D.drawBitmap(btnHard_Selected, null,mHardBound,null);
         } else {
-            Bitmap btnHard_Normal = mGame.getAssetManager().getBitmap("btnHard-Normal");
+            IImage btnHard_Normal = mGame.getAssetManager().getBitmap("btnHard-Normal");
             graphics2D.drawBitmap(btnHard_Normal, null,mHardBound,null);
         }
 
         // Insane Button
         if (currentDifficultySetting == 4) {
-            Bitmap btnInsane_Selected = mGame.getAssetManager().getBitmap("btnInsane-Selected");
+            IImage btnInsane_Selected = mGame.getAssetManager().getBitmap("btnInsane-Selected");
             graphics2D.drawBitmap(btnInsane_Selected, null,mInsaneBound,null);
         } else {
-            Bitmap btnInsane_Normal = mGame.getAssetManager().getBitmap("btnInsane-Normal");
+            IImage btnInsane_Normal = mGame.getAssetManager().getBitmap("btnInsane-Normal");
             graphics2D.drawBitmap(btnInsane_Normal, null,mInsaneBound,null);
         }
 
         // Mute Title
-        Bitmap txtMute = mGame.getAssetManager().getBitmap("txtMute");
+        IImage txtMute = mGame.getAssetManager().getBitmap("txtMute");
         graphics2D.drawBitmap(txtMute,null,mMuteTitle,null);
 
         // Mute Button
         if (currentSoundSetting == 1) {
-            Bitmap btnSound_UnMute = mGame.getAssetManager().getBitmap("btnSound-UnMute");
+            IImage btnSound_UnMute = mGame.getAssetManager().getBitmap("btnSound-UnMute");
             graphics2D.drawBitmap(btnSound_UnMute, null,mMuteBound,null);
         } else {
-            Bitmap btnSound_Mute = mGame.getAssetManager().getBitmap("btnSound-Mute");
+            IImage btnSound_Mute = mGame.getAssetManager().getBitmap("btnSound-Mute");
             graphics2D.drawBitmap(btnSound_Mute, null,mMuteBound,null);
         }
 
         // Back Button
-        Bitmap btnBack = mGame.getAssetManager().getBitmap("btnBack");
+        IImage btnBack = mGame.getAssetManager().getBitmap("btnBack");
         graphics2D.drawBitmap(btnBack, null, mBackBound,null);
     }
 
+    // /////////////////////////////////////////////////////////////////////////
+    // Life Cycle Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Reloads the current settings when the screen becomes current again.
+     */
+    @Override
+    public void resume() {
+        currentDifficultySetting = settingsHandler.getDifficulty(getGame().getContext());
+        currentSoundSetting = settingsHandler.getSound(getGame().getContext());
+    }
+
     // /////////////////////////////////////////////////////////////////////////
     // Methods
     // /////////////////////////////////////////////////////////////////////////
@@ -270,7 +297,7 @@ public class OptionScreen extends GameScreen {
         int txtDifficultyHeight = (int) (getGame().getScreenHeight() * 0.185); // @1080 = 200
         int startX = (getGame().getScreenWidth() / 2) - (txtDifficultyWidth / 2);
         int startY = paddingY;
-        mDifficultyTitle = new Rect(startX, startY, startX + txtDifficultyWidth, startY + txtDifficultyHeight);
+        mDifficultyTitle = new IntRect(startX, startY, startX + txtDifficultyWidth, startY + txtDifficultyHeight);
 
         // Sets bounds for the difficulty settingsHandler stack
         // each button 255px width
@@ -283,19 +310,19 @@ public class OptionScreen extends GameScreen {
         int endX = startX + buttonWidth;
         startY = startY + txtDifficultyHeight + paddingY;
         int endY = startY + buttonHeight;
-        mEasyBound = new Rect(startX, startY, endX, endY);
+        mEasyBound = new IntRect(startX, startY, endX, endY);
 
         startX = endX + stackPad;
         endX = startX + buttonWidth;
-        mNormalBound = new Rect(startX, startY, endX, endY);
+        mNormalBound = new IntRect(startX, startY, endX, endY);
 
         startX = endX + stackPad;
         endX = startX + buttonWidth;
-        mHardBound = new Rect(startX, startY, endX, endY);
+        mHardBound = new IntRect(startX, startY, endX, endY);
 
         startX = endX + stackPad;
         endX = startX + buttonWidth;
-        mInsaneBound = new Rect(startX, startY, endX, endY);
+        mInsaneBound = new IntRect(startX, startY, endX, endY);
 
         // Sets the Mute Title
         int txtMuteWidth = (int) (getGame().getScreenWidth() * 0.273); // @1920 = 525
@@ -304,7 +331,7 @@ public class OptionScreen extends GameScreen {
         endY = startY + txtMuteHeight;
         startX = (getGame().getScreenWidth() / 2) - (txtMuteWidth / 2);
         endX = startX + txtMuteWidth;
-        mMuteTitle = new Rect(startX, startY, endX, endY);
+        mMuteTitle = new IntRect(startX, startY, endX, endY);
 
         // Sets the bounds for the Mute Button
         int btnSoundWidth = (int) (game.getScreenWidth() * 0.156); // @1920 = 300
@@ -312,14 +339,14 @@ public class OptionScreen extends GameScreen {
         startY = endY + paddingY;
         endY = startY + btnSoundHeight;
         startX = (game.getScreenWidth() / 2) - (btnSoundWidth / 2);
-        mMuteBound = new Rect(startX, startY, startX + btnSoundWidth, endY);
+        mMuteBound = new IntRect(startX, startY, startX + btnSoundWidth, endY);
 
         // Sets the bounds for the back button
         int btnBackWidth = (int) (game.getScreenWidth() * 0.078); // @1920 = 150
         int btnBackHeight = (int) (game.getScreenHeight() * 0.138); // @1080 = 150
         startX = paddingX;
         startY = paddingY;
-        mBackBound = new Rect(startX, startY, startX + btnBackWidth, startY + btnBackHeight);
+        mBackBound = new IntRect(startX, startY, startX + btnBackWidth, startY + btnBackHeight);
 
         // Defines the background
         mSpaceBackground = new GameObject(game.getScreenWidth() / 2.0f,
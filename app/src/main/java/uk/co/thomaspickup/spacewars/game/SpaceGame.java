@@ -14,6 +14,13 @@ import uk.co.thomaspickup.spacewars.gage.Game;
  */
 public class SpaceGame extends uk.co.thomaspickup.spacewars.gage.Game {
 
+	/**
+	 * Number of updates and frames the game targets each second. The level
+	 * is stepped at this rate, so headless runs of the level (the desktop
+	 * launcher and the benchmarks) use it too.
+	 */
+	public static final int TARGET_FRAMES_PER_SECOND = 20;
+
 	/**
 	 * Create a new demo game
 	 */
@@ -31,7 +38,7 @@ public class SpaceGame extends uk.co.thomaspickup.spacewars.gage.Game {
 		super.onCreate(savedInstanceState);
 
 		// Go with a default 20 UPS/FPS
-		setTargetFramesPerSecond(20);
+		setTargetFramesPerSecond(TARGET_FRAMES_PER_SECOND);
 	}
 
 	@Override
@@ -56,10 +63,8 @@ public class SpaceGame extends uk.co.thomaspickup.spacewars.gage.Game {
 		if(mScreenManager.getCurrentScreen().getName().equals("MenuScreen"))
 			return false;
 		
-		// Go back to the menu screen
-		getScreenManager().removeScreen(mScreenManager.getCurrentScreen().getName());		
-		MenuScreen menuScreen = new MenuScreen(this);
-		getScreenManager().addScreen(menuScreen);
+		// Go back to the (warm) menu screen, clearing the screen stack
+		getScreenManager().setScreen(MenuScreen.obtain(this));
 		return true;
 	}
 }
\ No newline at end of file
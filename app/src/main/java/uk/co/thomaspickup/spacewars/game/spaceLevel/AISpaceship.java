@@ -4,18 +4,25 @@ package uk.co.thomaspickup.spacewars.game.spaceLevel;
 // Imports
 // /////////////////////////////////////////////////////////////////////////
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import uk.co.thomaspickup.spacewars.gage.ai.CrowdAvoidance;
 import uk.co.thomaspickup.spacewars.gage.ai.SteeringBehaviours;
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.engine.timer.ITimerCallback;
+import uk.co.thomaspickup.spacewars.gage.engine.timer.Timer;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector.CollisionShape;
 import uk.co.thomaspickup.spacewars.gage.util.Vector2;
-import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
+import uk.co.thomaspickup.spacewars.gage.world.EntityRegistry;
 import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
 import uk.co.thomaspickup.spacewars.gage.world.ScreenViewport;
 import uk.co.thomaspickup.spacewars.gage.world.Sprite;
 import uk.co.thomaspickup.spacewars.game.HelperTools;
-import uk.co.thomaspickup.spacewars.game.SettingsHandler;
 
 /**
  * This class represents an AI Controlled Spaceship.
@@ -37,13 +44,31 @@ public class AISpaceship extends Sprite {
 	// Object holding the Control Behaviour
 	private ShipBehaviour mShipBehaviour;
 
-	// Distance at which the spaceship should avoid other game objects
-	private float separateThresholdShip = 75.0f;
-	private float separateThresholdAsteroid = 125.0f;
+	// Level of detail Enum. Near ships steer every tick, far ships steer
+	// every few ticks and keep moving on their last steering in between, and
+	// dormant ships (turrets out of range of the player) do not move at all.
+	public enum DetailLevel {
+		Near, Far, Dormant
+	}
+
+	// Distance from the player within which ships are near, which is beyond
+	// the edge of the layer viewport, and the number of ticks between the
+	// steering of far ships
+	static final float NEAR_DISTANCE = 400.0f;
+	static final int FAR_STEER_INTERVAL = 4;
+
+	// Distance from the player within which seekers head straight for the
+	// player rather than following the level's flow field
+	static final float DIRECT_SEEK_DISTANCE = 100.0f;
 
-	// Accumulators used to build up the net steering outcome
-	private Vector2 accAccumulator = new Vector2();
-	private Vector2 accComponent = new Vector2();
+	// Level of detail the ship is updated at this tick
+	private DetailLevel mDetailLevel = DetailLevel.Near;
+
+	// Velocity the ship would like to move at if there was nothing to avoid
+	private Vector2 mPreferredVelocity = new Vector2();
+
+	// Index of the ship within the level's crowd avoidance
+	private int mAgent;
 
 	// Creates new instance of helperTools
 	HelperTools helperTools = new HelperTools();
@@ -51,13 +76,16 @@ public class AISpaceship extends Sprite {
 	// List of Lasers related to AISpaceship
 	public List<Laser> mLasers;
 
-	// Limit on the reloading time of the aispaceship
-	private int reloadTime;
-	private int timeToReload;
+	// Limit on the reloading time of the aispaceship, in milliseconds, the
+	// reload timer runs on the level's simulation time
+	private static final int RELOAD_TIME = 1000;
+	private Timer reloadTimer;
 	private boolean canFire;
 
-	// Creates a new instance of the Settings Handler
-	private SettingsHandler settingsHandler = new SettingsHandler();
+	// Level to which the spaceship belongs, and the handle the level has
+	// given the spaceship
+	private SpaceLevel mLevel;
+	private long mHandle = EntityRegistry.NO_HANDLE;
 
 	// Speed multiplier decided by difficulty setting
 	private float mSpeedMultiplier;
@@ -75,12 +103,13 @@ public class AISpaceship extends Sprite {
 	 *            y location of the AI spaceship
 	 * @param shipBehaviour
 	 *            Steering behaviour to be used by the AI ship
-	 * @param gameScreen
-	 *            Gamescreen to which AI belongs
+	 * @param level
+	 *            Level to which AI belongs
 	 */
 	public AISpaceship(float startX, float startY, ShipBehaviour shipBehaviour,
-			SpaceLevelScreen gameScreen, int difficulty, int health) {
-		super(startX, startY, 50.0f, 50.0f, null, gameScreen);
+			SpaceLevel level, int difficulty, int health) {
+		super(startX, startY, 50.0f, 50.0f, null, level.getGameScreen());
+		mLevel = level;
 
 		// Imports the speed multiplier from helper tools
 		this.mSpeedMultiplier = helperTools.getSpeedMultiplier(difficulty);
@@ -89,15 +118,23 @@ public class AISpaceship extends Sprite {
 		mShipBehaviour = shipBehaviour;
 
 		// Sets up the ship based on
-		setUpShip(gameScreen);
+		setUpShip();
 
 		// Sets health based on supplied
 		this.setHealth(health);
 
+		// Collides as a box turned with the spaceship
+		setCollisionShape(CollisionShape.OrientedBox);
+		CollisionLayers.assign(this, CollisionLayers.ENEMY);
+
 		// Sets the ship able to fire
-		reloadTime = gameScreen.getGame().getTargetFramesPerSecond();
-		timeToReload = 0;
 		canFire = true;
+		reloadTimer = new Timer(new ITimerCallback() {
+			@Override
+			public void onTimer(Timer timer) {
+				canFire = true;
+			}
+		});
 	}
 
 	// /////////////////////////////////////////////////////////////////////////
@@ -111,82 +148,144 @@ public class AISpaceship extends Sprite {
 	 */
 	@Override
 	public void update(ElapsedTime elapsedTime) {
+		steer();
+		applySteering(elapsedTime);
+	}
+
+	/**
+	 * Chooses the level of detail the AI Spaceship is updated at this tick,
+	 * from its distance to the player. Like steer, only this ship is changed.
+	 *
+	 * @param tick
+	 *            Number of the tick, used to spread the steering of far ships
+	 *            across ticks
+	 * @return true if the ship should work out its steering this tick
+	 */
+	public boolean chooseDetailLevel(long tick) {
+		float deltaX = mLevel.getPlayerSpaceship().position.x - position.x;
+		float deltaY = mLevel.getPlayerSpaceship().position.y - position.y;
+
+		if (deltaX * deltaX + deltaY * deltaY <= NEAR_DISTANCE * NEAR_DISTANCE)
+			mDetailLevel = DetailLevel.Near;
+		else if (mShipBehaviour == ShipBehaviour.Turret)
+			mDetailLevel = DetailLevel.Dormant;
+		else
+			mDetailLevel = DetailLevel.Far;
+
+		switch (mDetailLevel) {
+		case Near:
+			return true;
+		case Far:
+			// Ships take turns by the slot of their handle
+			return (tick + (int) mHandle) % FAR_STEER_INTERVAL == 0;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the level of detail the ship is updated at this tick.
+	 *
+	 * @return Level of detail
+	 */
+	public DetailLevel getDetailLevel() {
+		return mDetailLevel;
+	}
+
+	/**
+	 * Works out the steering of the AI Spaceship. Only the accelerations of
+	 * this ship are changed and the rest of the level is only read, so the
+	 * steering of every ship can be worked out at the same time.
+	 */
+	public void steer() {
 		switch (mShipBehaviour) {
 		case Turret:
 			// Turn towards the player
 			angularAcceleration = 
 				SteeringBehaviours.lookAt(this, 
-						((SpaceLevelScreen) mGameScreen).getPlayerSpaceship().position);
+						mLevel.getPlayerSpaceship().position);
 			break;
 		case Seeker:
-			// Seek towards the player
-			SteeringBehaviours.seek(this, 
-					((SpaceLevelScreen) mGameScreen).getPlayerSpaceship().position,
-					acceleration);
-
-			// Try to avoid a collision with the playership
-			SteeringBehaviours.separate(this, 
-					((SpaceLevelScreen) mGameScreen).getPlayerSpaceship(),
-					separateThresholdShip, 1.0f, accComponent);
-			accAccumulator.set(accComponent);
-			
-			// Try to avoid a collision with the other spaceships			
-			SteeringBehaviours.separate(this,
-					((SpaceLevelScreen) mGameScreen).getAISpaceships(),
-					separateThresholdShip, 1.0f, accComponent);
-			accAccumulator.add(accComponent);
-			
-			// Try to avoid a collision with the asteroids
-			SteeringBehaviours.separate(this,
-					((SpaceLevelScreen) mGameScreen).getAsteroids(),
-					separateThresholdAsteroid, 1.0f, accComponent);
-			accAccumulator.add(accComponent);
-
-			// If we are trying to avoid a collision then combine
-			// it with the seek behaviour, placing more emphasis on
-			// avoiding the collision.			
-			if (!accAccumulator.isZero()) {
-				acceleration.x = 0.3f * acceleration.x + 0.7f * accAccumulator.x;
-				acceleration.y = 0.3f * acceleration.y + 0.7f * accAccumulator.y;
+			// Prefer to follow the flow field around the asteroids towards
+			// the player at full speed, heading straight for the player once
+			// close or if the field does not lead anywhere from here
+			Vector2 playerPosition = mLevel.getPlayerSpaceship().position;
+			float deltaX = playerPosition.x - position.x;
+			float deltaY = playerPosition.y - position.y;
+			float distancePow2 = deltaX * deltaX + deltaY * deltaY;
+			if (distancePow2 > DIRECT_SEEK_DISTANCE * DIRECT_SEEK_DISTANCE
+					&& mLevel.getFlowField().getDirection(position.x, position.y, mPreferredVelocity)) {
+				mPreferredVelocity.multiply(maxVelocity);
+			} else if (distancePow2 > 0.0f) {
+				mPreferredVelocity.set(deltaX, deltaY);
+				mPreferredVelocity.normalise();
+				mPreferredVelocity.multiply(maxVelocity);
+			} else {
+				mPreferredVelocity.set(Vector2.Zero);
 			}
 
+			// Find the velocity closest to the preferred one that avoids the
+			// other ships, the asteroids and the player until the ship next
+			// steers, and accelerate towards it
+			CrowdAvoidance crowdAvoidance = mLevel.getCrowdAvoidance();
+			float steerPeriod = (mDetailLevel == DetailLevel.Far ? FAR_STEER_INTERVAL : 1)
+					/ (float) mLevel.getTicksPerSecond();
+			crowdAvoidance.setPreferredVelocity(mAgent, mPreferredVelocity.x,
+					mPreferredVelocity.y);
+			crowdAvoidance.computeVelocity(mAgent, steerPeriod);
+			acceleration.set(
+					(crowdAvoidance.getVelocityX(mAgent) - velocity.x) / steerPeriod,
+					(crowdAvoidance.getVelocityY(mAgent) - velocity.y) / steerPeriod);
+
 			// Make sure we point in the direction of travel.
 			angularAcceleration = SteeringBehaviours.alignWithMovement(this);
 
 			break;
 		}
+	}
+
+	/**
+	 * Moves the AI Spaceship using the steering worked out by steer, then
+	 * fires if the player is in range and updates the lasers.
+	 *
+	 * @param elapsedTime
+	 */
+	public void applySteering(ElapsedTime elapsedTime) {
+		// Dormant ships only update the lasers already fired
+		if (mDetailLevel == DetailLevel.Dormant) {
+			updateLasers(elapsedTime);
+			return;
+		}
 
 		// Call the sprite's superclass to apply the determine accelerations
 		super.update(elapsedTime);
 
 		// Gets the difference in player position and this AI Spaceships position
-		float deltaX = ((SpaceLevelScreen) mGameScreen).getPlayerSpaceship().position.x - this.position.x;
-		float deltaY = ((SpaceLevelScreen) mGameScreen).getPlayerSpaceship().position.y - this.position.y;
+		float deltaX = mLevel.getPlayerSpaceship().position.x - this.position.x;
+		float deltaY = mLevel.getPlayerSpaceship().position.y - this.position.y;
 
 		// Works out the direct distance from the player
 		float distanceFromPlayer = helperTools.getDistance(deltaX, deltaY);
 
 		// If the distance is less than 3 times the width of the spaceship and it can fire then fire.
 		if (distanceFromPlayer <= this.getBound().getWidth() * 3 && canFire) {
-			fire(mGameScreen);
+			fire();
 		}
 
+		updateLasers(elapsedTime);
+	}
+
+	/**
+	 * Updates the lasers fired by the AI Spaceship.
+	 *
+	 * @param elapsedTime
+	 */
+	private void updateLasers(ElapsedTime elapsedTime) {
 		// If there is lasers to update then update them
 		if (mLasers != null) {
 			for (Laser laser : mLasers)
 				laser.update(elapsedTime);
 		}
-
-		// If the ai spaceship can't fire
-		if (!canFire) {
-			// Increment time to reload by 1
-			timeToReload = timeToReload + 1;
-
-			// If the time to reload is equal to the reloadtime then the spaceship can fire again.
-			if (reloadTime == timeToReload) {
-				canFire = true;
-			}
-		}
 	}
 
 	/**
@@ -215,33 +314,81 @@ public class AISpaceship extends Sprite {
 
 	/**
 	 * This shoots a laser from the AI Spaceship
-	 *
-	 * @param gameScreen Game Screen to draw onto
 	 */
-	private void fire(GameScreen gameScreen) {
+	private void fire() {
 		// Checks if the Enemey can fire
 		if (canFire) {
 			// Play the sound effect
-			gameScreen.getGame().getAssetManager().getSound("WeaponFire").play(settingsHandler.getSound(gameScreen.getGame().getContext()));
+			mLevel.playSound("WeaponFire");
 
 			// Set can fire to false
 			canFire = false;
 
-			// Imports the image
-			gameScreen.getGame().getAssetManager().loadAndAddBitmap("EnemyBeam", "img/sprites/sprEnemyBeam.png");
-
 			// Creates a new laser
-			mLasers.add(new Laser((int) position.x, (int) position.y, gameScreen, gameScreen.getGame().getAssetManager().getBitmap("EnemyBeam"), this.acceleration, this.velocity, orientation));
+			Laser laser = new Laser((int) position.x, (int) position.y, mGameScreen, getBeamBitmap(), this.acceleration, this.velocity, orientation);
+			laser.setOwnerHandle(mHandle);
+			CollisionLayers.assign(laser, CollisionLayers.ENEMY_LASER);
+			mLasers.add(laser);
 
-			// Resets the timer
-			timeToReload = 0;
+			// Starts the reload timer
+			mLevel.getTimerWheel().schedule(reloadTimer, RELOAD_TIME);
 		}
 	}
 
+	/**
+	 * Gets the bitmap used by the enemy lasers, loading it if needed.
+	 *
+	 * @return Bitmap of the enemy laser
+	 */
+	private IImage getBeamBitmap() {
+		mLevel.getAssetStore().loadAndAddBitmap("EnemyBeam", "img/sprites/sprEnemyBeam.png");
+		return mLevel.getAssetStore().getBitmap("EnemyBeam");
+	}
+
+	/**
+	 * Returns the handle the level has given the ship.
+	 *
+	 * @return Handle of the ship
+	 */
+	public long getHandle() {
+		return mHandle;
+	}
+
+	/**
+	 * Sets the handle the level has given the ship, passing it on to the
+	 * ship's lasers.
+	 *
+	 * @param handle Handle of the ship
+	 */
+	void setHandle(long handle) {
+		mHandle = handle;
+		for (Laser laser : mLasers)
+			laser.setOwnerHandle(handle);
+	}
+
+	/**
+	 * Sets the index of the ship within the level's crowd avoidance, which
+	 * the level sets each tick before the ships steer.
+	 *
+	 * @param agent Index of the ship
+	 */
+	void setAgent(int agent) {
+		mAgent = agent;
+	}
+
+	/**
+	 * Returns the behaviour of the ship.
+	 *
+	 * @return Ship Behaviour
+	 */
+	public ShipBehaviour getShipBehaviour() {
+		return mShipBehaviour;
+	}
+
 	/**
 	 * Sets up the ship based on the Ship Behaviour
 	 */
-	private void setUpShip(GameScreen gameScreen) {
+	private void setUpShip() {
 		// Decides what type the ship is to be.
 		switch (mShipBehaviour) {
 			// Sets up to be a turret
@@ -251,7 +398,7 @@ public class AISpaceship extends Sprite {
 				maxVelocity = 0.0f;
 				maxAngularVelocity = 50.0f* mSpeedMultiplier;
 				maxAngularAcceleration = 50.0f * mSpeedMultiplier;
-				mBitmap = gameScreen.getGame().getAssetManager().getBitmap("Turret");
+				mBitmap = mLevel.getAssetStore().getBitmap("Turret");
 
 				break;
 
@@ -262,7 +409,7 @@ public class AISpaceship extends Sprite {
 				maxVelocity = 50.0f * mSpeedMultiplier;
 				maxAngularVelocity = 150.0f * mSpeedMultiplier;
 				maxAngularAcceleration = 300.0f * mSpeedMultiplier;
-				mBitmap = gameScreen.getGame().getAssetManager().getBitmap("Spaceship1");
+				mBitmap = mLevel.getAssetStore().getBitmap("Spaceship1");
 
 				break;
 		}
@@ -270,4 +417,67 @@ public class AISpaceship extends Sprite {
 		// Creates a list with a maximum of 100 lasers
 		mLasers = new ArrayList<Laser>(100);
 	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Snapshot Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Gets the number of milliseconds the ship has been reloading for, which
+	 * is the form the reload progress is saved in.
+	 *
+	 * @return Milliseconds reloaded, or 0 if the ship is not reloading
+	 */
+	private int getTimeReloaded() {
+		return reloadTimer.isScheduled()
+				? RELOAD_TIME - (int) reloadTimer.getRemainingTime() : 0;
+	}
+
+	/**
+	 * Writes the state of the AI spaceship, including the reload progress and
+	 * all of the lasers in flight. The ship behaviour is fixed at construction
+	 * so is not written.
+	 *
+	 * @param out Output to write the state to
+	 * @throws IOException if the state could not be written
+	 */
+	@Override
+	public void writeState(DataOutput out) throws IOException {
+		super.writeState(out);
+
+		out.writeInt(getTimeReloaded());
+		out.writeBoolean(canFire);
+
+		out.writeInt(mLasers.size());
+		for (Laser laser : mLasers)
+			laser.writeState(out);
+	}
+
+	/**
+	 * Reads the state of the AI spaceship, replacing any lasers in flight.
+	 *
+	 * @param in Input to read the state from
+	 * @throws IOException if the state could not be read
+	 */
+	@Override
+	public void readState(DataInput in) throws IOException {
+		super.readState(in);
+
+		int timeReloaded = in.readInt();
+		canFire = in.readBoolean();
+		if (canFire)
+			reloadTimer.cancel();
+		else
+			mLevel.getTimerWheel().schedule(reloadTimer, RELOAD_TIME - timeReloaded);
+
+		mLasers.clear();
+		int laserCount = SpaceSave.readCount(in);
+		IImage beamBitmap = getBeamBitmap();
+		for (int idx = 0; idx < laserCount; idx++) {
+			Laser laser = new Laser(0, 0, mGameScreen, beamBitmap, Vector2.Zero, Vector2.Zero, 0.0f);
+			laser.readState(in);
+			CollisionLayers.assign(laser, CollisionLayers.ENEMY_LASER);
+			mLasers.add(laser);
+		}
+	}
 }
@@ -1,8 +1,11 @@
 package uk.co.thomaspickup.spacewars.game.spaceLevel;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Random;
 
-import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector.CollisionShape;
 import uk.co.thomaspickup.spacewars.gage.world.Sprite;
 
 /**
@@ -13,9 +16,14 @@ import uk.co.thomaspickup.spacewars.gage.world.Sprite;
 public class Asteroid extends Sprite {
 
 	/**
-	 * Random instance used to create the asteroids
+	 * Type of asteroid (1 or 2), deciding which bitmap is used
 	 */
-	private static Random random = new Random();
+	private int mAsteroidType;
+
+	/**
+	 * Level to which the asteroid belongs
+	 */
+	private SpaceLevel mLevel;
 
 	/**
 	 * Create an asteroid
@@ -24,19 +32,57 @@ public class Asteroid extends Sprite {
 	 *            x location of the asteroid
 	 * @param startY
 	 *            y location of the asteroid
-	 * @param gameScreen
-	 *            Gamescreen to which asteroid belongs
+	 * @param random
+	 *            Random number generator used to vary the asteroid
+	 * @param level
+	 *            Level to which asteroid belongs
 	 */
-	public Asteroid(float startX, float startY, GameScreen gameScreen) {
-		super(startX, startY, 50.0f, 50.0f, null, gameScreen);
+	public Asteroid(float startX, float startY, Random random,
+			SpaceLevel level) {
+		super(startX, startY, 50.0f, 50.0f, null, level.getGameScreen());
+		mLevel = level;
 
-		mBitmap = gameScreen.getGame().getAssetManager()
-				.getBitmap(random.nextBoolean() ? "Asteroid1" : "Asteroid2");
+		mAsteroidType = random.nextBoolean() ? 1 : 2;
+		mBitmap = level.getAssetStore().getBitmap("Asteroid" + mAsteroidType);
 
 		mBound.halfWidth = 25.0f;
 		mBound.halfHeight = 25.0f;
-		
+
+		// Asteroids are round, so collide as the circle within their bound,
+		// and are too heavy to be pushed
+		setCollisionShape(CollisionShape.Circle);
+		setInverseMass(0.0f);
+		CollisionLayers.assign(this, CollisionLayers.ASTEROID);
+
 		angularVelocity = random.nextFloat() * 40.0f - 20.0f;
 	}
-		
+
+	/**
+	 * Write the state of the asteroid, including its type
+	 * 
+	 * @param out
+	 *            Output to write the state to
+	 * @throws IOException
+	 *             if the state could not be written
+	 */
+	@Override
+	public void writeState(DataOutput out) throws IOException {
+		super.writeState(out);
+		out.writeByte(mAsteroidType);
+	}
+
+	/**
+	 * Read the state of the asteroid, including its type
+	 * 
+	 * @param in
+	 *            Input to read the state from
+	 * @throws IOException
+	 *             if the state could not be read
+	 */
+	@Override
+	public void readState(DataInput in) throws IOException {
+		super.readState(in);
+		mAsteroidType = in.readByte();
+		mBitmap = mLevel.getAssetStore().getBitmap("Asteroid" + mAsteroidType);
+	}
 }
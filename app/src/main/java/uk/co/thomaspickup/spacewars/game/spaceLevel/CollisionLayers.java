@@ -0,0 +1,65 @@
+package uk.co.thomaspickup.spacewars.game.spaceLevel;
+
+import uk.co.thomaspickup.spacewars.gage.world.GameObject;
+
+/**
+ * Collision layers of the objects within a space level, and the matrix of
+ * which layers collide with each other. Pairs of objects whose layers never
+ * collide, such as an enemy laser and an enemy spaceship, are rejected before
+ * their shapes are tested.
+ *
+ * Created by Thomas Pickup
+ */
+public final class CollisionLayers {
+	// /////////////////////////////////////////////////////////////////////////
+	// Layers
+	// /////////////////////////////////////////////////////////////////////////
+
+	public static final int PLAYER = 1 << 1;
+	public static final int ENEMY = 1 << 2;
+	public static final int PLAYER_LASER = 1 << 3;
+	public static final int ENEMY_LASER = 1 << 4;
+	public static final int ASTEROID = 1 << 5;
+
+	private CollisionLayers() {
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Returns the layers the specified layer collides with. Each pair of
+	 * layers is listed both ways round, so the matrix is symmetric.
+	 *
+	 * @param layer Collision layer.
+	 * @return Layers collided with.
+	 */
+	public static int getMask(int layer) {
+		switch (layer) {
+		case PLAYER:
+			return ENEMY | ENEMY_LASER | ASTEROID;
+		case ENEMY:
+			return PLAYER | PLAYER_LASER | ASTEROID;
+		case PLAYER_LASER:
+			return ENEMY;
+		case ENEMY_LASER:
+			return PLAYER;
+		case ASTEROID:
+			return PLAYER | ENEMY;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * Places a game object on the specified layer, colliding with the layers
+	 * the matrix gives for it.
+	 *
+	 * @param gameObject Game object.
+	 * @param layer Collision layer.
+	 */
+	public static void assign(GameObject gameObject, int layer) {
+		gameObject.setCollisionLayer(layer, getMask(layer));
+	}
+}
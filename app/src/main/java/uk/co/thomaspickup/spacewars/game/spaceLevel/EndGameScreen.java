@@ -4,10 +4,7 @@ package uk.co.thomaspickup.spacewars.game.spaceLevel;
 // Imports
 // /////////////////////////////////////////////////////////////////////////
 
-import android.graphics.Bitmap;
 import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.Rect;
 
 import java.util.List;
 
@@ -15,7 +12,10 @@ import uk.co.thomaspickup.spacewars.gage.Game;
 import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
 import uk.co.thomaspickup.spacewars.gage.engine.audio.Music;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect;
 import uk.co.thomaspickup.spacewars.gage.engine.input.Input;
 import uk.co.thomaspickup.spacewars.gage.engine.input.TouchEvent;
 import uk.co.thomaspickup.spacewars.gage.world.GameObject;
@@ -39,8 +39,8 @@ public class EndGameScreen extends GameScreen {
     boolean gameWon;
 
     // Bounds for the buttons
-    private Rect mExitButtonBound;
-    Rect mTitleBound;
+    private IntRect mExitButtonBound;
+    IntRect mTitleBound;
 
     // Background files
     ScreenViewport mScreenViewport;
@@ -57,16 +57,16 @@ public class EndGameScreen extends GameScreen {
     // Title UI Elements
     int titleStartX;
     int titleStartY;
-    Paint titlePaintCan;
+    DrawPaint titlePaintCan;
     String titleText;
-    Rect mTitleTextBound;
+    IntRect mTitleTextBound;
 
     // Stats UI Elements
     int statsStartX;
     int statsStartY;
-    Paint statsPaintCan;
+    DrawPaint statsPaintCan;
     String statsText;
-    Rect mStatsTextBound;
+    IntRect mStatsTextBound;
     int enemiesDefeated;
 
     // Defines the width and height of the level
@@ -139,12 +139,8 @@ public class EndGameScreen extends GameScreen {
                 // Plays click sound
                 getGame().getAssetManager().getSound("ButtonClick").play(settingsHandler.getSound(getGame().getContext()));
 
-                // Removes this screen
-                mGame.getScreenManager().removeScreen(this.getName());
-
-                // Creates and launches MenuScreen
-                MenuScreen menuScreen = new MenuScreen(mGame);
-                mGame.getScreenManager().addScreen(menuScreen);
+                // Replaces this screen with the warm MenuScreen
+                mGame.getScreenManager().replaceScreen(MenuScreen.obtain(mGame));
             }
         }
     }
@@ -162,7 +158,7 @@ public class EndGameScreen extends GameScreen {
                 mScreenViewport);
 
         // Draws the title image
-        Bitmap titleImage = mGame.getAssetManager().getBitmap("TitleImage");
+        IImage titleImage = mGame.getAssetManager().getBitmap("TitleImage");
         graphics2D.drawBitmap(titleImage, null, mTitleBound, null);
 
         // Draw Result (Win // Lose)
@@ -172,10 +168,23 @@ public class EndGameScreen extends GameScreen {
         graphics2D.drawText(statsText, statsStartX, statsStartY, statsPaintCan);
 
         // Draw the exit icon
-        Bitmap exitIcon = mGame.getAssetManager().getBitmap("ExitIcon");
+        IImage exitIcon = mGame.getAssetManager().getBitmap("ExitIcon");
         graphics2D.drawBitmap(exitIcon, null, mExitButtonBound, null);
     }
 
+    // /////////////////////////////////////////////////////////////////////////
+    // Life Cycle Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Stops the music once the screen is covered or leaves the stack.
+     */
+    @Override
+    public void pause() {
+        if (mainMusic != null)
+            mainMusic.pause();
+    }
+
     // /////////////////////////////////////////////////////////////////////////
     // Methods
     // /////////////////////////////////////////////////////////////////////////
@@ -196,7 +205,7 @@ public class EndGameScreen extends GameScreen {
         int titleHeight = (int) (game.getScreenHeight() * 0.373); // On 1080 Screen Height = 400
         int spacingX = (game.getScreenWidth() / 2) - (titleWidth / 2);
         int spacingY = paddingY * 2;
-        mTitleBound = new Rect(spacingX, spacingY, spacingX + titleWidth, spacingY + titleHeight);
+        mTitleBound = new IntRect(spacingX, spacingY, spacingX + titleWidth, spacingY + titleHeight);
 
         // Decides based on data passed whether to show a Win or Defeat message
         if (gameWon) {
@@ -206,29 +215,29 @@ public class EndGameScreen extends GameScreen {
         }
 
         // Sets up the Paint used to draw the titleText
-        mTitleTextBound = new Rect();
-        titlePaintCan = new Paint();
-        titlePaintCan.setColor(Color.WHITE);
+        mTitleTextBound = new IntRect();
+        titlePaintCan = new DrawPaint();
+        titlePaintCan.setColour(Color.WHITE);
         titlePaintCan.setTextSize(100f);
 
         // Works out the size of the text
-        titlePaintCan.getTextBounds(titleText, 0, titleText.length(), mTitleTextBound);
+        game.getGraphicsPlatform().getTextBounds(titleText, titlePaintCan, mTitleTextBound);
 
         // Sets the startX and startY
         titleStartY = mTitleBound.bottom + (paddingY * 2) + mTitleTextBound.height();
         titleStartX = (getGame().getScreenWidth() / 2) - (mTitleTextBound.width() / 2);
 
         // Creates the paint can used to draw the statsText
-        mStatsTextBound = new Rect();
-        statsPaintCan = new Paint();
-        statsPaintCan.setColor(Color.WHITE);
+        mStatsTextBound = new IntRect();
+        statsPaintCan = new DrawPaint();
+        statsPaintCan.setColour(Color.WHITE);
         statsPaintCan.setTextSize(40f);
 
         // Sets up the enemies defeated text
         statsText = "Enemies Defeated: " + enemiesDefeated;
 
         // Gets the bounds for the statsText
-        statsPaintCan.getTextBounds(statsText, 0, statsText.length(), mStatsTextBound);
+        game.getGraphicsPlatform().getTextBounds(statsText, statsPaintCan, mStatsTextBound);
 
         // Creates the startX & startY
         statsStartY = titleStartY + (paddingY * 4) + mStatsTextBound.height();
@@ -239,7 +248,7 @@ public class EndGameScreen extends GameScreen {
         int btnExitHeight = (int) (game.getScreenHeight() * 0.138);
         spacingY = paddingY;
         spacingX = game.getScreenWidth() - (btnExitWidth + paddingX);
-        mExitButtonBound = new Rect(spacingX, spacingY, spacingX + btnExitWidth, spacingY + btnExitHeight);
+        mExitButtonBound = new IntRect(spacingX, spacingY, spacingX + btnExitWidth, spacingY + btnExitHeight);
     }
 
     /**
@@ -256,8 +265,8 @@ public class EndGameScreen extends GameScreen {
 
         // Loads in sounds
         assetManager.loadAndAddSound("ButtonClick", "sfx/sfx_buttonclick.mp3");
-        assetManager.loadAndAddSound("MusicVictory", "sfx/sfx_victory.mp3");
-        assetManager.loadAndAddSound("MusicDefeat", "sfx/sfx_defeat.mp3");
+        assetManager.loadAndAddMusic("MusicVictory", "sfx/sfx_victory.mp3");
+        assetManager.loadAndAddMusic("MusicDefeat", "sfx/sfx_defeat.mp3");
     }
 
     /**
@@ -269,6 +278,8 @@ public class EndGameScreen extends GameScreen {
     private void playMusic(Game game, String music) {
         // Gets the Song imported prior
         mainMusic = game.getAssetManager().getMusic(music);
+        if (mainMusic == null)
+            return;
 
         // Sets the volume according to settings handler
         mainMusic.setVolume((float) settingsHandler.getSound(getGame().getContext()) * 0.75f);
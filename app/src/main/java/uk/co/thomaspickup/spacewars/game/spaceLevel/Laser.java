@@ -4,11 +4,15 @@ package uk.co.thomaspickup.spacewars.game.spaceLevel;
 // Imports
 // /////////////////////////////////////////////////////////////////////////
 
-import android.graphics.Bitmap;
+import java.io.DataInput;
+import java.io.IOException;
 
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector.CollisionShape;
 import uk.co.thomaspickup.spacewars.gage.util.Vector2;
+import uk.co.thomaspickup.spacewars.gage.world.EntityRegistry;
 import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
 import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
 import uk.co.thomaspickup.spacewars.gage.world.ScreenViewport;
@@ -24,6 +28,16 @@ public class Laser extends Sprite {
     // Variables
     // /////////////////////////////////////////////////////////////////////////
 
+    // Handle of the AI spaceship that fired the laser, which stops resolving
+    // once the spaceship is destroyed. Lasers fired by the player have no
+    // handle.
+    private long mOwnerHandle = EntityRegistry.NO_HANDLE;
+
+    // Position of the laser before its last update. Lasers can move further
+    // than their own length in a tick, so hits are found along the path from
+    // here to the current position rather than at the current position alone.
+    private Vector2 mPreviousPosition = new Vector2();
+
     // /////////////////////////////////////////////////////////////////////////
     // Constructor
     // /////////////////////////////////////////////////////////////////////////
@@ -35,7 +49,7 @@ public class Laser extends Sprite {
      * @param gameScreen
      * @param sprite
      */
-    public Laser(int startX, int startY, GameScreen gameScreen, Bitmap sprite, Vector2 playerAcceleration, Vector2 playerVelocity, float orientation) {
+    public Laser(int startX, int startY, GameScreen gameScreen, IImage sprite, Vector2 playerAcceleration, Vector2 playerVelocity, float orientation) {
         super(startX,startY, 9, 3, sprite, gameScreen);
 
         // Sets acceleration and velocity to be player acceleration and velocity * 2
@@ -50,6 +64,46 @@ public class Laser extends Sprite {
         // Sets the max acceleration and velocity
         maxAcceleration = 300.0f;
         maxVelocity = 100.0f;
+
+        // Collides as a box turned with the laser, fired by the player unless
+        // the firing AI spaceship moves it onto the enemy laser layer
+        setCollisionShape(CollisionShape.OrientedBox);
+        CollisionLayers.assign(this, CollisionLayers.PLAYER_LASER);
+
+        // Sets the previous position to be the start position
+        mPreviousPosition.set(position.x, position.y);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Owner Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Gets the handle of the AI spaceship that fired the laser.
+     *
+     * @return Handle of the owner, or EntityRegistry.NO_HANDLE if the player
+     *         fired the laser
+     */
+    public long getOwnerHandle() {
+        return mOwnerHandle;
+    }
+
+    /**
+     * Sets the handle of the AI spaceship that fired the laser.
+     *
+     * @param ownerHandle Handle of the owner
+     */
+    public void setOwnerHandle(long ownerHandle) {
+        mOwnerHandle = ownerHandle;
+    }
+
+    /**
+     * Gets the position of the laser before its last update.
+     *
+     * @return Previous position
+     */
+    public Vector2 getPreviousPosition() {
+        return mPreviousPosition;
     }
 
     // /////////////////////////////////////////////////////////////////////////
@@ -80,10 +134,25 @@ public class Laser extends Sprite {
             velocity.multiply(maxVelocity);
         }
 
-        // Update the position using the velocity
+        // Update the position using the velocity, remembering where the laser
+        // moved from
+        mPreviousPosition.set(position.x, position.y);
         position.add(velocity.x *dt , velocity.y * dt);
     }
 
+    /**
+     * Reads the state of the Laser. A restored laser has not moved since it
+     * was restored, so its previous position is its current position.
+     *
+     * @param in
+     * @throws IOException
+     */
+    @Override
+    public void readState(DataInput in) throws IOException {
+        super.readState(in);
+        mPreviousPosition.set(position.x, position.y);
+    }
+
     /**
      * Draws the Laser to Screen
      *
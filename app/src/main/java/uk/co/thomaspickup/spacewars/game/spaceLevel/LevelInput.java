@@ -0,0 +1,101 @@
+package uk.co.thomaspickup.spacewars.game.spaceLevel;
+
+// /////////////////////////////////////////////////////////////////////////
+// Imports
+// /////////////////////////////////////////////////////////////////////////
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import uk.co.thomaspickup.spacewars.gage.engine.input.Input;
+
+/**
+ * The input that drives a single tick of the level.
+ *
+ * Everything the simulation reads from the player is held here, so a tick can
+ * be driven equally from the live touch screen or from a replay log.
+ *
+ * Created by Thomas Pickup
+ */
+public class LevelInput {
+    // /////////////////////////////////////////////////////////////////////////
+    // Variables
+    // /////////////////////////////////////////////////////////////////////////
+
+    // Flags used when writing the input to a replay log
+    private static final int FLAG_STEERING = 1;
+    private static final int FLAG_FIRE = 2;
+
+    // Length of the tick in seconds
+    public float stepTime;
+
+    // Whether the player is steering along with the steering direction, each
+    // axis runs from -1 to 1 relative to the centre of the screen
+    public boolean steering;
+    public float steerX;
+    public float steerY;
+
+    // Whether the fire button was pressed this tick
+    public boolean fire;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Captures the input for this tick from the touch screen.
+     *
+     * @param input Touch input of the game
+     * @param fire Whether the fire button was pressed this tick
+     * @param screenWidth Width of the screen
+     * @param screenHeight Height of the screen
+     * @param stepTime Length of the tick in seconds
+     */
+    public void capture(Input input, boolean fire, int screenWidth, int screenHeight, double stepTime) {
+        this.stepTime = (float) stepTime;
+
+        // Steer relative to the centre of the screen, inverting the y axis
+        steering = input.existsTouch(0);
+        if (steering) {
+            float centreX = screenWidth / 2;
+            float centreY = screenHeight / 2;
+            steerX = (input.getTouchX(0) - centreX) / centreX;
+            steerY = (centreY - input.getTouchY(0)) / centreY;
+        }
+
+        this.fire = fire;
+    }
+
+    /**
+     * Writes the input to a replay log.
+     *
+     * @param out Output to write the input to
+     * @throws IOException if the input could not be written
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeFloat(stepTime);
+        out.writeByte((steering ? FLAG_STEERING : 0) | (fire ? FLAG_FIRE : 0));
+        if (steering) {
+            out.writeFloat(steerX);
+            out.writeFloat(steerY);
+        }
+    }
+
+    /**
+     * Reads the input from a replay log.
+     *
+     * @param in Input to read the input from
+     * @throws IOException if the input could not be read
+     */
+    public void read(DataInput in) throws IOException {
+        stepTime = in.readFloat();
+        int flags = in.readByte();
+        steering = (flags & FLAG_STEERING) != 0;
+        fire = (flags & FLAG_FIRE) != 0;
+        if (steering) {
+            steerX = in.readFloat();
+            steerY = in.readFloat();
+        }
+    }
+}
@@ -4,12 +4,6 @@ package uk.co.thomaspickup.spacewars.game.spaceLevel;
 // Imports
 // /////////////////////////////////////////////////////////////////////////
 
-// Android Graphics
-
-import android.graphics.Bitmap;
-import android.graphics.Color;
-import android.graphics.Rect;
-
 // Java Util
 import java.util.List;
 
@@ -17,27 +11,33 @@ import java.util.List;
 import uk.co.thomaspickup.spacewars.gage.Game;
 import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect;
 import uk.co.thomaspickup.spacewars.gage.engine.input.Input;
 import uk.co.thomaspickup.spacewars.gage.engine.input.TouchEvent;
-import uk.co.thomaspickup.spacewars.gage.world.GameObject;
+import uk.co.thomaspickup.spacewars.gage.util.GraphicsHelper;
 import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
-import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
-import uk.co.thomaspickup.spacewars.gage.world.ScreenViewport;
 
 // Game
 import uk.co.thomaspickup.spacewars.game.MenuScreen;
 import uk.co.thomaspickup.spacewars.game.SettingsHandler;
-import uk.co.thomaspickup.spacewars.game.spaceLevel.AISpaceship;
-import uk.co.thomaspickup.spacewars.game.spaceLevel.Asteroid;
-import uk.co.thomaspickup.spacewars.game.spaceLevel.PlayerSpaceship;
-import uk.co.thomaspickup.spacewars.game.spaceLevel.SpaceLevelScreen;
-import uk.co.thomaspickup.spacewars.game.spaceLevel.SpaceSave;
 
 /**
  * The pause screen - creates a freeze frame of the level.
  * Allows the user to resume or exit the game
  *
+ * The level is captured once into a downscaled, dimmed bitmap when the game
+ * is paused. Whilst paused only that bitmap and the buttons are drawn, the
+ * suspended level underneath is neither updated nor drawn.
+ *
+ * The capture draws the level once more, at half size, rather than reusing
+ * the last frame shown. The canvas render surface draws through the GUI
+ * thread's hardware accelerated canvas, which keeps no bitmap of the frame
+ * to copy. Keeping one would mean drawing every frame of the level into a
+ * bitmap as well, to save this one draw when the game is paused.
+ *
  * Created by Thomas Pickup
  */
 public class PauseScreen extends GameScreen {
@@ -46,24 +46,18 @@ public class PauseScreen extends GameScreen {
     // /////////////////////////////////////////////////////////////////////////
 
     // Bounds for the buttons
-    private Rect mPlayButtonBound;
-    private Rect mTitleBound;
-    private Rect mExitButtonBound;
-
-    // Defines the width and height of the level
-    private final float LEVEL_WIDTH = 1000.0f;
-    private final float LEVEL_HEIGHT = 1000.0f;
+    private IntRect mPlayButtonBound;
+    private IntRect mTitleBound;
+    private IntRect mExitButtonBound;
 
-    // Defines the variables to be used to create a freeze frame of the game.
-    private ScreenViewport mScreenViewport;
-    private LayerViewport mLayerViewport;
-    private GameObject mSpaceBackground;
-    private PlayerSpaceship mPlayerSpaceship;
-    private List<Asteroid> mAsteroids;
-    private List<AISpaceship> mAISpaceships;
+    // Scale and dimming applied to the captured freeze frame
+    private final float FROZEN_FRAME_SCALE = 0.5f;
+    private final int FROZEN_FRAME_DIM_ALPHA = 128;
 
-    // Save File used for transfering and receiving a save from other screens
-    private SpaceSave saveFile = new SpaceSave();
+    // The freeze frame of the level along with where and how it is drawn
+    private IImage mFrozenFrame;
+    private IntRect mFrozenFrameBound;
+    private DrawPaint mFrozenFramePaint;
 
     // New instance of SettingsHandler for accessing settings
     private SettingsHandler settingsHandler = new SettingsHandler();
@@ -79,30 +73,16 @@ public class PauseScreen extends GameScreen {
     /**
      * Constructor to create a new PauseScreen
      *
-     * @param game     Game that this screen is to be built on
-     * @param saveFile Save file passed from the SpaceLevelScreen
+     * @param game            Game that this screen is to be built on
+     * @param suspendedScreen Screen being paused, used to capture the freeze frame
+     * @param elapsedTime     Elapsed time information of the frame being paused
      */
-    public PauseScreen(Game game, SpaceSave saveFile) {
+    public PauseScreen(Game game, GameScreen suspendedScreen, ElapsedTime elapsedTime) {
         super("PauseScreen", game);
 
-        // Copies over the save file to the class
-        this.saveFile = saveFile;
-
-        // Create the screen viewport
-        mScreenViewport = new ScreenViewport(0, 0, game.getScreenWidth(),
-                game.getScreenHeight());
-
-        // Gets the Layer View Port from the save file
-        mLayerViewport = this.saveFile.getMLayerViewport();
-
-        // Gets the player spaceship from the save file
-        mPlayerSpaceship = this.saveFile.getMPlayerSpaceShip();
-
-        // Gets Asteroids from the save file
-        mAsteroids = this.saveFile.getMAsteroids();
-
-        // Gets AI Spaceships from the save file
-        mAISpaceships = this.saveFile.getMAISpaceships();
+        // Captures the last frame of the suspended screen
+        mFrozenFrame = GraphicsHelper.captureScreen(suspendedScreen, elapsedTime,
+                FROZEN_FRAME_SCALE, FROZEN_FRAME_DIM_ALPHA);
 
         // Loads in the assets used on this screen
         loadAssets();
@@ -139,12 +119,8 @@ public class PauseScreen extends GameScreen {
                 // Plays click sound
                 getGame().getAssetManager().getSound("ButtonClick").play(settingsHandler.getSound(getGame().getContext()));
 
-                // Removes this screen
-                mGame.getScreenManager().removeScreen(this.getName());
-
-                // Creates and launches a new instance of SpaceLevelScreen passing the save file to resume
-                SpaceLevelScreen spaceLevelScreen = new SpaceLevelScreen(mGame, saveFile);
-                mGame.getScreenManager().addScreen(spaceLevelScreen);
+                // Pops this screen, resuming the suspended SpaceLevelScreen below it
+                mGame.getScreenManager().popScreen();
 
                 // Checks if the touch event is in the exit button bound
             } else if (mExitButtonBound.contains((int) touchEvent.x,
@@ -152,12 +128,10 @@ public class PauseScreen extends GameScreen {
                 // Plays click sound
                 getGame().getAssetManager().getSound("ButtonClick").play(settingsHandler.getSound(getGame().getContext()));
 
-                // Removes this screen
-                mGame.getScreenManager().removeScreen(this.getName());
-
-                // Creates and launches MenuScreen
-                MenuScreen menuScreen = new MenuScreen(mGame);
-                mGame.getScreenManager().addScreen(menuScreen);
+                // Clears the level and this screen, returning to the warm MenuScreen.
+                // The level has been exited so its snapshot is not continued.
+                mGame.getScreenManager().setScreen(MenuScreen.obtain(mGame));
+                SpaceLevelScreen.deleteSnapshot(mGame);
             }
         }
     }
@@ -170,38 +144,19 @@ public class PauseScreen extends GameScreen {
      */
     @Override
     public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D) {
-        // Create the screen to black and define a clip based on the viewport
-        graphics2D.clear(Color.BLACK);
-        graphics2D.clipRect(mScreenViewport.toRect());
-
-        // Draw the background first of all
-        mSpaceBackground.draw(elapsedTime, graphics2D, mLayerViewport,
-                mScreenViewport);
-
-        // Draw each of the asteroids
-        for (Asteroid asteroid : mAsteroids)
-            asteroid.draw(elapsedTime, graphics2D, mLayerViewport,
-                    mScreenViewport);
-
-        // Draw each of the AI controlled spaceships
-        for (AISpaceship aiSpaceship : mAISpaceships)
-            aiSpaceship.draw(elapsedTime, graphics2D, mLayerViewport,
-                    mScreenViewport);
-
-        // Draw the player
-        mPlayerSpaceship.draw(elapsedTime, graphics2D, mLayerViewport,
-                mScreenViewport);
+        // Draw the freeze frame of the level, stretched back to the screen size
+        graphics2D.drawBitmap(mFrozenFrame, null, mFrozenFrameBound, mFrozenFramePaint);
 
         // Draws the title
-        Bitmap titleImage = mGame.getAssetManager().getBitmap("TitleImage");
+        IImage titleImage = mGame.getAssetManager().getBitmap("TitleImage");
         graphics2D.drawBitmap(titleImage, null, mTitleBound, null);
 
         // Draw the play button
-        Bitmap playIcon = mGame.getAssetManager().getBitmap("PlayIcon");
+        IImage playIcon = mGame.getAssetManager().getBitmap("PlayIcon");
         graphics2D.drawBitmap(playIcon, null, mPlayButtonBound, null);
 
         // Draw the exit icon
-        Bitmap exitIcon = mGame.getAssetManager().getBitmap("ExitIcon");
+        IImage exitIcon = mGame.getAssetManager().getBitmap("ExitIcon");
         graphics2D.drawBitmap(exitIcon, null, mExitButtonBound, null);
     }
 
@@ -215,31 +170,31 @@ public class PauseScreen extends GameScreen {
      * @param game Passes the screen to base on
      */
     private void setUpUI(Game game) {
-        // Create the space background
-        mSpaceBackground = new GameObject(LEVEL_WIDTH / 2.0f,
-                LEVEL_HEIGHT / 2.0f, LEVEL_WIDTH, LEVEL_HEIGHT, getGame()
-                .getAssetManager().getBitmap("SpaceBackground"), this);
+        // Defines where the freeze frame is drawn, filtering it as it is upscaled
+        mFrozenFrameBound = new IntRect(0, 0, game.getScreenWidth(), game.getScreenHeight());
+        mFrozenFramePaint = new DrawPaint();
+        mFrozenFramePaint.setFilterBitmap(true);
 
         // Defines the Title Image Rect
         int titleWidth = (int) (game.getScreenWidth() * 0.583); // On 1920 Screen Width = 1120
         int titleHeight = (int) (game.getScreenHeight() * 0.373); // On 1080 Screen Height = 400
         int spacingX = (game.getScreenWidth() / 2) - (titleWidth / 2);
         int spacingY = paddingY + paddingY;
-        mTitleBound = new Rect(spacingX, spacingY, spacingX + titleWidth, spacingY + titleHeight);
+        mTitleBound = new IntRect(spacingX, spacingY, spacingX + titleWidth, spacingY + titleHeight);
 
         // Defines the Play Button Image Rect
         int btnPlayWidth = (int) (game.getScreenWidth() * 0.208);
         int btnPlayHeight = (int) (game.getScreenHeight() * 0.373);
         spacingX = (game.getScreenWidth() / 2) - (btnPlayWidth / 2);
         spacingY = (game.getScreenHeight() / 2) + paddingY;
-        mPlayButtonBound = new Rect(spacingX, spacingY, spacingX + btnPlayWidth, spacingY + btnPlayHeight);
+        mPlayButtonBound = new IntRect(spacingX, spacingY, spacingX + btnPlayWidth, spacingY + btnPlayHeight);
 
         // Defines the Exit Icon Rect
         int btnExitWidth = (int) (game.getScreenWidth() * 0.078);
         int btnExitHeight = (int) (game.getScreenHeight() * 0.138);
         spacingY = 50;
         spacingX = game.getScreenWidth() - (btnExitWidth + 50);
-        mExitButtonBound = new Rect(spacingX, spacingY, spacingX + btnExitWidth, spacingY + btnExitHeight);
+        mExitButtonBound = new IntRect(spacingX, spacingY, spacingX + btnExitWidth, spacingY + btnExitHeight);
     }
 
     /**
@@ -250,13 +205,6 @@ public class PauseScreen extends GameScreen {
         AssetStore assetManager = mGame.getAssetManager();
 
         // Loads in bitmaps
-        assetManager.loadAndAddBitmap("SpaceBackground", "img/backgrounds/bgSpace.png");
-        assetManager.loadAndAddBitmap("Asteroid1", "img/sprites/sprAsteroid1.png");
-        assetManager.loadAndAddBitmap("Asteroid2", "img/sprites/sprAsteroid2.png");
-        assetManager.loadAndAddBitmap("Spaceship1", "img/sprites/sprSpaceship1.png");
-        assetManager.loadAndAddBitmap("Spaceship2", "img/sprites/sprSpaceship2.png");
-        assetManager.loadAndAddBitmap("Spaceship3", "img/sprites/sprSpaceship3.png");
-        assetManager.loadAndAddBitmap("Turret", "img/sprites/sprTurret.png");
         assetManager.loadAndAddBitmap("PlayIcon", "img/buttons/btnPlay.png");
         assetManager.loadAndAddBitmap("TitleImage", "img/titles/ttlLogo.png");
         assetManager.loadAndAddBitmap("ExitIcon", "img/buttons/btnExit.png");
@@ -264,4 +212,15 @@ public class PauseScreen extends GameScreen {
         // Loads in sounds
         assetManager.loadAndAddSound("ButtonClick", "sfx/sfx_buttonclick.mp3");
     }
+
+    /**
+     * Releases the freeze frame once the screen is finished with.
+     */
+    @Override
+    public void dispose() {
+        if (mFrozenFrame != null) {
+            mFrozenFrame.dispose();
+            mFrozenFrame = null;
+        }
+    }
 }
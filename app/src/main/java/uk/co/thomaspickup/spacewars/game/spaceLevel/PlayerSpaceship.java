@@ -4,19 +4,23 @@ package uk.co.thomaspickup.spacewars.game.spaceLevel;
 // Imports
 // /////////////////////////////////////////////////////////////////////////
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import uk.co.thomaspickup.spacewars.gage.ai.SteeringBehaviours;
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
-import uk.co.thomaspickup.spacewars.gage.engine.input.Input;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.engine.timer.ITimerCallback;
+import uk.co.thomaspickup.spacewars.gage.engine.timer.Timer;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector.CollisionShape;
 import uk.co.thomaspickup.spacewars.gage.util.Vector2;
-import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
 import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
 import uk.co.thomaspickup.spacewars.gage.world.ScreenViewport;
 import uk.co.thomaspickup.spacewars.gage.world.Sprite;
-import uk.co.thomaspickup.spacewars.game.SettingsHandler;
 
 /**
  * Player controlled spaceship.
@@ -29,12 +33,6 @@ public class PlayerSpaceship extends Sprite {
 	// Variables
 	// /////////////////////////////////////////////////////////////////////////
 
-	//Centre of the screen (used to determine the offset of touch events)
-	private Vector2 screenCentre = new Vector2();
-
-	// Acceleration vector based on the player's touch input
-	private Vector2 playerTouchAcceleration = new Vector2();
-
 	// Contains the lives lost and left
 	private int livesLost;
 	private int livesLeft;
@@ -42,13 +40,14 @@ public class PlayerSpaceship extends Sprite {
 	// List of lasers
 	public List<Laser> mLasers;
 
-	// Used with the delay of firing
-	private int reloadTime;
-	private int timeToReload;
+	// Used with the delay of firing, in milliseconds, the reload timer runs on
+	// the level's simulation time
+	private static final int RELOAD_TIME = 1000;
+	private Timer reloadTimer;
 	private boolean canFire;
 
-	// Creates new Settings Handler to access the settings
-	private SettingsHandler settingsHandler = new SettingsHandler();
+	// Level to which the spaceship belongs
+	private SpaceLevel mLevel;
 
 	// /////////////////////////////////////////////////////////////////////////
 	// Constructor
@@ -61,19 +60,16 @@ public class PlayerSpaceship extends Sprite {
 	 *            x location of the player spaceship
 	 * @param startY
 	 *            y location of the player spaceship
-	 * @param gameScreen
-	 *            Gamescreen to which spaceship belongs
+	 * @param level
+	 *            Level to which spaceship belongs
 	 */
-	public PlayerSpaceship(float startX, float startY, GameScreen gameScreen) {
-		super(startX, startY, 50.0f, 50.0f, gameScreen.getGame()
-				.getAssetManager().getBitmap("Spaceship2"), gameScreen);
+	public PlayerSpaceship(float startX, float startY, SpaceLevel level) {
+		super(startX, startY, 50.0f, 50.0f, level.getAssetStore()
+				.getBitmap("Spaceship2"), level.getGameScreen());
+		mLevel = level;
 
 		// Gets the weapon fire sfx and puts in AssetManager
-		gameScreen.getGame().getAssetManager().loadAndAddSound("WeaponFire","sfx/sfx_weaponfire.mp3");
-
-		// Store the centre of the screen
-		screenCentre.x = gameScreen.getGame().getScreenWidth() / 2;
-		screenCentre.y = gameScreen.getGame().getScreenHeight() / 2;
+		level.getAssetStore().loadAndAddSound("WeaponFire","sfx/sfx_weaponfire.mp3");
 
 		// Define the maximum velocities and accelerations of the spaceship
 		maxAcceleration = 300.0f;
@@ -81,19 +77,40 @@ public class PlayerSpaceship extends Sprite {
 		maxAngularVelocity = 1440.0f;
 		maxAngularAcceleration = 1440.0f;
 
+		// Collides as a box turned with the spaceship
+		setCollisionShape(CollisionShape.OrientedBox);
+		CollisionLayers.assign(this, CollisionLayers.PLAYER);
+
 		// Creates a new list of Lasers with the initial capacity of 100
 		mLasers = new ArrayList<Laser>(100);
 
 		// Allows the player to start firing
-		reloadTime = gameScreen.getGame().getTargetFramesPerSecond();
-		timeToReload = 0;
 		canFire = true;
+		reloadTimer = new Timer(new ITimerCallback() {
+			@Override
+			public void onTimer(Timer timer) {
+				canFire = true;
+			}
+		});
 	}
 
 	// /////////////////////////////////////////////////////////////////////////
 	// Update & Draw Methods
 	// /////////////////////////////////////////////////////////////////////////
 
+	/**
+	 * Steers the player spaceship using the input of the current tick.
+	 *
+	 * @param levelInput Input of the current tick
+	 */
+	public void steer(LevelInput levelInput) {
+		if (levelInput.steering) {
+			// Convert the steering direction into an input acceleration
+			acceleration.x = levelInput.steerX * maxAcceleration;
+			acceleration.y = levelInput.steerY * maxAcceleration;
+		}
+	}
+
 	/**
 	 * Updates the player spaceship.
 	 *
@@ -101,21 +118,6 @@ public class PlayerSpaceship extends Sprite {
 	 */
 	@Override
 	public void update(ElapsedTime elapsedTime) {
-		// Consider any touch events occurring since the update
-		Input input = mGameScreen.getGame().getInput();
-
-		if (input.existsTouch(0)) {
-			// Get the primary touch event
-			playerTouchAcceleration.x = (input.getTouchX(0) - screenCentre.x)
-					/ screenCentre.x;
-			playerTouchAcceleration.y = (screenCentre.y - input.getTouchY(0))
-					/ screenCentre.y; // Invert the for y axis
-
-			// Convert into an input acceleration
-			acceleration.x = playerTouchAcceleration.x * maxAcceleration;
-			acceleration.y = playerTouchAcceleration.y * maxAcceleration;
-		}
-
 		// Ensure that the ships points in the direction of movement
 		angularAcceleration = SteeringBehaviours.alignWithMovement(this);
 
@@ -133,17 +135,6 @@ public class PlayerSpaceship extends Sprite {
 			for (Laser laser : mLasers)
 				laser.update(elapsedTime);
 		}
-
-		// Checks if the player can't fire
-		if (!canFire) {
-			// Increments timetoreload
-			timeToReload = timeToReload + 1;
-
-			// If the reloadTime is equal to timeToReload then the player can fire
-			if (reloadTime == timeToReload) {
-				canFire = true;
-			}
-		}
 	}
 
 	/**
@@ -207,24 +198,96 @@ public class PlayerSpaceship extends Sprite {
 
 	/**
 	 * Fires a laser from the player spaceship.
-	 *
-	 * @param gameScreen Game Screen to draw the lasers on.
 	 */
-	public void fire(GameScreen gameScreen) {
+	public void fire() {
 		// Checks if the player can fire a laser
 		if (canFire) {
-			// Gets the sound effect from the asset store and plays it
-			gameScreen.getGame().getAssetManager().getSound("WeaponFire").play(settingsHandler.getSound(gameScreen.getGame().getContext()));
+			// Plays the sound effect
+			mLevel.playSound("WeaponFire");
 
 			// Sets canFire to false
 			canFire = false;
 
 			// Gets the picture of the laser and creates a Laser with it
-			gameScreen.getGame().getAssetManager().loadAndAddBitmap("PlayerBeam", "img/sprites/sprPlayerBeam.png");
-			mLasers.add(new Laser((int) position.x, (int) position.y, gameScreen, gameScreen.getGame().getAssetManager().getBitmap("PlayerBeam"), this.acceleration, this.velocity, orientation));
+			mLasers.add(new Laser((int) position.x, (int) position.y, mGameScreen, getBeamBitmap(), this.acceleration, this.velocity, orientation));
 
 			// Starts the reload process.
-			timeToReload = 0;
+			mLevel.getTimerWheel().schedule(reloadTimer, RELOAD_TIME);
+		}
+	}
+
+	/**
+	 * Gets the bitmap used by the players lasers, loading it if needed.
+	 *
+	 * @return Bitmap of the players laser
+	 */
+	private IImage getBeamBitmap() {
+		mLevel.getAssetStore().loadAndAddBitmap("PlayerBeam", "img/sprites/sprPlayerBeam.png");
+		return mLevel.getAssetStore().getBitmap("PlayerBeam");
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Snapshot Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Gets the number of milliseconds the ship has been reloading for, which
+	 * is the form the reload progress is saved in.
+	 *
+	 * @return Milliseconds reloaded, or 0 if the ship is not reloading
+	 */
+	private int getTimeReloaded() {
+		return reloadTimer.isScheduled()
+				? RELOAD_TIME - (int) reloadTimer.getRemainingTime() : 0;
+	}
+
+	/**
+	 * Writes the state of the player spaceship, including the lives, the
+	 * reload progress and all of the lasers in flight.
+	 *
+	 * @param out Output to write the state to
+	 * @throws IOException if the state could not be written
+	 */
+	@Override
+	public void writeState(DataOutput out) throws IOException {
+		super.writeState(out);
+
+		out.writeInt(livesLeft);
+		out.writeInt(livesLost);
+		out.writeInt(getTimeReloaded());
+		out.writeBoolean(canFire);
+
+		out.writeInt(mLasers.size());
+		for (Laser laser : mLasers)
+			laser.writeState(out);
+	}
+
+	/**
+	 * Reads the state of the player spaceship, replacing any lasers in flight.
+	 *
+	 * @param in Input to read the state from
+	 * @throws IOException if the state could not be read
+	 */
+	@Override
+	public void readState(DataInput in) throws IOException {
+		super.readState(in);
+
+		livesLeft = in.readInt();
+		livesLost = in.readInt();
+		int timeReloaded = in.readInt();
+		canFire = in.readBoolean();
+		if (canFire)
+			reloadTimer.cancel();
+		else
+			mLevel.getTimerWheel().schedule(reloadTimer, RELOAD_TIME - timeReloaded);
+
+		mLasers.clear();
+		int laserCount = SpaceSave.readCount(in);
+		IImage beamBitmap = getBeamBitmap();
+		for (int idx = 0; idx < laserCount; idx++) {
+			Laser laser = new Laser(0, 0, mGameScreen, beamBitmap, Vector2.Zero, Vector2.Zero, 0.0f);
+			laser.readState(in);
+			mLasers.add(laser);
 		}
 	}
 }
@@ -0,0 +1,181 @@
+package uk.co.thomaspickup.spacewars.game.spaceLevel;
+
+// /////////////////////////////////////////////////////////////////////////
+// Imports
+// /////////////////////////////////////////////////////////////////////////
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A replay of a level, made up of the seed the level was generated from and
+ * the input of every tick played.
+ *
+ * As the level is deterministic for a given seed and input, the replay can be
+ * played back to re-simulate the level exactly. A replay is laid out as:
+ *
+ *   header      magic number, format version
+ *   level       seed, difficulty
+ *   ticks       the input of each tick until the end of the log
+ *
+ * Replays are played back by the desktop launcher (--replay), headless at full
+ * speed or in a window in real time.
+ *
+ * Created by Thomas Pickup
+ */
+public class ReplayLog {
+    // /////////////////////////////////////////////////////////////////////////
+    // Variables
+    // /////////////////////////////////////////////////////////////////////////
+
+    // Identifies a replay and the version of its layout
+    public static final int REPLAY_MAGIC = 0x53505250; // "SPRP"
+    public static final int REPLAY_VERSION = 2;
+
+    // The level the replay was recorded on
+    private long mSeed;
+    private int mDifficulty;
+
+    // Streams used whilst recording or playing back, only one is ever open
+    private DataOutputStream mOut;
+    private DataInputStream mIn;
+
+    // Number of ticks recorded or played back
+    private int mTickCount;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Private constructor, use startRecording or startPlayback.
+     *
+     * @param seed Seed the level was generated from
+     * @param difficulty Difficulty the level was played on
+     */
+    private ReplayLog(long seed, int difficulty) {
+        mSeed = seed;
+        mDifficulty = difficulty;
+    }
+
+    /**
+     * Starts recording a replay of a level.
+     *
+     * @param out Stream to record the replay to
+     * @param seed Seed the level was generated from
+     * @param difficulty Difficulty the level is played on
+     * @return Replay to record each tick to
+     * @throws IOException if the replay could not be written
+     */
+    public static ReplayLog startRecording(OutputStream out, long seed, int difficulty) throws IOException {
+        ReplayLog replayLog = new ReplayLog(seed, difficulty);
+        replayLog.mOut = new DataOutputStream(new BufferedOutputStream(out));
+
+        replayLog.mOut.writeInt(REPLAY_MAGIC);
+        replayLog.mOut.writeInt(REPLAY_VERSION);
+        replayLog.mOut.writeLong(seed);
+        replayLog.mOut.writeInt(difficulty);
+        return replayLog;
+    }
+
+    /**
+     * Starts playing back a recorded replay.
+     *
+     * @param in Stream to play the replay back from
+     * @return Replay to read each tick from
+     * @throws IOException if the replay could not be read or is not supported
+     */
+    public static ReplayLog startPlayback(InputStream in) throws IOException {
+        DataInputStream dataIn = new DataInputStream(new BufferedInputStream(in));
+        if (dataIn.readInt() != REPLAY_MAGIC)
+            throw new IOException("Not a replay");
+        int version = dataIn.readInt();
+        if (version != REPLAY_VERSION)
+            throw new IOException("Unsupported replay version [" + version + "]");
+
+        ReplayLog replayLog = new ReplayLog(dataIn.readLong(), dataIn.readInt());
+        replayLog.mIn = dataIn;
+        return replayLog;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Returns the seed the level was generated from.
+     *
+     * @return Seed
+     */
+    public long getSeed() {
+        return mSeed;
+    }
+
+    /**
+     * Returns the difficulty the level was played on.
+     *
+     * @return Difficulty setting
+     */
+    public int getDifficulty() {
+        return mDifficulty;
+    }
+
+    /**
+     * Returns the number of ticks recorded or played back so far.
+     *
+     * @return Tick count
+     */
+    public int getTickCount() {
+        return mTickCount;
+    }
+
+    /**
+     * Records the input of the next tick.
+     *
+     * @param levelInput Input of the tick
+     * @throws IOException if the input could not be written
+     */
+    public void record(LevelInput levelInput) throws IOException {
+        levelInput.write(mOut);
+        mTickCount++;
+    }
+
+    /**
+     * Reads the input of the next tick.
+     *
+     * @param levelInput Input to read the tick into
+     * @return True if a tick was read, false if the end of the replay is reached
+     * @throws IOException if the input could not be read
+     */
+    public boolean playback(LevelInput levelInput) throws IOException {
+        try {
+            levelInput.read(mIn);
+        } catch (EOFException e) {
+            // The final tick may have been cut short if the app was closed
+            return false;
+        }
+        mTickCount++;
+        return true;
+    }
+
+    /**
+     * Closes the replay, flushing any recorded ticks.
+     */
+    public void close() {
+        try {
+            if (mOut != null)
+                mOut.close();
+            if (mIn != null)
+                mIn.close();
+        } catch (IOException e) {
+        }
+        mOut = null;
+        mIn = null;
+    }
+}
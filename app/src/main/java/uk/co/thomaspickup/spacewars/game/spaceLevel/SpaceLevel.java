@@ -0,0 +1,1137 @@
+package uk.co.thomaspickup.spacewars.game.spaceLevel;
+
+// /////////////////////////////////////////////////////////////////////////
+// Imports
+// /////////////////////////////////////////////////////////////////////////
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.co.thomaspickup.spacewars.gage.ai.CrowdAvoidance;
+import uk.co.thomaspickup.spacewars.gage.ai.FlowField;
+import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
+import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
+import uk.co.thomaspickup.spacewars.gage.engine.audio.Sound;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.IDebugCounters;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.Tracer;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.timer.TimerWheel;
+import uk.co.thomaspickup.spacewars.gage.util.BoundingBox;
+import uk.co.thomaspickup.spacewars.gage.util.BoundingVolumeHierarchy;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector;
+import uk.co.thomaspickup.spacewars.gage.util.Contact;
+import uk.co.thomaspickup.spacewars.gage.util.ContactSolver;
+import uk.co.thomaspickup.spacewars.gage.util.GridBroadphase;
+import uk.co.thomaspickup.spacewars.gage.util.IBroadphase;
+import uk.co.thomaspickup.spacewars.gage.util.IIndexedTask;
+import uk.co.thomaspickup.spacewars.gage.util.OrientedBoundingBox;
+import uk.co.thomaspickup.spacewars.gage.util.ParallelLoop;
+import uk.co.thomaspickup.spacewars.gage.util.SaveableRandom;
+import uk.co.thomaspickup.spacewars.gage.util.Vector2;
+import uk.co.thomaspickup.spacewars.gage.world.EntityRegistry;
+import uk.co.thomaspickup.spacewars.gage.world.GameObject;
+import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
+import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
+import uk.co.thomaspickup.spacewars.gage.world.ScreenViewport;
+import uk.co.thomaspickup.spacewars.gage.world.Sprite;
+import uk.co.thomaspickup.spacewars.game.HelperTools;
+
+/**
+ * The simulation of a space level - the player, asteroids and AI spaceships
+ * along with the rules that play them out a tick at a time.
+ *
+ * The level only depends on the asset store it takes its bitmaps and sounds
+ * from, so it can be run without the game it is normally shown in (for
+ * instance to replay or benchmark a level). The screen it is shown in, if any,
+ * is only handed on to the game objects that are created.
+ *
+ * Created by Thomas Pickup
+ */
+public class SpaceLevel implements IDebugCounters {
+	// /////////////////////////////////////////////////////////////////////////
+	// Variables
+	// /////////////////////////////////////////////////////////////////////////
+
+	// Level Width and Height.
+	public static final float LEVEL_WIDTH = 1000.0f;
+	public static final float LEVEL_HEIGHT = 1000.0f;
+
+	// How many asteroids, seekers and turrets a new level is created with.
+	public static final int NUM_ASTEROIDS = 20;
+	public static final int NUM_SEEKERS = 5;
+	public static final int NUM_TURRETS = 5;
+
+	// Size of the cells of the flow field leading the seekers to the player,
+	// how far the seekers are kept from the asteroids (half a seeker and half
+	// a cell) and the number of ticks between each time the field is computed.
+	private static final float FLOW_FIELD_CELL_SIZE = 25.0f;
+	private static final float FLOW_FIELD_MARGIN = 37.5f;
+	private static final int FLOW_FIELD_INTERVAL = 10;
+
+	// Largest number of neighbours each seeker avoids, the distance within
+	// which they are avoided and how far ahead (in seconds) collisions with
+	// them are avoided.
+	private static final int AVOIDANCE_MAX_NEIGHBOURS = 10;
+	private static final float AVOIDANCE_NEIGHBOUR_DISTANCE = 150.0f;
+	private static final float AVOIDANCE_TIME_HORIZON = 2.0f;
+
+	// Size of the cells of the default broadphase grid, about the size of
+	// the largest ships and asteroids.
+	public static final float BROADPHASE_CELL_SIZE = 100.0f;
+
+	// How far beyond the edges of the level a laser is removed from play,
+	// about the size of the largest ships, so a ship pushed part way out of
+	// the level can still be hit.
+	private static final float LASER_MARGIN = 100.0f;
+
+	// Outcomes of a tick of the level
+	public static final int TICK_CONTINUE = 0;
+	public static final int TICK_WON = 1;
+	public static final int TICK_LOST = 2;
+
+	// Names of the counters shown on the performance overlay
+	private static final String[] DEBUG_COUNTER_NAMES = { "Asteroids",
+			"AI ships", "Player lasers", "Enemy lasers", "AI near", "AI far",
+			"AI dormant", "Contacts", "Solver passes" };
+
+	// Screen the level is shown in, null if the level is not being shown.
+	private GameScreen mGameScreen;
+
+	// Asset store holding the bitmaps and sounds used by the level.
+	private AssetStore mAssetStore;
+
+	// Number of ticks run each second, used to time the reloading of the ships.
+	private int mTicksPerSecond;
+
+	// Volume the sound effects are played at, taken from the settings when
+	// the level is created rather than on every sound.
+	private int mSoundSetting;
+
+	// The difficulty the level is played on.
+	private int mDifficulty;
+
+	// Layer viewport, which follows the player.
+	private LayerViewport mLayerViewport;
+
+	// The player ship, asteroids and AI spaceships. The AI spaceships are held
+	// by a registry, so destroyed ships are only removed at the end of a tick.
+	private PlayerSpaceship mPlayerSpaceship;
+	private List<Asteroid> mAsteroids;
+	private EntityRegistry<AISpaceship> mAISpaceshipRegistry;
+	private List<AISpaceship> mAISpaceships;
+
+	// Crowd avoidance of the seekers, refilled each tick with the AI
+	// spaceships (in list order), the asteroids and the player. Only the
+	// seekers avoid, the rest are avoided.
+	private CrowdAvoidance mCrowdAvoidance = new CrowdAvoidance(
+			AVOIDANCE_MAX_NEIGHBOURS, AVOIDANCE_NEIGHBOUR_DISTANCE,
+			AVOIDANCE_TIME_HORIZON);
+
+	// Flow field leading the seekers around the asteroids to the player,
+	// shared by every seeker, and whether it needs computing before the
+	// next tick's steering regardless of the interval.
+	private FlowField mFlowField = new FlowField(0.0f, 0.0f, LEVEL_WIDTH,
+			LEVEL_HEIGHT, FLOW_FIELD_CELL_SIZE);
+	private boolean mFlowFieldStale = true;
+
+	// Broadphase finding the player and AI spaceships in collision, and the
+	// AI spaceships along the paths of the player lasers, the objects it is
+	// updated from each tick (the AI spaceships, then the player) and the
+	// pairs it finds.
+	private IBroadphase<GameObject> mBroadphase = new GridBroadphase<GameObject>(
+			BROADPHASE_CELL_SIZE);
+	private List<GameObject> mCollidables = new ArrayList<GameObject>();
+	private List<GameObject> mCollidingPairs = new ArrayList<GameObject>();
+
+	// Bounding volume hierarchy of the asteroids, which never move, built
+	// when the asteroids are generated or restored, and the asteroids found
+	// by querying it.
+	private BoundingVolumeHierarchy<Asteroid> mAsteroidTree = new BoundingVolumeHierarchy<Asteroid>();
+	private List<Asteroid> mNearbyAsteroids = new ArrayList<Asteroid>();
+
+	// Contacts between the player, AI spaceships and asteroids gathered each
+	// tick and pushed apart together, and the contact last found.
+	private ContactSolver mContactSolver = new ContactSolver();
+	private Contact mContact = new Contact();
+
+	// Oriented bound of a laser at the start of its last step, the box
+	// enclosing it and the box covering the whole step, and the objects found
+	// by querying the broadphase with the latter.
+	private OrientedBoundingBox mLaserStartBound = new OrientedBoundingBox();
+	private BoundingBox mLaserStartBox = new BoundingBox();
+	private BoundingBox mLaserSweptBound = new BoundingBox();
+	private List<GameObject> mLaserCandidates = new ArrayList<GameObject>();
+
+	// Space background, created when the level is first drawn.
+	private GameObject mSpaceBackground;
+
+	// Random number generator used by the level, its state is held in snapshots.
+	// Everything random within the level is drawn from it, so the level can be
+	// replayed from the seed it was created with.
+	private SaveableRandom mRandom = new SaveableRandom(0);
+
+	// Timing of the current tick
+	private ElapsedTime mTickTime = new ElapsedTime();
+
+	// Timers of the level, such as the reloading of the ships, keyed on the
+	// simulation time of the level in milliseconds. The step time of each tick
+	// is part of the level input, so timers fall due on the same tick however
+	// quickly the frames are run, and again when the level is replayed.
+	private TimerWheel mTimerWheel = new TimerWheel();
+
+	// Number of ticks run, which paces the work done every so many ticks.
+	private long mTickCount;
+
+	// Loop the steering of the AI spaceships is worked out on, and the task
+	// working out the steering of a single ship at its level of detail.
+	private ParallelLoop mParallelLoop = new ParallelLoop(1);
+	private IIndexedTask mSteerTask = new IIndexedTask() {
+		@Override
+		public void run(int index) {
+			AISpaceship aiSpaceship = mAISpaceships.get(index);
+			if (aiSpaceship.chooseDetailLevel(mTickCount))
+				aiSpaceship.steer();
+		}
+	};
+
+	// Number of AI spaceships updated at each level of detail last tick
+	private int[] mDetailLevelCounts = new int[AISpaceship.DetailLevel.values().length];
+
+	// Helper tools
+	private HelperTools helperTools = new HelperTools();
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructor
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Creates an empty level. The level is filled by either generating it or
+	 * restoring it from a save file.
+	 *
+	 * @param gameScreen Screen the level is shown in, or null.
+	 * @param assetStore Asset store holding the bitmaps and sounds of the level.
+	 * @param ticksPerSecond Number of ticks run each second.
+	 * @param soundSetting Volume the sound effects are played at.
+	 * @param layerViewport Layer viewport that will follow the player.
+	 * @param difficulty Difficulty the level is played on.
+	 */
+	public SpaceLevel(GameScreen gameScreen, AssetStore assetStore, int ticksPerSecond,
+					  int soundSetting, LayerViewport layerViewport, int difficulty) {
+		mGameScreen = gameScreen;
+		mAssetStore = assetStore;
+		mTicksPerSecond = ticksPerSecond;
+		mSoundSetting = soundSetting;
+		mLayerViewport = layerViewport;
+		mDifficulty = difficulty;
+
+		mAsteroids = new ArrayList<Asteroid>(NUM_ASTEROIDS);
+		mAISpaceshipRegistry = new EntityRegistry<AISpaceship>(NUM_SEEKERS + NUM_TURRETS);
+		mAISpaceships = mAISpaceshipRegistry.getEntities();
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Support methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Return the screen the level is shown in.
+	 *
+	 * @return Game screen, or null if the level is not being shown.
+	 */
+	public GameScreen getGameScreen() {
+		return mGameScreen;
+	}
+
+	/**
+	 * Return the asset store holding the bitmaps and sounds of the level.
+	 *
+	 * @return Asset store.
+	 */
+	public AssetStore getAssetStore() {
+		return mAssetStore;
+	}
+
+	/**
+	 * Return the number of ticks run each second.
+	 *
+	 * @return Ticks per second.
+	 */
+	public int getTicksPerSecond() {
+		return mTicksPerSecond;
+	}
+
+	/**
+	 * Sets the loop the steering of the AI spaceships is worked out on. The
+	 * level plays out the same way whatever the number of threads.
+	 *
+	 * @param parallelLoop Loop to work out the steering on.
+	 */
+	public void setParallelLoop(ParallelLoop parallelLoop) {
+		mParallelLoop = parallelLoop;
+	}
+
+	/**
+	 * Sets the broadphase finding the player and AI spaceships in
+	 * collision. A grid suits ships spread across the level, whilst sweep
+	 * and prune suits clustered ships. The broadphase only changes the order
+	 * in which collisions are found.
+	 *
+	 * @param broadphase Broadphase to use.
+	 */
+	public void setBroadphase(IBroadphase<GameObject> broadphase) {
+		mBroadphase = broadphase;
+	}
+
+	/**
+	 * Returns the broadphase finding the player and AI spaceships in
+	 * collision.
+	 *
+	 * @return Broadphase.
+	 */
+	public IBroadphase<GameObject> getBroadphase() {
+		return mBroadphase;
+	}
+
+	/**
+	 * Returns the crowd avoidance of the seekers, filled with the level as it
+	 * stood when the steering of the AI spaceships started this tick.
+	 *
+	 * @return Crowd avoidance.
+	 */
+	public CrowdAvoidance getCrowdAvoidance() {
+		return mCrowdAvoidance;
+	}
+
+	/**
+	 * Returns the flow field leading to the player around the asteroids, as
+	 * last computed.
+	 *
+	 * @return Flow field.
+	 */
+	public FlowField getFlowField() {
+		return mFlowField;
+	}
+
+	/**
+	 * Return the timer wheel of the level, which is advanced to the simulation
+	 * time of the level, in milliseconds, at the start of each tick.
+	 *
+	 * @return Timer wheel of the level.
+	 */
+	public TimerWheel getTimerWheel() {
+		return mTimerWheel;
+	}
+
+	/**
+	 * Return the difficulty the level is played on.
+	 *
+	 * @return Difficulty setting.
+	 */
+	public int getDifficulty() {
+		return mDifficulty;
+	}
+
+	/**
+	 * Return the layer viewport, which follows the player.
+	 *
+	 * @return Layer viewport.
+	 */
+	public LayerViewport getLayerViewport() {
+		return mLayerViewport;
+	}
+
+	/**
+	 * Return the player spaceship.
+	 *
+	 * @return Player spaceship.
+	 */
+	public PlayerSpaceship getPlayerSpaceship() {
+		return mPlayerSpaceship;
+	}
+
+	/**
+	 * Return a list of the AI spaceships in the level. The list must only be
+	 * changed through addAISpaceship, destroyAISpaceship and
+	 * clearAISpaceships.
+	 *
+	 * @return List of AI controlled spaceships.
+	 */
+	public List<AISpaceship> getAISpaceships() {
+		return mAISpaceships;
+	}
+
+	/**
+	 * Return the AI spaceship with the specified handle.
+	 *
+	 * @param handle Handle of the AI spaceship.
+	 * @return AI spaceship, or null if it has been destroyed.
+	 */
+	public AISpaceship getAISpaceship(long handle) {
+		return mAISpaceshipRegistry.get(handle);
+	}
+
+	/**
+	 * Adds an AI spaceship to the level, giving it a handle.
+	 *
+	 * @param aiSpaceship AI spaceship to add.
+	 */
+	public void addAISpaceship(AISpaceship aiSpaceship) {
+		aiSpaceship.setHandle(mAISpaceshipRegistry.add(aiSpaceship));
+	}
+
+	/**
+	 * Destroys an AI spaceship. The ship stays in the list of AI spaceships
+	 * until the end of the tick, so it is safe to call whilst iterating over
+	 * the list, and more than once.
+	 *
+	 * @param aiSpaceship AI spaceship to destroy.
+	 */
+	public void destroyAISpaceship(AISpaceship aiSpaceship) {
+		mAISpaceshipRegistry.destroy(aiSpaceship.getHandle());
+	}
+
+	/**
+	 * Removes every AI spaceship from the level.
+	 */
+	public void clearAISpaceships() {
+		mAISpaceshipRegistry.clear();
+	}
+
+	/**
+	 * Return a list of asteroids in the the level. The asteroids never move,
+	 * so if the list is changed rebuildAsteroidTree must be called.
+	 *
+	 * @return List of asteroids in the level.
+	 */
+	public List<Asteroid> getAsteroids() {
+		return mAsteroids;
+	}
+
+	/**
+	 * Rebuilds the bounding volume hierarchy the asteroids are found through
+	 * from the list of asteroids.
+	 */
+	public void rebuildAsteroidTree() {
+		mAsteroidTree.build(mAsteroids);
+	}
+
+	/**
+	 * Return the random number generator of the level. Anything random within
+	 * the level must be drawn from it to keep the level replayable.
+	 *
+	 * @return Random number generator of the level.
+	 */
+	public SaveableRandom getRandom() {
+		return mRandom;
+	}
+
+	/**
+	 * Return the number of enemies that have been defeated.
+	 *
+	 * @return Enemies defeated.
+	 */
+	public int getEnemiesDefeated() {
+		return (NUM_SEEKERS + NUM_TURRETS) - mAISpaceships.size();
+	}
+
+	/**
+	 * Plays the named sound effect at the volume set for the level.
+	 *
+	 * @param soundName Name of the sound within the asset store.
+	 */
+	public void playSound(String soundName) {
+		Sound sound = mAssetStore.getSound(soundName);
+		if (sound != null)
+			sound.play(mSoundSetting);
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Start up methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Generates all the game objects of a new level from a seed. The same
+	 * seed will always generate the same level.
+	 *
+	 * @param seed Seed used to generate the level.
+	 */
+	public void generate(long seed) {
+		mRandom.setSeed(seed);
+		mFlowFieldStale = true;
+
+		// Create the player spaceship
+		mPlayerSpaceship = new PlayerSpaceship(100, 100, this);
+
+		// Set player health to 100
+		mPlayerSpaceship.setHealth(100);
+
+		// Sets the lives of the player based on the difficulty
+		int playerLives = 0;
+
+		switch (mDifficulty) {
+			case 1: // Easy
+				playerLives = 5;
+				break;
+			case 2: // Normal
+				playerLives = 3;
+				break;
+			case 3: // Hard
+				playerLives = 2;
+				break;
+			case 4: // Insane
+				playerLives = 1;
+				break;
+		}
+
+		mPlayerSpaceship.setLives(playerLives);
+
+		// Create a number of randomly positioned asteroids
+		mAsteroids.clear();
+
+		// Loops through the predetermined amount
+		for (int idx = 0; idx < NUM_ASTEROIDS; idx++) {
+			// Creates the variables
+			boolean valid = false;
+			float x, y;
+
+			// Loops through whilst valid is false
+			do {
+				// Sets valid to true and generates two new coordinates based of Level dimensions
+				valid = true;
+				x = mRandom.nextFloat() * LEVEL_WIDTH;
+				y = mRandom.nextFloat() * LEVEL_HEIGHT;
+
+				// Loops through all the existing asteroids
+				for (Asteroid asteroid : mAsteroids) {
+					// Check if the x or y is in the asteroid bounds
+					if (!(asteroid.getBound().contains(x,y))) {
+						// If it isn't contained then exit loop
+						valid = false;
+					}
+				}
+			} while (valid = false);
+
+			// Create the asteroid
+			mAsteroids.add(new Asteroid(x, y, mRandom, this));
+		}
+
+		// Create a number of randomly positioned AI controlled ships
+		clearAISpaceships();
+
+		// Loops through the number of seekers
+		for (int idx = 0; idx < NUM_SEEKERS; idx++) {
+			// Creates a new ship starting at a random location
+			addAISpaceship(new AISpaceship(mRandom.nextFloat() * LEVEL_WIDTH,
+					mRandom.nextFloat() * LEVEL_HEIGHT,
+					AISpaceship.ShipBehaviour.Seeker, this, mDifficulty, 100));
+		}
+
+		// Loops through the predetermined amount
+		for (int idx = 0; idx < NUM_TURRETS; idx++) {
+			// Creates the variables
+			boolean valid = false;
+			float x, y;
+
+			// Loops through whilst valid is false
+			do {
+				// Sets valid to true and generates two new coordinates based of Level dimensions
+				valid = true;
+				x = mRandom.nextFloat() * LEVEL_WIDTH;
+				y = mRandom.nextFloat() * LEVEL_HEIGHT;
+
+				// Loops through all the existing asteroids
+				for (Asteroid asteroid : mAsteroids) {
+					// Check if the x or y is in the asteroid bounds
+					if (!(asteroid.getBound().contains(x,y))) {
+						// If it isn't contained then exit loop
+						valid = false;
+					}
+				}
+			} while (valid = false);
+
+			// Create the turret
+			addAISpaceship(new AISpaceship(x, y, AISpaceship.ShipBehaviour.Turret, this, mDifficulty, 100));
+		}
+
+		// The asteroids never move, so they are placed into a tree once
+		rebuildAsteroidTree();
+	}
+
+	/**
+	 * Restores the game objects and state of the level from a save file.
+	 *
+	 * @param saveFile Save file holding the level.
+	 */
+	public void restore(SpaceSave saveFile) {
+		mDifficulty = saveFile.getMDifficulty();
+		mFlowFieldStale = true;
+		mLayerViewport = saveFile.getMLayerViewport();
+		mPlayerSpaceship = saveFile.getMPlayerSpaceShip();
+		mAsteroids = saveFile.getMAsteroids();
+		rebuildAsteroidTree();
+		clearAISpaceships();
+		for (AISpaceship aiSpaceship : saveFile.getMAISpaceships())
+			addAISpaceship(aiSpaceship);
+
+		// Continues the random number generator from the save file
+		mRandom.setState(saveFile.getMRandomState());
+	}
+
+	/**
+	 * Copies the current state of the level into the save file.
+	 *
+	 * @param saveFile Save file to fill.
+	 */
+	public void save(SpaceSave saveFile) {
+		saveFile.setMAISpaceships(mAISpaceships);
+		saveFile.setMAsteroids(mAsteroids);
+		saveFile.setMLayerViewport(mLayerViewport);
+		saveFile.setMPlayerSpaceShip(mPlayerSpaceship);
+		saveFile.setMDifficulty(mDifficulty);
+		saveFile.setMRandomState(mRandom.getState());
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Update methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Runs a single tick of the level. Only the level input and the level's
+	 * own random number generator are used, so the same seed and input will
+	 * always play out the same way.
+	 *
+	 * @param levelInput Input for the tick
+	 * @return TICK_CONTINUE, or TICK_WON / TICK_LOST if the level is over
+	 */
+	public int tick(LevelInput levelInput) {
+		mTickTime.stepTime = levelInput.stepTime;
+		mTickTime.totalTime += levelInput.stepTime;
+		mTickCount++;
+
+		// Fire any timers due by the end of this tick
+		mTimerWheel.advanceTo((long) (mTickTime.totalTime * 1000.0));
+
+		// First off check if the players health is less than 0
+		if (mPlayerSpaceship.getHealth() <= 0) {
+			// Minus one live
+			mPlayerSpaceship.minusLive();
+
+			// Set Health to 100 again
+			mPlayerSpaceship.setHealth(100);
+
+			// If no lives left then the level is lost
+			if (mPlayerSpaceship.getLivesLeft() == 0)
+				return TICK_LOST;
+		}
+
+		// If no AI Spaceships exist then the level is won
+		if (mAISpaceships.size() == 0)
+			return TICK_WON;
+
+		// If the fire button is pressed then fire, doing nothing more this tick
+		if (levelInput.fire) {
+			mPlayerSpaceship.fire();
+			return TICK_CONTINUE;
+		}
+
+		// Steer and update the player spaceship
+		Tracer.beginSection("SpaceLevel.player");
+		mPlayerSpaceship.steer(levelInput);
+		mPlayerSpaceship.update(mTickTime);
+
+		// Ensure the player cannot leave the confines of the world
+		BoundingBox playerBound = mPlayerSpaceship.getBound();
+		if (playerBound.getLeft() < 0)
+			mPlayerSpaceship.position.x -= playerBound.getLeft();
+		else if (playerBound.getRight() > LEVEL_WIDTH)
+			mPlayerSpaceship.position.x -= (playerBound.getRight() - LEVEL_WIDTH);
+
+		if (playerBound.getBottom() < 0)
+			mPlayerSpaceship.position.y -= playerBound.getBottom();
+		else if (playerBound.getTop() > LEVEL_HEIGHT)
+			mPlayerSpaceship.position.y -= (playerBound.getTop() - LEVEL_HEIGHT);
+
+		// Focus the layer viewport on the player
+		mLayerViewport.x = mPlayerSpaceship.position.x;
+		mLayerViewport.y = mPlayerSpaceship.position.y;
+
+		// Ensure the viewport cannot leave the confines of the world
+		if (mLayerViewport.getLeft() < 0)
+			mLayerViewport.x -= mLayerViewport.getLeft();
+		else if (mLayerViewport.getRight() > LEVEL_WIDTH)
+			mLayerViewport.x -= (mLayerViewport.getRight() - LEVEL_WIDTH);
+
+		if (mLayerViewport.getBottom() < 0)
+			mLayerViewport.y -= mLayerViewport.getBottom();
+		else if (mLayerViewport.getTop() > LEVEL_HEIGHT)
+			mLayerViewport.y -= (mLayerViewport.getTop() - LEVEL_HEIGHT);
+		Tracer.endSection();
+
+		// Check the collisions of the lasers and spaceships. The lasers are
+		// checked while the broadphase still holds the spaceships where they
+		// are, before any contact pushes them apart. Destroyed ships are only
+		// removed at the end of the tick.
+		Tracer.beginSection("SpaceLevel.collision");
+		updateBroadphase();
+		collidePlayerLasersWithAISpaceships();
+		resolveContacts();
+		collideEnemyLasersWithPlayer();
+		Tracer.endSection();
+
+		// Update the AI controlled spaceships. The steering of every ship is
+		// worked out in parallel from the level as it stands, before any
+		// ship is moved, so the outcome does not depend on the number of
+		// threads. The ships are then moved in order. The crowd avoidance
+		// is refilled first, and the flow field is brought up to date every
+		// few ticks.
+		Tracer.beginSection("SpaceLevel.ai");
+		fillCrowdAvoidance();
+		if (mFlowFieldStale || mTickCount % FLOW_FIELD_INTERVAL == 0)
+			computeFlowField();
+		mParallelLoop.run(mAISpaceships.size(), mSteerTask);
+		for (int idx = 0; idx < mDetailLevelCounts.length; idx++)
+			mDetailLevelCounts[idx] = 0;
+		for (int idx = 0; idx < mAISpaceships.size(); idx++) {
+			AISpaceship aiSpaceship = mAISpaceships.get(idx);
+			aiSpaceship.applySteering(mTickTime);
+			mDetailLevelCounts[aiSpaceship.getDetailLevel().ordinal()]++;
+		}
+		Tracer.endSection();
+
+		// Updates the asteroids, which only spin
+		Tracer.beginSection("SpaceLevel.asteroids");
+		for (int idx = 0; idx < mAsteroids.size(); idx++)
+			mAsteroids.get(idx).update(mTickTime);
+		Tracer.endSection();
+
+		// Remove the AI spaceships destroyed during the tick
+		mAISpaceshipRegistry.flushDestroyed();
+
+		return TICK_CONTINUE;
+	}
+
+	/**
+	 * Updates the broadphase from the AI spaceships and the player as they
+	 * stand.
+	 */
+	private void updateBroadphase() {
+		mCollidables.clear();
+		mCollidables.addAll(mAISpaceships);
+		mCollidables.add(mPlayerSpaceship);
+		mBroadphase.update(mCollidables);
+	}
+
+	/**
+	 * Gathers the contacts between the player, the AI spaceships and the
+	 * asteroids, damaging the objects of each contact, and then pushes them
+	 * all apart together. Asteroids are never pushed, and the player and an
+	 * AI spaceship are pushed apart equally. Objects left resting against
+	 * each other are not damaged again until they are pressed together.
+	 */
+	private void resolveContacts() {
+		mContactSolver.clear();
+		collidePlayerWithAISpaceships();
+		collideAISpaceshipsWithAsteroids();
+		collidePlayerWithAsteroids();
+		mContactSolver.solve();
+	}
+
+	/**
+	 * Finds the AI spaceships in contact with the player through the
+	 * broadphase. Pairs whose collision layers never collide, such as two AI
+	 * spaceships, are rejected before their shapes are tested.
+	 */
+	private void collidePlayerWithAISpaceships() {
+		mBroadphase.findPairs(mCollidingPairs);
+
+		for (int idx = 0; idx < mCollidingPairs.size(); idx += 2) {
+			GameObject one = mCollidingPairs.get(idx);
+			GameObject two = mCollidingPairs.get(idx + 1);
+			if (!CollisionDetector.canCollide(one, two))
+				continue;
+			if (one == mPlayerSpaceship)
+				collidePlayerWithAISpaceship((AISpaceship) two);
+			else if (two == mPlayerSpaceship)
+				collidePlayerWithAISpaceship((AISpaceship) one);
+		}
+		mCollidingPairs.clear();
+	}
+
+	/**
+	 * Gathers the contact between the player and an AI spaceship still in
+	 * play, if they are in collision.
+	 *
+	 * @param aiSpaceship AI spaceship.
+	 */
+	private void collidePlayerWithAISpaceship(AISpaceship aiSpaceship) {
+		if (!mAISpaceshipRegistry.isAlive(aiSpaceship.getHandle()))
+			return;
+
+		// Checks to see if there is a collision between the ai spaceship and the player
+		if (CollisionDetector.getContact(mPlayerSpaceship, aiSpaceship, mContact)
+				&& !mContactSolver.isResting(mContact)) {
+			// Remove one health point from both
+			mPlayerSpaceship.setHealth(mPlayerSpaceship.getHealth() - 1);
+			aiSpaceship.setHealth(aiSpaceship.getHealth() - 1);
+
+			// Adds the contact to be resolved with the others
+			mContactSolver.add(mPlayerSpaceship, aiSpaceship);
+
+			// Check to see if the health is empty
+			if (aiSpaceship.getHealth() == 0) {
+				// Plays sound
+				playSound("WeaponExplosion");
+
+				// Removes the ai spaceship from play
+				destroyAISpaceship(aiSpaceship);
+			}
+		}
+	}
+
+	/**
+	 * Finds the AI spaceship each player laser hits during its last step.
+	 * The broadphase, as updated from the spaceships this tick, is searched
+	 * over the whole step of the laser, and the laser hits the first AI
+	 * spaceship along its path, so fast lasers cannot pass through ships
+	 * between ticks. Lasers that have left the level are removed.
+	 */
+	private void collidePlayerLasersWithAISpaceships() {
+		List<Laser> playerLasers = mPlayerSpaceship.mLasers;
+		for (int laserIdx = 0; laserIdx < playerLasers.size(); laserIdx++) {
+			Laser laser = playerLasers.get(laserIdx);
+			if (isOutsideLevel(laser)) {
+				removeLaser(playerLasers, laserIdx--);
+				continue;
+			}
+			Vector2 previousPosition = laser.getPreviousPosition();
+			float dx = laser.position.x - previousPosition.x;
+			float dy = laser.position.y - previousPosition.y;
+			prepareLaserSweep(laser, dx, dy);
+			mBroadphase.query(mLaserSweptBound, mLaserCandidates);
+
+			// Find the first AI spaceship still in play along the path
+			AISpaceship hitSpaceship = null;
+			float firstImpact = Float.MAX_VALUE;
+			for (int idx = 0; idx < mLaserCandidates.size(); idx++) {
+				GameObject candidate = mLaserCandidates.get(idx);
+				if (!CollisionDetector.canCollide(laser, candidate))
+					continue;
+				AISpaceship aiSpaceship = (AISpaceship) candidate;
+				if (!mAISpaceshipRegistry.isAlive(aiSpaceship.getHandle()))
+					continue;
+				float impact = CollisionDetector.sweptTimeOfImpact(mLaserStartBound,
+						dx, dy, aiSpaceship.getOrientedBound());
+				if (impact >= 0.0f && impact < firstImpact) {
+					hitSpaceship = aiSpaceship;
+					firstImpact = impact;
+				}
+			}
+			mLaserCandidates.clear();
+			if (hitSpaceship == null)
+				continue;
+
+			// Removes health points from AI Spaceship based on the difficulty multiplier
+			hitSpaceship.setHealth(hitSpaceship.getHealth() - helperTools.getDamageMultiplier(mDifficulty));
+
+			// Removes the laser from play
+			removeLaser(playerLasers, laserIdx--);
+
+			// Check to see if the health is empty
+			if (hitSpaceship.getHealth() == 0) {
+				// Plays sound
+				playSound("WeaponExplosion");
+
+				// Removes the ai spaceship from play
+				destroyAISpaceship(hitSpaceship);
+			}
+		}
+	}
+
+	/**
+	 * Finds the lasers of the AI spaceships that hit the player during their
+	 * last step, testing the whole step of each laser against the player.
+	 * Lasers that have left the level are removed.
+	 */
+	private void collideEnemyLasersWithPlayer() {
+		for (int idx = 0; idx < mAISpaceships.size(); idx++) {
+			List<Laser> enemyLasers = mAISpaceships.get(idx).mLasers;
+			for (int laserIdx = 0; laserIdx < enemyLasers.size(); laserIdx++) {
+				Laser laser = enemyLasers.get(laserIdx);
+				if (isOutsideLevel(laser)) {
+					removeLaser(enemyLasers, laserIdx--);
+					continue;
+				}
+				Vector2 previousPosition = laser.getPreviousPosition();
+				float dx = laser.position.x - previousPosition.x;
+				float dy = laser.position.y - previousPosition.y;
+				if (!CollisionDetector.canCollide(laser, mPlayerSpaceship))
+					continue;
+				prepareLaserSweep(laser, dx, dy);
+
+				// Checks to see if the laser hits the player spaceship along its path
+				if (CollisionDetector.isCollision(mLaserSweptBound, mPlayerSpaceship.getCollisionBound())
+						&& CollisionDetector.sweptTimeOfImpact(mLaserStartBound, dx, dy,
+						mPlayerSpaceship.getOrientedBound()) >= 0.0f) {
+					// Removes health points from Player Spaceship based on the difficulty multiplier
+					mPlayerSpaceship.setHealth(mPlayerSpaceship.getHealth() - helperTools.getDamageMultiplier(mDifficulty));
+
+					// Removes the laser from play
+					removeLaser(enemyLasers, laserIdx--);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets the start bound and swept bound of the last step of a laser.
+	 *
+	 * @param laser Laser.
+	 * @param dx Displacement of the step along the x-axis.
+	 * @param dy Displacement of the step along the y-axis.
+	 */
+	private void prepareLaserSweep(Laser laser, float dx, float dy) {
+		Vector2 previousPosition = laser.getPreviousPosition();
+		mLaserStartBound.set(laser.getBound(), laser.orientation);
+		mLaserStartBound.x = previousPosition.x;
+		mLaserStartBound.y = previousPosition.y;
+		mLaserStartBound.getEnclosingBound(mLaserStartBox);
+		CollisionDetector.getSweptBound(mLaserStartBox, dx, dy, mLaserSweptBound);
+	}
+
+	/**
+	 * Finds the asteroids each AI spaceship still in play is in contact with
+	 * through the asteroid tree.
+	 */
+	private void collideAISpaceshipsWithAsteroids() {
+		for (int idx = 0; idx < mAISpaceships.size(); idx++) {
+			AISpaceship aiSpaceship = mAISpaceships.get(idx);
+			if (!mAISpaceshipRegistry.isAlive(aiSpaceship.getHandle()))
+				continue;
+			mAsteroidTree.query(aiSpaceship.getCollisionBound(), mNearbyAsteroids);
+			for (int asteroidIdx = 0; asteroidIdx < mNearbyAsteroids.size(); asteroidIdx++)
+				collideAISpaceshipWithAsteroid(aiSpaceship, mNearbyAsteroids.get(asteroidIdx));
+		}
+	}
+
+	/**
+	 * Gathers the contact between an AI spaceship and an asteroid, if they
+	 * are in collision.
+	 *
+	 * @param aiSpaceship AI spaceship.
+	 * @param asteroid Asteroid.
+	 */
+	private void collideAISpaceshipWithAsteroid(AISpaceship aiSpaceship, Asteroid asteroid) {
+		// Checks to see if there is a collision between the ai spaceship and the asteroid
+		if (CollisionDetector.getContact(aiSpaceship, asteroid, mContact)
+				&& !mContactSolver.isResting(mContact)) {
+			// Adds the contact to be resolved with the others
+			mContactSolver.add(aiSpaceship, asteroid);
+
+			// Remove one health point from the ship
+			aiSpaceship.setHealth(aiSpaceship.getHealth() - 1);
+
+			// Check to see if the health is empty
+			if (aiSpaceship.getHealth() == 0) {
+				// Plays sound
+				playSound("WeaponExplosion");
+
+				// Removes the ai spaceship from play
+				destroyAISpaceship(aiSpaceship);
+			}
+		}
+	}
+
+	/**
+	 * Finds the asteroids the player is in contact with through the asteroid
+	 * tree.
+	 */
+	private void collidePlayerWithAsteroids() {
+		mAsteroidTree.query(mPlayerSpaceship.getCollisionBound(), mNearbyAsteroids);
+		for (int idx = 0; idx < mNearbyAsteroids.size(); idx++) {
+			Asteroid asteroid = mNearbyAsteroids.get(idx);
+
+			// Checks to see if there is a collision between the player and the asteroid
+			if (CollisionDetector.getContact(mPlayerSpaceship, asteroid, mContact)
+					&& !mContactSolver.isResting(mContact)) {
+				// Removes one health point from the player ship
+				mPlayerSpaceship.setHealth(mPlayerSpaceship.getHealth() - 1);
+
+				// Adds the contact to be resolved with the others
+				mContactSolver.add(mPlayerSpaceship, asteroid);
+			}
+		}
+	}
+
+	/**
+	 * Fills the crowd avoidance with the AI spaceships, asteroids and player
+	 * as they stand. Each agent is given the radius of the circle around its
+	 * bound, so agents kept apart never overlap.
+	 */
+	private void fillCrowdAvoidance() {
+		mCrowdAvoidance.clear();
+		for (int idx = 0; idx < mAISpaceships.size(); idx++) {
+			AISpaceship aiSpaceship = mAISpaceships.get(idx);
+			aiSpaceship.setAgent(addCrowdAgent(aiSpaceship, aiSpaceship.getShipBehaviour()
+					== AISpaceship.ShipBehaviour.Seeker));
+		}
+		for (int idx = 0; idx < mAsteroids.size(); idx++)
+			addCrowdAgent(mAsteroids.get(idx), false);
+		addCrowdAgent(mPlayerSpaceship, false);
+		mCrowdAvoidance.prepare();
+	}
+
+	/**
+	 * Adds a sprite to the crowd avoidance.
+	 *
+	 * @param sprite Sprite to add.
+	 * @param avoiding Whether the sprite avoids the others.
+	 * @return Index of the sprite within the crowd avoidance.
+	 */
+	private int addCrowdAgent(Sprite sprite, boolean avoiding) {
+		BoundingBox bound = sprite.getBound();
+		float radius = (float) Math.sqrt(bound.halfWidth * bound.halfWidth
+				+ bound.halfHeight * bound.halfHeight);
+		return mCrowdAvoidance.addAgent(sprite.position.x, sprite.position.y,
+				sprite.velocity.x, sprite.velocity.y, radius,
+				sprite.maxVelocity, avoiding);
+	}
+
+	/**
+	 * Computes the flow field leading to the player, with the asteroids as
+	 * obstacles.
+	 */
+	private void computeFlowField() {
+		Tracer.beginSection("SpaceLevel.flowField");
+		mFlowField.clearObstacles();
+		for (int idx = 0; idx < mAsteroids.size(); idx++)
+			mFlowField.addObstacle(mAsteroids.get(idx).getBound(), FLOW_FIELD_MARGIN);
+		mFlowField.compute(mPlayerSpaceship.position.x, mPlayerSpaceship.position.y);
+		mFlowFieldStale = false;
+		Tracer.endSection();
+	}
+
+	/**
+	 * Returns whether a laser has left the level by more than the margin.
+	 * The player is kept within the level and the AI spaceships stay about
+	 * it, so such a laser can hit nothing more. Left in play it would only
+	 * be updated and tested every tick for the rest of the level.
+	 *
+	 * @param laser Laser.
+	 * @return True if the laser is outside the level.
+	 */
+	private static boolean isOutsideLevel(Laser laser) {
+		BoundingBox bound = laser.getBound();
+		return bound.getRight() < -LASER_MARGIN
+				|| bound.getLeft() > LEVEL_WIDTH + LASER_MARGIN
+				|| bound.getTop() < -LASER_MARGIN
+				|| bound.getBottom() > LEVEL_HEIGHT + LASER_MARGIN;
+	}
+
+	/**
+	 * Removes a laser from a list of lasers by moving the last laser into its
+	 * place, which avoids shifting the rest of the list.
+	 *
+	 * @param lasers List of lasers.
+	 * @param index Index of the laser to remove.
+	 */
+	private static void removeLaser(List<Laser> lasers, int index) {
+		int lastIndex = lasers.size() - 1;
+		lasers.set(index, lasers.get(lastIndex));
+		lasers.remove(lastIndex);
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Debug counters
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Returns the number of counters shown on the performance overlay.
+	 *
+	 * @return Number of counters
+	 */
+	@Override
+	public int getDebugCounterCount() {
+		return DEBUG_COUNTER_NAMES.length;
+	}
+
+	/**
+	 * Returns the name of a counter shown on the performance overlay.
+	 *
+	 * @param index Index of the counter
+	 * @return Name of the counter
+	 */
+	@Override
+	public String getDebugCounterName(int index) {
+		return DEBUG_COUNTER_NAMES[index];
+	}
+
+	/**
+	 * Returns the live number of asteroids, AI spaceships, player lasers or
+	 * enemy lasers in the level, or the number of AI spaceships updated at
+	 * each level of detail, contacts gathered or solver passes run last tick.
+	 *
+	 * @param index Index of the counter
+	 * @return Value of the counter
+	 */
+	@Override
+	public int getDebugCounterValue(int index) {
+		switch (index) {
+			case 0:
+				return mAsteroids.size();
+			case 1:
+				return mAISpaceships.size();
+			case 2:
+				return mPlayerSpaceship == null ? 0 : mPlayerSpaceship.mLasers.size();
+			case 3:
+				int enemyLasers = 0;
+				for (int idx = 0; idx < mAISpaceships.size(); idx++)
+					enemyLasers += mAISpaceships.get(idx).mLasers.size();
+				return enemyLasers;
+			case 7:
+				return mContactSolver.size();
+			case 8:
+				return mContactSolver.getIterationsRun();
+			default:
+				return mDetailLevelCounts[index - 4];
+		}
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Draw methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Draws the background and the game objects of the level, as seen through
+	 * the level's layer viewport. Nothing else (such as the HUD) is drawn.
+	 *
+	 * @param elapsedTime Elapsed time information for the frame
+	 * @param graphics2D Graphics instance to draw with
+	 * @param screenViewport Screen viewport the level is drawn into
+	 */
+	public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D,
+					 ScreenViewport screenViewport) {
+		// Create the space background
+		if (mSpaceBackground == null)
+			mSpaceBackground = new GameObject(LEVEL_WIDTH / 2.0f, LEVEL_HEIGHT / 2.0f,
+					LEVEL_WIDTH, LEVEL_HEIGHT, mAssetStore.getBitmap("SpaceBackground"),
+					mGameScreen);
+
+		// Draw the background first of all
+		mSpaceBackground.draw(elapsedTime, graphics2D, mLayerViewport,
+				screenViewport);
+
+		// Draw each of the asteroids
+		for (Asteroid asteroid : mAsteroids)
+			asteroid.draw(elapsedTime, graphics2D, mLayerViewport,
+					screenViewport);
+
+		// Draw each of the AI controlled spaceships
+		for (AISpaceship aiSpaceship : mAISpaceships)
+			aiSpaceship.draw(elapsedTime, graphics2D, mLayerViewport,
+					screenViewport);
+
+		// Draw the player
+		mPlayerSpaceship.draw(elapsedTime, graphics2D, mLayerViewport,
+				screenViewport);
+	}
+}
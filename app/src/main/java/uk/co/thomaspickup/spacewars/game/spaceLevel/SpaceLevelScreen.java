@@ -4,35 +4,54 @@ package uk.co.thomaspickup.spacewars.game.spaceLevel;
 // Imports
 // /////////////////////////////////////////////////////////////////////////
 
-import android.graphics.Bitmap;
 import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.Rect;
+import android.util.Log;
 
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.List;
-import java.util.Random;
 
 import uk.co.thomaspickup.spacewars.gage.Game;
 import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
 import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.IDebugCounters;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint;
 import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect;
 import uk.co.thomaspickup.spacewars.gage.engine.input.Input;
 import uk.co.thomaspickup.spacewars.gage.engine.input.TouchEvent;
-import uk.co.thomaspickup.spacewars.gage.util.BoundingBox;
-import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector;
+import uk.co.thomaspickup.spacewars.gage.engine.io.DeltaJournal;
+import uk.co.thomaspickup.spacewars.gage.engine.io.FileIO;
+import uk.co.thomaspickup.spacewars.gage.util.GridBroadphase;
+import uk.co.thomaspickup.spacewars.gage.util.SweepAndPruneBroadphase;
 import uk.co.thomaspickup.spacewars.gage.world.GameObject;
 import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
 import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
 import uk.co.thomaspickup.spacewars.gage.world.ScreenViewport;
 
-import uk.co.thomaspickup.spacewars.game.HelperTools;
 import uk.co.thomaspickup.spacewars.game.SettingsHandler;
 
 /**
  * The main game screen - runs the game.
  *
+ * The level is autosaved every two seconds of play. Each autosave serialises
+ * the whole level on the game thread, so its full cost lands on that frame.
+ * Only the comparison with the last snapshot and the file writes are left to
+ * the journal's writer thread. On a desktop JVM the snapshot benchmark
+ * serialises a level of 30 entities, about the size of a new level, in 13 us,
+ * and one of 1000 entities in 0.4 ms, against a frame of 50 ms.
+ *
+ * Recording replays is a debug option. A new level is only recorded if the
+ * performance overlay is shown (toggled by a third finger) when the level
+ * starts. The replay is written to the app's private files as level.replay,
+ * replacing the replay of any earlier level. Ticks are buffered and written
+ * out on the game thread 8 KB at a time, about once a minute of play. Pull
+ * the file off the device and play it back with the desktop launcher's
+ * --replay option.
+ *
  * Created by Thomas Pickup
  */
 public class SpaceLevelScreen extends GameScreen {
@@ -40,44 +59,60 @@ public class SpaceLevelScreen extends GameScreen {
 	// Variables
 	// /////////////////////////////////////////////////////////////////////////
 
-	// Private finals to hold the Level Width and Height.
-	private final float LEVEL_WIDTH = 1000.0f;
-	private final float LEVEL_HEIGHT = 1000.0f;
-
-	// Defines the Screen and Layer viewports.
+	// Defines the Screen viewport, the layer viewport belongs to the level.
 	private ScreenViewport mScreenViewport;
-	private LayerViewport mLayerViewport;
-
-	// The game object of the background.
-	private GameObject mSpaceBackground;
-
-	// The player ships game object.
-	private PlayerSpaceship mPlayerSpaceship;
 
-	// The definition of how many asteroids as well as the list of all asteroids.
-	private final int NUM_ASTEROIDS = 20;
-	private List<Asteroid> mAsteroids;
-
-	// The definitions of how many AISpaceships there are as well as the list that holds them.
-	private final int NUM_SEEKERS = 5;
-	private final int NUM_TURRETS = 5;
-	private List<AISpaceship> mAISpaceships;
+	// The level being played, holding the player, asteroids and AI spaceships.
+	private SpaceLevel mLevel;
 
 	// Pause Button Bound.
-	private Rect mPauseBound;
+	private IntRect mPauseBound;
 
 	// Fire Button Bound.
-	private Rect mFireBound;
+	private IntRect mFireBound;
+
+	// Number of columns and rows of the coarse grid used to judge how
+	// clustered the AI spaceships of a level are.
+	private static final int CLUSTER_GRID_SIZE = 10;
 
 	// Settings Handler to allow the game to access the Shared Preferences.
 	private SettingsHandler settingsHandler = new SettingsHandler();
 
-	// Helper tools
-	private HelperTools helperTools = new HelperTools();
-
 	// Save File used for transfering and receiving a save from other screens.
 	private SpaceSave saveFile = new SpaceSave();
 
+	// Files the level snapshot is written to, a complete snapshot along with a
+	// journal of the changes made to it since.
+	public static final String SNAPSHOT_FILE = "level.snapshot";
+	public static final String SNAPSHOT_JOURNAL_FILE = "level.journal";
+
+	// Seconds of play between autosaves, at most this much play is lost should
+	// the app be closed.
+	private final double AUTOSAVE_INTERVAL = 2.0;
+	private double mTimeSinceAutosave = 0.0;
+
+	// Journal that writes the autosaves in the background, along with the
+	// buffer the snapshots are serialised into and handed over in.
+	private DeltaJournal mAutosaveJournal = new DeltaJournal(getGame().getFileIO(),
+			SNAPSHOT_FILE, SNAPSHOT_JOURNAL_FILE);
+	private DeltaJournal.CheckpointBuffer mSnapshotBuffer = new DeltaJournal.CheckpointBuffer(16 * 1024);
+	private DataOutputStream mSnapshotOut = new DataOutputStream(mSnapshotBuffer);
+
+	// Seed the level was generated from, recorded with any replay.
+	private long mSeed;
+
+	// Input of the current tick
+	private LevelInput mLevelInput = new LevelInput();
+
+	// File the replay of the latest recorded level is written to.
+	public static final String REPLAY_FILE = "level.replay";
+
+	// Replay being recorded, replays are played back by the desktop launcher.
+	private ReplayLog mReplayLog;
+
+	// Set once the game has been won or lost, after which no snapshot is taken.
+	private boolean mLevelOver = false;
+
 	// Creates a new healthbar.
 	int hbXPosition, hbYPosition, hbWidth, hbHeight;
 
@@ -94,28 +129,49 @@ public class SpaceLevelScreen extends GameScreen {
 	// /////////////////////////////////////////////////////////////////////////
 	
 	/**
-	 * Create the Space Game Level from scratch.
+	 * Create the Space Game Level from scratch, recording a replay of it if
+	 * the performance overlay is shown.
 	 * 
 	 * @param game SpaceGame to which this screen belongs.
 	 */
 	public SpaceLevelScreen(Game game) {
+		this(game, System.nanoTime(), new SettingsHandler().getDifficulty(game.getContext()));
+
+		// Records the level so it can be replayed, whilst debugging
+		if (game.getPerformanceOverlay().isEnabled())
+			startRecording();
+	}
+
+	/**
+	 * Create the Space Game Level from a seed. The same seed will always
+	 * generate the same level.
+	 *
+	 * @param game SpaceGame to which this screen belongs.
+	 * @param seed Seed used to generate the level.
+	 * @param difficulty Difficulty the level is to be played on.
+	 */
+	public SpaceLevelScreen(Game game, long seed, int difficulty) {
 		super("SpaceLevelScreen", game);
 
 		// Pulls in the latest settings from settings handler
 		getSettings();
 
+		// The level is played on the specified difficulty
+		currentDifficultySetting = difficulty;
+
 		// Create the screen viewport
 		mScreenViewport = new ScreenViewport(0, 0, game.getScreenWidth(),
 				game.getScreenHeight());
 
 		// Create the layer viewport, taking into account the orientation
 		// and aspect ratio of the screen.
+		LayerViewport layerViewport;
 		if (mScreenViewport.width > mScreenViewport.height)
-			mLayerViewport = new LayerViewport(240.0f, 240.0f
+			layerViewport = new LayerViewport(240.0f, 240.0f
 					* mScreenViewport.height / mScreenViewport.width, 240,
 					240.0f * mScreenViewport.height / mScreenViewport.width);
 		else
-			mLayerViewport = new LayerViewport(240.0f * mScreenViewport.height
+			layerViewport = new LayerViewport(240.0f * mScreenViewport.height
 					/ mScreenViewport.width, 240.0f, 240.0f
 					* mScreenViewport.height / mScreenViewport.width, 240);
 
@@ -125,8 +181,11 @@ public class SpaceLevelScreen extends GameScreen {
 		// Runs the set up UI function
 		setUpUI(game);
 
-		// Generates the new game objects
-		generateNewGameObjects();
+		// Generates the new level from the seed
+		mSeed = seed;
+		mLevel = createLevel(layerViewport);
+		mLevel.generate(seed);
+		chooseBroadphase();
 	}
 
 	/**
@@ -148,8 +207,35 @@ public class SpaceLevelScreen extends GameScreen {
 		mScreenViewport = new ScreenViewport(0, 0, game.getScreenWidth(),
 				game.getScreenHeight());
 
-		// Gets the Layer View Port from the save file
-		mLayerViewport = this.saveFile.getMLayerViewport();
+		// Load in the assets used by the level
+		loadAssets();
+
+		// Runs the set up UI function
+		setUpUI(game);
+
+		// Gets the level state from the save file
+		mLevel = createLevel(this.saveFile.getMLayerViewport());
+		mLevel.restore(this.saveFile);
+		chooseBroadphase();
+		currentDifficultySetting = mLevel.getDifficulty();
+	}
+
+	/**
+	 * Creates the Space Game Level from a binary snapshot.
+	 *
+	 * @param game SpaceGame to which this screen belongs.
+	 * @param snapshot Stream holding the snapshot that the game is to be based on.
+	 * @throws IOException if the snapshot could not be read.
+	 */
+	private SpaceLevelScreen(Game game, DataInputStream snapshot) throws IOException {
+		super("SpaceLevelScreen", game);
+
+		// Pulls in the latest settings from settings handler
+		getSettings();
+
+		// Create the screen viewport
+		mScreenViewport = new ScreenViewport(0, 0, game.getScreenWidth(),
+				game.getScreenHeight());
 
 		// Load in the assets used by the level
 		loadAssets();
@@ -157,14 +243,50 @@ public class SpaceLevelScreen extends GameScreen {
 		// Runs the set up UI function
 		setUpUI(game);
 
-		// Gets the player spaceship from the save file
-		mPlayerSpaceship = this.saveFile.getMPlayerSpaceShip();
+		// Rebuilds the game objects from the snapshot, the random number
+		// generator is continued from the snapshot once they are built
+		mLevel = createLevel(null);
+		saveFile = SpaceSave.read(snapshot, mLevel);
+		mLevel.restore(saveFile);
+		chooseBroadphase();
+
+		// The level continues on the difficulty it was started on
+		currentDifficultySetting = mLevel.getDifficulty();
+	}
+
+	/**
+	 * Creates the Space Game Level, continuing from the last snapshot (along
+	 * with any autosaves journaled since) if one exists and otherwise starting
+	 * from scratch.
+	 *
+	 * @param game SpaceGame to which this screen belongs.
+	 * @return The Space Game Level
+	 */
+	public static SpaceLevelScreen load(Game game) {
+		try {
+			byte[] snapshot = DeltaJournal.recover(game.getFileIO(),
+					SNAPSHOT_FILE, SNAPSHOT_JOURNAL_FILE);
+			if (snapshot != null)
+				return new SpaceLevelScreen(game,
+						new DataInputStream(new ByteArrayInputStream(snapshot)));
+		} catch (IOException e) {
+			// The snapshot is unusable so discard it and start again
+			Log.w("SpaceLevelScreen", "Could not restore level snapshot: " + e.getMessage());
+			deleteSnapshot(game);
+		}
 
-		// Gets Asteroids from the save file
-		mAsteroids = this.saveFile.getMAsteroids();
+		return new SpaceLevelScreen(game);
+	}
 
-		// Gets AI Spaceships from the save file
-		mAISpaceships = this.saveFile.getMAISpaceships();
+	/**
+	 * Deletes the level snapshot, so the next level will start from scratch.
+	 *
+	 * @param game SpaceGame that the snapshot belongs to.
+	 */
+	public static void deleteSnapshot(Game game) {
+		FileIO fileIO = game.getFileIO();
+		fileIO.deletePrivateFile(SNAPSHOT_FILE);
+		fileIO.deletePrivateFile(SNAPSHOT_JOURNAL_FILE);
 	}
 
 	// /////////////////////////////////////////////////////////////////////////
@@ -172,30 +294,54 @@ public class SpaceLevelScreen extends GameScreen {
 	// /////////////////////////////////////////////////////////////////////////
 
 	/**
-	 * Return the player spaceship.
-	 * 
-	 * @return Player spaceship.
-	 */	
-	public PlayerSpaceship getPlayerSpaceship() {
-		return mPlayerSpaceship;
+	 * Return the level being played.
+	 *
+	 * @return Level holding the player, asteroids and AI spaceships.
+	 */
+	public SpaceLevel getLevel() {
+		return mLevel;
 	}
 
+	// /////////////////////////////////////////////////////////////////////////
+	// Replay methods
+	// /////////////////////////////////////////////////////////////////////////
+
 	/**
-	 * Return a list of the AI spaceships in the level.
-	 * 
-	 * @return List of AI controlled spaceships.
+	 * Starts recording the level to the replay file.
+	 */
+	private void startRecording() {
+		try {
+			mReplayLog = ReplayLog.startRecording(mGame.getFileIO().writePrivateFile(REPLAY_FILE),
+					mSeed, currentDifficultySetting);
+		} catch (IOException e) {
+			Log.w("SpaceLevelScreen", "Could not record replay: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Records the input of the current tick, if the level is being recorded.
 	 */
-	public List<AISpaceship> getAISpaceships() {
-		return mAISpaceships;
+	private void recordTick() {
+		if (mReplayLog == null)
+			return;
+
+		try {
+			mReplayLog.record(mLevelInput);
+		} catch (IOException e) {
+			// Stop recording rather than leave a gap in the replay
+			Log.w("SpaceLevelScreen", "Could not record replay: " + e.getMessage());
+			stopReplay();
+		}
 	}
 
 	/**
-	 * Return a list of asteroids in the the level.
-	 * 
-	 * @return List of asteroids in the level.
+	 * Stops recording the replay.
 	 */
-	public List<Asteroid> getAsteroids() {
-		return mAsteroids;
+	private void stopReplay() {
+		if (mReplayLog != null) {
+			mReplayLog.close();
+			mReplayLog = null;
+		}
 	}
 
 	// /////////////////////////////////////////////////////////////////////////
@@ -234,20 +380,15 @@ public class SpaceLevelScreen extends GameScreen {
 	 * @param game The game to add the UI Elements to.
 	 */
 	private void setUpUI(Game game) {
-		// Create the space background
-		mSpaceBackground = new GameObject(LEVEL_WIDTH / 2.0f,
-				LEVEL_HEIGHT / 2.0f, LEVEL_WIDTH, LEVEL_HEIGHT, getGame()
-				.getAssetManager().getBitmap("SpaceBackground"), this);
-
 		// Creates the pause button bound
 		int btnPauseWidth = (int) (game.getScreenWidth() * 0.078); // @1920 = 150
 		int btnPauseHeight = (int) (game.getScreenHeight() * 0.138); // @1080 = 150
-		mPauseBound = new Rect(paddingX,paddingY,btnPauseWidth,btnPauseHeight);
+		mPauseBound = new IntRect(paddingX,paddingY,btnPauseWidth,btnPauseHeight);
 
 		// Creates the fire button bound
 		int btnFireWidth = (int) (game.getScreenWidth() * 0.104); // @1920 = 200
 		int btnFireHeight = (int) (game.getScreenHeight() * 0.185); // @1080 = 200
-		mFireBound = new Rect(getGame().getScreenWidth() - btnFireWidth, getGame().getScreenHeight() - btnFireHeight, getGame().getScreenWidth() - paddingX, getGame().getScreenHeight() -paddingY);
+		mFireBound = new IntRect(getGame().getScreenWidth() - btnFireWidth, getGame().getScreenHeight() - btnFireHeight, getGame().getScreenWidth() - paddingX, getGame().getScreenHeight() -paddingY);
 
 		// Creates the health bar bound
 		hbHeight = (int) (getGame().getScreenHeight() * 0.138); // @1080 = 150
@@ -257,106 +398,46 @@ public class SpaceLevelScreen extends GameScreen {
 	}
 
 	/**
-	 * Used to create from scratch all the game objects needed to run the game.
+	 * Creates the level played on this screen, taking its assets from the game.
+	 *
+	 * @param layerViewport Layer viewport that will follow the player.
+	 * @return The empty level, ready to be generated or restored.
 	 */
-	private void generateNewGameObjects() {
-		// Create the player spaceship
-		mPlayerSpaceship = new PlayerSpaceship(100, 100, this);
-
-		// Set player health to 100
-		mPlayerSpaceship.setHealth(100);
-
-		// Sets the lives of the player based on the difficulty
-		int playerLives = 0;
-
-		switch (currentDifficultySetting) {
-			case 1: // Easy
-				playerLives = 5;
-				break;
-			case 2: // Normal
-				playerLives = 3;
-				break;
-			case 3: // Hard
-				playerLives = 2;
-				break;
-			case 4: // Insane
-				playerLives = 1;
-				break;
-		}
-
-		mPlayerSpaceship.setLives(playerLives);
-
-		// Create a number of randomly positioned asteroids
-		Random random = new Random();
-
-		// Initializes the arraylist
-		mAsteroids = new ArrayList<Asteroid>(NUM_ASTEROIDS);
-
-		// Loops through the predetermined amount
-		for (int idx = 0; idx < NUM_ASTEROIDS; idx++) {
-			// Creates the variables
-			boolean valid = false;
-			float x, y;
-
-			// Loops through whilst valid is false
-			do {
-				// Sets valid to true and generates two new coordinates based of Level dimensions
-				valid = true;
-				x = random.nextFloat() * LEVEL_WIDTH;
-				y = random.nextFloat() * LEVEL_HEIGHT;
-
-				// Loops through all the existing asteroids
-				for (Asteroid asteroid : mAsteroids) {
-					// Check if the x or y is in the asteroid bounds
-					if (!(asteroid.getBound().contains(x,y))) {
-						// If it isn't contained then exit loop
-						valid = false;
-					}
-				}
-			} while (valid = false);
-
-			// Create the asteroid
-			mAsteroids.add(new Asteroid(x, y, this));
-		}
-
-		// Create a number of randomly positioned AI controlled ships
-		// Initializes the array list
-		mAISpaceships = new ArrayList<AISpaceship>(NUM_SEEKERS + NUM_TURRETS);
+	private SpaceLevel createLevel(LayerViewport layerViewport) {
+		SpaceLevel level = new SpaceLevel(this, mGame.getAssetManager(), mGame.getTargetFramesPerSecond(),
+				currentSoundSetting, layerViewport, currentDifficultySetting);
+		level.setParallelLoop(mGame.getParallelLoop());
+		return level;
+	}
 
-		// Loops through the number of seekers
-		for (int idx = 0; idx < NUM_SEEKERS; idx++) {
-			// Creates a new ship starting at a random location
-			mAISpaceships.add(new AISpaceship(random.nextFloat() * LEVEL_WIDTH,
-					random.nextFloat() * LEVEL_HEIGHT,
-					AISpaceship.ShipBehaviour.Seeker, this, currentDifficultySetting, 100));
+	/**
+	 * Picks the broadphase of the level once it has been generated or
+	 * restored, from how the AI spaceships are spread, as they outnumber the
+	 * asteroids and move through the broadphase every tick. Ships spread
+	 * across the level suit a grid, but where they are clustered, leaving
+	 * most of a grid empty, sweep and prune is used.
+	 */
+	private void chooseBroadphase() {
+		// Count the cells of a coarse grid over the level holding AI spaceships
+		List<AISpaceship> aiSpaceships = mLevel.getAISpaceships();
+		boolean[] occupied = new boolean[CLUSTER_GRID_SIZE * CLUSTER_GRID_SIZE];
+		int occupiedCount = 0;
+		for (AISpaceship aiSpaceship : aiSpaceships) {
+			int column = Math.max(0, Math.min(CLUSTER_GRID_SIZE - 1, (int) (aiSpaceship.position.x
+					/ SpaceLevel.LEVEL_WIDTH * CLUSTER_GRID_SIZE)));
+			int row = Math.max(0, Math.min(CLUSTER_GRID_SIZE - 1, (int) (aiSpaceship.position.y
+					/ SpaceLevel.LEVEL_HEIGHT * CLUSTER_GRID_SIZE)));
+			if (!occupied[row * CLUSTER_GRID_SIZE + column]) {
+				occupied[row * CLUSTER_GRID_SIZE + column] = true;
+				occupiedCount++;
+			}
 		}
 
-		// Loops through the predetermined amount
-		for (int idx = 0; idx < NUM_TURRETS; idx++) {
-			// Creates the variables
-			boolean valid = false;
-			float x, y;
-
-			// Loops through whilst valid is false
-			do {
-				// Sets valid to true and generates two new coordinates based of Level dimensions
-				valid = true;
-				x = random.nextFloat() * LEVEL_WIDTH;
-				y = random.nextFloat() * LEVEL_HEIGHT;
-
-				// Loops through all the existing asteroids
-				for (Asteroid asteroid : mAsteroids) {
-					// Check if the x or y is in the asteroid bounds
-					if (!(asteroid.getBound().contains(x,y))) {
-						// If it isn't contained then exit loop
-						valid = false;
-					}
-				}
-			} while (valid = false);
-
-			// Create the turret
-			mAISpaceships.add(new AISpaceship(x, y, AISpaceship.ShipBehaviour.Turret, this, currentDifficultySetting,100));
-		}
+		// Spread out ships mostly fall into cells of their own
+		if (occupiedCount * 2 < aiSpaceships.size())
+			mLevel.setBroadphase(new SweepAndPruneBroadphase<GameObject>());
+		else
+			mLevel.setBroadphase(new GridBroadphase<GameObject>(SpaceLevel.BROADPHASE_CELL_SIZE));
 	}
 
 	/**
@@ -368,46 +449,79 @@ public class SpaceLevelScreen extends GameScreen {
 		currentSoundSetting = settingsHandler.getSound(getGame().getContext());
 	}
 
+	/**
+	 * Copies the current state of the level into the save file.
+	 */
+	private void fillSaveFile() {
+		mLevel.save(saveFile);
+	}
+
+	/**
+	 * Serialises the current state of the level and hands the buffer it was
+	 * serialised into to the autosave journal, which works out and writes the
+	 * changes since the last snapshot in the background. The level is
+	 * serialised in full on the calling thread.
+	 */
+	public void saveSnapshot() {
+		fillSaveFile();
+
+		try {
+			mSnapshotBuffer.reset();
+			saveFile.write(mSnapshotOut);
+			mAutosaveJournal.checkpoint(mSnapshotBuffer);
+		} catch (IOException e) {
+			Log.w("SpaceLevelScreen", "Could not write level snapshot: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Marks the level as over, discarding the snapshot so it is not continued.
+	 */
+	private void endLevel() {
+		mLevelOver = true;
+		stopReplay();
+		mAutosaveJournal.discard();
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Life Cycle methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Takes a snapshot of the level whenever it is covered or the app is
+	 * paused, so the level can be continued should the app be closed. The
+	 * snapshot is written in the background without holding up the pause; if
+	 * the app is killed part way through the write, the torn record is skipped
+	 * and the level continues from the autosave before.
+	 */
+	@Override
+	public void pause() {
+		if (!mLevelOver)
+			saveSnapshot();
+	}
+
+	/**
+	 * Completes any outstanding autosave, stops the autosave journal and
+	 * closes any replay.
+	 */
+	@Override
+	public void dispose() {
+		mAutosaveJournal.close();
+		stopReplay();
+	}
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Update and Draw methods
 	// /////////////////////////////////////////////////////////////////////////
 
 	/**
+	 * Updates the level, running a tick of the simulation with the input of
+	 * this frame.
 	 *
 	 * @param elapsedTime Elapsed time information for the frame
 	 */
 	@Override
 	public void update(ElapsedTime elapsedTime) {
-		// First off check if the players health is less than 0
-		if (mPlayerSpaceship.getHealth() <= 0) {
-			// Minus one live
-			mPlayerSpaceship.minusLive();
-
-			// Set Health to 100 again
-			mPlayerSpaceship.setHealth(100);
-
-			// If no lives left then end game
-			if (mPlayerSpaceship.getLivesLeft() == 0) {
-				// Remove this screen
-				mGame.getScreenManager().removeScreen(this.getName());
-				int enemiesDefeated = (NUM_SEEKERS + NUM_TURRETS) - mAISpaceships.size();
-
-				// Add the end game screen
-				EndGameScreen endGameScreen = new EndGameScreen(mGame, false, enemiesDefeated, mLayerViewport);
-				mGame.getScreenManager().addScreen(endGameScreen);
-			}
-		}
-
-		// If no AI Spaceships exist then end the game with a win
-		if (mAISpaceships.size() == 0) {
-			// Remove this screen
-			mGame.getScreenManager().removeScreen(this.getName());
-
-			// Add the end game screen
-			EndGameScreen endGameScreen = new EndGameScreen(mGame, true, (NUM_SEEKERS + NUM_TURRETS), mLayerViewport);
-			mGame.getScreenManager().addScreen(endGameScreen);
-		}
-
 		// Process any touch events occurring since the update
 		Input input = mGame.getInput();
 
@@ -415,6 +529,7 @@ public class SpaceLevelScreen extends GameScreen {
 		List<TouchEvent> touchEvents = input.getTouchEvents();
 
 		// Only processes if there is an active touch event
+		boolean firePressed = false;
 		if (touchEvents.size() > 0) {
 			// Looks at first touch event
 			TouchEvent touchEvent = touchEvents.get(0);
@@ -424,173 +539,56 @@ public class SpaceLevelScreen extends GameScreen {
 				// Plays button sound
 				getGame().getAssetManager().getSound("ButtonClick").play(settingsHandler.getSound(getGame().getContext()));
 
-				// Remove this screen
-				mGame.getScreenManager().removeScreen(this.getName());
-
 				// Sets current states to save file
-				saveFile.setMAISpaceships(mAISpaceships);
-				saveFile.setMAsteroids(mAsteroids);
-				saveFile.setMLayerViewport(mLayerViewport);
-				saveFile.setMPlayerSpaceShip(mPlayerSpaceship);
+				fillSaveFile();
 
-				// Create a new instance of menuScreen and add it to screen manager
-				PauseScreen pauseScreen = new PauseScreen(mGame, saveFile);
-				mGame.getScreenManager().addScreen(pauseScreen);
+				// Push the pause screen (which freezes the last frame of this
+				// screen) on top of this (now suspended) screen
+				PauseScreen pauseScreen = new PauseScreen(mGame, this, elapsedTime);
+				mGame.getScreenManager().pushScreen(pauseScreen);
+				return;
 
 			// If fire button is pressed
 			} else if (mFireBound.contains((int) touchEvent.x, (int) touchEvent.y)) {
-				// Fire and then stop processing any more touch events
-				mPlayerSpaceship.fire(this);
-				return;
+				firePressed = true;
 			}
 		}
 
-		// Update the player spaceship
-		mPlayerSpaceship.update(elapsedTime);
-
-		// Ensure the player cannot leave the confines of the world
-		BoundingBox playerBound = mPlayerSpaceship.getBound();
-		if (playerBound.getLeft() < 0)
-			mPlayerSpaceship.position.x -= playerBound.getLeft();
-		else if (playerBound.getRight() > LEVEL_WIDTH)
-			mPlayerSpaceship.position.x -= (playerBound.getRight() - LEVEL_WIDTH);
-
-		if (playerBound.getBottom() < 0)
-			mPlayerSpaceship.position.y -= playerBound.getBottom();
-		else if (playerBound.getTop() > LEVEL_HEIGHT)
-			mPlayerSpaceship.position.y -= (playerBound.getTop() - LEVEL_HEIGHT);
-
-		// Focus the layer viewport on the player
-		mLayerViewport.x = mPlayerSpaceship.position.x;
-		mLayerViewport.y = mPlayerSpaceship.position.y;
-
-		// Ensure the viewport cannot leave the confines of the world
-		if (mLayerViewport.getLeft() < 0)
-			mLayerViewport.x -= mLayerViewport.getLeft();
-		else if (mLayerViewport.getRight() > LEVEL_WIDTH)
-			mLayerViewport.x -= (mLayerViewport.getRight() - LEVEL_WIDTH);
-
-		if (mLayerViewport.getBottom() < 0)
-			mLayerViewport.y -= mLayerViewport.getBottom();
-		else if (mLayerViewport.getTop() > LEVEL_HEIGHT)
-			mLayerViewport.y -= (mLayerViewport.getTop() - LEVEL_HEIGHT);
-
-		// Update each of the AI controlled spaceships
-		// Uses an irerator to remove objects from list on fly
-		Iterator<AISpaceship> iterAISpaceships = mAISpaceships.iterator();
-
-		// Keeps processing whilst there is still AI Space ships
-		while (iterAISpaceships.hasNext()) {
-			// Imports next into a singular instance
-			AISpaceship aiSpaceship = iterAISpaceships.next();
-
-			// Checks to see if there is a collision between the ai spaceship and the player
-			if (CollisionDetector.isCollision(mPlayerSpaceship.getBound(), aiSpaceship.getBound())) {
-				// Remove one health point from both
-				mPlayerSpaceship.setHealth(mPlayerSpaceship.getHealth() - 1);
-				aiSpaceship.setHealth(aiSpaceship.getHealth() - 1);
-
-				// Resolve the collision
-				CollisionDetector.determineAndResolveCollision(getPlayerSpaceship(), aiSpaceship);
-
-				// Check to see if the health is empty
-				if (aiSpaceship.getHealth() == 0) {
-					// Plays sound
-					getGame().getAssetManager().getSound("WeaponExplosion").play(settingsHandler.getSound(getGame().getContext()));
-
-					// Removes the ai spaceship from play
-					iterAISpaceships.remove();
-				}
-			}
-
-			// Loops through all the astroids
-			for (Asteroid asteroid : mAsteroids) {
-				// Checks to see if there is a collision between the ai spaceship and the asteroid
-				if (CollisionDetector.isCollision(aiSpaceship.getBound(), asteroid.getBound())) {
-					// Resolves the collision
-					CollisionDetector.determineAndResolveCollision(aiSpaceship, asteroid);
-
-					// Remove one health point from the ship
-					aiSpaceship.setHealth(aiSpaceship.getHealth() - 1);
-
-					// Check to see if the health is empty
-					if (aiSpaceship.getHealth() == 0) {
-						// Plays sound
-						getGame().getAssetManager().getSound("WeaponExplosion").play(settingsHandler.getSound(getGame().getContext()));
-
-						// Removes the ai spaceship from play
-						iterAISpaceships.remove();
-					}
-				}
-			}
-
-			// Checks if there is any hits with player lasers
-			// Uses an irerator to remove objects from list on fly
-			Iterator<Laser> iterLaser = mPlayerSpaceship.mLasers.iterator();
-
-			// Keeps processing whilst there is still lasers active
-			while(iterLaser.hasNext()){
-				// Imports next into a singular instance
-				Laser laser = iterLaser.next();
-
-				// Checks to see if there is a collision between the ai spaceship and the laser
-				if (CollisionDetector.isCollision(aiSpaceship.getBound(),laser.getBound())) {
-					// Removes health points from AI Spaceship based on the difficulty multiplier
-					aiSpaceship.setHealth(aiSpaceship.getHealth() - helperTools.getDamageMultiplier(currentDifficultySetting));
-
-					// Removes the laser from play
-					iterLaser.remove();
-
-					// Check to see if the health is empty
-					if (aiSpaceship.getHealth() == 0) {
-						// Plays sound
-						getGame().getAssetManager().getSound("WeaponExplosion").play(settingsHandler.getSound(getGame().getContext()));
-
-						// Removes the ai spaceship from play
-						iterAISpaceships.remove();
-					}
-				}
-			}
-
-			// Checks if there are any hits with the enemy lasers
-			// Uses an irerator to remove objects from list on fly
-			Iterator<Laser> iterEnemyLaser = aiSpaceship.mLasers.iterator();
-
-			// Keeps processing whilst there is still lasers active
-			while(iterEnemyLaser.hasNext()){
-				// Imports next into a singular instance
-				Laser laser = iterEnemyLaser.next();
-
-				// Checks to see if there is a collision between the player spaceship and the laser
-				if (CollisionDetector.isCollision(mPlayerSpaceship.getBound(),laser.getBound())) {
-					// Removes health points from Player Spaceship based on the difficulty multiplier
-					mPlayerSpaceship.setHealth(mPlayerSpaceship.getHealth() - helperTools.getDamageMultiplier(currentDifficultySetting));
-
-					// Removes the laser from play
-					iterEnemyLaser.remove();
-				}
-			}
-
-			// Updates the AI Spaceship
-			aiSpaceship.update(elapsedTime);
+		// Run a tick using the input of this frame, recording it if needed
+		mLevelInput.capture(input, firePressed, getGame().getScreenWidth(),
+				getGame().getScreenHeight(), elapsedTime.stepTime);
+		recordTick();
+		int outcome = mLevel.tick(mLevelInput);
+
+		// End the game if the level has been won or lost
+		if (outcome != SpaceLevel.TICK_CONTINUE) {
+			int enemiesDefeated = mLevel.getEnemiesDefeated();
+			endLevel();
+
+			// Replace this screen (disposing of it) with the end game screen
+			EndGameScreen endGameScreen = new EndGameScreen(mGame, outcome == SpaceLevel.TICK_WON, enemiesDefeated, mLevel.getLayerViewport());
+			mGame.getScreenManager().replaceScreen(endGameScreen);
+			return;
 		}
 
-		// Loops through all of the asteroids
-		for (Asteroid asteroid : mAsteroids) {
-			// Checks to see if there is a collision between the player and the asteroid
-			if (CollisionDetector.isCollision(mPlayerSpaceship.getBound(), asteroid.getBound())) {
-				// Removes one health point from the player ship
-				mPlayerSpaceship.setHealth(mPlayerSpaceship.getHealth() - 1);
-
-				// Resolves the collision
-				CollisionDetector.determineAndResolveCollision(getPlayerSpaceship(), asteroid);
-			}
-
-			// Updates the asteroid
-			asteroid.update(elapsedTime);
+		// Periodically autosave the level
+		mTimeSinceAutosave += elapsedTime.stepTime;
+		if (mTimeSinceAutosave >= AUTOSAVE_INTERVAL) {
+			mTimeSinceAutosave = 0.0;
+			saveSnapshot();
 		}
 	}
 
+	/**
+	 * Reports the live entity counts of the level on the performance overlay.
+	 *
+	 * @return The level being played
+	 */
+	@Override
+	public IDebugCounters getDebugCounters() {
+		return mLevel;
+	}
+
 	/**
 	 *
 	 * @param elapsedTime Elapsed time information for the frame
@@ -602,73 +600,60 @@ public class SpaceLevelScreen extends GameScreen {
 		graphics2D.clear(Color.BLACK);
 		graphics2D.clipRect(mScreenViewport.toRect());
 
-		// Draw the background first of all
-		mSpaceBackground.draw(elapsedTime, graphics2D, mLayerViewport,
-				mScreenViewport);
-
-		// Draw each of the asteroids
-		for (Asteroid asteroid : mAsteroids)
-			asteroid.draw(elapsedTime, graphics2D, mLayerViewport,
-					mScreenViewport);
-
-		// Draw each of the AI controlled spaceships
-		for (AISpaceship aiSpaceship : mAISpaceships)
-			aiSpaceship.draw(elapsedTime, graphics2D, mLayerViewport,
-					mScreenViewport);
+		PlayerSpaceship playerSpaceship = mLevel.getPlayerSpaceship();
 
-		// Draw the player
-		mPlayerSpaceship.draw(elapsedTime, graphics2D, mLayerViewport,
-				mScreenViewport);
+		// Draw the level: background, asteroids, AI spaceships and the player
+		mLevel.draw(elapsedTime, graphics2D, mScreenViewport);
 
 		// Draws the Pause Button
-		Bitmap imgPauseButton =  mGame.getAssetManager().getBitmap("PauseButtonWhite");
+		IImage imgPauseButton =  mGame.getAssetManager().getBitmap("PauseButtonWhite");
 		graphics2D.drawBitmap(imgPauseButton,null,mPauseBound,null);
 
 		// Draws the fire button
-		Bitmap imgFireButton = mGame.getAssetManager().getBitmap("FireButton");
+		IImage imgFireButton = mGame.getAssetManager().getBitmap("FireButton");
 		graphics2D.drawBitmap(imgFireButton, null,mFireBound,null);
 
 		// Draws the HealthBar
 		int borderLine = 10;
 
 		// Draws the backboard that the health bar is drawn on
-		Rect backBoard = new Rect(hbXPosition,hbYPosition,hbXPosition+hbWidth,hbYPosition+hbHeight);
-		Paint paintCan = new Paint();
-		paintCan.setColor(Color.BLACK);
+		IntRect backBoard = new IntRect(hbXPosition,hbYPosition,hbXPosition+hbWidth,hbYPosition+hbHeight);
+		DrawPaint paintCan = new DrawPaint();
+		paintCan.setColour(Color.BLACK);
 		graphics2D.drawRect(backBoard, paintCan);
 
 		// Works out width of inner part from the player health
 		float multiplier = (hbWidth - borderLine) / 100; // Represents Each Percentage per pixel
-		int width = mPlayerSpaceship.getHealth() * (int) multiplier;
+		int width = playerSpaceship.getHealth() * (int) multiplier;
 
 		// Draws the health indicator
-		Rect mHealthBar = new Rect(hbXPosition + borderLine, hbYPosition + 10, hbXPosition + 10 + width , (hbYPosition+hbHeight) - 10);
-		paintCan.setColor(Color.RED);
+		IntRect mHealthBar = new IntRect(hbXPosition + borderLine, hbYPosition + 10, hbXPosition + 10 + width , (hbYPosition+hbHeight) - 10);
+		paintCan.setColour(Color.RED);
 		graphics2D.drawRect(mHealthBar,paintCan);
 
 		// Draws the lives lost
-		Bitmap heartFull = mGame.getAssetManager().getBitmap("HeartFull");
-		Bitmap heartEmpty = mGame.getAssetManager().getBitmap("HeartEmpty");
+		IImage heartFull = mGame.getAssetManager().getBitmap("HeartFull");
+		IImage heartEmpty = mGame.getAssetManager().getBitmap("HeartEmpty");
 
 		// Defines the heart size
 		int heartWidth = (int) (getGame().getScreenWidth() * 0.052);
 		int heartHeight = (int) (getGame().getScreenHeight() * 0.092);
 
 		// Defines where the stack should start based on amount of hearts
-		int startX = getGame().getScreenWidth() / 2 - (((mPlayerSpaceship.getLivesLeft() + mPlayerSpaceship.getLivesLost()) * heartWidth) / 2);
+		int startX = getGame().getScreenWidth() / 2 - (((playerSpaceship.getLivesLeft() + playerSpaceship.getLivesLost()) * heartWidth) / 2);
 		int yOffset = getGame().getScreenHeight() - paddingY;
 		int endX;
 
 		// Creates empty variable to use as bound
-		Rect mHeartBound;
+		IntRect mHeartBound;
 
 		// Loops through lives left
-		for (int c = 0; c < mPlayerSpaceship.getLivesLeft(); c++) {
+		for (int c = 0; c < playerSpaceship.getLivesLeft(); c++) {
 			// Creates where the heart bound is going to end
 			endX = startX + heartWidth;
 
 			// Creates the heart bound
-			mHeartBound = new Rect(startX, yOffset - heartHeight, endX, yOffset);
+			mHeartBound = new IntRect(startX, yOffset - heartHeight, endX, yOffset);
 
 			// Draws the heart
 			graphics2D.drawBitmap(heartFull,null, mHeartBound,null);
@@ -678,12 +663,12 @@ public class SpaceLevelScreen extends GameScreen {
 		}
 
 		// Loops through lives lost
-		for (int c = 0; c < mPlayerSpaceship.getLivesLost(); c++) {
+		for (int c = 0; c < playerSpaceship.getLivesLost(); c++) {
 			// Creates where the heart bound is going to end
 			endX = startX + heartWidth;
 
 			// Creates the heart bound
-			mHeartBound = new Rect(startX, yOffset - heartHeight, endX, yOffset);
+			mHeartBound = new IntRect(startX, yOffset - heartHeight, endX, yOffset);
 
 			// Draws the heart
 			graphics2D.drawBitmap(heartEmpty,null, mHeartBound,null);
@@ -4,12 +4,27 @@ package uk.co.thomaspickup.spacewars.game.spaceLevel;
 // Imports
 // /////////////////////////////////////////////////////////////////////////
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
 
 /**
  * A save file which allows screens to transfer over the current state of the game.
  *
+ * The save file can also be written to and read from a compact binary snapshot,
+ * allowing a level to survive the app being closed. A snapshot is laid out as:
+ *
+ *   header      magic number, format version
+ *   level       difficulty, random generator state, layer viewport
+ *   player      sprite state, lives, reload progress (ms), lasers
+ *   asteroids   count, then the state of each asteroid
+ *   ai ships    count, then the behaviour and state of each ship
+ *
+ * Any change to the layout must increase SNAPSHOT_VERSION.
+ *
  * Created by Thomas Pickup
  */
 public class SpaceSave {
@@ -17,10 +32,20 @@ public class SpaceSave {
     // Variables
     // /////////////////////////////////////////////////////////////////////////
 
+    // Identifies a snapshot and the version of its layout
+    public static final int SNAPSHOT_MAGIC = 0x53505753; // "SPWS"
+    public static final int SNAPSHOT_VERSION = 2;
+
+    // Largest number of asteroids, AI ships or lasers a snapshot may hold, a
+    // count beyond it can only come from a damaged snapshot
+    public static final int MAX_ENTITY_COUNT = 1 << 16;
+
     private LayerViewport mLayerViewport;
     private PlayerSpaceship mPlayerSpaceShip;
     private List<Asteroid> mAsteroids;
     private List<AISpaceship> mAISpaceships;
+    private int mDifficulty;
+    private long mRandomState;
 
     // /////////////////////////////////////////////////////////////////////////
     // Methods
@@ -97,4 +122,150 @@ public class SpaceSave {
     public List<AISpaceship> getMAISpaceships() {
         return mAISpaceships;
     }
+
+    /**
+     * Sets the difficulty the level is being played on.
+     *
+     * @param mDifficulty Difficulty setting
+     */
+    public void setMDifficulty(int mDifficulty) {
+        this.mDifficulty = mDifficulty;
+    }
+
+    /**
+     * Returns the difficulty the level is being played on.
+     *
+     * @return Difficulty setting
+     */
+    public int getMDifficulty() {
+        return mDifficulty;
+    }
+
+    /**
+     * Sets the state of the level's random number generator.
+     *
+     * @param mRandomState Random generator state
+     */
+    public void setMRandomState(long mRandomState) {
+        this.mRandomState = mRandomState;
+    }
+
+    /**
+     * Returns the state of the level's random number generator.
+     *
+     * @return Random generator state
+     */
+    public long getMRandomState() {
+        return mRandomState;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Snapshot Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Writes the save file as a binary snapshot.
+     *
+     * @param out Output to write the snapshot to
+     * @throws IOException if the snapshot could not be written
+     */
+    public void write(DataOutput out) throws IOException {
+        // Header
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+
+        // Level
+        out.writeInt(mDifficulty);
+        out.writeLong(mRandomState);
+        out.writeFloat(mLayerViewport.x);
+        out.writeFloat(mLayerViewport.y);
+        out.writeFloat(mLayerViewport.halfWidth);
+        out.writeFloat(mLayerViewport.halfHeight);
+
+        // Player
+        mPlayerSpaceShip.writeState(out);
+
+        // Asteroids
+        out.writeInt(mAsteroids.size());
+        for (Asteroid asteroid : mAsteroids)
+            asteroid.writeState(out);
+
+        // AI Spaceships
+        out.writeInt(mAISpaceships.size());
+        for (AISpaceship aiSpaceship : mAISpaceships) {
+            out.writeByte(aiSpaceship.getShipBehaviour().ordinal());
+            aiSpaceship.writeState(out);
+        }
+    }
+
+    /**
+     * Reads a save file from a binary snapshot, rebuilding all of the game
+     * objects on the specified level.
+     *
+     * @param in Input to read the snapshot from
+     * @param level Level that the game objects are to be created on
+     * @return Save file holding the restored game objects
+     * @throws IOException if the snapshot could not be read or is not supported
+     */
+    public static SpaceSave read(DataInput in, SpaceLevel level) throws IOException {
+        // Header
+        if (in.readInt() != SNAPSHOT_MAGIC)
+            throw new IOException("Not a level snapshot");
+        int version = in.readInt();
+        if (version != SNAPSHOT_VERSION)
+            throw new IOException("Unsupported level snapshot version [" + version + "]");
+
+        SpaceSave saveFile = new SpaceSave();
+
+        // Level
+        saveFile.mDifficulty = in.readInt();
+        saveFile.mRandomState = in.readLong();
+        saveFile.mLayerViewport = new LayerViewport(in.readFloat(), in.readFloat(),
+                in.readFloat(), in.readFloat());
+
+        // Player
+        saveFile.mPlayerSpaceShip = new PlayerSpaceship(0, 0, level);
+        saveFile.mPlayerSpaceShip.readState(in);
+
+        // Asteroids
+        int asteroidCount = readCount(in);
+        saveFile.mAsteroids = new ArrayList<Asteroid>(asteroidCount);
+        for (int idx = 0; idx < asteroidCount; idx++) {
+            Asteroid asteroid = new Asteroid(0, 0, level.getRandom(), level);
+            asteroid.readState(in);
+            saveFile.mAsteroids.add(asteroid);
+        }
+
+        // AI Spaceships
+        AISpaceship.ShipBehaviour[] behaviours = AISpaceship.ShipBehaviour.values();
+        int aiSpaceshipCount = readCount(in);
+        saveFile.mAISpaceships = new ArrayList<AISpaceship>(aiSpaceshipCount);
+        for (int idx = 0; idx < aiSpaceshipCount; idx++) {
+            int behaviour = in.readByte();
+            if (behaviour < 0 || behaviour >= behaviours.length)
+                throw new IOException("Unknown ship behaviour [" + behaviour + "]");
+
+            AISpaceship aiSpaceship = new AISpaceship(0, 0, behaviours[behaviour],
+                    level, saveFile.mDifficulty, 0);
+            aiSpaceship.readState(in);
+            saveFile.mAISpaceships.add(aiSpaceship);
+        }
+
+        return saveFile;
+    }
+
+    /**
+     * Reads the number of asteroids, AI ships or lasers that follow in a
+     * snapshot, rejecting a count no snapshot could hold.
+     *
+     * @param in Input to read the count from
+     * @return Number of entities that follow
+     * @throws IOException if the count could not be read or is out of range
+     */
+    public static int readCount(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_ENTITY_COUNT)
+            throw new IOException("Invalid entity count [" + count + "]");
+        return count;
+    }
 }
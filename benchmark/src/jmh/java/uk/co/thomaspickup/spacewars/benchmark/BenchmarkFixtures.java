@@ -0,0 +1,191 @@
+package uk.co.thomaspickup.spacewars.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
+import uk.co.thomaspickup.spacewars.gage.engine.audio.Sound;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.SoftwareImage;
+import uk.co.thomaspickup.spacewars.gage.util.Vector2;
+import uk.co.thomaspickup.spacewars.gage.world.Sprite;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.AISpaceship;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.Asteroid;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.Laser;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.PlayerSpaceship;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.SpaceLevel;
+
+/**
+ * Helpers used to build engine objects for the benchmarks without an Android
+ * runtime.
+ *
+ * @version 1.0
+ */
+final class BenchmarkFixtures {
+
+	/**
+	 * Seed used for every fixture, so that runs are comparable
+	 */
+	static final long SEED = 42L;
+
+	/**
+	 * Names of the bitmaps used by the space level
+	 */
+	private static final String[] LEVEL_BITMAPS = { "Asteroid1", "Asteroid2",
+			"Spaceship1", "Spaceship2", "Turret", "PlayerBeam", "EnemyBeam" };
+
+	/**
+	 * Names of the sounds used by the space level
+	 */
+	private static final String[] LEVEL_SOUNDS = { "WeaponExplosion",
+			"WeaponFire" };
+
+	private BenchmarkFixtures() {
+	}
+
+	/**
+	 * Create a software image of the specified size
+	 *
+	 * @param width
+	 *            Width of the image
+	 * @param height
+	 *            Height of the image
+	 * @return Transparent image of the specified size
+	 */
+	static IImage createBitmap(int width, int height) {
+		return new SoftwareImage(width, height);
+	}
+
+	/**
+	 * Create a sprite at the specified location. The sprite has no bitmap or
+	 * owning screen.
+	 *
+	 * @param x
+	 *            Centre x location of the sprite
+	 * @param y
+	 *            Centre y location of the sprite
+	 * @param size
+	 *            Width and height of the sprite
+	 * @return New sprite
+	 */
+	static Sprite createSprite(float x, float y, float size) {
+		Sprite sprite = new Sprite(x, y, size, size, null, null);
+		sprite.maxAcceleration = 100.0f;
+		sprite.maxVelocity = 200.0f;
+		sprite.maxAngularAcceleration = 50.0f;
+		sprite.maxAngularVelocity = 150.0f;
+		return sprite;
+	}
+
+	/**
+	 * Create a list of sprites scattered across the specified square area
+	 *
+	 * @param count
+	 *            Number of sprites to create
+	 * @param extent
+	 *            Width and height of the area
+	 * @return List of sprites
+	 */
+	static List<Sprite> createSprites(int count, float extent) {
+		Random random = new Random(SEED);
+		List<Sprite> sprites = new ArrayList<Sprite>(count);
+		for (int idx = 0; idx < count; idx++)
+			sprites.add(createSprite(random.nextFloat() * extent,
+					random.nextFloat() * extent, 20.0f));
+		return sprites;
+	}
+
+	/**
+	 * Create an asset store holding every bitmap and sound used by the space
+	 * level. The assets are registered up front, so the level finds them
+	 * already loaded and never touches the asset files. The sounds are silent.
+	 *
+	 * @return Asset store for the space level
+	 */
+	static AssetStore createLevelAssetStore() {
+		AssetStore assetStore = new AssetStore(null);
+		for (String bitmap : LEVEL_BITMAPS)
+			assetStore.add(bitmap, createBitmap(64, 64));
+		for (String sound : LEVEL_SOUNDS)
+			assetStore.add(sound, new SilentSound());
+		return assetStore;
+	}
+
+	/**
+	 * Replace the entities of a level with the specified number of entities.
+	 * Half are asteroids, a fifth are seekers, a fifth are turrets and the
+	 * remainder are player lasers in flight. The player cannot run out of
+	 * lives, so the level is never lost.
+	 *
+	 * @param level
+	 *            Level to fill, already generated
+	 * @param entityCount
+	 *            Total number of entities
+	 * @param difficulty
+	 *            Difficulty the AI spaceships are created on
+	 */
+	static void populateLevel(SpaceLevel level, int entityCount, int difficulty) {
+		int numAsteroids = entityCount / 2;
+		int numSeekers = entityCount / 5;
+		int numTurrets = entityCount / 5;
+		int numLasers = entityCount - numAsteroids - numSeekers - numTurrets;
+
+		Random random = level.getRandom();
+		float levelWidth = SpaceLevel.LEVEL_WIDTH;
+		float levelHeight = SpaceLevel.LEVEL_HEIGHT;
+
+		PlayerSpaceship player = level.getPlayerSpaceship();
+		player.setLives(Integer.MAX_VALUE);
+
+		List<Asteroid> asteroids = level.getAsteroids();
+		asteroids.clear();
+		for (int idx = 0; idx < numAsteroids; idx++)
+			asteroids.add(new Asteroid(random.nextFloat() * levelWidth,
+					random.nextFloat() * levelHeight, random, level));
+		level.rebuildAsteroidTree();
+
+		level.clearAISpaceships();
+		for (int idx = 0; idx < numSeekers; idx++)
+			level.addAISpaceship(new AISpaceship(random.nextFloat() * levelWidth,
+					random.nextFloat() * levelHeight,
+					AISpaceship.ShipBehaviour.Seeker, level, difficulty, 100));
+		for (int idx = 0; idx < numTurrets; idx++)
+			level.addAISpaceship(new AISpaceship(random.nextFloat() * levelWidth,
+					random.nextFloat() * levelHeight,
+					AISpaceship.ShipBehaviour.Turret, level, difficulty, 100));
+
+		IImage beam = level.getAssetStore().getBitmap("PlayerBeam");
+		Vector2 laserVelocity = new Vector2();
+		player.mLasers.clear();
+		for (int idx = 0; idx < numLasers; idx++) {
+			laserVelocity.set(random.nextFloat() * 100.0f - 50.0f,
+					random.nextFloat() * 100.0f - 50.0f);
+			player.mLasers.add(new Laser((int) (random.nextFloat() * levelWidth),
+					(int) (random.nextFloat() * levelHeight), null, beam,
+					Vector2.Zero, laserVelocity, 0.0f));
+		}
+	}
+
+	/**
+	 * Sound that plays nothing
+	 */
+	private static class SilentSound extends Sound {
+
+		SilentSound() {
+			super(null, 0);
+		}
+
+		@Override
+		public void play() {
+		}
+
+		@Override
+		public void play(float volume) {
+		}
+
+		@Override
+		public void play(float leftVolume, float rightVolume) {
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package uk.co.thomaspickup.spacewars.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import uk.co.thomaspickup.spacewars.gage.util.BoundingBox;
+import uk.co.thomaspickup.spacewars.gage.util.BoundingVolumeHierarchy;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector;
+import uk.co.thomaspickup.spacewars.gage.world.Sprite;
+
+/**
+ * Finds the static sprites (asteroids) overlapping a ship sized bound,
+ * scanning every sprite against querying the bounding volume hierarchy
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoundingVolumeHierarchyBenchmark {
+
+	/**
+	 * Width and height of the area the sprites are scattered over
+	 */
+	private static final float EXTENT = 1000.0f;
+
+	@Param({ "20", "1000" })
+	public int spriteCount;
+
+	private List<Sprite> mSprites;
+	private BoundingVolumeHierarchy<Sprite> mTree;
+	private BoundingBox mBound;
+	private List<Sprite> mResults;
+
+	@Setup
+	public void setup() {
+		mSprites = BenchmarkFixtures.createSprites(spriteCount, EXTENT);
+		mTree = new BoundingVolumeHierarchy<Sprite>();
+		mTree.build(mSprites);
+		mBound = new BoundingBox(EXTENT / 2.0f, EXTENT / 2.0f, 25.0f, 25.0f);
+		mResults = new ArrayList<Sprite>();
+	}
+
+	@Benchmark
+	public int linearScan() {
+		mResults.clear();
+		for (int idx = 0; idx < mSprites.size(); idx++) {
+			Sprite sprite = mSprites.get(idx);
+			if (CollisionDetector.isCollision(mBound, sprite.getBound()))
+				mResults.add(sprite);
+		}
+		return mResults.size();
+	}
+
+	@Benchmark
+	public int treeQuery() {
+		mTree.query(mBound, mResults);
+		return mResults.size();
+	}
+}
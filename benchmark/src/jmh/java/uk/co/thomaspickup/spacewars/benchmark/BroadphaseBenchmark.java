@@ -0,0 +1,129 @@
+package uk.co.thomaspickup.spacewars.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import uk.co.thomaspickup.spacewars.gage.util.GridBroadphase;
+import uk.co.thomaspickup.spacewars.gage.util.IBroadphase;
+import uk.co.thomaspickup.spacewars.gage.util.SweepAndPruneBroadphase;
+import uk.co.thomaspickup.spacewars.gage.world.Sprite;
+
+/**
+ * Compares the grid and sweep and prune broadphases over a tick: every
+ * sprite moves a little, the broadphase is updated and the overlapping pairs
+ * are found.
+ *
+ * The sprites are either spread evenly, or mostly gathered into a few tight
+ * clusters with the rest scattered across a wide, otherwise empty, area.
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BroadphaseBenchmark {
+
+	/**
+	 * Width and height of each sprite, and the cell size of the grid
+	 */
+	private static final float SPRITE_SIZE = 40.0f;
+	private static final float CELL_SIZE = 100.0f;
+
+	/**
+	 * Number of clusters, and the share of the sprites gathered into them,
+	 * when the sprites are clustered
+	 */
+	private static final int CLUSTER_COUNT = 8;
+	private static final float CLUSTERED_SHARE = 0.8f;
+
+	/**
+	 * Number of ticks each sprite moves in one direction before turning back
+	 */
+	private static final int TICKS_PER_LEG = 64;
+
+	@Param({ "grid", "sap" })
+	public String broadphase;
+
+	@Param({ "uniform", "clustered" })
+	public String layout;
+
+	@Param({ "1000", "10000" })
+	public int spriteCount;
+
+	private IBroadphase<Sprite> mBroadphase;
+	private List<Sprite> mSprites;
+	private float[] mVelocityX;
+	private float[] mVelocityY;
+	private List<Sprite> mPairs;
+	private int mTick;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(BenchmarkFixtures.SEED);
+
+		// Keep the average density the same whatever the number of sprites
+		float extent = 200.0f * (float) Math.sqrt(spriteCount);
+		boolean clustered = layout.equals("clustered");
+
+		float[] clusterX = new float[CLUSTER_COUNT];
+		float[] clusterY = new float[CLUSTER_COUNT];
+		for (int cluster = 0; cluster < CLUSTER_COUNT; cluster++) {
+			clusterX[cluster] = random.nextFloat() * extent * 4.0f;
+			clusterY[cluster] = random.nextFloat() * extent * 4.0f;
+		}
+
+		mSprites = new ArrayList<Sprite>(spriteCount);
+		mVelocityX = new float[spriteCount];
+		mVelocityY = new float[spriteCount];
+		for (int idx = 0; idx < spriteCount; idx++) {
+			float x, y;
+			if (!clustered) {
+				x = random.nextFloat() * extent;
+				y = random.nextFloat() * extent;
+			} else if (random.nextFloat() < CLUSTERED_SHARE) {
+				int cluster = random.nextInt(CLUSTER_COUNT);
+				x = clusterX[cluster] + (float) random.nextGaussian() * extent / 20.0f;
+				y = clusterY[cluster] + (float) random.nextGaussian() * extent / 20.0f;
+			} else {
+				x = random.nextFloat() * extent * 4.0f;
+				y = random.nextFloat() * extent * 4.0f;
+			}
+			mSprites.add(BenchmarkFixtures.createSprite(x, y, SPRITE_SIZE));
+			mVelocityX[idx] = random.nextFloat() * 4.0f - 2.0f;
+			mVelocityY[idx] = random.nextFloat() * 4.0f - 2.0f;
+		}
+
+		if (broadphase.equals("sap"))
+			mBroadphase = new SweepAndPruneBroadphase<Sprite>();
+		else
+			mBroadphase = new GridBroadphase<Sprite>(CELL_SIZE);
+		mBroadphase.update(mSprites);
+		mPairs = new ArrayList<Sprite>();
+		mTick = 0;
+	}
+
+	@Benchmark
+	public int updateAndFindPairs() {
+		float direction = (mTick++ / TICKS_PER_LEG) % 2 == 0 ? 1.0f : -1.0f;
+		for (int idx = 0; idx < mSprites.size(); idx++) {
+			Sprite sprite = mSprites.get(idx);
+			sprite.position.x += mVelocityX[idx] * direction;
+			sprite.position.y += mVelocityY[idx] * direction;
+		}
+
+		mBroadphase.update(mSprites);
+		mBroadphase.findPairs(mPairs);
+		return mPairs.size();
+	}
+}
@@ -0,0 +1,128 @@
+package uk.co.thomaspickup.spacewars.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import uk.co.thomaspickup.spacewars.gage.util.BoundingBox;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector;
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector.CollisionType;
+import uk.co.thomaspickup.spacewars.gage.util.OrientedBoundingBox;
+import uk.co.thomaspickup.spacewars.gage.world.Sprite;
+
+/**
+ * Benchmarks for the bounding box collision tests
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionDetectorBenchmark {
+
+	private BoundingBox mBox;
+	private BoundingBox mOverlappingBox;
+	private BoundingBox mSeparateBox;
+	private BoundingBox mLaserBox;
+
+	private OrientedBoundingBox mOrientedBox;
+	private OrientedBoundingBox mOverlappingOrientedBox;
+	private OrientedBoundingBox mSeparateOrientedBox;
+	private OrientedBoundingBox mOrientedLaserBox;
+
+	private Sprite mMovingSprite;
+	private Sprite mStaticSprite;
+
+	@Setup
+	public void setup() {
+		mBox = new BoundingBox(100.0f, 100.0f, 20.0f, 20.0f);
+		mOverlappingBox = new BoundingBox(110.0f, 95.0f, 20.0f, 20.0f);
+		mSeparateBox = new BoundingBox(300.0f, 300.0f, 20.0f, 20.0f);
+		mLaserBox = new BoundingBox(40.0f, 90.0f, 4.5f, 1.5f);
+
+		mOrientedBox = new OrientedBoundingBox(100.0f, 100.0f, 20.0f, 20.0f, 30.0f);
+		mOverlappingOrientedBox = new OrientedBoundingBox(110.0f, 95.0f, 20.0f,
+				20.0f, 75.0f);
+		mSeparateOrientedBox = new OrientedBoundingBox(300.0f, 300.0f, 20.0f,
+				20.0f, 75.0f);
+		mOrientedLaserBox = new OrientedBoundingBox(40.0f, 90.0f, 4.5f, 1.5f,
+				-10.0f);
+
+		mMovingSprite = BenchmarkFixtures.createSprite(110.0f, 95.0f, 40.0f);
+		mStaticSprite = BenchmarkFixtures.createSprite(100.0f, 100.0f, 40.0f);
+	}
+
+	@Benchmark
+	public boolean isCollisionOverlapping() {
+		return CollisionDetector.isCollision(mBox, mOverlappingBox);
+	}
+
+	@Benchmark
+	public boolean isCollisionSeparate() {
+		return CollisionDetector.isCollision(mBox, mSeparateBox);
+	}
+
+	/**
+	 * Overlapping boxes test every axis, separate boxes stop at the first
+	 */
+	@Benchmark
+	public boolean isCollisionOrientedOverlapping() {
+		return CollisionDetector.isCollision(mOrientedBox,
+				mOverlappingOrientedBox);
+	}
+
+	@Benchmark
+	public boolean isCollisionOrientedSeparate() {
+		return CollisionDetector.isCollision(mOrientedBox, mSeparateOrientedBox);
+	}
+
+	@Benchmark
+	public boolean isCollisionOrientedCircle() {
+		return CollisionDetector.isCollision(mOrientedBox, 130.0f, 110.0f,
+				20.0f);
+	}
+
+	@Benchmark
+	public boolean isCircleCollision() {
+		return CollisionDetector.isCircleCollision(100.0f, 100.0f, 20.0f,
+				130.0f, 110.0f, 20.0f);
+	}
+
+	/**
+	 * A laser crossing the whole of mBox in a single step
+	 */
+	@Benchmark
+	public float sweptTimeOfImpactHit() {
+		return CollisionDetector.sweptTimeOfImpact(mLaserBox, 120.0f, 20.0f,
+				mBox);
+	}
+
+	@Benchmark
+	public float sweptTimeOfImpactMiss() {
+		return CollisionDetector.sweptTimeOfImpact(mLaserBox, 120.0f, 20.0f,
+				mSeparateBox);
+	}
+
+	@Benchmark
+	public float sweptTimeOfImpactOrientedHit() {
+		return CollisionDetector.sweptTimeOfImpact(mOrientedLaserBox, 120.0f,
+				20.0f, mOrientedBox);
+	}
+
+	/**
+	 * Resolving a collision moves the first sprite, so it is placed back in
+	 * an overlapping position before every call.
+	 */
+	@Benchmark
+	public CollisionType determineAndResolveCollision() {
+		mMovingSprite.setPosition(110.0f, 95.0f);
+		return CollisionDetector.determineAndResolveCollision(mMovingSprite,
+				mStaticSprite);
+	}
+}
@@ -0,0 +1,101 @@
+package uk.co.thomaspickup.spacewars.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import uk.co.thomaspickup.spacewars.gage.util.CollisionDetector;
+import uk.co.thomaspickup.spacewars.gage.util.Contact;
+import uk.co.thomaspickup.spacewars.gage.util.ContactSolver;
+import uk.co.thomaspickup.spacewars.gage.util.GridBroadphase;
+import uk.co.thomaspickup.spacewars.gage.world.Sprite;
+
+/**
+ * Separates a dense pile of overlapping sprites, pushing the first sprite
+ * of each pair out in turn against gathering the contacts and running the
+ * contact solver. The sprites are put back in the pile before every call.
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContactSolverBenchmark {
+
+	@Param({ "50", "500" })
+	public int spriteCount;
+
+	private List<Sprite> mSprites;
+	private float[] mStartX;
+	private float[] mStartY;
+	private List<Sprite> mPairs;
+	private ContactSolver mContactSolver;
+	private Contact mContact;
+
+	@Setup
+	public void setup() {
+		// Pile the sprites so that each overlaps a few others
+		mSprites = BenchmarkFixtures.createSprites(spriteCount,
+				12.0f * (float) Math.sqrt(spriteCount));
+		mStartX = new float[spriteCount];
+		mStartY = new float[spriteCount];
+		for (int idx = 0; idx < spriteCount; idx++) {
+			mStartX[idx] = mSprites.get(idx).position.x;
+			mStartY[idx] = mSprites.get(idx).position.y;
+		}
+
+		GridBroadphase<Sprite> broadphase = new GridBroadphase<Sprite>(20.0f);
+		broadphase.update(mSprites);
+		mPairs = new ArrayList<Sprite>();
+		broadphase.findPairs(mPairs);
+
+		mContactSolver = new ContactSolver();
+		mContact = new Contact();
+	}
+
+	@Benchmark
+	public int resolvePairsInTurn() {
+		resetPile();
+		int resolved = 0;
+		for (int idx = 0; idx < mPairs.size(); idx += 2) {
+			Sprite one = mPairs.get(idx);
+			Sprite two = mPairs.get(idx + 1);
+			if (CollisionDetector.isCollision(one.getBound(), two.getBound())) {
+				CollisionDetector.determineAndResolveCollision(one, two);
+				resolved++;
+			}
+		}
+		return resolved;
+	}
+
+	@Benchmark
+	public int contactSolver() {
+		resetPile();
+		mContactSolver.clear();
+		for (int idx = 0; idx < mPairs.size(); idx += 2) {
+			Sprite one = mPairs.get(idx);
+			Sprite two = mPairs.get(idx + 1);
+			if (CollisionDetector.getContact(one, two, mContact))
+				mContactSolver.add(one, two);
+		}
+		mContactSolver.solve();
+		return mContactSolver.size();
+	}
+
+	/**
+	 * Put every sprite back where it started
+	 */
+	private void resetPile() {
+		for (int idx = 0; idx < spriteCount; idx++)
+			mSprites.get(idx).setPosition(mStartX[idx], mStartY[idx]);
+	}
+}
@@ -0,0 +1,130 @@
+package uk.co.thomaspickup.spacewars.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import uk.co.thomaspickup.spacewars.gage.util.FastMath;
+
+/**
+ * Benchmarks for the table driven trigonometry against java.lang.Math. Each
+ * invocation works through a batch of random angles and vectors, so the
+ * scores are per call.
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FastMathBenchmark {
+
+	private static final int BATCH_SIZE = 1024;
+
+	private float[] mDegrees;
+	private float[] mX;
+	private float[] mY;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		mDegrees = new float[BATCH_SIZE];
+		mX = new float[BATCH_SIZE];
+		mY = new float[BATCH_SIZE];
+		for (int idx = 0; idx < BATCH_SIZE; idx++) {
+			mDegrees[idx] = random.nextFloat() * 720.0f - 360.0f;
+			mX[idx] = random.nextFloat() * 200.0f - 100.0f;
+			mY[idx] = random.nextFloat() * 200.0f - 100.0f;
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public float sinMath() {
+		float sum = 0.0f;
+		for (int idx = 0; idx < BATCH_SIZE; idx++)
+			sum += (float) Math.sin(Math.toRadians(mDegrees[idx]));
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public float sinFastMath() {
+		float sum = 0.0f;
+		for (int idx = 0; idx < BATCH_SIZE; idx++)
+			sum += FastMath.sinDeg(mDegrees[idx]);
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public float cosMath() {
+		float sum = 0.0f;
+		for (int idx = 0; idx < BATCH_SIZE; idx++)
+			sum += (float) Math.cos(Math.toRadians(mDegrees[idx]));
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public float cosFastMath() {
+		float sum = 0.0f;
+		for (int idx = 0; idx < BATCH_SIZE; idx++)
+			sum += FastMath.cosDeg(mDegrees[idx]);
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public float atan2Math() {
+		float sum = 0.0f;
+		for (int idx = 0; idx < BATCH_SIZE; idx++)
+			sum += (float) Math.toDegrees(Math.atan2(mY[idx], mX[idx]));
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public float atan2FastMath() {
+		float sum = 0.0f;
+		for (int idx = 0; idx < BATCH_SIZE; idx++)
+			sum += FastMath.atan2Deg(mY[idx], mX[idx]);
+		return sum;
+	}
+
+	/**
+	 * The wrapping formerly done by SteeringBehaviours.align
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public float wrapDivisions() {
+		float sum = 0.0f;
+		for (int idx = 0; idx < BATCH_SIZE; idx++) {
+			float separation = mDegrees[idx];
+			int numDivisions = (int) (separation / 180.0f);
+			if (numDivisions > 0)
+				numDivisions += 1;
+			else
+				numDivisions -= 1;
+			separation -= (numDivisions / 2) * 360;
+			sum += separation;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public float wrapFastMath() {
+		float sum = 0.0f;
+		for (int idx = 0; idx < BATCH_SIZE; idx++)
+			sum += FastMath.wrapDegrees(mDegrees[idx]);
+		return sum;
+	}
+}
@@ -0,0 +1,72 @@
+package uk.co.thomaspickup.spacewars.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect;
+import uk.co.thomaspickup.spacewars.gage.util.GraphicsHelper;
+import uk.co.thomaspickup.spacewars.gage.world.GameObject;
+import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
+import uk.co.thomaspickup.spacewars.gage.world.ScreenViewport;
+
+/**
+ * Benchmarks for the per object viewport clipping performed on every draw
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GraphicsHelperBenchmark {
+
+	private LayerViewport mLayerViewport;
+	private ScreenViewport mScreenViewport;
+
+	private GameObject mVisibleObject;
+	private GameObject mClippedObject;
+	private GameObject mHiddenObject;
+
+	private IntRect mSourceRect;
+	private IntRect mScreenRect;
+
+	@Setup
+	public void setup() {
+		mLayerViewport = new LayerViewport(240.0f, 160.0f, 240.0f, 160.0f);
+		mScreenViewport = new ScreenViewport(0, 0, 1920, 1280);
+
+		mVisibleObject = new GameObject(240.0f, 160.0f, 64.0f, 64.0f,
+				BenchmarkFixtures.createBitmap(128, 128), null);
+		mClippedObject = new GameObject(10.0f, 10.0f, 64.0f, 64.0f,
+				BenchmarkFixtures.createBitmap(128, 128), null);
+		mHiddenObject = new GameObject(1000.0f, 1000.0f, 64.0f, 64.0f,
+				BenchmarkFixtures.createBitmap(128, 128), null);
+
+		mSourceRect = new IntRect();
+		mScreenRect = new IntRect();
+	}
+
+	@Benchmark
+	public boolean visible() {
+		return GraphicsHelper.getClippedSourceAndScreenRect(mVisibleObject,
+				mLayerViewport, mScreenViewport, mSourceRect, mScreenRect);
+	}
+
+	@Benchmark
+	public boolean clipped() {
+		return GraphicsHelper.getClippedSourceAndScreenRect(mClippedObject,
+				mLayerViewport, mScreenViewport, mSourceRect, mScreenRect);
+	}
+
+	@Benchmark
+	public boolean hidden() {
+		return GraphicsHelper.getClippedSourceAndScreenRect(mHiddenObject,
+				mLayerViewport, mScreenViewport, mSourceRect, mScreenRect);
+	}
+}
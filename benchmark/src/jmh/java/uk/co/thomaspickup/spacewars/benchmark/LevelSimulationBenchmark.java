@@ -0,0 +1,156 @@
+package uk.co.thomaspickup.spacewars.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
+import uk.co.thomaspickup.spacewars.gage.util.ParallelLoop;
+import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
+import uk.co.thomaspickup.spacewars.game.SpaceGame;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.LevelInput;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.SpaceLevel;
+
+/**
+ * Runs whole ticks of the space level, headless, with scripted player input.
+ *
+ * The level is generated as it would be for the game and then repopulated
+ * with the requested number of entities, split between asteroids, seekers,
+ * turrets and player lasers in flight. The level is rebuilt before every
+ * iteration so that each iteration starts from the same state. Should the
+ * level be won part way through an iteration, it is rebuilt there and then,
+ * so that no tick is measured against an empty level.
+ *
+ * The throughput mode reports ticks per second and the sample mode reports the
+ * distribution of tick times (including p0.99). Allocation rates are reported
+ * by the gc profiler configured in the build. The AI steering is worked out
+ * on the requested number of threads (e.g. -p threads=1,4).
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+public class LevelSimulationBenchmark {
+
+	/**
+	 * Difficulty the level is played on (Normal)
+	 */
+	private static final int DIFFICULTY = 2;
+
+	/**
+	 * Ticks run each second, matching the game's target frame rate
+	 */
+	private static final int TICKS_PER_SECOND = SpaceGame.TARGET_FRAMES_PER_SECOND;
+
+	/**
+	 * Length of a tick in seconds
+	 */
+	private static final float STEP_TIME = 1.0f / TICKS_PER_SECOND;
+
+	/**
+	 * Number of ticks of scripted input (20 seconds), which is repeated as
+	 * needed
+	 */
+	private static final int SCRIPT_LENGTH = 20 * TICKS_PER_SECOND;
+
+	/**
+	 * Number of ticks between presses of the fire button (1.5 seconds)
+	 */
+	private static final int FIRE_INTERVAL = 3 * TICKS_PER_SECOND / 2;
+
+	/**
+	 * Total number of entities in the level
+	 */
+	@Param({ "10", "100", "1000", "10000" })
+	public int entityCount;
+
+	/**
+	 * Number of threads the AI steering is worked out on
+	 */
+	@Param({ "1" })
+	public int threads;
+
+	private AssetStore mAssetStore;
+	private ParallelLoop mParallelLoop;
+	private SpaceLevel mLevel;
+
+	private LevelInput[] mScript;
+	private int mScriptPosition;
+
+	@Setup(Level.Trial)
+	public void createAssets() {
+		mAssetStore = BenchmarkFixtures.createLevelAssetStore();
+		mScript = createScript();
+		mParallelLoop = new ParallelLoop(threads);
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdownParallelLoop() {
+		mParallelLoop.shutdown();
+	}
+
+	@Setup(Level.Iteration)
+	public void createLevel() {
+		mLevel = new SpaceLevel(null, mAssetStore, TICKS_PER_SECOND, 0,
+				new LayerViewport(240.0f, 135.0f, 240.0f, 135.0f), DIFFICULTY);
+		mLevel.setParallelLoop(mParallelLoop);
+		mLevel.generate(BenchmarkFixtures.SEED);
+		BenchmarkFixtures.populateLevel(mLevel, entityCount, DIFFICULTY);
+		mScriptPosition = 0;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public int ticksPerSecond() {
+		return tick();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public int tickTime() {
+		return tick();
+	}
+
+	/**
+	 * Run the next tick of the level using the next tick of the script,
+	 * rebuilding the level if the tick ends it
+	 */
+	private int tick() {
+		LevelInput levelInput = mScript[mScriptPosition];
+		mScriptPosition = (mScriptPosition + 1) % SCRIPT_LENGTH;
+		int outcome = mLevel.tick(levelInput);
+		if (outcome != SpaceLevel.TICK_CONTINUE)
+			createLevel();
+		return outcome;
+	}
+
+	/**
+	 * Create the scripted input, in which the player steers around in a
+	 * circle and fires at regular intervals.
+	 */
+	private static LevelInput[] createScript() {
+		LevelInput[] script = new LevelInput[SCRIPT_LENGTH];
+		for (int idx = 0; idx < SCRIPT_LENGTH; idx++) {
+			double angle = 2.0 * Math.PI * idx / SCRIPT_LENGTH;
+
+			LevelInput levelInput = new LevelInput();
+			levelInput.stepTime = STEP_TIME;
+			levelInput.steering = true;
+			levelInput.steerX = (float) Math.cos(angle);
+			levelInput.steerY = (float) Math.sin(angle);
+			levelInput.fire = idx % FIRE_INTERVAL == FIRE_INTERVAL - 1;
+			script[idx] = levelInput;
+		}
+		return script;
+	}
+}
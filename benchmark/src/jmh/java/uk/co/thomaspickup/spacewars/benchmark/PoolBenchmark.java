@@ -0,0 +1,53 @@
+package uk.co.thomaspickup.spacewars.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import uk.co.thomaspickup.spacewars.gage.util.Pool;
+import uk.co.thomaspickup.spacewars.gage.util.Vector2;
+
+/**
+ * Benchmarks for taking objects from, and returning them to, an object pool
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PoolBenchmark {
+
+	private static final int MAX_POOL_SIZE = 100;
+
+	private Pool<Vector2> mPool;
+
+	@Setup
+	public void setup() {
+		mPool = new Pool<Vector2>(new Pool.ObjectFactory<Vector2>() {
+			@Override
+			public Vector2 createObject() {
+				return new Vector2();
+			}
+		}, MAX_POOL_SIZE);
+
+		// Fill the pool so that get is served from the free list
+		Vector2[] objects = new Vector2[MAX_POOL_SIZE];
+		for (int idx = 0; idx < MAX_POOL_SIZE; idx++)
+			objects[idx] = mPool.get();
+		for (int idx = 0; idx < MAX_POOL_SIZE; idx++)
+			mPool.add(objects[idx]);
+	}
+
+	@Benchmark
+	public Vector2 getAndAdd() {
+		Vector2 object = mPool.get();
+		mPool.add(object);
+		return object;
+	}
+}
@@ -0,0 +1,100 @@
+package uk.co.thomaspickup.spacewars.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
+import uk.co.thomaspickup.spacewars.gage.engine.io.DeltaJournal;
+import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
+import uk.co.thomaspickup.spacewars.game.SpaceGame;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.SpaceLevel;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.SpaceSave;
+
+/**
+ * Writes a level to a binary snapshot and reads it back, to check that a
+ * snapshot of thousands of entities is taken well within a frame.
+ *
+ * The level is populated as by the level simulation benchmark. Writing
+ * serialises the level into a reused checkpoint buffer, as the autosave does
+ * on the game thread. Reading rebuilds every game object of the snapshot and
+ * restores them into a level, as happens when the level is resumed.
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnapshotBenchmark {
+
+	/**
+	 * Difficulty the level is played on (Normal)
+	 */
+	private static final int DIFFICULTY = 2;
+
+	/**
+	 * Total number of entities in the level
+	 */
+	@Param({ "30", "1000", "10000" })
+	public int entityCount;
+
+	private AssetStore mAssetStore;
+	private SpaceSave mSaveFile;
+	private DeltaJournal.CheckpointBuffer mBuffer;
+	private DataOutputStream mOut;
+	private byte[] mSnapshot;
+
+	@Setup
+	public void setup() throws IOException {
+		mAssetStore = BenchmarkFixtures.createLevelAssetStore();
+		SpaceLevel level = createLevel();
+		level.generate(BenchmarkFixtures.SEED);
+		BenchmarkFixtures.populateLevel(level, entityCount, DIFFICULTY);
+
+		mSaveFile = new SpaceSave();
+		level.save(mSaveFile);
+		mBuffer = new DeltaJournal.CheckpointBuffer(16 * 1024);
+		mOut = new DataOutputStream(mBuffer);
+		mSnapshot = write();
+	}
+
+	@Benchmark
+	public int writeSnapshot() throws IOException {
+		mBuffer.reset();
+		mSaveFile.write(mOut);
+		return mBuffer.size();
+	}
+
+	@Benchmark
+	public SpaceLevel readSnapshot() throws IOException {
+		SpaceLevel level = createLevel();
+		level.restore(SpaceSave.read(new DataInputStream(
+				new ByteArrayInputStream(mSnapshot)), level));
+		return level;
+	}
+
+	/**
+	 * Write the level to a snapshot
+	 */
+	private byte[] write() throws IOException {
+		writeSnapshot();
+		return mBuffer.toByteArray();
+	}
+
+	private SpaceLevel createLevel() {
+		return new SpaceLevel(null, mAssetStore,
+				SpaceGame.TARGET_FRAMES_PER_SECOND, 0, new LayerViewport(
+				240.0f, 135.0f, 240.0f, 135.0f), DIFFICULTY);
+	}
+}
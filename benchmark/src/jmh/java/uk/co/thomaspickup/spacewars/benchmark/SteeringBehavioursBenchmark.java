@@ -0,0 +1,79 @@
+package uk.co.thomaspickup.spacewars.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import uk.co.thomaspickup.spacewars.gage.ai.SteeringBehaviours;
+import uk.co.thomaspickup.spacewars.gage.util.Vector2;
+import uk.co.thomaspickup.spacewars.gage.world.Sprite;
+
+/**
+ * Benchmarks for the steering behaviours used by the AI spaceships
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SteeringBehavioursBenchmark {
+
+	/**
+	 * Sprites the separating sprite is tested against, held in their own
+	 * state so that only the separate benchmark is run for each count.
+	 */
+	@State(Scope.Thread)
+	public static class Neighbours {
+
+		/**
+		 * Number of sprites the separating sprite is tested against
+		 */
+		@Param({ "10", "100", "1000" })
+		public int spriteCount;
+
+		private List<Sprite> mSprites;
+
+		@Setup
+		public void setup() {
+			mSprites = BenchmarkFixtures.createSprites(spriteCount, 1000.0f);
+		}
+	}
+
+	private Sprite mSprite;
+	private Vector2 mTarget;
+	private Vector2 mAcceleration;
+
+	@Setup
+	public void setup() {
+		mSprite = BenchmarkFixtures.createSprite(500.0f, 500.0f, 20.0f);
+		mSprite.orientation = 30.0f;
+		mTarget = new Vector2(750.0f, 250.0f);
+		mAcceleration = new Vector2();
+	}
+
+	@Benchmark
+	public Vector2 seek() {
+		SteeringBehaviours.seek(mSprite, mTarget, mAcceleration);
+		return mAcceleration;
+	}
+
+	@Benchmark
+	public Vector2 separate(Neighbours neighbours) {
+		SteeringBehaviours.separate(mSprite, neighbours.mSprites, 150.0f, 1.0f,
+				mAcceleration);
+		return mAcceleration;
+	}
+
+	@Benchmark
+	public float align() {
+		return SteeringBehaviours.align(mSprite, 120.0f);
+	}
+}
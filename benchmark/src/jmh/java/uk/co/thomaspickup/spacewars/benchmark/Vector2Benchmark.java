@@ -0,0 +1,69 @@
+package uk.co.thomaspickup.spacewars.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import uk.co.thomaspickup.spacewars.gage.util.Vector2;
+
+/**
+ * Benchmarks for the basic vector operations
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class Vector2Benchmark {
+
+	private Vector2 mVector;
+	private Vector2 mOther;
+
+	@Setup
+	public void setup() {
+		mVector = new Vector2(3.0f, 4.0f);
+		mOther = new Vector2(-1.5f, 2.5f);
+	}
+
+	@Benchmark
+	public Vector2 set() {
+		mVector.set(mOther);
+		return mVector;
+	}
+
+	@Benchmark
+	public Vector2 addSubtract() {
+		mVector.add(mOther);
+		mVector.subtract(mOther);
+		return mVector;
+	}
+
+	@Benchmark
+	public Vector2 multiply() {
+		mVector.multiply(1.0f);
+		return mVector;
+	}
+
+	@Benchmark
+	public Vector2 normalise() {
+		mVector.set(3.0f, 4.0f);
+		mVector.normalise();
+		return mVector;
+	}
+
+	@Benchmark
+	public float length() {
+		return mVector.length();
+	}
+
+	@Benchmark
+	public float lengthSquared() {
+		return mVector.lengthSquared();
+	}
+}
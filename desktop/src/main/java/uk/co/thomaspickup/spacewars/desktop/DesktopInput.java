@@ -0,0 +1,180 @@
+package uk.co.thomaspickup.spacewars.desktop;
+
+import java.awt.Component;
+import java.awt.event.KeyAdapter;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+import uk.co.thomaspickup.spacewars.gage.engine.input.Input;
+import uk.co.thomaspickup.spacewars.gage.engine.input.KeyEvent;
+import uk.co.thomaspickup.spacewars.gage.engine.input.TouchEvent;
+
+/**
+ * Adapter feeding AWT mouse and key events into the engine's Input. The left
+ * mouse button acts as the first touch pointer, and keys are translated into
+ * their Android key codes.
+ *
+ * @version 1.0
+ */
+public class DesktopInput {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Input the events are fed into
+	 */
+	private Input mInput;
+
+	/**
+	 * Size of the surface the game is drawn on, used to map the location of
+	 * the mouse within the component onto the surface
+	 */
+	private int mSurfaceWidth;
+	private int mSurfaceHeight;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new adapter feeding the specified input
+	 *
+	 * @param input
+	 *            Input the events are fed into
+	 * @param surfaceWidth
+	 *            Width of the surface the game is drawn on
+	 * @param surfaceHeight
+	 *            Height of the surface the game is drawn on
+	 */
+	public DesktopInput(Input input, int surfaceWidth, int surfaceHeight) {
+		mInput = input;
+		mSurfaceWidth = surfaceWidth;
+		mSurfaceHeight = surfaceHeight;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Start collecting mouse and key events from the specified component
+	 *
+	 * @param component
+	 *            Component the game is displayed in
+	 */
+	public void attach(final Component component) {
+		MouseAdapter mouseAdapter = new MouseAdapter() {
+			@Override
+			public void mousePressed(MouseEvent event) {
+				addTouchEvent(component, event, TouchEvent.TOUCH_DOWN);
+			}
+
+			@Override
+			public void mouseDragged(MouseEvent event) {
+				addTouchEvent(component, event, TouchEvent.TOUCH_DRAGGED);
+			}
+
+			@Override
+			public void mouseReleased(MouseEvent event) {
+				addTouchEvent(component, event, TouchEvent.TOUCH_UP);
+			}
+		};
+		component.addMouseListener(mouseAdapter);
+		component.addMouseMotionListener(mouseAdapter);
+
+		component.addKeyListener(new KeyAdapter() {
+			@Override
+			public void keyPressed(java.awt.event.KeyEvent event) {
+				addKeyEvent(event, KeyEvent.KEY_DOWN);
+			}
+
+			@Override
+			public void keyReleased(java.awt.event.KeyEvent event) {
+				addKeyEvent(event, KeyEvent.KEY_UP);
+			}
+		});
+		component.setFocusable(true);
+		component.requestFocusInWindow();
+	}
+
+	/**
+	 * Feed a left mouse button event into the input as a touch event
+	 *
+	 * @param component
+	 *            Component the event occurred in
+	 * @param event
+	 *            Mouse event
+	 * @param type
+	 *            Type of the touch event (TouchEvent.TOUCH_XXX)
+	 */
+	private void addTouchEvent(Component component, MouseEvent event, int type) {
+		if (type == TouchEvent.TOUCH_DRAGGED
+				? (event.getModifiersEx() & MouseEvent.BUTTON1_DOWN_MASK) == 0
+				: event.getButton() != MouseEvent.BUTTON1)
+			return;
+
+		float x = event.getX() * (float) mSurfaceWidth / component.getWidth();
+		float y = event.getY() * (float) mSurfaceHeight / component.getHeight();
+		mInput.addTouchEvent(type, 0, x, y);
+	}
+
+	/**
+	 * Feed a key event into the input, ignoring keys without an Android key
+	 * code
+	 *
+	 * @param event
+	 *            AWT key event
+	 * @param type
+	 *            Type of the key event (KeyEvent.KEY_XXX)
+	 */
+	private void addKeyEvent(java.awt.event.KeyEvent event, int type) {
+		int keyCode = toKeyCode(event.getKeyCode());
+		if (keyCode == android.view.KeyEvent.KEYCODE_UNKNOWN)
+			return;
+
+		char keyChar = event.getKeyChar() == java.awt.event.KeyEvent.CHAR_UNDEFINED
+				? 0 : event.getKeyChar();
+		mInput.addKeyEvent(type, keyCode, keyChar);
+	}
+
+	/**
+	 * Translate an AWT key code into an Android key code
+	 *
+	 * @param awtKeyCode
+	 *            AWT key code (java.awt.event.KeyEvent.VK_XXX)
+	 * @return Android key code, or KEYCODE_UNKNOWN if there is no equivalent
+	 */
+	public static int toKeyCode(int awtKeyCode) {
+		if (awtKeyCode >= java.awt.event.KeyEvent.VK_A
+				&& awtKeyCode <= java.awt.event.KeyEvent.VK_Z)
+			return android.view.KeyEvent.KEYCODE_A
+					+ (awtKeyCode - java.awt.event.KeyEvent.VK_A);
+		if (awtKeyCode >= java.awt.event.KeyEvent.VK_0
+				&& awtKeyCode <= java.awt.event.KeyEvent.VK_9)
+			return android.view.KeyEvent.KEYCODE_0
+					+ (awtKeyCode - java.awt.event.KeyEvent.VK_0);
+
+		switch (awtKeyCode) {
+		case java.awt.event.KeyEvent.VK_SPACE:
+			return android.view.KeyEvent.KEYCODE_SPACE;
+		case java.awt.event.KeyEvent.VK_ENTER:
+			return android.view.KeyEvent.KEYCODE_ENTER;
+		case java.awt.event.KeyEvent.VK_ESCAPE:
+			return android.view.KeyEvent.KEYCODE_ESCAPE;
+		case java.awt.event.KeyEvent.VK_BACK_SPACE:
+			return android.view.KeyEvent.KEYCODE_BACK;
+		case java.awt.event.KeyEvent.VK_UP:
+			return android.view.KeyEvent.KEYCODE_DPAD_UP;
+		case java.awt.event.KeyEvent.VK_DOWN:
+			return android.view.KeyEvent.KEYCODE_DPAD_DOWN;
+		case java.awt.event.KeyEvent.VK_LEFT:
+			return android.view.KeyEvent.KEYCODE_DPAD_LEFT;
+		case java.awt.event.KeyEvent.VK_RIGHT:
+			return android.view.KeyEvent.KEYCODE_DPAD_RIGHT;
+		default:
+			return android.view.KeyEvent.KEYCODE_UNKNOWN;
+		}
+	}
+}
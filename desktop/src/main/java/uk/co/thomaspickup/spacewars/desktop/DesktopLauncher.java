@@ -0,0 +1,426 @@
+package uk.co.thomaspickup.spacewars.desktop;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Locale;
+
+import javax.imageio.ImageIO;
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import javax.swing.WindowConstants;
+
+import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
+import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.PerformanceOverlay;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.Tracer;
+import uk.co.thomaspickup.spacewars.gage.engine.input.Input;
+import uk.co.thomaspickup.spacewars.gage.engine.input.KeyEvent;
+import uk.co.thomaspickup.spacewars.gage.engine.input.TouchEvent;
+import uk.co.thomaspickup.spacewars.gage.util.ParallelLoop;
+import uk.co.thomaspickup.spacewars.gage.util.SweepAndPruneBroadphase;
+import uk.co.thomaspickup.spacewars.gage.world.GameObject;
+import uk.co.thomaspickup.spacewars.game.SpaceGame;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.ReplayLog;
+
+/**
+ * Runs a space level on the desktop, either headless for a fixed number of
+ * frames (the default, and the mode to profile) or in a window.
+ *
+ * Arguments:
+ *
+ * --frames n       Number of frames to run headless (default 1800, or the
+ *                  whole replay when one is played back)
+ * --seed n         Seed of the first level (default 42)
+ * --difficulty n   Difficulty of the level, 1 to 4 (default 2)
+ * --size wxh       Size of the screen (default 1920x1080)
+ * --assets dir     Directory holding the game's assets
+ *                  (default app/src/main/assets)
+ * --out dir        Write every rendered frame to dir as a PNG image
+ * --overlay        Show the performance overlay
+ * --trace file     Record a trace, written to file as Chrome Trace Event JSON
+ * --threads n      Threads the AI steering is worked out on
+ *                  (default one for each processor)
+ * --broadphase b   Broadphase finding collisions, grid or sap (sweep and
+ *                  prune) (default grid)
+ * --record file    Record the first level to file as a replay
+ * --replay file    Play the level back from the replay in file, generated
+ *                  from the seed and difficulty the replay was recorded on
+ * --nodraw         Only update the level whilst headless, without drawing it
+ * --window         Play the level in a window rather than headless
+ *
+ * Whilst headless the player is steered in a slow circle and fires twice a
+ * second, with the input fed through the engine's Input as it is on a device.
+ * Headless frames are run as fast as possible, so a replay played back
+ * headless re-simulates the level at full speed; in a window it is played
+ * back in real time.
+ *
+ * @version 1.0
+ */
+public class DesktopLauncher {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Number of ticks run each second, matching the target frame rate of the
+	 * game
+	 */
+	private static final int TICKS_PER_SECOND = SpaceGame.TARGET_FRAMES_PER_SECOND;
+
+	/**
+	 * Bitmaps used by the space level and the files they are loaded from
+	 */
+	private static final String[][] LEVEL_BITMAPS = {
+			{ "SpaceBackground", "img/backgrounds/bgSpace.png" },
+			{ "Asteroid1", "img/sprites/sprAsteroid1.png" },
+			{ "Asteroid2", "img/sprites/sprAsteroid2.png" },
+			{ "Spaceship1", "img/sprites/sprSpaceship1.png" },
+			{ "Spaceship2", "img/sprites/sprSpaceship2.png" },
+			{ "Spaceship3", "img/sprites/sprSpaceship3.png" },
+			{ "Turret", "img/sprites/sprTurret.png" },
+			{ "PlayerBeam", "img/sprites/sprPlayerBeam.png" },
+			{ "EnemyBeam", "img/sprites/sprEnemyBeam.png" } };
+
+	/**
+	 * Names of the sounds used by the space level
+	 */
+	private static final String[] LEVEL_SOUNDS = { "WeaponExplosion",
+			"WeaponFire" };
+
+	private DesktopLauncher() {
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	public static void main(String[] args) throws Exception {
+		int frames = -1;
+		long seed = 42L;
+		int difficulty = 2;
+		int width = 1920, height = 1080;
+		File assetDirectory = new File("app/src/main/assets");
+		File outDirectory = null;
+		boolean window = false;
+		boolean overlay = false;
+		File traceFile = null;
+		int threads = Runtime.getRuntime().availableProcessors();
+		String broadphase = "grid";
+		File recordFile = null;
+		File replayFile = null;
+		boolean draw = true;
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--frames"))
+				frames = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--seed"))
+				seed = Long.parseLong(args[++i]);
+			else if (args[i].equals("--difficulty"))
+				difficulty = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--size")) {
+				String[] size = args[++i].split("x");
+				width = Integer.parseInt(size[0]);
+				height = Integer.parseInt(size[1]);
+			} else if (args[i].equals("--assets"))
+				assetDirectory = new File(args[++i]);
+			else if (args[i].equals("--out"))
+				outDirectory = new File(args[++i]);
+			else if (args[i].equals("--window"))
+				window = true;
+			else if (args[i].equals("--overlay"))
+				overlay = true;
+			else if (args[i].equals("--trace"))
+				traceFile = new File(args[++i]);
+			else if (args[i].equals("--threads"))
+				threads = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--broadphase"))
+				broadphase = args[++i];
+			else if (args[i].equals("--record"))
+				recordFile = new File(args[++i]);
+			else if (args[i].equals("--replay"))
+				replayFile = new File(args[++i]);
+			else if (args[i].equals("--nodraw"))
+				draw = false;
+			else
+				throw new IllegalArgumentException("Unknown argument " + args[i]);
+		}
+
+		if (!window)
+			System.setProperty("java.awt.headless", "true");
+		Tracer.setEnabled(traceFile != null);
+
+		// A replay is played back on the level it was recorded on
+		ReplayLog replayLog = null;
+		if (replayFile != null) {
+			replayLog = ReplayLog.startPlayback(new FileInputStream(replayFile));
+			seed = replayLog.getSeed();
+			difficulty = replayLog.getDifficulty();
+			if (frames < 0)
+				frames = Integer.MAX_VALUE;
+		}
+		if (frames < 0)
+			frames = 1800;
+
+		AssetStore assetStore = createLevelAssetStore(new Java2DGraphicsPlatform(
+				assetDirectory));
+		Input input = new Input();
+		DesktopLevelScreen screen = new DesktopLevelScreen(assetStore, input,
+				width, height, TICKS_PER_SECOND, difficulty, seed);
+		if (replayLog != null)
+			screen.startPlayback(replayLog);
+		else if (recordFile != null)
+			screen.startRecording(new FileOutputStream(recordFile));
+		ParallelLoop parallelLoop = new ParallelLoop(threads);
+		screen.getLevel().setParallelLoop(parallelLoop);
+		if (broadphase.equals("sap"))
+			screen.getLevel().setBroadphase(
+					new SweepAndPruneBroadphase<GameObject>());
+		else if (!broadphase.equals("grid"))
+			throw new IllegalArgumentException("Unknown broadphase "
+					+ broadphase);
+		OffscreenRenderSurface renderSurface = new OffscreenRenderSurface(
+				width, height);
+
+		PerformanceOverlay performanceOverlay = new PerformanceOverlay();
+		performanceOverlay.setTargetFramesPerSecond(TICKS_PER_SECOND);
+		performanceOverlay.setAssetStore(assetStore);
+		performanceOverlay.addPool("touch", input.getTouchEventPool());
+		performanceOverlay.addPool("key", input.getKeyEventPool());
+		performanceOverlay.setEnabled(overlay);
+		renderSurface.setPerformanceOverlay(performanceOverlay);
+
+		if (outDirectory != null && !outDirectory.isDirectory()
+				&& !outDirectory.mkdirs())
+			throw new IOException("Could not create " + outDirectory);
+
+		if (window)
+			runWindowed(screen, renderSurface, performanceOverlay, input,
+					width, height, outDirectory);
+		else
+			runHeadless(screen, renderSurface, performanceOverlay, input,
+					frames, draw, outDirectory);
+		screen.stopReplay();
+		parallelLoop.shutdown();
+
+		if (traceFile != null) {
+			OutputStream out = new FileOutputStream(traceFile);
+			try {
+				System.out.println("Wrote " + Tracer.writeTo(out)
+						+ " trace events to " + traceFile);
+			} finally {
+				out.close();
+			}
+		}
+	}
+
+	/**
+	 * Create an asset store holding every bitmap and sound used by the space
+	 * level. The assets are registered up front, so the level finds them
+	 * already loaded and never uses the Android asset manager. The sounds are
+	 * silent.
+	 *
+	 * @param graphicsPlatform
+	 *            Platform the bitmaps are loaded through
+	 * @return Asset store for the space level
+	 * @throws IOException
+	 *             if a bitmap could not be loaded
+	 */
+	private static AssetStore createLevelAssetStore(
+			Java2DGraphicsPlatform graphicsPlatform) throws IOException {
+		AssetStore assetStore = new AssetStore(null);
+		for (String[] bitmap : LEVEL_BITMAPS)
+			assetStore.add(bitmap[0], graphicsPlatform.loadImage(bitmap[1]));
+		for (String sound : LEVEL_SOUNDS)
+			assetStore.add(sound, new SilentSound());
+		return assetStore;
+	}
+
+	/**
+	 * Run the specified number of frames as fast as possible, or until the
+	 * replay being played back has finished, reporting the time spent
+	 * updating and drawing
+	 *
+	 * @param screen
+	 *            Screen playing the level
+	 * @param renderSurface
+	 *            Surface the screen is drawn on
+	 * @param performanceOverlay
+	 *            Overlay the frame timings are recorded into
+	 * @param input
+	 *            Input the scripted steering and firing is fed into
+	 * @param frames
+	 *            Number of frames to run
+	 * @param draw
+	 *            Whether each frame is drawn
+	 * @param outDirectory
+	 *            Directory to write the frames to, or null
+	 * @throws IOException
+	 *             if a frame could not be written
+	 */
+	private static void runHeadless(DesktopLevelScreen screen,
+			OffscreenRenderSurface renderSurface,
+			PerformanceOverlay performanceOverlay, Input input, int frames,
+			boolean draw, File outDirectory) throws IOException {
+		ElapsedTime elapsedTime = new ElapsedTime();
+		long updateTime = 0, drawTime = 0;
+
+		int width = renderSurface.getFrame().getWidth();
+		int height = renderSurface.getFrame().getHeight();
+		input.addTouchEvent(TouchEvent.TOUCH_DOWN, 0, width / 2, height / 2);
+
+		int frame;
+		for (frame = 0; frame < frames && !screen.isReplayFinished(); frame++) {
+			// Steer in a slow circle, firing twice a second
+			double angle = frame * 2.0 * Math.PI / (8 * TICKS_PER_SECOND);
+			input.addTouchEvent(TouchEvent.TOUCH_DRAGGED, 0,
+					(float) (width * (0.5 + 0.4 * Math.cos(angle))),
+					(float) (height * (0.5 + 0.4 * Math.sin(angle))));
+			if (frame % (TICKS_PER_SECOND / 2) == 0) {
+				input.addKeyEvent(KeyEvent.KEY_DOWN,
+						android.view.KeyEvent.KEYCODE_SPACE, ' ');
+				input.addKeyEvent(KeyEvent.KEY_UP,
+						android.view.KeyEvent.KEYCODE_SPACE, ' ');
+			}
+
+			elapsedTime.stepTime = 1.0 / TICKS_PER_SECOND;
+			elapsedTime.totalTime += elapsedTime.stepTime;
+
+			long start = System.nanoTime();
+			Tracer.beginSection("GameScreen.update", screen.getName());
+			input.resetAccumulators();
+			screen.update(elapsedTime);
+			Tracer.endSection();
+			long updated = System.nanoTime();
+			if (draw)
+				renderSurface.render(elapsedTime, screen);
+			long drawn = System.nanoTime();
+
+			updateTime += updated - start;
+			drawTime += drawn - updated;
+			performanceOverlay.recordFrame(updated - start, drawn - updated,
+					screen.getDebugCounters());
+
+			if (draw && outDirectory != null)
+				writeFrame(renderSurface, outDirectory, frame);
+		}
+
+		int framesRun = Math.max(frame, 1);
+		System.out.println(String.format(Locale.UK,
+				"%d frames: update %.3f ms, draw %.3f ms per frame; "
+						+ "levels won %d, lost %d", frame,
+				updateTime / 1e6 / framesRun, drawTime / 1e6 / framesRun,
+				screen.getLevelsWon(), screen.getLevelsLost()));
+	}
+
+	/**
+	 * Play the level in a window until it is closed. Mouse and key input is
+	 * taken from the window.
+	 *
+	 * @param screen
+	 *            Screen playing the level
+	 * @param renderSurface
+	 *            Surface the screen is drawn on
+	 * @param performanceOverlay
+	 *            Overlay the frame timings are recorded into
+	 * @param input
+	 *            Input the window's events are fed into
+	 * @param width
+	 *            Width of the screen
+	 * @param height
+	 *            Height of the screen
+	 * @param outDirectory
+	 *            Directory to write the frames to, or null
+	 */
+	private static void runWindowed(DesktopLevelScreen screen,
+			final OffscreenRenderSurface renderSurface,
+			PerformanceOverlay performanceOverlay, Input input,
+			int width, int height, File outDirectory) throws IOException,
+			InterruptedException, InvocationTargetException {
+		final JComponent view = new JComponent() {
+			@Override
+			protected void paintComponent(Graphics graphics) {
+				graphics.drawImage(renderSurface.getFrame(), 0, 0, getWidth(),
+						getHeight(), null);
+			}
+		};
+		view.setPreferredSize(new Dimension(width / 2, height / 2));
+
+		final JFrame frame = new JFrame("Space Wars");
+		frame.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				frame.add(view);
+				frame.pack();
+				frame.setVisible(true);
+			}
+		});
+		new DesktopInput(input, width, height).attach(view);
+
+		ElapsedTime elapsedTime = new ElapsedTime();
+		long stepPeriod = 1000000000L / TICKS_PER_SECOND;
+		long nextStep = System.nanoTime();
+		for (int frameNumber = 0; frame.isDisplayable(); frameNumber++) {
+			elapsedTime.stepTime = 1.0 / TICKS_PER_SECOND;
+			elapsedTime.totalTime += elapsedTime.stepTime;
+
+			long start = System.nanoTime();
+			Tracer.beginSection("GameScreen.update", screen.getName());
+			input.resetAccumulators();
+			screen.update(elapsedTime);
+			Tracer.endSection();
+			long updated = System.nanoTime();
+
+			// Render and show the frame on the event thread, so the frame
+			// is not painted whilst it is being rendered
+			final ElapsedTime renderTime = elapsedTime;
+			final DesktopLevelScreen renderScreen = screen;
+			SwingUtilities.invokeAndWait(new Runnable() {
+				@Override
+				public void run() {
+					renderSurface.render(renderTime, renderScreen);
+					view.paintImmediately(0, 0, view.getWidth(), view.getHeight());
+				}
+			});
+
+			performanceOverlay.recordFrame(updated - start, System.nanoTime()
+					- updated, screen.getDebugCounters());
+
+			if (outDirectory != null)
+				writeFrame(renderSurface, outDirectory, frameNumber);
+
+			nextStep += stepPeriod;
+			long sleep = nextStep - System.nanoTime();
+			if (sleep > 0)
+				Thread.sleep(sleep / 1000000, (int) (sleep % 1000000));
+			else
+				nextStep = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Write the most recently rendered frame out as a PNG image
+	 *
+	 * @param renderSurface
+	 *            Surface holding the frame
+	 * @param outDirectory
+	 *            Directory to write the frame to
+	 * @param frame
+	 *            Number of the frame
+	 * @throws IOException
+	 *             if the frame could not be written
+	 */
+	private static void writeFrame(OffscreenRenderSurface renderSurface,
+			File outDirectory, int frame) throws IOException {
+		ImageIO.write(renderSurface.getFrame(), "png", new File(outDirectory,
+				String.format(Locale.UK, "frame%05d.png", frame)));
+	}
+}
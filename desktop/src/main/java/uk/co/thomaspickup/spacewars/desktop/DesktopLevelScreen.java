@@ -0,0 +1,306 @@
+package uk.co.thomaspickup.spacewars.desktop;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import uk.co.thomaspickup.spacewars.gage.engine.AssetStore;
+import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.IDebugCounters;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.input.Input;
+import uk.co.thomaspickup.spacewars.gage.engine.input.KeyEvent;
+import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
+import uk.co.thomaspickup.spacewars.gage.world.LayerViewport;
+import uk.co.thomaspickup.spacewars.gage.world.ScreenViewport;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.LevelInput;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.ReplayLog;
+import uk.co.thomaspickup.spacewars.game.spaceLevel.SpaceLevel;
+
+/**
+ * Game screen playing a space level on the desktop. The level is updated and
+ * drawn by the same code as on a device; only the HUD, menus and saving, which
+ * need the Android game, are left out. Steering is taken from the first touch
+ * pointer and the space key fires.
+ *
+ * When the level is won or lost, a new level is generated from the next seed
+ * so that long runs keep exercising the level.
+ *
+ * The first level can be recorded to a replay, or played back from a replay
+ * in place of the input. Once a replay has been played back the level is
+ * left as the replay ended it.
+ *
+ * @version 1.0
+ */
+public class DesktopLevelScreen extends GameScreen {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Input the level is steered from
+	 */
+	private Input mInput;
+
+	/**
+	 * Screen viewport the level is drawn into
+	 */
+	private ScreenViewport mScreenViewport;
+
+	/**
+	 * Level being played and the input for each of its ticks
+	 */
+	private SpaceLevel mLevel;
+	private LevelInput mLevelInput = new LevelInput();
+
+	/**
+	 * Seed the current level was generated from
+	 */
+	private long mSeed;
+
+	/**
+	 * Replay the level is being recorded to or played back from, if any, and
+	 * whether it is being played back
+	 */
+	private ReplayLog mReplayLog;
+	private boolean mPlayback;
+
+	/**
+	 * Number of levels that have been won and lost
+	 */
+	private int mLevelsWon;
+	private int mLevelsLost;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new screen playing a level generated from the specified seed
+	 *
+	 * @param assetStore
+	 *            Asset store holding the bitmaps and sounds of the level
+	 * @param input
+	 *            Input the level is steered from
+	 * @param width
+	 *            Width of the screen
+	 * @param height
+	 *            Height of the screen
+	 * @param ticksPerSecond
+	 *            Number of ticks run each second
+	 * @param difficulty
+	 *            Difficulty the level is played on
+	 * @param seed
+	 *            Seed the first level is generated from
+	 */
+	public DesktopLevelScreen(AssetStore assetStore, Input input, int width,
+			int height, int ticksPerSecond, int difficulty, long seed) {
+		super("DesktopLevelScreen", null);
+		mInput = input;
+
+		// Create the viewports as the level screen does
+		mScreenViewport = new ScreenViewport(0, 0, width, height);
+		LayerViewport layerViewport;
+		if (mScreenViewport.width > mScreenViewport.height)
+			layerViewport = new LayerViewport(240.0f, 240.0f
+					* mScreenViewport.height / mScreenViewport.width, 240,
+					240.0f * mScreenViewport.height / mScreenViewport.width);
+		else
+			layerViewport = new LayerViewport(240.0f * mScreenViewport.height
+					/ mScreenViewport.width, 240.0f, 240.0f
+					* mScreenViewport.height / mScreenViewport.width, 240);
+
+		mLevel = new SpaceLevel(this, assetStore, ticksPerSecond, 0,
+				layerViewport, difficulty);
+		mSeed = seed;
+		mLevel.generate(mSeed);
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Return the level being played
+	 *
+	 * @return Space level
+	 */
+	public SpaceLevel getLevel() {
+		return mLevel;
+	}
+
+	/**
+	 * Return the number of levels that have been won
+	 *
+	 * @return Levels won
+	 */
+	public int getLevelsWon() {
+		return mLevelsWon;
+	}
+
+	/**
+	 * Return the number of levels that have been lost
+	 *
+	 * @return Levels lost
+	 */
+	public int getLevelsLost() {
+		return mLevelsLost;
+	}
+
+	/**
+	 * Record the level to a replay until it is won or lost. Must be called
+	 * before the level is first updated.
+	 *
+	 * @param out
+	 *            Stream to record the replay to
+	 * @throws IOException
+	 *             if the replay could not be written
+	 */
+	public void startRecording(OutputStream out) throws IOException {
+		mReplayLog = ReplayLog.startRecording(out, mSeed, mLevel.getDifficulty());
+		mPlayback = false;
+	}
+
+	/**
+	 * Play the level back from a replay in place of the input. The screen
+	 * must have been created from the seed and difficulty of the replay, and
+	 * not yet updated.
+	 *
+	 * @param replayLog
+	 *            Replay to play back
+	 */
+	public void startPlayback(ReplayLog replayLog) {
+		mReplayLog = replayLog;
+		mPlayback = true;
+	}
+
+	/**
+	 * Return if a replay has been played back to its end
+	 *
+	 * @return True if the replay has finished
+	 */
+	public boolean isReplayFinished() {
+		return mPlayback && mReplayLog == null;
+	}
+
+	/**
+	 * Stop recording or playing back the replay, flushing any recorded ticks
+	 */
+	public void stopReplay() {
+		if (mReplayLog != null) {
+			mReplayLog.close();
+			mReplayLog = null;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.world.GameScreen#getDebugCounters()
+	 */
+	@Override
+	public IDebugCounters getDebugCounters() {
+		return mLevel;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * uk.co.thomaspickup.spacewars.gage.world.GameScreen#update(uk.co.thomaspickup
+	 * .spacewars.gage.engine.ElapsedTime)
+	 */
+	@Override
+	public void update(ElapsedTime elapsedTime) {
+		if (mPlayback) {
+			playbackTick();
+			return;
+		}
+
+		// Fire if the space key was pressed since the last update
+		boolean firePressed = false;
+		List<KeyEvent> keyEvents = mInput.getKeyEvents();
+		for (int i = 0; i < keyEvents.size(); i++) {
+			KeyEvent keyEvent = keyEvents.get(i);
+			if (keyEvent.type == KeyEvent.KEY_DOWN
+					&& keyEvent.keyCode == android.view.KeyEvent.KEYCODE_SPACE)
+				firePressed = true;
+		}
+
+		mLevelInput.capture(mInput, firePressed, mScreenViewport.width,
+				mScreenViewport.height, elapsedTime.stepTime);
+		if (mReplayLog != null) {
+			try {
+				mReplayLog.record(mLevelInput);
+			} catch (IOException e) {
+				throw new IllegalStateException("Could not record replay", e);
+			}
+		}
+		int outcome = mLevel.tick(mLevelInput);
+
+		// Start a new level once this one is over, the replay only holds the
+		// first level
+		if (outcome != SpaceLevel.TICK_CONTINUE) {
+			countOutcome(outcome);
+			stopReplay();
+			mLevel.generate(++mSeed);
+		}
+	}
+
+	/**
+	 * Run the level for the next tick of the replay, if there is one. The
+	 * replay is finished once its last tick has been played back or the level
+	 * is over.
+	 */
+	private void playbackTick() {
+		if (mReplayLog == null)
+			return;
+
+		try {
+			if (!mReplayLog.playback(mLevelInput)) {
+				stopReplay();
+				return;
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not play back replay", e);
+		}
+
+		int outcome = mLevel.tick(mLevelInput);
+		if (outcome != SpaceLevel.TICK_CONTINUE) {
+			countOutcome(outcome);
+			stopReplay();
+		}
+	}
+
+	/**
+	 * Count a level that has been won or lost
+	 *
+	 * @param outcome
+	 *            Outcome of the tick that ended the level
+	 */
+	private void countOutcome(int outcome) {
+		if (outcome == SpaceLevel.TICK_WON)
+			mLevelsWon++;
+		else
+			mLevelsLost++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * uk.co.thomaspickup.spacewars.gage.world.GameScreen#draw(uk.co.thomaspickup
+	 * .spacewars.gage.engine.ElapsedTime,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D)
+	 */
+	@Override
+	public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D) {
+		// Clear the screen to black and define a clip based on the viewport
+		graphics2D.clear(Color.BLACK.getRGB());
+		graphics2D.clipRect(mScreenViewport.toRect());
+
+		mLevel.draw(elapsedTime, graphics2D, mScreenViewport);
+	}
+}
@@ -0,0 +1,263 @@
+package uk.co.thomaspickup.spacewars.desktop;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.Transform;
+
+/**
+ * Java2D binding of the graphics interface, drawing through an AWT Graphics2D
+ * instance. Images must have been created by the Java2D graphics platform.
+ *
+ * @version 1.0
+ */
+public class Java2DGraphics2D implements IGraphics2D {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Graphics instance onto which draw operations are passed
+	 */
+	private Graphics2D mGraphics;
+
+	/**
+	 * Size of the surface being drawn onto
+	 */
+	private int mWidth;
+	private int mHeight;
+
+	/**
+	 * Reusable transform used whilst drawing
+	 */
+	private AffineTransform mTransform = new AffineTransform();
+
+	/**
+	 * Font used to draw text, recreated only when the text size changes
+	 */
+	private Font mFont;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new graphics instance. A Graphics2D instance must be set before
+	 * drawing.
+	 */
+	public Java2DGraphics2D() {
+	}
+
+	/**
+	 * Create a new graphics instance drawing through the specified Graphics2D
+	 *
+	 * @param graphics
+	 *            Graphics instance to draw through
+	 * @param width
+	 *            Width of the surface being drawn onto
+	 * @param height
+	 *            Height of the surface being drawn onto
+	 */
+	public Java2DGraphics2D(Graphics2D graphics, int width, int height) {
+		setGraphics(graphics, width, height);
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Configuration
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Set the Graphics2D instance that subsequent draw operations will use
+	 *
+	 * @param graphics
+	 *            Graphics instance to draw through
+	 * @param width
+	 *            Width of the surface being drawn onto
+	 * @param height
+	 *            Height of the surface being drawn onto
+	 */
+	public void setGraphics(Graphics2D graphics, int width, int height) {
+		mGraphics = graphics;
+		mWidth = width;
+		mHeight = height;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * getSurfaceWidth()
+	 */
+	@Override
+	public int getSurfaceWidth() {
+		return mWidth;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * getSurfaceHeight()
+	 */
+	@Override
+	public int getSurfaceHeight() {
+		return mHeight;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * clipRect(uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect)
+	 */
+	@Override
+	public void clipRect(IntRect clipRegion) {
+		mGraphics.clipRect(clipRegion.left, clipRegion.top,
+				clipRegion.width(), clipRegion.height());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * scale(float, float)
+	 */
+	@Override
+	public void scale(float scaleX, float scaleY) {
+		mGraphics.scale(scaleX, scaleY);
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Draw
+	// /////////////////////////////////////////////////////////////////////////
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * clear(int)
+	 */
+	@Override
+	public void clear(int colour) {
+		// As with the canvas binding the whole clip is filled, ignoring alpha
+		mGraphics.setColor(new Color(colour & 0xFFFFFF));
+		mGraphics.fillRect(0, 0, mWidth, mHeight);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * drawText(java.lang.String, float, float,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint)
+	 */
+	@Override
+	public void drawText(String text, float x, float y, DrawPaint paint) {
+		float textSize = paint == null ? 12.0f : paint.textSize;
+		if (mFont == null || mFont.getSize2D() != textSize)
+			mFont = Java2DGraphicsPlatform.getFont(textSize);
+
+		mGraphics.setFont(mFont);
+		setColour(paint);
+		mGraphics.drawString(text, x, y);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * drawRect(uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint)
+	 */
+	@Override
+	public void drawRect(IntRect rect, DrawPaint paint) {
+		setColour(paint);
+		mGraphics.fillRect(rect.left, rect.top, rect.width(), rect.height());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * drawBitmap(uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint)
+	 */
+	@Override
+	public void drawBitmap(IImage bitmap, IntRect srcRect, IntRect desRect,
+						   DrawPaint paint) {
+		int srcLeft = srcRect == null ? 0 : srcRect.left;
+		int srcTop = srcRect == null ? 0 : srcRect.top;
+		int srcRight = srcRect == null ? bitmap.getWidth() : srcRect.right;
+		int srcBottom = srcRect == null ? bitmap.getHeight() : srcRect.bottom;
+
+		setInterpolation(paint);
+		mGraphics.drawImage(((Java2DImage) bitmap).getImage(), desRect.left,
+				desRect.top, desRect.right, desRect.bottom, srcLeft, srcTop,
+				srcRight, srcBottom, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D#
+	 * drawBitmap(uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.Transform,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint)
+	 */
+	@Override
+	public void drawBitmap(IImage bitmap, Transform transform, DrawPaint paint) {
+		// AffineTransform takes its coefficients in column order
+		mTransform.setTransform(transform.scaleX, transform.skewY,
+				transform.skewX, transform.scaleY, transform.transX,
+				transform.transY);
+
+		// Compose with the current scale, restoring it once drawn
+		AffineTransform savedTransform = mGraphics.getTransform();
+		mGraphics.transform(mTransform);
+
+		setInterpolation(paint);
+		mGraphics.drawImage(((Java2DImage) bitmap).getImage(), 0, 0, null);
+
+		mGraphics.setTransform(savedTransform);
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods: Conversion
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Set the current colour from the specified paint, using the default
+	 * paint colour (opaque black) if there is no paint
+	 *
+	 * @param paint
+	 *            Paint to take the colour from, or null
+	 */
+	private void setColour(DrawPaint paint) {
+		mGraphics.setColor(new Color(paint == null ? 0xFF000000
+				: paint.colour, true));
+	}
+
+	/**
+	 * Set the image interpolation from the specified paint. As with the
+	 * canvas binding, images are only filtered if the paint asks for it.
+	 *
+	 * @param paint
+	 *            Paint to take the filtering from, or null
+	 */
+	private void setInterpolation(DrawPaint paint) {
+		mGraphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+				paint != null && paint.filterBitmap
+						? RenderingHints.VALUE_INTERPOLATION_BILINEAR
+						: RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+	}
+}
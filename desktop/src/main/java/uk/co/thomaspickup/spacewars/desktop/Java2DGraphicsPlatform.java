@@ -0,0 +1,136 @@
+package uk.co.thomaspickup.spacewars.desktop;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphics2D;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphicsPlatform;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect;
+
+/**
+ * Java2D binding of the graphics platform, backed by BufferedImages. Unlike
+ * the software binding, text is rendered and images are loaded from the game's
+ * asset files.
+ *
+ * @version 1.0
+ */
+public class Java2DGraphicsPlatform implements IGraphicsPlatform {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Render context used to measure text
+	 */
+	private final FontRenderContext mFontRenderContext = new FontRenderContext(
+			null, true, true);
+
+	/**
+	 * Directory holding the game's asset files
+	 */
+	private File mAssetDirectory;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new platform loading images from the specified directory
+	 *
+	 * @param assetDirectory
+	 *            Directory holding the game's asset files
+	 */
+	public Java2DGraphicsPlatform(File assetDirectory) {
+		mAssetDirectory = assetDirectory;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Load the specified image from the asset directory
+	 *
+	 * @param imageFile
+	 *            Path of the image, relative to the asset directory
+	 * @return Loaded image
+	 * @throws IOException
+	 *             if the image could not be read
+	 */
+	public IImage loadImage(String imageFile) throws IOException {
+		BufferedImage image = ImageIO.read(new File(mAssetDirectory, imageFile));
+		if (image == null)
+			throw new IOException("Could not decode image " + imageFile);
+
+		// Convert the image into the same format as the images drawn onto
+		BufferedImage converted = new BufferedImage(image.getWidth(),
+				image.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+		Graphics2D graphics = converted.createGraphics();
+		graphics.drawImage(image, 0, 0, null);
+		graphics.dispose();
+		return new Java2DImage(converted);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphicsPlatform#
+	 * createImage(int, int)
+	 */
+	@Override
+	public IImage createImage(int width, int height) {
+		return new Java2DImage(new BufferedImage(width, height,
+				BufferedImage.TYPE_INT_RGB));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphicsPlatform#
+	 * createGraphics(uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage)
+	 */
+	@Override
+	public IGraphics2D createGraphics(IImage image) {
+		return new Java2DGraphics2D(((Java2DImage) image).getImage()
+				.createGraphics(), image.getWidth(), image.getHeight());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IGraphicsPlatform#
+	 * getTextBounds(java.lang.String,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.DrawPaint,
+	 * uk.co.thomaspickup.spacewars.gage.engine.graphics.IntRect)
+	 */
+	@Override
+	public void getTextBounds(String text, DrawPaint paint, IntRect bounds) {
+		Rectangle2D textBounds = getFont(paint.textSize).getStringBounds(text,
+				mFontRenderContext);
+		bounds.set((int) Math.floor(textBounds.getMinX()),
+				(int) Math.floor(textBounds.getMinY()),
+				(int) Math.ceil(textBounds.getMaxX()),
+				(int) Math.ceil(textBounds.getMaxY()));
+	}
+
+	/**
+	 * Return the font used to draw text of the specified size
+	 *
+	 * @param textSize
+	 *            Text size in pixels
+	 * @return Font of the specified size
+	 */
+	static Font getFont(float textSize) {
+		return new Font(Font.SANS_SERIF, Font.PLAIN, 1).deriveFont(textSize);
+	}
+}
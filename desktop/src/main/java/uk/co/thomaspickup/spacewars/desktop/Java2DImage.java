@@ -0,0 +1,90 @@
+package uk.co.thomaspickup.spacewars.desktop;
+
+import java.awt.image.BufferedImage;
+
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage;
+
+/**
+ * Java2D binding of the image interface, backed by a BufferedImage.
+ *
+ * @version 1.0
+ */
+public class Java2DImage implements IImage {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Image wrapped by this instance
+	 */
+	private BufferedImage mImage;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new image wrapping the specified buffered image
+	 *
+	 * @param image
+	 *            Buffered image to wrap
+	 */
+	public Java2DImage(BufferedImage image) {
+		mImage = image;
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Return the buffered image wrapped by this instance
+	 *
+	 * @return Buffered image
+	 */
+	public BufferedImage getImage() {
+		return mImage;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage#getWidth()
+	 */
+	@Override
+	public int getWidth() {
+		return mImage.getWidth();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage#getHeight()
+	 */
+	@Override
+	public int getHeight() {
+		return mImage.getHeight();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage#getByteCount()
+	 */
+	@Override
+	public int getByteCount() {
+		return mImage.getWidth() * mImage.getHeight()
+				* mImage.getColorModel().getPixelSize() / 8;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IImage#dispose()
+	 */
+	@Override
+	public void dispose() {
+		mImage.flush();
+	}
+}
@@ -0,0 +1,113 @@
+package uk.co.thomaspickup.spacewars.desktop;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.PerformanceOverlay;
+import uk.co.thomaspickup.spacewars.gage.engine.debug.Tracer;
+import uk.co.thomaspickup.spacewars.gage.engine.graphics.IRenderSurface;
+import uk.co.thomaspickup.spacewars.gage.world.GameScreen;
+
+/**
+ * Render surface that draws game screens into an offscreen BufferedImage
+ * through the Java2D graphics binding. Rendering happens synchronously on the
+ * calling thread, so the surface can be used without a display.
+ *
+ * @version 1.0
+ */
+public class OffscreenRenderSurface implements IRenderSurface {
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Properties
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Image holding the most recently rendered frame
+	 */
+	private BufferedImage mFrame;
+
+	/**
+	 * Graphics instance handed to the game screens
+	 */
+	private Java2DGraphics2D mGraphics2D = new Java2DGraphics2D();
+
+	/**
+	 * Performance overlay drawn over each screen, or null
+	 */
+	private PerformanceOverlay mPerformanceOverlay;
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Constructors
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a new render surface of the specified size
+	 *
+	 * @param width
+	 *            Width of the surface in pixels
+	 * @param height
+	 *            Height of the surface in pixels
+	 */
+	public OffscreenRenderSurface(int width, int height) {
+		mFrame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+	}
+
+	// /////////////////////////////////////////////////////////////////////////
+	// Methods
+	// /////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Return the image holding the most recently rendered frame. The image is
+	 * reused by the next render.
+	 *
+	 * @return Rendered frame
+	 */
+	public BufferedImage getFrame() {
+		return mFrame;
+	}
+
+	/**
+	 * Set the performance overlay drawn over each screen
+	 *
+	 * @param performanceOverlay
+	 *            Performance overlay, or null
+	 */
+	public void setPerformanceOverlay(PerformanceOverlay performanceOverlay) {
+		mPerformanceOverlay = performanceOverlay;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see uk.co.thomaspickup.spacewars.gage.engine.graphics.IRenderSurface#
+	 * render(uk.co.thomaspickup.spacewars.gage.engine.ElapsedTime,
+	 * uk.co.thomaspickup.spacewars.gage.world.GameScreen)
+	 */
+	@Override
+	public void render(ElapsedTime elapsedTime, GameScreen screenToRender) {
+		// Each frame starts from a fresh graphics state, as a canvas does
+		Graphics2D graphics = mFrame.createGraphics();
+		Tracer.beginSection("GameScreen.draw", screenToRender.getName());
+		try {
+			mGraphics2D.setGraphics(graphics, mFrame.getWidth(),
+					mFrame.getHeight());
+			screenToRender.draw(elapsedTime, mGraphics2D);
+		} finally {
+			graphics.dispose();
+			Tracer.endSection();
+		}
+
+		// Draw the overlay on a fresh graphics state, as the canvas does
+		if (mPerformanceOverlay != null && mPerformanceOverlay.isEnabled()) {
+			graphics = mFrame.createGraphics();
+			try {
+				mGraphics2D.setGraphics(graphics, mFrame.getWidth(),
+						mFrame.getHeight());
+				mPerformanceOverlay.draw(mGraphics2D);
+			} finally {
+				graphics.dispose();
+			}
+		}
+	}
+}
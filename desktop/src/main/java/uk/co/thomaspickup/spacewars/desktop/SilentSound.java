@@ -0,0 +1,31 @@
+package uk.co.thomaspickup.spacewars.desktop;
+
+import uk.co.thomaspickup.spacewars.gage.engine.audio.Sound;
+
+/**
+ * Sound that plays nothing, standing in for the game's sounds as there is no
+ * SoundPool on the desktop.
+ *
+ * @version 1.0
+ */
+public class SilentSound extends Sound {
+
+	/**
+	 * Create a new silent sound
+	 */
+	public SilentSound() {
+		super(null, 0);
+	}
+
+	@Override
+	public void play() {
+	}
+
+	@Override
+	public void play(float volume) {
+	}
+
+	@Override
+	public void play(float leftVolume, float rightVolume) {
+	}
+}